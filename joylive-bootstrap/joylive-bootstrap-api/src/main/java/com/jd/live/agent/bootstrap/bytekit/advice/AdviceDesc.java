@@ -39,6 +39,12 @@ public class AdviceDesc implements PluginListener {
     @Getter
     private final String key;
 
+    /**
+     * The slot of this advice in the dispatch table of {@link AdviceHandler}, which is woven into the advised methods.
+     */
+    @Getter
+    private final int slot;
+
     /**
      * A list of interceptors associated with this advice.
      */
@@ -61,7 +67,18 @@ public class AdviceDesc implements PluginListener {
      * @param key the unique key for the advice
      */
     public AdviceDesc(String key) {
+        this(key, -1);
+    }
+
+    /**
+     * Constructs a new AdviceDesc instance with a specified key and slot.
+     *
+     * @param key  the unique key for the advice
+     * @param slot the slot of the advice in the dispatch table
+     */
+    public AdviceDesc(String key, int slot) {
         this.key = key;
+        this.slot = slot;
     }
 
     /**
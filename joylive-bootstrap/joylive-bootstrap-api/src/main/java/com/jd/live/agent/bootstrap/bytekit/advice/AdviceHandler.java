@@ -20,6 +20,7 @@ import com.jd.live.agent.bootstrap.logger.Logger;
 import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.bootstrap.plugin.definition.Interceptor;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -38,6 +39,17 @@ public class AdviceHandler {
      */
     private static final Map<String, AdviceDesc> advices = new ConcurrentHashMap<>(1000);
 
+    /**
+     * The dispatch table of the advices indexed by their slots. The slots are never reused, so a method woven with
+     * the slot of a removed advice finds nothing.
+     */
+    private static volatile AdviceDesc[] slots = new AdviceDesc[1024];
+
+    /**
+     * The next slot, guarded by the lock of {@link #advices}.
+     */
+    private static int nextSlot;
+
     /**
      * Private constructor to prevent instantiation.
      */
@@ -63,6 +75,21 @@ public class AdviceHandler {
         }
     }
 
+    /**
+     * Handles the entry point for a given execution context and advice slot.
+     *
+     * @param <T>     the type of the execution context
+     * @param context the execution context
+     * @param slot    the slot of the advice
+     * @throws Throwable if any exception occurs during interception
+     */
+    public static <T extends ExecutableContext> void onEnter(final T context, final int slot) throws Throwable {
+        AdviceDesc adviceDesc = getAdvice(slot);
+        if (adviceDesc != null) {
+            onEnter(context, adviceDesc.getInterceptors());
+        }
+    }
+
     /**
      * Handles the entry point for a given execution context and a list of interceptors.
      *
@@ -75,7 +102,11 @@ public class AdviceHandler {
         if (context == null || interceptors == null) {
             return;
         }
-        for (Interceptor interceptor : interceptors) {
+        // index loop, the iterator is allocated on every call.
+        int size = interceptors.size();
+        Interceptor interceptor;
+        for (int i = 0; i < size; i++) {
+            interceptor = interceptors.get(i);
             if (logger.isDebugEnabled()) {
                 logger.debug(String.format("enter [%s], interceptor is [%s].", context.getDescription(), interceptor.getClass().getName()));
             }
@@ -104,6 +135,21 @@ public class AdviceHandler {
         }
     }
 
+    /**
+     * Handles the exit point for a given execution context and advice slot.
+     *
+     * @param <T>     the type of the execution context
+     * @param context the execution context
+     * @param slot    the slot of the advice
+     * @throws Throwable if any exception occurs during interception
+     */
+    public static <T extends ExecutableContext> void onExit(final T context, final int slot) throws Throwable {
+        AdviceDesc adviceDesc = getAdvice(slot);
+        if (adviceDesc != null) {
+            onExit(context, adviceDesc.getInterceptors());
+        }
+    }
+
     /**
      * Handles the exit point for a given execution context and a list of interceptors.
      *
@@ -162,7 +208,35 @@ public class AdviceHandler {
      * @return the AdviceDesc instance
      */
     public static AdviceDesc getOrCreate(final String adviceKey) {
-        return advices.computeIfAbsent(adviceKey, AdviceDesc::new);
+        AdviceDesc result = advices.get(adviceKey);
+        if (result == null) {
+            synchronized (advices) {
+                result = advices.get(adviceKey);
+                if (result == null) {
+                    result = new AdviceDesc(adviceKey, nextSlot++);
+                    AdviceDesc[] table = slots;
+                    if (result.getSlot() >= table.length) {
+                        table = Arrays.copyOf(table, table.length << 1);
+                    }
+                    table[result.getSlot()] = result;
+                    // publish the slot before the advice is woven.
+                    slots = table;
+                    advices.put(adviceKey, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the AdviceDesc instance at the given slot.
+     *
+     * @param slot the slot of the advice
+     * @return the AdviceDesc instance, or null if it's not found or removed
+     */
+    public static AdviceDesc getAdvice(final int slot) {
+        AdviceDesc[] table = slots;
+        return slot >= 0 && slot < table.length ? table[slot] : null;
     }
 
     /**
@@ -171,7 +245,14 @@ public class AdviceHandler {
      * @param adviceKey the unique key of the advice to be removed
      */
     public static void remove(final String adviceKey) {
-        advices.remove(adviceKey);
+        synchronized (advices) {
+            AdviceDesc adviceDesc = advices.remove(adviceKey);
+            if (adviceDesc != null && adviceDesc.getSlot() >= 0) {
+                AdviceDesc[] table = slots;
+                table[adviceDesc.getSlot()] = null;
+                slots = table;
+            }
+        }
     }
 
 }
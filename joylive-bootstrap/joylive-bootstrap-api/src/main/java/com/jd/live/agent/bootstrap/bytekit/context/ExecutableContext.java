@@ -33,22 +33,22 @@ public abstract class ExecutableContext extends AbstractAttributes {
     /**
      * The id of the executable
      */
-    protected final long id;
+    protected long id;
 
     /**
      * The type of the executable.
      */
-    protected final Class<?> type;
+    protected Class<?> type;
 
     /**
      * The arguments passed to the executable.
      */
-    protected final Object[] arguments;
+    protected Object[] arguments;
 
     /**
      * A description of the executable context.
      */
-    protected final String description;
+    protected String description;
 
     /**
      * The target object of the executable context.
@@ -78,6 +78,25 @@ public abstract class ExecutableContext extends AbstractAttributes {
         this.id = COUNTER.incrementAndGet();
     }
 
+    /**
+     * Resets this context for a new execution, which is used by the pooled contexts.
+     *
+     * @param type        the type of the executable
+     * @param arguments   the arguments passed to the executable
+     * @param description a description of the executable context
+     */
+    protected void reset(final Class<?> type, final Object[] arguments, final String description) {
+        this.type = type;
+        this.arguments = arguments;
+        this.description = description;
+        // a new id, so a lock held by the previous execution is not reentered.
+        this.id = COUNTER.incrementAndGet();
+        this.target = null;
+        this.throwable = null;
+        this.lock = null;
+        clearAttributes();
+    }
+
     /**
      * Checks if the execution should be skipped.
      *
@@ -30,10 +30,10 @@ public class MethodContext extends ExecutableContext {
      * The Method instance representing the method to be executed.
      */
     @Getter
-    private final Method method;
+    private Method method;
 
     @Getter
-    private final boolean origin;
+    private boolean origin;
 
     /**
      * The result of the method execution.
@@ -65,6 +65,26 @@ public class MethodContext extends ExecutableContext {
         this.origin = origin;
     }
 
+    /**
+     * Resets this context for a new execution of the method, which is used by {@link MethodContextPool}.
+     *
+     * @param type        The class type where the method is declared.
+     * @param target      The instance on which the method will be executed.
+     * @param method      The method to be executed.
+     * @param arguments   The arguments to be passed to the method.
+     * @param description A description of the execution context.
+     * @param origin      A flag to indicate that it will invoke origin method.
+     */
+    protected void reset(final Class<?> type, final Object target, final Method method,
+                         final Object[] arguments, final String description, final boolean origin) {
+        super.reset(type, arguments, description);
+        super.setTarget(target);
+        this.method = method;
+        this.origin = origin;
+        this.result = null;
+        this.skip = false;
+    }
+
     /**
      * Checks if the method execution is set to be skipped.
      *
@@ -0,0 +1,133 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.bootstrap.bytekit.context;
+
+import java.lang.reflect.Method;
+
+/**
+ * A thread-local pool of the method contexts, which lets the advices of the hot methods reuse the contexts instead of
+ * allocating a new one on every call.
+ * <p>
+ * The contexts of a thread are kept as a stack indexed by the depth of the nested intercepted calls. A context is
+ * reset when it's acquired and cleared when it's released on the exit of the method, so an interceptor must not keep
+ * the context or its attributes after the exit, e.g. in an asynchronous callback. That's why the pool is disabled by
+ * default and is enabled by {@code agent.enhance.contextPoolEnabled}.
+ *
+ * @since 1.6.0
+ */
+public class MethodContextPool {
+
+    /**
+     * The maximum depth of the pooled contexts, the deeper calls allocate their contexts.
+     */
+    private static final int MAX_DEPTH = 64;
+
+    private static final ThreadLocal<ContextStack> STACKS = ThreadLocal.withInitial(ContextStack::new);
+
+    private static volatile boolean enabled;
+
+    private MethodContextPool() {
+    }
+
+    /**
+     * Checks if the pool is enabled.
+     *
+     * @return true if the pool is enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the pool.
+     *
+     * @param enabled true to enable the pool
+     */
+    public static void setEnabled(boolean enabled) {
+        MethodContextPool.enabled = enabled;
+    }
+
+    /**
+     * Acquires a context for the execution of the method, which is reused from the pool if it's enabled.
+     *
+     * @param type        The class type where the method is declared.
+     * @param target      The instance on which the method will be executed.
+     * @param method      The method to be executed.
+     * @param arguments   The arguments to be passed to the method, which are not copied.
+     * @param description A description of the execution context.
+     * @return the method context, which should be released by {@link #release(MethodContext)}
+     */
+    public static MethodContext acquire(final Class<?> type, final Object target, final Method method,
+                                        final Object[] arguments, final String description) {
+        if (!enabled) {
+            return new MethodContext(type, target, method, arguments, description, false);
+        }
+        ContextStack stack = STACKS.get();
+        int depth = stack.depth;
+        if (depth >= MAX_DEPTH) {
+            return new MethodContext(type, target, method, arguments, description, false);
+        }
+        PooledMethodContext result = stack.contexts[depth];
+        if (result == null) {
+            result = new PooledMethodContext(depth);
+            stack.contexts[depth] = result;
+        }
+        result.reset(type, target, method, arguments, description, false);
+        stack.depth = depth + 1;
+        return result;
+    }
+
+    /**
+     * Releases the context acquired by {@link #acquire(Class, Object, Method, Object[], String)}.
+     * <p>
+     * The contexts of the nested calls are released as well, in case their exits were not executed.
+     *
+     * @param context the method context
+     */
+    public static void release(final MethodContext context) {
+        if (context instanceof PooledMethodContext) {
+            PooledMethodContext pooled = (PooledMethodContext) context;
+            ContextStack stack = STACKS.get();
+            if (stack.contexts[pooled.depth] == pooled) {
+                pooled.reset(null, null, null, null, null, false);
+                stack.depth = pooled.depth;
+            }
+        }
+    }
+
+    /**
+     * The pooled contexts of a thread.
+     */
+    private static class ContextStack {
+
+        private final PooledMethodContext[] contexts = new PooledMethodContext[MAX_DEPTH];
+
+        private int depth;
+    }
+
+    /**
+     * A method context owned by a position of the stack.
+     */
+    private static class PooledMethodContext extends MethodContext {
+
+        private final int depth;
+
+        PooledMethodContext(int depth) {
+            super(null, null, null, null, null, false);
+            this.depth = depth;
+        }
+    }
+}
@@ -84,4 +84,13 @@ public abstract class AbstractAttributes implements Attributes {
             attributes.forEach(consumer);
         }
     }
+
+    /**
+     * Removes all the attributes, and keeps the map for reuse.
+     */
+    protected void clearAttributes() {
+        if (attributes != null) {
+            attributes.clear();
+        }
+    }
 }
\ No newline at end of file
@@ -15,6 +15,7 @@
  */
 package com.jd.live.agent.core.bytekit;
 
+import com.jd.live.agent.core.bytekit.transformer.MatchMetric;
 import com.jd.live.agent.core.extension.annotation.Extensible;
 
 import java.lang.instrument.Instrumentation;
@@ -53,4 +54,13 @@ public interface ByteSupplier {
      * @param loaders         the class loaders
      */
     void export(Instrumentation instrumentation, Map<String, Set<String>> targets, ClassLoader... loaders);
-}
\ No newline at end of file
+
+    /**
+     * Returns the metric of matching the loaded classes against the plugins.
+     *
+     * @return the metric, or null if it's not supported
+     */
+    default MatchMetric getMatchMetric() {
+        return null;
+    }
+}
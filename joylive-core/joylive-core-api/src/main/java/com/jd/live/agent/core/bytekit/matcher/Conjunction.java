@@ -15,9 +15,7 @@
  */
 package com.jd.live.agent.core.bytekit.matcher;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 
 /**
  * Represents a conjunction of element matchers, where all provided matchers must match
@@ -26,7 +24,7 @@ import java.util.List;
  * @param <T> The type of elements that this conjunction will attempt to match.
  * @since 1.0.0
  */
-public class Conjunction<T> extends AbstractJunction<T> {
+public class Conjunction<T> extends AbstractJunction<T> implements NameIndexable {
 
     /**
      * A list of matchers that are combined in this conjunction.
@@ -62,4 +60,17 @@ public class Conjunction<T> extends AbstractJunction<T> {
         }
         return true;
     }
+
+    @Override
+    public Set<String> getNames() {
+        // all the matchers must match, so the smallest names are enough
+        Set<String> result = null;
+        for (ElementMatcher<? super T> matcher : matchers) {
+            Set<String> names = NameIndexable.getNames(matcher);
+            if (names != null && (result == null || names.size() < result.size())) {
+                result = names;
+            }
+        }
+        return result;
+    }
 }
@@ -15,9 +15,7 @@
  */
 package com.jd.live.agent.core.bytekit.matcher;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 
 /**
  * Represents a disjunction of element matchers, where at least one of the provided matchers
@@ -26,7 +24,7 @@ import java.util.List;
  * @param <T> The type of elements that this disjunction will attempt to match.
  * @since 1.0.0
  */
-public class Disjunction<T> extends AbstractJunction<T> {
+public class Disjunction<T> extends AbstractJunction<T> implements NameIndexable {
 
     /**
      * A list of matchers that are combined in this disjunction.
@@ -61,4 +59,18 @@ public class Disjunction<T> extends AbstractJunction<T> {
         }
         return false;
     }
+
+    @Override
+    public Set<String> getNames() {
+        // any of the matchers may match any name
+        Set<String> result = new HashSet<>();
+        for (ElementMatcher<? super T> matcher : matchers) {
+            Set<String> names = NameIndexable.getNames(matcher);
+            if (names == null) {
+                return null;
+            }
+            result.addAll(names);
+        }
+        return result;
+    }
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.bytekit.matcher;
+
+import java.util.Set;
+
+/**
+ * A matcher which can tell the exact names it's able to match, so the candidates can be found by a hash lookup of
+ * the name instead of evaluating the matcher against every element.
+ *
+ * @since 1.6.0
+ */
+public interface NameIndexable {
+
+    /**
+     * Returns the exact names this matcher is able to match.
+     *
+     * @return the names, or null if the matcher may match any name
+     */
+    Set<String> getNames();
+
+    /**
+     * Returns the exact names the matcher is able to match.
+     *
+     * @param matcher the matcher
+     * @return the names, or null if the matcher may match any name
+     */
+    static Set<String> getNames(Object matcher) {
+        return matcher instanceof NameIndexable ? ((NameIndexable) matcher).getNames() : null;
+    }
+}
@@ -17,13 +17,15 @@ package com.jd.live.agent.core.bytekit.matcher;
 
 import com.jd.live.agent.core.bytekit.type.NamedElement;
 
+import java.util.Set;
+
 /**
  * NameMatcher
  *
  * @param <T> Match target type
  * @since 1.0.0
  */
-public class NameMatcher<T extends NamedElement> extends AbstractJunction<T> {
+public class NameMatcher<T extends NamedElement> extends AbstractJunction<T> implements NameIndexable {
 
     private final ElementMatcher<String> matcher;
 
@@ -36,4 +38,9 @@ public class NameMatcher<T extends NamedElement> extends AbstractJunction<T> {
         return target != null && matcher.match(target.getActualName());
     }
 
+    @Override
+    public Set<String> getNames() {
+        return NameIndexable.getNames(matcher);
+    }
+
 }
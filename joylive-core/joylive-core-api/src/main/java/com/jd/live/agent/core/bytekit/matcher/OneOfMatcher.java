@@ -16,6 +16,7 @@
 package com.jd.live.agent.core.bytekit.matcher;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -24,7 +25,7 @@ import java.util.Set;
  *
  * @since 1.0.0
  */
-public class OneOfMatcher extends AbstractJunction<String> {
+public class OneOfMatcher extends AbstractJunction<String> implements NameIndexable {
 
     private final Set<String> values;
 
@@ -40,4 +41,9 @@ public class OneOfMatcher extends AbstractJunction<String> {
     public boolean match(String target) {
         return values != null && values.contains(target);
     }
+
+    @Override
+    public Set<String> getNames() {
+        return values == null ? Collections.emptySet() : values;
+    }
 }
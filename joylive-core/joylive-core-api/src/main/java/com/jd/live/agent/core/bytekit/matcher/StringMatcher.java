@@ -15,6 +15,9 @@
  */
 package com.jd.live.agent.core.bytekit.matcher;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * StringMatcher
  *
@@ -22,7 +25,7 @@ package com.jd.live.agent.core.bytekit.matcher;
  *
  * @since 1.0.0
  */
-public class StringMatcher extends AbstractJunction<String> {
+public class StringMatcher extends AbstractJunction<String> implements NameIndexable {
 
     private final String value;
 
@@ -38,6 +41,11 @@ public class StringMatcher extends AbstractJunction<String> {
         return target != null && mode.matches(value, target);
     }
 
+    @Override
+    public Set<String> getNames() {
+        return mode == OperationMode.EQUALS_FULLY && value != null ? Collections.singleton(value) : null;
+    }
+
     /**
      * Operation Mode
      *
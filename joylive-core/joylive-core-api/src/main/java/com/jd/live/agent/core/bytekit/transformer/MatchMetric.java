@@ -0,0 +1,96 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.bytekit.transformer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the time spent on matching the loaded classes against the plugin definitions, which is a part of the
+ * startup time of the application.
+ *
+ * @since 1.6.0
+ */
+public class MatchMetric {
+
+    private final LongAdder types = new LongAdder();
+
+    private final LongAdder candidates = new LongAdder();
+
+    private final LongAdder matches = new LongAdder();
+
+    private final LongAdder nanos = new LongAdder();
+
+    /**
+     * Records the matching of a loaded class.
+     *
+     * @param candidate true if the class is evaluated by the matchers of the plugin definitions
+     * @param matched   true if the class is matched by a plugin definition
+     * @param nanos     the elapsed time in nanoseconds
+     */
+    public void record(boolean candidate, boolean matched, long nanos) {
+        types.increment();
+        if (candidate) {
+            candidates.increment();
+        }
+        if (matched) {
+            matches.increment();
+        }
+        this.nanos.add(nanos);
+    }
+
+    /**
+     * Returns the number of the loaded classes.
+     *
+     * @return the number of the loaded classes
+     */
+    public long getTypes() {
+        return types.sum();
+    }
+
+    /**
+     * Returns the number of the classes evaluated by the matchers, the others are filtered by the name index.
+     *
+     * @return the number of the candidates
+     */
+    public long getCandidates() {
+        return candidates.sum();
+    }
+
+    /**
+     * Returns the number of the matched classes.
+     *
+     * @return the number of the matched classes
+     */
+    public long getMatches() {
+        return matches.sum();
+    }
+
+    /**
+     * Returns the time spent on matching in milliseconds.
+     *
+     * @return the time in milliseconds
+     */
+    public long getMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
+    }
+
+    @Override
+    public String toString() {
+        return "types=" + getTypes() + ", candidates=" + getCandidates() + ", matches=" + getMatches()
+                + ", time=" + getMillis() + "ms";
+    }
+}
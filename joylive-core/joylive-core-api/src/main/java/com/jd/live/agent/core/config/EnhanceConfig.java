@@ -60,6 +60,16 @@ public class EnhanceConfig {
      */
     private Set<String> edgeClasses;
 
+    /**
+     * Whether the transformed classes are cached on disk and reused by the next start.
+     */
+    private boolean cacheEnabled;
+
+    /**
+     * The directory of the transformed classes, default is the cache directory under the output path of the agent.
+     */
+    private String cachePath;
+
     public boolean isExclude(Class<?> type) {
         String name = type.getName();
         if (excludeTypes != null) {
@@ -90,6 +90,17 @@ public class AgentEvent {
         return new AgentEvent(EventType.AGENT_FAILURE, message, throwable);
     }
 
+    /**
+     * Creates an AgentEvent indicating that a phase of the agent startup is completed.
+     *
+     * @param phase   the name of the phase
+     * @param elapsed the elapsed time of the phase in milliseconds
+     * @return a new AgentPhaseEvent of type AGENT_PHASE_READY
+     */
+    public static AgentEvent onAgentPhaseReady(String phase, long elapsed) {
+        return new AgentPhaseEvent(phase, elapsed);
+    }
+
     /**
      * Creates an AgentEvent indicating that the agent service is ready.
      *
@@ -188,6 +199,11 @@ public class AgentEvent {
          */
         AGENT_FAILURE,
 
+        /**
+         * Indicates that a phase of the agent startup is completed.
+         */
+        AGENT_PHASE_READY,
+
         /**
          * Indicates that all agent's services have started.
          */
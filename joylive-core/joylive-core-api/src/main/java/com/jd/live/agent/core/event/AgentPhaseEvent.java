@@ -0,0 +1,50 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.event;
+
+import lombok.Getter;
+
+/**
+ * An event indicating that a phase of the agent startup is completed, which carries the elapsed time of the phase,
+ * so the slow phases of the startup can be found by the subscribers.
+ *
+ * @since 1.6.0
+ */
+@Getter
+public class AgentPhaseEvent extends AgentEvent {
+
+    /**
+     * The name of the phase.
+     */
+    private final String phase;
+
+    /**
+     * The elapsed time of the phase in milliseconds.
+     */
+    private final long elapsed;
+
+    /**
+     * Constructs a new AgentPhaseEvent.
+     *
+     * @param phase   The name of the phase.
+     * @param elapsed The elapsed time of the phase in milliseconds.
+     */
+    public AgentPhaseEvent(String phase, long elapsed) {
+        super(EventType.AGENT_PHASE_READY, "Startup phase " + phase + " is completed in " + elapsed + "ms.");
+        this.phase = phase;
+        this.elapsed = elapsed;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.event.config;
+
+/**
+ * The policy applied when an event is offered to a full publisher queue.
+ *
+ * @since 1.6.0
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Drops the new event, the offer fails after the enqueue timeout.
+     */
+    DROP,
+
+    /**
+     * Overwrites the oldest pending event with the new one, so the recent events are always kept.
+     */
+    OVERWRITE
+
+}
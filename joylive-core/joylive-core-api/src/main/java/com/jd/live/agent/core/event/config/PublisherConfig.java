@@ -40,6 +40,9 @@ public class PublisherConfig {
     // batch size
     private int batchSize = BATCH_SIZE;
 
+    // policy applied when the queue is full
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
     public PublisherConfig() {
     }
 
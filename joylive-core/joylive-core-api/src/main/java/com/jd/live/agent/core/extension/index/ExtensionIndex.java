@@ -0,0 +1,120 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.extension.index;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * A binary index of the extensions in a jar, which is generated by {@link ExtensionIndexProcessor} at build time
+ * from the service provider configuration files, so the extensions of all the extensible types can be read in one
+ * pass instead of scanning {@code META-INF/services/} for each type.
+ *
+ * @since 1.6.0
+ */
+public class ExtensionIndex {
+
+    /**
+     * The resource name of the index.
+     */
+    public static final String RESOURCE = "META-INF/joylive/extensions.idx";
+
+    private static final int MAGIC = 0x4A4C4958;
+
+    private static final int VERSION = 1;
+
+    /**
+     * The provider class names keyed by the extensible type name.
+     */
+    private final Map<String, Set<String>> providers = new LinkedHashMap<>();
+
+    /**
+     * Adds a provider of the extensible type.
+     *
+     * @param extensible the name of the extensible type
+     * @param provider   the class name of the provider
+     */
+    public void add(String extensible, String provider) {
+        providers.computeIfAbsent(extensible, k -> new LinkedHashSet<>()).add(provider);
+    }
+
+    /**
+     * Returns the provider class names of the extensible type.
+     *
+     * @param extensible the name of the extensible type
+     * @return the provider class names in the order of the configuration files, or null if the type is not indexed
+     */
+    public Collection<String> getProviders(String extensible) {
+        Set<String> result = providers.get(extensible);
+        return result == null ? null : Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Checks if the index is empty.
+     *
+     * @return true if no type is indexed
+     */
+    public boolean isEmpty() {
+        return providers.isEmpty();
+    }
+
+    /**
+     * Writes the index.
+     *
+     * @param out the output stream, which is not closed
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out));
+        dos.writeInt(MAGIC);
+        dos.writeInt(VERSION);
+        dos.writeInt(providers.size());
+        for (Map.Entry<String, Set<String>> entry : providers.entrySet()) {
+            dos.writeUTF(entry.getKey());
+            dos.writeInt(entry.getValue().size());
+            for (String provider : entry.getValue()) {
+                dos.writeUTF(provider);
+            }
+        }
+        dos.flush();
+    }
+
+    /**
+     * Reads an index and merges it into this index.
+     *
+     * @param in the input stream, which is not closed
+     * @throws IOException if an I/O error occurs or the index is malformed
+     */
+    public void read(InputStream in) throws IOException {
+        DataInputStream dis = new DataInputStream(new BufferedInputStream(in));
+        if (dis.readInt() != MAGIC) {
+            throw new IOException("Malformed extension index.");
+        }
+        int version = dis.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported extension index version " + version);
+        }
+        int types = dis.readInt();
+        for (int i = 0; i < types; i++) {
+            String extensible = dis.readUTF();
+            int count = dis.readInt();
+            Set<String> names = providers.computeIfAbsent(extensible, k -> new LinkedHashSet<>());
+            for (int j = 0; j < count; j++) {
+                names.add(dis.readUTF());
+            }
+        }
+    }
+}
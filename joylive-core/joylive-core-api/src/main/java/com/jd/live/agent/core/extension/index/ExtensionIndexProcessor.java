@@ -0,0 +1,195 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.extension.index;
+
+import com.jd.live.agent.core.extension.annotation.Extensible;
+import com.jd.live.agent.core.extension.annotation.Extension;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * An annotation processor which generates the {@link ExtensionIndex} of a jar at build time.
+ * <p>
+ * The index is built from the service provider configuration files in the class output, which are copied there
+ * before compiling, so it always covers all the extensions of the jar even in an incremental build. The classes
+ * annotated with {@link Extension} are checked to be registered as a provider of one of their {@link Extensible}
+ * types, and a warning is reported if not.
+ *
+ * @since 1.6.0
+ */
+@SupportedAnnotationTypes("*")
+public class ExtensionIndexProcessor extends AbstractProcessor {
+
+    private static final String SERVICES = "META-INF/services";
+
+    /**
+     * The extensions compiled in this build, keyed by the binary class name, with their extensible type names.
+     */
+    private final Map<String, Set<String>> extensions = new LinkedHashMap<>();
+
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!generated) {
+                generated = true;
+                generate();
+            }
+        } else {
+            for (Element element : roundEnv.getElementsAnnotatedWith(Extension.class)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    TypeElement type = (TypeElement) element;
+                    Set<String> extensibles = new LinkedHashSet<>();
+                    collectExtensibles(type.asType(), extensibles, new HashSet<>());
+                    extensions.put(getBinaryName(type), extensibles);
+                }
+            }
+        }
+        // never claim the annotations, so the other processors such as lombok still work.
+        return false;
+    }
+
+    /**
+     * Collects the extensible types of the type and its super types.
+     *
+     * @param type        the type
+     * @param extensibles the names of the extensible types
+     * @param visited     the visited types
+     */
+    private void collectExtensibles(TypeMirror type, Set<String> extensibles, Set<String> visited) {
+        for (TypeMirror superType : processingEnv.getTypeUtils().directSupertypes(type)) {
+            if (superType instanceof DeclaredType) {
+                TypeElement element = (TypeElement) ((DeclaredType) superType).asElement();
+                String name = getBinaryName(element);
+                if (visited.add(name)) {
+                    if (element.getAnnotation(Extensible.class) != null) {
+                        extensibles.add(name);
+                    }
+                    collectExtensibles(superType, extensibles, visited);
+                }
+            }
+        }
+    }
+
+    /**
+     * Generates the index from the service provider configuration files, the index is not generated if there is
+     * no configuration file, and the extensions are loaded by scanning in that case.
+     */
+    private void generate() {
+        try {
+            // the filer does not support directories, locate the directory by a file in it.
+            FileObject object = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICES + "/.index");
+            File dir = new File(object.toUri()).getParentFile();
+            File[] files = dir.isDirectory() ? dir.listFiles(File::isFile) : null;
+            ExtensionIndex index = new ExtensionIndex();
+            if (files != null) {
+                Arrays.sort(files);
+                for (File file : files) {
+                    for (String provider : readProviders(file)) {
+                        index.add(file.getName(), provider);
+                    }
+                }
+            }
+            validate(index);
+            if (!index.isEmpty()) {
+                FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ExtensionIndex.RESOURCE);
+                try (OutputStream out = resource.openOutputStream()) {
+                    index.write(out);
+                }
+            }
+        } catch (Throwable e) {
+            // the extensions are still loaded by scanning without the index.
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Failed to generate " + ExtensionIndex.RESOURCE + ", caused by " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reports the compiled extensions which are not registered as a provider of any of their extensible types.
+     *
+     * @param index the index
+     */
+    private void validate(ExtensionIndex index) {
+        for (Map.Entry<String, Set<String>> entry : extensions.entrySet()) {
+            Set<String> extensibles = entry.getValue();
+            if (extensibles.isEmpty()) {
+                continue;
+            }
+            boolean registered = false;
+            for (String extensible : extensibles) {
+                Collection<String> providers = index.getProviders(extensible);
+                if (providers != null && providers.contains(entry.getKey())) {
+                    registered = true;
+                    break;
+                }
+            }
+            if (!registered) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        "Extension " + entry.getKey() + " is not registered in " + SERVICES + "/" + extensibles);
+            }
+        }
+    }
+
+    /**
+     * Reads the provider class names from a service provider configuration file.
+     *
+     * @param file the configuration file
+     * @return the provider class names
+     * @throws IOException if an I/O error occurs
+     */
+    private List<String> readProviders(File file) throws IOException {
+        List<String> result = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String ln;
+            int ci;
+            while ((ln = reader.readLine()) != null) {
+                ci = ln.indexOf('#');
+                if (ci >= 0) {
+                    ln = ln.substring(0, ci);
+                }
+                ln = ln.trim();
+                if (!ln.isEmpty()) {
+                    result.add(ln);
+                }
+            }
+        }
+        return result;
+    }
+
+    private String getBinaryName(TypeElement element) {
+        return processingEnv.getElementUtils().getBinaryName(element).toString();
+    }
+}
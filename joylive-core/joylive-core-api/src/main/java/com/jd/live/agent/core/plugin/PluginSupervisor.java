@@ -24,6 +24,16 @@ import java.util.Set;
  */
 public interface PluginSupervisor {
 
+    /**
+     * Prepares the plugins ahead of the installation, such as creating their class loaders and loading their
+     * definitions, so that the preparation can run in parallel with the other startup tasks.
+     *
+     * @param dynamic Specifies whether the installation should be dynamic.
+     */
+    default void prepare(boolean dynamic) {
+
+    }
+
     /**
      * Installs plugins based on the specified installation mode.
      *
@@ -0,0 +1,182 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.util.cache;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A concurrent cache whose keys are compared by identity and weakly referenced, so an entry is removed
+ * once its key is garbage collected. It's used to attach derived data to framework objects which can not
+ * be modified, without keeping them alive.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public class WeakIdentityCache<K, V> implements Cache<K, V> {
+
+    private final Map<IdentityKey, V> cache = new ConcurrentHashMap<>();
+
+    private final ReferenceQueue<K> queue = new ReferenceQueue<>();
+
+    @Override
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        expunge();
+        return cache.get(new LookupKey(key));
+    }
+
+    /**
+     * Returns the value associated with the key, computing it if absent.
+     *
+     * @param key      the key
+     * @param function the function to compute the value
+     * @return the value associated with the key, or null if the key is null
+     */
+    public V computeIfAbsent(K key, Function<K, V> function) {
+        if (key == null) {
+            return null;
+        }
+        expunge();
+        V result = cache.get(new LookupKey(key));
+        if (result == null) {
+            V value = function.apply(key);
+            if (value != null) {
+                result = cache.putIfAbsent(new WeakKey<>(key, queue), value);
+                result = result == null ? value : result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Associates the value with the key.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(K key, V value) {
+        if (key != null && value != null) {
+            expunge();
+            WeakKey<K> weakKey = new WeakKey<>(key, queue);
+            // replace the existing key, so the old key object is not kept in the map
+            cache.remove(weakKey);
+            cache.put(weakKey, value);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        expunge();
+        return cache.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        expunge();
+        return cache.size();
+    }
+
+    @Override
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Removes the entries whose keys have been garbage collected.
+     */
+    private void expunge() {
+        Reference<? extends K> reference;
+        while ((reference = queue.poll()) != null) {
+            cache.remove((IdentityKey) reference);
+        }
+    }
+
+    /**
+     * A key compared by the identity of its referent.
+     */
+    private interface IdentityKey {
+
+        Object getReferent();
+    }
+
+    /**
+     * A key used to look up the map without creating a weak reference.
+     */
+    private static class LookupKey implements IdentityKey {
+
+        private final Object referent;
+
+        LookupKey(Object referent) {
+            this.referent = referent;
+        }
+
+        @Override
+        public Object getReferent() {
+            return referent;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(referent);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof IdentityKey && ((IdentityKey) obj).getReferent() == referent;
+        }
+    }
+
+    /**
+     * A key stored in the map, which weakly references its referent.
+     */
+    private static class WeakKey<K> extends WeakReference<K> implements IdentityKey {
+
+        private final int hash;
+
+        WeakKey(K referent, ReferenceQueue<K> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public Object getReferent() {
+            return get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            } else if (!(obj instanceof IdentityKey)) {
+                return false;
+            }
+            Object referent = get();
+            return referent != null && referent == ((IdentityKey) obj).getReferent();
+        }
+    }
+}
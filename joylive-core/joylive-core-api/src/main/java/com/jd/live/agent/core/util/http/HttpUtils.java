@@ -65,6 +65,30 @@ public abstract class HttpUtils {
      *                     reading the response, or if the URL is not valid.
      */
     public static <T> HttpResponse<T> get(String uri, Consumer<HttpURLConnection> configure, ObjectReader<Reader, T> reader) throws IOException {
+        return get(uri, configure, null, reader);
+    }
+
+    /**
+     * Performs an HTTP GET request to the specified URI, and notifies the completion with the connection,
+     * so the caller can read the response headers such as the validators of a conditional request.
+     *
+     * @param uri       The URI to send the GET request to.
+     * @param configure A Consumer that accepts an HttpURLConnection which can be used to set up headers,
+     *                  timeouts, or other connection configurations.
+     * @param complete  A BiConsumer that accepts the status and the HttpURLConnection once the response is read,
+     *                  which is not called if an I/O error occurs.
+     * @param reader    An HttpReader functional interface that defines how to read the response body
+     *                  from a Reader and convert it into the expected type T.
+     * @param <T>       The type of the body expected in the HttpResponse.
+     * @return An HttpResponse object containing the status code and the body read from
+     * the response.
+     * @throws IOException If an I/O error occurs while creating the URL object, opening the connection,
+     *                     reading the response, or if the URL is not valid.
+     */
+    public static <T> HttpResponse<T> get(String uri,
+                                          Consumer<HttpURLConnection> configure,
+                                          BiConsumer<HttpStatus, HttpURLConnection> complete,
+                                          ObjectReader<Reader, T> reader) throws IOException {
         if (!uri.contains("://")) {
             uri = "http://" + uri;
         }
@@ -86,19 +110,26 @@ public abstract class HttpUtils {
             // Get the response code
             HttpStatus status = HttpStatus.resolve(connection.getResponseCode());
             // Return the appropriate HttpResponse based on the status code
+            HttpResponse<T> response;
             if (status != null) {
                 switch (status) {
                     case OK:
-                        return new HttpResponse<>(status, getResponse(connection, reader));
+                        response = new HttpResponse<>(status, getResponse(connection, reader));
+                        break;
                     case NOT_MODIFIED:
                     case NOT_FOUND:
-                        return new HttpResponse<>(status, null);
+                        response = new HttpResponse<>(status, null);
+                        break;
                     default:
-                        return status.isError() ? new HttpResponse<>(status, getErrorMessage(connection)) : new HttpResponse<>(status, null);
+                        response = status.isError() ? new HttpResponse<>(status, getErrorMessage(connection)) : new HttpResponse<>(status, null);
                 }
+            } else {
+                response = new HttpResponse<>(status, getErrorMessage(connection));
             }
-            return new HttpResponse<>(status, getErrorMessage(connection));
-
+            if (complete != null) {
+                complete.accept(status, connection);
+            }
+            return response;
         } finally {
             // Disconnect the connection
             connection.disconnect();
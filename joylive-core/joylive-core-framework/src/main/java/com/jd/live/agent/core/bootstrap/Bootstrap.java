@@ -26,6 +26,7 @@ import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.bootstrap.util.option.ValueResolver;
 import com.jd.live.agent.core.Constants;
 import com.jd.live.agent.core.bytekit.ByteSupplier;
+import com.jd.live.agent.core.bytekit.transformer.MatchMetric;
 import com.jd.live.agent.core.classloader.ClassLoaderManager;
 import com.jd.live.agent.core.command.Command;
 import com.jd.live.agent.core.config.*;
@@ -93,6 +94,11 @@ import static com.jd.live.agent.core.extension.condition.ConditionMatcher.DEPEND
 public class Bootstrap implements AgentLifecycle {
     private static final Logger logger = LoggerFactory.getLogger(Bootstrap.class);
 
+    /**
+     * The maximum number of the threads running the startup tasks.
+     */
+    private static final int BOOTSTRAP_THREADS = Math.min(4, Math.max(2, Runtime.getRuntime().availableProcessors()));
+
     /**
      * Instrumentation object provided by the JVM for class instrumentation.
      */
@@ -226,6 +232,16 @@ public class Bootstrap implements AgentLifecycle {
 
     private Shutdown shutdown;
 
+    /**
+     * The elapsed milliseconds of the completed startup phases.
+     */
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    /**
+     * The events of the startup phases completed before the event bus is created.
+     */
+    private final List<AgentEvent> pendingPhases = new ArrayList<>();
+
     /**
      * Constructs a new Bootstrap instance.
      *
@@ -250,49 +266,17 @@ public class Bootstrap implements AgentLifecycle {
     @Override
     public void install() {
         try {
-            agentPath = createAgentPath();
-            conditionMatcher = createConditionMatcher();
-            extensionManager = createExtensionManager(); // depend on conditionMatcher
-            injector = createInjector(); //depend on classloader
-            inject();
-            option = new MapOption(config); // option include bootstrap.properties.
-            classLoaderConfig = createClassLoaderConfig(); //depend on env option
-            classLoaderManager = createClassLoaderManager(); //depend on agentPath and env option
-            supplyEnv(); //depend on classLoaderManager
-            application = createApplication(); //depend on env option
-            setupLogger(); //depend on extensionManager
-            option = loadConfig(); // load config.yaml and merge bootstrap.properties.
-            agentConfig = createAgentConfig(); //depend on option & injector
-            timer = createTimer();
-            timer.start();
-            eventBus = createEventBus(); //depend on extensionManager & option
-            publisher = eventBus.getPublisher(Publisher.SYSTEM);
-            publisher.addHandler((EventProcessor<AgentEvent>) this::onAgentEvent);
-            if (!supportEnhance()) {
-                //depend on agentConfig
-                throw new InitializeException("the jvm version is not supported enhancement.");
-            }
-            configSupervisor = createConfigSupervisor();
-            createSourceSuppliers();  // depend on configWatcher
-            serviceManager = createServiceManager(); //depend on extensionManager & classLoaderManager & eventBus & sourceSuppliers
-            addConfigWatcher(); // depend on serviceManager & configSupervisor
-            byteSupplier = createByteSupplier();
-            pluginManager = createPluginManager(); //depend on context & extensionManager & classLoaderManager & byteSupplier
-            commandManager = createCommandManager();
-            subscriptions = createSubscriptions();
-            subscribe();
-            printExtensions();
-            serviceManager.start().join();
-            // TODO In AgentMain mode, it is necessary to enhance the registry first to obtain the service strategy, and then enhance the routing plugin
-            if (pluginManager.install(dynamic)) {
-                publisher.offer(AgentEvent.onAgentEnhanceReady("Success installing all plugins."));
-            } else {
-                publisher.offer(AgentEvent.onAgentEnhanceFailure("Failed to install plugin.", null));
-            }
+            phases.clear();
+            createTaskGraph().execute();
             shutdown = new Shutdown();
-            shutdown.addHook(new ShutdownHookAdapter(() -> application.setStatus(AppStatus.DESTROYING), 0));
+            shutdown.addHook(new ShutdownHookAdapter(() -> {
+                application.setStatus(AppStatus.DESTROYING);
+                // notify the components which are not stopped as a service, such as the traffic aggregator.
+                publisher.offer(AgentEvent.onApplicationStop("Application is stopping"));
+            }, 0));
             shutdown.addHook(() -> serviceManager.stop());
             shutdown.register();
+            logger.info("Startup phases " + phases);
             publisher.offer(AgentEvent.onAgentReady("Success starting LiveAgent."));
         } catch (Throwable e) {
             // TODO Close resource
@@ -379,6 +363,89 @@ public class Bootstrap implements AgentLifecycle {
         }
     }
 
+    /**
+     * Creates the graph of the startup tasks. The tasks preparing the context run in order, then the policy
+     * services start in parallel with the loading of the plugins, and the plugins are installed at last.
+     *
+     * @return the graph of the startup tasks
+     */
+    private TaskGraph createTaskGraph() {
+        return new TaskGraph("LiveBootstrap", BOOTSTRAP_THREADS, this::onPhase)
+                .add("context", () -> {
+                    agentPath = createAgentPath();
+                    conditionMatcher = createConditionMatcher();
+                    extensionManager = createExtensionManager(); // depend on conditionMatcher
+                    injector = createInjector(); //depend on classloader
+                    inject();
+                    option = new MapOption(config); // option include bootstrap.properties.
+                })
+                .add("classloader", () -> {
+                    classLoaderConfig = createClassLoaderConfig(); //depend on env option
+                    classLoaderManager = createClassLoaderManager(); //depend on agentPath and env option
+                    supplyEnv(); //depend on classLoaderManager
+                }, "context")
+                .add("application", () -> {
+                    application = createApplication(); //depend on env option
+                    setupLogger(); //depend on extensionManager
+                }, "classloader")
+                .add("config", () -> {
+                    option = loadConfig(); // load config.yaml and merge bootstrap.properties.
+                    agentConfig = createAgentConfig(); //depend on option & injector
+                }, "application")
+                .add("eventbus", () -> {
+                    timer = createTimer();
+                    timer.start();
+                    eventBus = createEventBus(); //depend on extensionManager & option
+                    publisher = eventBus.getPublisher(Publisher.SYSTEM);
+                    publisher.addHandler((EventProcessor<AgentEvent>) this::onAgentEvent);
+                    if (!supportEnhance()) {
+                        //depend on agentConfig
+                        throw new InitializeException("the jvm version is not supported enhancement.");
+                    }
+                }, "config")
+                .add("services", () -> {
+                    configSupervisor = createConfigSupervisor();
+                    createSourceSuppliers();  // depend on configWatcher
+                    serviceManager = createServiceManager(); //depend on extensionManager & classLoaderManager & eventBus & sourceSuppliers
+                    addConfigWatcher(); // depend on serviceManager & configSupervisor
+                }, "eventbus")
+                .add("enhancer", () -> byteSupplier = createByteSupplier(), "services")
+                .add("commands", () -> commandManager = createCommandManager(), "services")
+                .add("subscriptions", () -> {
+                    subscriptions = createSubscriptions();
+                    subscribe();
+                }, "services")
+                .add("extensions", this::printExtensions, "enhancer", "commands", "subscriptions")
+                .add("plugins", () -> {
+                    pluginManager = createPluginManager(); //depend on context & extensionManager & classLoaderManager & byteSupplier
+                    pluginManager.prepare(dynamic);
+                }, "enhancer")
+                .add("start", () -> serviceManager.start().join(), "subscriptions")
+                .add("install", () -> {
+                    // TODO In AgentMain mode, it is necessary to enhance the registry first to obtain the service strategy, and then enhance the routing plugin
+                    if (pluginManager.install(dynamic)) {
+                        publisher.offer(AgentEvent.onAgentEnhanceReady("Success installing all plugins."));
+                    } else {
+                        publisher.offer(AgentEvent.onAgentEnhanceFailure("Failed to install plugin.", null));
+                    }
+                }, "plugins", "start", "extensions");
+    }
+
+    /**
+     * Records the elapsed time of a completed startup phase, and publishes it as soon as the event bus is created.
+     *
+     * @param phase   the name of the phase
+     * @param elapsed the elapsed time in milliseconds
+     */
+    private synchronized void onPhase(String phase, long elapsed) {
+        phases.put(phase, elapsed);
+        pendingPhases.add(AgentEvent.onAgentPhaseReady(phase, elapsed));
+        if (publisher != null) {
+            pendingPhases.forEach(publisher::offer);
+            pendingPhases.clear();
+        }
+    }
+
     private void printExtensions() {
         StringBuilder builder = new StringBuilder();
         extensionManager.forEach(extensible -> {
@@ -716,6 +783,10 @@ public class Bootstrap implements AgentLifecycle {
             case APPLICATION_READY:
                 onReady();
                 application.setStatus(AppStatus.READY);
+                MatchMetric metric = byteSupplier == null ? null : byteSupplier.getMatchMetric();
+                if (metric != null) {
+                    logger.info("Matched the loaded classes with plugins at startup, " + metric);
+                }
                 break;
             case APPLICATION_STOP:
                 application.setStatus(AppStatus.DESTROYING);
@@ -0,0 +1,190 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.bootstrap;
+
+import com.jd.live.agent.core.thread.NamedThreadFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+
+/**
+ * A small graph of the startup tasks, which runs each task on a bounded pool as soon as the tasks it depends on are
+ * completed, so the independent tasks run in parallel.
+ * <p>
+ * The dependencies must be added before the tasks depending on them, which keeps the graph acyclic. A failed task
+ * skips all the tasks depending on it, and its exception is thrown by {@link #execute()}.
+ *
+ * @since 1.6.0
+ */
+public class TaskGraph {
+
+    private final String name;
+
+    private final int threads;
+
+    private final BiConsumer<String, Long> listener;
+
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+
+    /**
+     * Constructs a new graph.
+     *
+     * @param name     the name of the graph, which is the prefix of the thread names
+     * @param threads  the maximum number of the threads
+     * @param listener the listener of the completed tasks, which accepts the name and the elapsed milliseconds
+     */
+    public TaskGraph(String name, int threads, BiConsumer<String, Long> listener) {
+        this.name = name;
+        this.threads = Math.max(1, threads);
+        this.listener = listener;
+    }
+
+    /**
+     * Adds a task to the graph.
+     *
+     * @param name    the unique name of the task
+     * @param task    the task
+     * @param depends the names of the tasks it depends on, which must be added before
+     * @return this graph
+     * @throws IllegalArgumentException if the name is duplicated or a dependency is not found
+     */
+    public TaskGraph add(String name, Task task, String... depends) {
+        if (nodes.containsKey(name)) {
+            throw new IllegalArgumentException("Startup task " + name + " is duplicated.");
+        }
+        List<Node> dependencies = new ArrayList<>(depends.length);
+        for (String depend : depends) {
+            Node node = nodes.get(depend);
+            if (node == null) {
+                throw new IllegalArgumentException("Startup task " + name + " depends on an unknown task " + depend);
+            }
+            dependencies.add(node);
+        }
+        nodes.put(name, new Node(name, task, dependencies));
+        return this;
+    }
+
+    /**
+     * Executes all the tasks and waits for them.
+     *
+     * @throws Exception the exception of the first failed task
+     */
+    public void execute() throws Exception {
+        ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+        ExecutorService executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory(name, true));
+        try {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[nodes.size()];
+            int index = 0;
+            for (Node node : nodes.values()) {
+                futures[index++] = node.schedule(executor, contextLoader);
+            }
+            try {
+                // wait for all the tasks, so nothing is running when a failure is thrown.
+                CompletableFuture.allOf(futures).join();
+            } catch (CompletionException ignored) {
+            }
+            for (CompletableFuture<?> future : futures) {
+                try {
+                    // check in order, so the first failure is thrown instead of its skipped dependents.
+                    future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    while (cause instanceof CompletionException && cause.getCause() != null) {
+                        cause = cause.getCause();
+                    }
+                    if (cause instanceof Exception) {
+                        throw (Exception) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw e;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * A startup task.
+     */
+    @FunctionalInterface
+    public interface Task {
+
+        /**
+         * Runs the task.
+         *
+         * @throws Exception if the task fails
+         */
+        void run() throws Exception;
+    }
+
+    /**
+     * A task and its dependencies.
+     */
+    private class Node {
+
+        private final String name;
+
+        private final Task task;
+
+        private final List<Node> dependencies;
+
+        private CompletableFuture<Void> future;
+
+        Node(String name, Task task, List<Node> dependencies) {
+            this.name = name;
+            this.task = task;
+            this.dependencies = dependencies;
+        }
+
+        CompletableFuture<Void> schedule(Executor executor, ClassLoader contextLoader) {
+            CompletableFuture<?>[] depends = new CompletableFuture<?>[dependencies.size()];
+            for (int i = 0; i < depends.length; i++) {
+                depends[i] = dependencies.get(i).future;
+            }
+            CompletableFuture<Void> ready = depends.length == 0
+                    ? CompletableFuture.completedFuture(null)
+                    : CompletableFuture.allOf(depends);
+            future = ready.thenRunAsync(() -> run(contextLoader), executor);
+            return future;
+        }
+
+        private void run(ClassLoader contextLoader) {
+            Thread thread = Thread.currentThread();
+            ClassLoader old = thread.getContextClassLoader();
+            thread.setContextClassLoader(contextLoader);
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                thread.setContextClassLoader(old);
+            }
+            if (listener != null) {
+                listener.accept(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        }
+    }
+}
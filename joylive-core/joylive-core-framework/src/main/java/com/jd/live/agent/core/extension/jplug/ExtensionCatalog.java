@@ -0,0 +1,127 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.core.extension.jplug;
+
+import com.jd.live.agent.bootstrap.classloader.LiveClassLoader;
+import com.jd.live.agent.bootstrap.logger.Logger;
+import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+import com.jd.live.agent.core.extension.index.ExtensionIndex;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A catalog of the extensions of the class loaders, which reads all the {@link ExtensionIndex} of a class loader
+ * once, instead of opening the service provider configuration files of the indexed jars for each extensible type.
+ * <p>
+ * The indexes are kept by the jar or directory they are read from, so only the configuration files of the indexed
+ * jars are served by the catalog, and the others such as the extension jars built without the index are still read.
+ * The catalog is disabled by {@code LIVE_EXTENSION_INDEX_ENABLED=false}.
+ *
+ * @since 1.6.0
+ */
+public class ExtensionCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtensionCatalog.class);
+
+    public static final String KEY_EXTENSION_INDEX_ENABLED = "LIVE_EXTENSION_INDEX_ENABLED";
+
+    private final boolean enabled;
+
+    /**
+     * The indexes of the class loaders, keyed by the url of the jar or directory they are read from.
+     */
+    private final Map<ClassLoader, Map<String, ExtensionIndex>> indexes = new ConcurrentHashMap<>();
+
+    public ExtensionCatalog() {
+        this(!"false".equalsIgnoreCase(System.getProperty(KEY_EXTENSION_INDEX_ENABLED,
+                System.getenv(KEY_EXTENSION_INDEX_ENABLED))));
+    }
+
+    public ExtensionCatalog(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the provider class names of the extensible type in a service provider configuration file.
+     *
+     * @param loader     the class loader
+     * @param url        the url of the configuration file
+     * @param resource   the resource name of the configuration file
+     * @param extensible the extensible type
+     * @return the provider class names, or null if the jar of the file is not indexed and the file should be read
+     */
+    public Collection<String> getProviders(ClassLoader loader, URL url, String resource, Class<?> extensible) {
+        if (!enabled || !(loader instanceof LiveClassLoader) || url == null) {
+            return null;
+        }
+        String location = url.toString();
+        if (!location.endsWith(resource)) {
+            return null;
+        }
+        ExtensionIndex index = indexes.computeIfAbsent(loader, this::load)
+                .get(location.substring(0, location.length() - resource.length()));
+        // the file is read if the type is missing in an out-of-date index.
+        return index == null ? null : index.getProviders(extensible.getName());
+    }
+
+    /**
+     * Removes the index of the class loader.
+     *
+     * @param loader the class loader
+     */
+    public void remove(ClassLoader loader) {
+        if (loader != null) {
+            indexes.remove(loader);
+        }
+    }
+
+    /**
+     * Reads all the indexes visible to the class loader.
+     *
+     * @param loader the class loader
+     * @return the indexes keyed by the url of the jar or directory, which is empty if any index is failed to read
+     */
+    private Map<String, ExtensionIndex> load(ClassLoader loader) {
+        Map<String, ExtensionIndex> result = new HashMap<>();
+        URL url = null;
+        try {
+            Enumeration<URL> urls = loader.getResources(ExtensionIndex.RESOURCE);
+            while (urls.hasMoreElements()) {
+                url = urls.nextElement();
+                String location = url.toString();
+                if (location.endsWith(ExtensionIndex.RESOURCE)) {
+                    ExtensionIndex index = new ExtensionIndex();
+                    try (InputStream in = url.openStream()) {
+                        index.read(in);
+                    }
+                    result.put(location.substring(0, location.length() - ExtensionIndex.RESOURCE.length()), index);
+                }
+            }
+            return result;
+        } catch (Throwable e) {
+            // fall back to reading the configuration files.
+            logger.warn("Failed to read extension index " + url + ", caused by " + e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+}
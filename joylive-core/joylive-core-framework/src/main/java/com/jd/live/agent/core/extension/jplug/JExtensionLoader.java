@@ -62,6 +62,11 @@ public class JExtensionLoader implements ExtensionLoader {
      */
     private final Instantiation instantiation;
 
+    /**
+     * The catalog of the indexed extensions, or null to scan the service provider configuration files.
+     */
+    private final ExtensionCatalog catalog;
+
     /**
      * Constructs a new JExtensionLoader with the specified class loader, condition matcher, listener, and instantiation strategy.
      *
@@ -70,10 +75,23 @@ public class JExtensionLoader implements ExtensionLoader {
      * @param listener    The listener to notify of extension loading events.
      */
     public JExtensionLoader(ClassLoader classLoader, ConditionMatcher matcher, ExtensionListener listener) {
+        this(classLoader, matcher, listener, null);
+    }
+
+    /**
+     * Constructs a new JExtensionLoader, which reads the provider names of the indexed jars from the catalog.
+     *
+     * @param classLoader The class loader to use for finding service provider configurations.
+     * @param matcher     The condition matcher for filtering service providers.
+     * @param listener    The listener to notify of extension loading events.
+     * @param catalog     The catalog of the indexed extensions, or null to scan the configurations.
+     */
+    public JExtensionLoader(ClassLoader classLoader, ConditionMatcher matcher, ExtensionListener listener, ExtensionCatalog catalog) {
         this.classLoader = classLoader;
         this.matcher = matcher;
         this.listener = listener;
         this.instantiation = ClassInstantiation.INSTANCE;
+        this.catalog = catalog;
     }
 
     @Override
@@ -199,8 +217,17 @@ public class JExtensionLoader implements ExtensionLoader {
     protected Collection<String> loadPluginName(final Class<?> extensible, final ClassLoader loader, final String resource) throws IOException {
         Set<String> names = new LinkedHashSet<>();
         Enumeration<URL> resources = loader.getResources(resource);
+        URL url;
+        Collection<String> providers;
         while (resources.hasMoreElements()) {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8))) {
+            url = resources.nextElement();
+            // the indexed jars are read once by the catalog
+            providers = catalog == null ? null : catalog.getProviders(loader, url, resource, extensible);
+            if (providers != null) {
+                names.addAll(providers);
+                continue;
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
                 loadPluginName(extensible, reader, names);
             }
         }
@@ -45,6 +45,8 @@ public class JExtensionManager implements ExtensionManager {
 
     private final ExtensionListener listener;
 
+    private final ExtensionCatalog catalog = new ExtensionCatalog();
+
     public JExtensionManager(ConditionMatcher matcher) {
         this.matcher = matcher;
         listener = (event) -> {
@@ -111,7 +113,7 @@ public class JExtensionManager implements ExtensionManager {
 
     @Override
     public <T> ExtensibleDesc<T> getOrLoadExtensible(Class<T> extensible, ClassLoader classLoader) {
-        return getOrLoadExtensible(extensible, new JExtensionLoader(classLoader, matcher, listener));
+        return getOrLoadExtensible(extensible, new JExtensionLoader(classLoader, matcher, listener, catalog));
     }
 
     @SuppressWarnings("unchecked")
@@ -140,7 +142,7 @@ public class JExtensionManager implements ExtensionManager {
 
     @Override
     public <T> ExtensibleDesc<T> loadExtensible(Class<T> extensible, ClassLoader classLoader) {
-        return loadExtensible(extensible, new JExtensionLoader(classLoader, matcher, listener));
+        return loadExtensible(extensible, new JExtensionLoader(classLoader, matcher, listener, catalog));
     }
 
     @Override
@@ -166,6 +168,7 @@ public class JExtensionManager implements ExtensionManager {
     @Override
     public void remove(ClassLoader classLoader) {
         if (classLoader != null) {
+            catalog.remove(classLoader);
             for (Map.Entry<Class<?>, ExtensibleDesc<?>> entry : extensibles.entrySet()) {
                 if (entry.getKey().getClassLoader() == classLoader) {
                     extensibles.remove(entry.getKey());
@@ -109,6 +109,23 @@ public class PluginManager implements PluginSupervisor {
         this.byteSupplier = byteSupplier;
     }
 
+    @Override
+    public synchronized void prepare(boolean dynamic) {
+        InstallMode mode = dynamic ? InstallMode.DYNAMIC : InstallMode.STATIC;
+        List<Plugin> plugins = install(pluginConfig.getSystems(), mode);
+        plugins.addAll(install(pluginConfig.getStatics(), mode));
+        if (dynamic) {
+            plugins.addAll(install(pluginConfig.getDynamics(), mode));
+        }
+        for (Plugin plugin : plugins) {
+            plugin.load();
+            if (plugin.getStatus() == Status.FAILED) {
+                // release the failed plugin, it will be created and reported again in installation.
+                plugin.uninstall();
+            }
+        }
+    }
+
     @Override
     public synchronized boolean install(boolean dynamic) {
         InstallMode mode = dynamic ? InstallMode.DYNAMIC : InstallMode.STATIC;
@@ -0,0 +1,74 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration class for the adaptive concurrency limiter, which adjusts the limit from the observed
+ * response time against the minimum response time.
+ *
+ * @since 1.6.0
+ */
+@Getter
+@Setter
+public class AdaptiveLimiterConfig {
+
+    /**
+     * The initial limit, which is capped by the max concurrency of the policy.
+     * Default is 20.
+     */
+    private int initialLimit = 20;
+
+    /**
+     * The lower bound of the limit.
+     * Default is 1.
+     */
+    private int minLimit = 1;
+
+    /**
+     * The tolerated ratio of the observed response time to the minimum response time before the limit is reduced.
+     * Default is 1.5.
+     */
+    private double tolerance = 1.5;
+
+    /**
+     * The weight of the new limit when smoothing the limit of a window.
+     * Default is 0.2.
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * The minimum time span in milliseconds of a sampling window.
+     * Default is 1,000 milliseconds (1 second).
+     */
+    private long windowTime = 1000;
+
+    /**
+     * The minimum number of samples of a sampling window.
+     * Default is 10.
+     */
+    private int windowSamples = 10;
+
+    /**
+     * The interval in milliseconds at which the minimum response time is probed again, so that it follows a
+     * permanent change of the service.
+     * Default is 30,000 milliseconds (30 seconds).
+     */
+    private long probeInterval = 30000;
+
+}
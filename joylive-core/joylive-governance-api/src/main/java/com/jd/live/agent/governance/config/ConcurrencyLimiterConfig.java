@@ -42,5 +42,10 @@ public class ConcurrencyLimiterConfig {
      */
     private long expireTime = 60000;
 
+    /**
+     * The settings of the adaptive concurrency limiter.
+     */
+    private AdaptiveLimiterConfig adaptive = new AdaptiveLimiterConfig();
+
 }
 
@@ -0,0 +1,53 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration class for invocation counter settings.
+ */
+@Getter
+@Setter
+public class CounterConfig {
+
+    /**
+     * Whether to accumulate the statistics with striped cells instead of a single shared atomic field.
+     * Striped cells avoid the contention on a hot cache line at the cost of a slower read.
+     * Default is true.
+     */
+    private boolean striped = true;
+
+    /**
+     * Whether to record the latency distribution of each endpoint in a log-linear histogram.
+     * Default is true.
+     */
+    private boolean histogram = true;
+
+    /**
+     * The number of buckets of the sliding window used to estimate the recent response time.
+     * Default is 10.
+     */
+    private int windowBuckets = 10;
+
+    /**
+     * The time span in milliseconds of each bucket of the sliding window.
+     * Default is 1,000 milliseconds (1 second).
+     */
+    private long windowBucketTime = 1000;
+
+}
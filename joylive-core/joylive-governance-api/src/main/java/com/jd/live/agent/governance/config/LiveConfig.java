@@ -36,6 +36,12 @@ public class LiveConfig {
 
     private Set<String> topics;
 
+    /**
+     * The maximum number of the unit routes decided by the variables to cache, zero disables the cache.
+     * Default is 4096.
+     */
+    private int routeCacheSize = 4096;
+
     public boolean withTopic(String topic) {
         return topic != null && topics != null && topics.contains(topic);
     }
@@ -15,7 +15,6 @@
  */
 package com.jd.live.agent.governance.config;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -26,13 +25,28 @@ import lombok.Setter;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class MonitorConfig {
 
     private Boolean forwardEnabled;
 
     private Boolean rejectEnabled = true;
 
+    /**
+     * The interval in milliseconds to flush the aggregated traffic, zero or negative publishes each request.
+     */
+    private long aggregateInterval = 1000;
+
+    /**
+     * The maximum number of the aggregated attribute tuples, the traffic of the other tuples is published
+     * for each request.
+     */
+    private int aggregateCapacity = 10000;
+
+    public MonitorConfig(Boolean forwardEnabled, Boolean rejectEnabled) {
+        this.forwardEnabled = forwardEnabled;
+        this.rejectEnabled = rejectEnabled;
+    }
+
     public boolean isForward() {
         return forwardEnabled != null && forwardEnabled;
     }
@@ -103,6 +103,13 @@ public class ServiceConfig {
     @Setter
     private MonitorConfig monitor;
 
+    /**
+     * The config of invocation counter
+     */
+    @Getter
+    @Setter
+    private CounterConfig counter = new CounterConfig();
+
     /**
      * The config of system http inbound paths
      */
@@ -0,0 +1,269 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.event;
+
+import com.jd.live.agent.core.event.Publisher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Aggregates the traffic events by their attribute tuples on the calling threads, and publishes the deltas of the
+ * tuples when flushed, so the traffic is not published for each request and is not dropped when the queue is full.
+ * <p>
+ * The counters are never reset, the flushing thread keeps the published sum of each counter and publishes the
+ * difference, so the requests counted during a flush are published by the next one instead of being lost.
+ * <p>
+ * A counter starts with a single cell like {@link java.util.concurrent.atomic.LongAdder}, and is striped across the
+ * padded cells once the calling threads contend on it, so a hot tuple does not serialize them on one cache line.
+ * <p>
+ * A tuple idle for a flush interval is retired by marking the cells of its counter with a compare-and-set against
+ * the values read by the flushing thread, so it fails and is rolled back if any request is counted concurrently. The
+ * calling threads never add to a retired cell, and retry until the retired counter is removed and a new one is
+ * created. The traffic of the new tuples is published for each request when the number of tuples reaches the
+ * capacity, which protects the memory against the high cardinality attributes.
+ *
+ * @since 1.6.0
+ */
+public class TrafficAggregator {
+
+    private final Publisher<TrafficEvent> publisher;
+
+    private final int capacity;
+
+    private final Map<TrafficEvent, Counter> counters = new ConcurrentHashMap<>();
+
+    public TrafficAggregator(Publisher<TrafficEvent> publisher, int capacity) {
+        this.publisher = publisher;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds the requests of the event to the counter of its attribute tuple.
+     *
+     * @param event the traffic event
+     */
+    public void add(TrafficEvent event) {
+        while (true) {
+            Counter counter = counters.get(event);
+            if (counter == null) {
+                if (counters.size() >= capacity) {
+                    publisher.offer(event);
+                    return;
+                }
+                counter = counters.computeIfAbsent(event, k -> new Counter());
+            }
+            if (counter.add(event.getRequests())) {
+                return;
+            }
+            // the counter is being retired by the flushing thread, which removes it or rolls it back.
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Publishes the deltas of the tuples since the last flush, and retires the idle tuples.
+     */
+    public synchronized void flush() {
+        for (Map.Entry<TrafficEvent, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            if (!publish(entry.getKey(), counter) && counter.retire()) {
+                // the calling threads wait for the removal of the retired counter.
+                counters.remove(entry.getKey(), counter);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of the tuples being aggregated.
+     *
+     * @return the number of the tuples
+     */
+    public int size() {
+        return counters.size();
+    }
+
+    /**
+     * Publishes the delta of the tuple.
+     *
+     * @param tuple   the attribute tuple
+     * @param counter the counter of the tuple
+     * @return true if there is any request since the last flush
+     */
+    private boolean publish(TrafficEvent tuple, Counter counter) {
+        long delta = counter.sum() - counter.published;
+        if (delta <= 0) {
+            return false;
+        }
+        int requests = (int) Math.min(delta, Integer.MAX_VALUE);
+        // the delta is kept for the next flush if the queue is full.
+        if (publisher.offer(tuple.toBuilder().requests(requests).build())) {
+            counter.published += requests;
+        }
+        return true;
+    }
+
+    /**
+     * The requests of a tuple.
+     */
+    private static class Counter {
+
+        private static final long RETIRED = Long.MIN_VALUE;
+
+        /**
+         * The flag of the base which is set once the counter is striped.
+         */
+        private static final long STRIPED = 1L << 62;
+
+        /**
+         * The distance between the cells, which keeps each cell in its own cache line.
+         */
+        private static final int STRIDE = 8;
+
+        private static final int CELLS = getCells();
+
+        /**
+         * The requests before the counter is striped, or negative if the counter is retired.
+         */
+        private final AtomicLong base = new AtomicLong();
+
+        /**
+         * The striped requests, a cell is negative if it's retired.
+         */
+        private volatile AtomicLongArray cells;
+
+        /**
+         * The published requests, which are only accessed by the flushing thread.
+         */
+        private long published;
+
+        /**
+         * Adds the requests to the counter.
+         *
+         * @param delta the requests
+         * @return false if the counter is retired
+         */
+        boolean add(int delta) {
+            long value;
+            while ((value = base.get()) >= 0) {
+                if ((value & STRIPED) != 0) {
+                    return addCell(delta);
+                } else if (base.compareAndSet(value, value + delta)) {
+                    return true;
+                }
+                stripe();
+            }
+            return false;
+        }
+
+        /**
+         * Returns the total requests, which is only called by the flushing thread before the counter is retired.
+         *
+         * @return the total requests
+         */
+        long sum() {
+            long result = base.get() & ~STRIPED;
+            AtomicLongArray array = cells;
+            if (array != null) {
+                for (int i = 0; i < CELLS; i++) {
+                    result += array.get(i * STRIDE);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Retires the counter if there is no request since the last publishing.
+         *
+         * @return true if the counter is retired
+         */
+        boolean retire() {
+            long value = base.get();
+            if ((value & STRIPED) == 0) {
+                return base.compareAndSet(published, RETIRED);
+            }
+            // the base is never changed once striped.
+            AtomicLongArray array = cells;
+            long[] values = new long[CELLS];
+            long sum = value & ~STRIPED;
+            for (int i = 0; i < CELLS; i++) {
+                values[i] = array.get(i * STRIDE);
+                sum += values[i];
+            }
+            if (sum != published) {
+                return false;
+            }
+            for (int i = 0; i < CELLS; i++) {
+                if (!array.compareAndSet(i * STRIDE, values[i], RETIRED)) {
+                    // the retired cells are never changed by the calling threads.
+                    for (int j = 0; j < i; j++) {
+                        array.set(j * STRIDE, values[j]);
+                    }
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Adds the requests to the cell of the current thread.
+         *
+         * @param delta the requests
+         * @return false if the cell is retired
+         */
+        private boolean addCell(int delta) {
+            AtomicLongArray array = cells;
+            int index = ((int) Thread.currentThread().getId() & (CELLS - 1)) * STRIDE;
+            long value;
+            while ((value = array.get(index)) >= 0) {
+                if (array.compareAndSet(index, value, value + delta)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Stripes the counter after a contention, the cells are created before the base is flagged.
+         */
+        private void stripe() {
+            if (cells == null) {
+                synchronized (this) {
+                    if (cells == null) {
+                        cells = new AtomicLongArray(CELLS * STRIDE);
+                    }
+                }
+            }
+            long value;
+            while ((value = base.get()) >= 0 && (value & STRIPED) == 0) {
+                if (base.compareAndSet(value, value | STRIPED)) {
+                    return;
+                }
+            }
+        }
+
+        private static int getCells() {
+            int processors = Runtime.getRuntime().availableProcessors();
+            int result = 1;
+            while (result < processors && result < 16) {
+                result <<= 1;
+            }
+            return result;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package com.jd.live.agent.governance.event;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 import java.util.Map;
@@ -26,8 +27,9 @@ import java.util.Map;
  * about network traffic for monitoring, logging, or analysis purposes.
  */
 @Getter
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
+@EqualsAndHashCode
 public class TrafficEvent {
 
     public static final String KEY_LIVE_SPACE_ID = "live_spaceId";
@@ -204,6 +206,7 @@ public class TrafficEvent {
     /**
      * The number of requests associated with the traffic event.
      */
+    @EqualsAndHashCode.Exclude
     private final int requests;
 
     public String getRejectTypeName() {
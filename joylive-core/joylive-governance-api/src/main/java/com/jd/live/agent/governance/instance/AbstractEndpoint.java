@@ -16,89 +16,129 @@
 package com.jd.live.agent.governance.instance;
 
 import com.jd.live.agent.bootstrap.util.AbstractAttributes;
-import com.jd.live.agent.core.util.cache.UnsafeLazyObject;
+import com.jd.live.agent.core.Constants;
+import com.jd.live.agent.governance.policy.PolicyId;
 import com.jd.live.agent.governance.request.ServiceRequest;
 
+import static com.jd.live.agent.governance.instance.EndpointLabels.getOrDefault;
+
 /**
  * An abstract implementation of the {@link Endpoint} interface that provides caching for
- * various properties. This class uses {@link UnsafeLazyObject} to lazily cache the values
- * of the properties obtained from the {@link Endpoint} interface.
+ * various properties. The labels used by routing are read from an {@link EndpointLabels},
+ * which is parsed once and shared by all the endpoints wrapping the same instance.
  */
 public abstract class AbstractEndpoint extends AbstractAttributes implements Endpoint {
 
-    private String liveSpaceId;
-
-    private String unit;
-
-    private String cell;
-
-    private String laneSpaceId;
+    private EndpointLabels labels;
 
-    private String lane;
-
-    // Endpoint is request level
+    // The weight is cached once the warmup is over, because the endpoint may be shared by requests.
     private Integer weight;
 
+    /**
+     * Returns the pre-parsed labels of this endpoint.
+     *
+     * @return the labels of this endpoint
+     */
+    protected EndpointLabels getEndpointLabels() {
+        if (labels == null) {
+            labels = EndpointLabels.of(this);
+        }
+        return labels;
+    }
+
     @Override
     public String getLiveSpaceId() {
-        if (liveSpaceId == null) {
-            liveSpaceId = Endpoint.super.getLiveSpaceId();
-            if (liveSpaceId == null) {
-                liveSpaceId = "";
-            }
-        }
-        return liveSpaceId;
+        return getOrDefault(getEndpointLabels().getLiveSpaceId(), Constants.DEFAULT_VALUE);
     }
 
     @Override
     public String getUnit() {
-        if (unit == null) {
-            unit = Endpoint.super.getUnit();
-            if (unit == null) {
-                unit = "";
-            }
-        }
-        return unit;
+        return getOrDefault(getEndpointLabels().getUnit(), Constants.DEFAULT_VALUE);
     }
 
     @Override
     public String getCell() {
-        if (cell == null) {
-            cell = Endpoint.super.getCell();
-            if (cell == null) {
-                cell = "";
-            }
-        }
-        return cell;
+        return getOrDefault(getEndpointLabels().getCell(), Constants.DEFAULT_VALUE);
+    }
+
+    @Override
+    public String getCloud() {
+        return getOrDefault(getEndpointLabels().getCloud(), Constants.DEFAULT_VALUE);
     }
 
     @Override
     public String getLaneSpaceId() {
-        if (laneSpaceId == null) {
-            laneSpaceId = Endpoint.super.getLaneSpaceId();
-            if (laneSpaceId == null) {
-                laneSpaceId = "";
-            }
-        }
-        return laneSpaceId;
+        return getOrDefault(getEndpointLabels().getLaneSpaceId(), Constants.DEFAULT_VALUE);
+    }
+
+    @Override
+    public String getLaneSpaceId(String defaultValue) {
+        return getOrDefault(getEndpointLabels().getLaneSpaceId(), defaultValue);
     }
 
     @Override
     public String getLane() {
-        if (lane == null) {
-            lane = Endpoint.super.getLane();
-            if (lane == null) {
-                lane = "";
-            }
-        }
-        return lane;
+        return getOrDefault(getEndpointLabels().getLane(), Constants.DEFAULT_VALUE);
+    }
+
+    @Override
+    public String getLane(String defaultValue) {
+        return getOrDefault(getEndpointLabels().getLane(), defaultValue);
+    }
+
+    @Override
+    public String getGroup() {
+        return getOrDefault(getEndpointLabels().getGroup(), PolicyId.DEFAULT_GROUP);
+    }
+
+    @Override
+    public boolean isCloud(String cloud) {
+        return cloud != null && !cloud.isEmpty() && cloud.equals(getEndpointLabels().getCloud());
+    }
+
+    @Override
+    public boolean isCluster(String cluster) {
+        return cluster != null && !cluster.isEmpty() && cluster.equals(getEndpointLabels().getCluster());
+    }
+
+    @Override
+    public Long getTimestamp() {
+        return getEndpointLabels().getTimestamp();
+    }
+
+    @Override
+    public Integer getWarmup() {
+        return getEndpointLabels().getWarmup();
+    }
+
+    @Override
+    public Integer getOriginWeight(ServiceRequest request) {
+        return getEndpointLabels().getWeight();
     }
 
     @Override
     public Integer getWeight(ServiceRequest request) {
-        if (weight == null) {
-            weight = Endpoint.super.getWeight(request);
+        Integer result = weight;
+        if (result == null) {
+            result = Endpoint.super.getWeight(request);
+            if (!isWarmup()) {
+                weight = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the weight of this endpoint is still changing with its warmup.
+     *
+     * @return true if this endpoint is in its warmup period.
+     */
+    protected boolean isWarmup() {
+        Long timestamp = getTimestamp();
+        if (timestamp == null || timestamp <= 0L) {
+            return false;
         }
-        return weight;
+        Integer warmup = getWarmup();
+        return warmup != null && System.currentTimeMillis() - timestamp < warmup;
     }
 }
@@ -36,7 +36,8 @@ import static com.jd.live.agent.core.util.StringUtils.isEqualsOrEmpty;
 public interface Endpoint extends Matcher<TagCondition>, Attributes {
 
     /**
-     * Key for the counter attribute of the endpoint.
+     * Key for the counter of the elected endpoint, which is handed from the load balancer to the counter filter
+     * through the attributes of the request, because the endpoints may be shared by requests.
      */
     String ATTRIBUTE_COUNTER = "counter";
 
@@ -77,6 +78,18 @@ public interface Endpoint extends Matcher<TagCondition>, Attributes {
         return port <= 0 ? host : host + ":" + port;
     }
 
+    /**
+     * Gets the underlying instance of the framework which this endpoint wraps.
+     * <p>
+     * Endpoints are usually created for each request, while the underlying instance is kept until the
+     * service instances change, so it can be used as the identity of the endpoint across requests.
+     *
+     * @return The underlying instance, or this endpoint by default.
+     */
+    default Object getOrigin() {
+        return this;
+    }
+
     /**
      * Gets the host of the endpoint.
      *
@@ -0,0 +1,128 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.instance;
+
+import com.jd.live.agent.core.util.cache.WeakIdentityCache;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A cache of the endpoints wrapping the instances of a framework, so an unchanged instance list maps to the same
+ * endpoints across requests.
+ * <p>
+ * The last instance list is kept per owner, usually the supplier of the instances, which is weakly referenced.
+ * When the list changes, the endpoints of the instances still in the list are reused, and the others are released
+ * with the previous list.
+ *
+ * @param <I> the type of the instances
+ * @param <E> the type of the endpoints
+ */
+public class EndpointCache<I, E extends Endpoint> {
+
+    private final Function<I, E> creator;
+
+    private final WeakIdentityCache<Object, Snapshot<I, E>> snapshots = new WeakIdentityCache<>();
+
+    public EndpointCache(Function<I, E> creator) {
+        this.creator = creator;
+    }
+
+    /**
+     * Returns the endpoints of the instances.
+     *
+     * @param owner     the owner of the instances, such as the supplier
+     * @param instances the instances
+     * @return a new mutable list of the endpoints, which can be filtered by the caller.
+     */
+    public List<E> getEndpoints(Object owner, List<I> instances) {
+        int size = instances == null ? 0 : instances.size();
+        if (size == 0) {
+            return new ArrayList<>();
+        } else if (owner == null) {
+            return wrap(instances, null);
+        }
+        Snapshot<I, E> snapshot = snapshots.get(owner);
+        if (snapshot == null || !snapshot.match(instances)) {
+            snapshot = new Snapshot<>(instances, wrap(instances, snapshot));
+            snapshots.put(owner, snapshot);
+        }
+        return new ArrayList<>(snapshot.endpoints);
+    }
+
+    /**
+     * Wraps the instances, reusing the endpoints of the previous snapshot.
+     *
+     * @param instances the instances
+     * @param previous  the previous snapshot, or null
+     * @return the endpoints
+     */
+    private List<E> wrap(List<I> instances, Snapshot<I, E> previous) {
+        Map<I, E> olds = previous == null ? null : previous.toMap();
+        List<E> result = new ArrayList<>(instances.size());
+        for (I instance : instances) {
+            E endpoint = olds == null ? null : olds.get(instance);
+            result.add(endpoint != null ? endpoint : creator.apply(instance));
+        }
+        return result;
+    }
+
+    /**
+     * The instances and their endpoints of a call.
+     */
+    private static class Snapshot<I, E> {
+
+        private final Object[] instances;
+
+        private final List<E> endpoints;
+
+        Snapshot(List<I> instances, List<E> endpoints) {
+            this.instances = instances.toArray();
+            this.endpoints = endpoints;
+        }
+
+        /**
+         * Checks whether the instances are the same objects in the same order as this snapshot.
+         *
+         * @param others the instances
+         * @return true if matched
+         */
+        boolean match(List<I> others) {
+            int size = others.size();
+            if (size != instances.length) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (instances[i] != others.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<I, E> toMap() {
+            Map<I, E> result = new IdentityHashMap<>(instances.length);
+            for (int i = 0; i < instances.length; i++) {
+                result.put((I) instances[i], endpoints.get(i));
+            }
+            return result;
+        }
+    }
+}
@@ -16,17 +16,18 @@
 package com.jd.live.agent.governance.instance;
 
 import com.jd.live.agent.core.Constants;
+import com.jd.live.agent.governance.instance.EndpointIndex.Dimension;
 import lombok.Getter;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * The EndpointGroup class represents a collection of Endpoint objects that are grouped
  * based on their associated unit. This class provides methods to manage the collection
  * of endpoints and to access the grouping of endpoints by their unit.
+ * <p>
+ * An indexed group keeps the endpoints as positions in an {@link EndpointIndex}, and only
+ * groups the endpoints of the units it's asked for.
  */
 public class EndpointGroup {
 
@@ -35,16 +36,33 @@ public class EndpointGroup {
      * through the constructor and should not be modified directly. Instead, use the
      * provided methods to interact with the endpoints.
      */
-    @Getter
-    private final List<Endpoint> endpoints;
+    private List<Endpoint> endpoints;
 
     /**
      * A map that associates unit strings with UnitGroup objects. Each UnitGroup contains
      * a collection of Endpoint objects that share the same unit value.
      */
-    @Getter
     private final Map<String, UnitGroup> unitGroups;
 
+    /**
+     * The indexed instances, or null if this group is not indexed.
+     */
+    @Getter
+    private final List<? extends Endpoint> instances;
+
+    /**
+     * The index of the instances, or null if this group is not indexed.
+     */
+    @Getter
+    private final EndpointIndex index;
+
+    /**
+     * The positions of the endpoints of this group in the instances.
+     */
+    private final BitSet selection;
+
+    private boolean grouped;
+
     /**
      * Constructs a new EndpointGroup with the specified list of endpoints. The endpoints
      * are automatically grouped by their unit into UnitGroup objects.
@@ -56,16 +74,49 @@ public class EndpointGroup {
     public EndpointGroup(List<? extends Endpoint> endpoints) {
         this.endpoints = endpoints == null || endpoints.isEmpty() ? new ArrayList<>() : (List<Endpoint>) endpoints;
         this.unitGroups = new HashMap<>(3);
-        UnitGroup last = null;
-        String unit;
-        for (Endpoint endpoint : this.endpoints) {
-            unit = endpoint.getUnit();
-            unit = (unit == null) ? Constants.DEFAULT_VALUE : unit;
-            if (last == null || !last.getUnit().equals(unit)) {
-                last = unitGroups.computeIfAbsent(unit, UnitGroup::new);
-            }
-            last.add(endpoint);
+        this.instances = null;
+        this.index = null;
+        this.selection = null;
+        group();
+    }
+
+    /**
+     * Constructs a new indexed EndpointGroup with the endpoints at the selected positions of the instances.
+     *
+     * @param instances the instances matching the index
+     * @param index     the index of the instances
+     * @param selection the positions of the endpoints in the instances
+     */
+    public EndpointGroup(List<? extends Endpoint> instances, EndpointIndex index, BitSet selection) {
+        this.unitGroups = new HashMap<>(3);
+        this.instances = instances;
+        this.index = index;
+        this.selection = selection;
+    }
+
+    /**
+     * Returns the endpoints of this group.
+     *
+     * @return the endpoints
+     */
+    public List<Endpoint> getEndpoints() {
+        if (endpoints == null) {
+            endpoints = EndpointIndex.collect(instances, selection);
         }
+        return endpoints;
+    }
+
+    /**
+     * Returns the unit groups of this group.
+     *
+     * @return the unit groups keyed by the unit
+     */
+    public Map<String, UnitGroup> getUnitGroups() {
+        if (!grouped) {
+            unitGroups.clear();
+            group();
+        }
+        return unitGroups;
     }
 
     /**
@@ -76,7 +127,56 @@ public class EndpointGroup {
      * @return the UnitGroup for the specified unit, or null if not found
      */
     public UnitGroup getUnitGroup(String unit) {
-        return (unit == null) ? null : unitGroups.get(unit);
+        if (unit == null) {
+            return null;
+        } else if (grouped) {
+            return unitGroups.get(unit);
+        }
+        return unitGroups.computeIfAbsent(unit, u -> {
+            BitSet bits = getSelection(u);
+            return bits.isEmpty() ? null : new UnitGroup(u, EndpointIndex.collect(instances, bits));
+        });
+    }
+
+    /**
+     * Returns the number of endpoints associated with the specified unit.
+     *
+     * @param unit the unit string
+     * @return the number of endpoints of the unit
+     */
+    public int getSize(String unit) {
+        if (unit == null) {
+            return 0;
+        } else if (grouped) {
+            UnitGroup group = unitGroups.get(unit);
+            return group == null ? 0 : group.size();
+        }
+        UnitGroup group = unitGroups.get(unit);
+        return group != null ? group.size() : getSelection(unit).cardinality();
+    }
+
+    /**
+     * Returns the positions of the endpoints of this group in the instances.
+     *
+     * @return a copy of the positions, or null if this group is not indexed
+     */
+    public BitSet getSelection() {
+        return selection == null ? null : (BitSet) selection.clone();
+    }
+
+    /**
+     * Returns the positions of the endpoints of the unit in the instances.
+     *
+     * @param unit the unit string
+     * @return the positions, or null if this group is not indexed
+     */
+    public BitSet getSelection(String unit) {
+        if (index == null) {
+            return null;
+        }
+        BitSet result = index.select(Dimension.UNIT, instances, e -> unit.equals(getUnit(e)));
+        result.and(selection);
+        return result;
     }
 
     /**
@@ -85,7 +185,7 @@ public class EndpointGroup {
      * @return the size of the endpoints list
      */
     public int size() {
-        return endpoints.size();
+        return endpoints != null ? endpoints.size() : selection.cardinality();
     }
 
     /**
@@ -94,7 +194,27 @@ public class EndpointGroup {
      * @return true if the endpoints list is empty, false otherwise
      */
     public boolean isEmpty() {
-        return endpoints.isEmpty();
+        return endpoints != null ? endpoints.isEmpty() : selection.isEmpty();
     }
-}
 
+    /**
+     * Groups all the endpoints by their unit.
+     */
+    private void group() {
+        UnitGroup last = null;
+        String unit;
+        for (Endpoint endpoint : getEndpoints()) {
+            unit = getUnit(endpoint);
+            if (last == null || !last.getUnit().equals(unit)) {
+                last = unitGroups.computeIfAbsent(unit, UnitGroup::new);
+            }
+            last.add(endpoint);
+        }
+        grouped = true;
+    }
+
+    private static String getUnit(Endpoint endpoint) {
+        String unit = endpoint.getUnit();
+        return (unit == null) ? Constants.DEFAULT_VALUE : unit;
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.instance;
+
+import com.jd.live.agent.core.util.cache.WeakIdentityCache;
+import com.jd.live.agent.core.util.tag.Label;
+import com.jd.live.agent.governance.rule.RelationType;
+import com.jd.live.agent.governance.rule.tag.TagCondition;
+import com.jd.live.agent.governance.rule.tag.TagGroup;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * An immutable index of an endpoint list, which groups the positions of the endpoints into bitsets by the labels
+ * used by the route filters.
+ * <p>
+ * A predicate which only depends on the labels of a dimension is evaluated once per distinct value of the dimension
+ * instead of once per endpoint, and the filters intersect the resulting bitsets. The index is built once per version
+ * of the endpoint list, which is identified by the underlying instances in order.
+ * <p>
+ * The indexes are cached by the identity of the first underlying instance, and a few versions are kept for the lists
+ * starting with the same instance. The instances are weakly referenced by the indexes, so an entry is removed once
+ * its first instance is garbage collected.
+ */
+public class EndpointIndex {
+
+    /**
+     * The maximum number of the indexes of the endpoint lists starting with the same instance.
+     */
+    private static final int MAX_VERSIONS = 4;
+
+    private static final WeakIdentityCache<Object, EndpointIndex[]> INDEXES = new WeakIdentityCache<>();
+
+    private final Reference<?>[] origins;
+
+    private final Buckets units;
+
+    private final Buckets cells;
+
+    private final Buckets lanes;
+
+    private final Buckets groups;
+
+    private final Map<String, Buckets> tags = new ConcurrentHashMap<>();
+
+    private EndpointIndex(List<? extends Endpoint> endpoints) {
+        int size = endpoints.size();
+        this.origins = new Reference<?>[size];
+        this.units = new Buckets(size);
+        this.cells = new Buckets(size);
+        this.lanes = new Buckets(size);
+        this.groups = new Buckets(size);
+        for (int i = 0; i < size; i++) {
+            Endpoint endpoint = endpoints.get(i);
+            origins[i] = new WeakReference<>(endpoint.getOrigin());
+            String liveSpaceId = endpoint.getLiveSpaceId();
+            String unit = endpoint.getUnit();
+            units.add(Arrays.asList(liveSpaceId, unit), i);
+            cells.add(Arrays.asList(liveSpaceId, unit, endpoint.getCell()), i);
+            lanes.add(Arrays.asList(endpoint.getLaneSpaceId(null), endpoint.getLane(null)), i);
+            groups.add(endpoint.getGroup(), i);
+        }
+    }
+
+    /**
+     * Returns the number of the endpoints.
+     *
+     * @return the number of the endpoints
+     */
+    public int size() {
+        return origins.length;
+    }
+
+    /**
+     * Checks whether the endpoints wrap the same underlying instances in the same order as this index.
+     *
+     * @param endpoints the endpoints
+     * @return true if the index can be used for the endpoints
+     */
+    public boolean match(List<? extends Endpoint> endpoints) {
+        int size = endpoints.size();
+        if (size != origins.length) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (origins[i].get() != endpoints.get(i).getOrigin()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Selects the positions of the endpoints matching the predicate, which only depends on the dimension.
+     *
+     * @param dimension the dimension of the labels the predicate depends on
+     * @param endpoints the endpoints of this index
+     * @param predicate the predicate
+     * @return the positions of the matched endpoints
+     */
+    public BitSet select(Dimension dimension, List<? extends Endpoint> endpoints, Predicate<Endpoint> predicate) {
+        return getBuckets(dimension).select(endpoints, predicate);
+    }
+
+    /**
+     * Selects the positions of the endpoints matching the tag group.
+     *
+     * @param group     the tag group
+     * @param endpoints the endpoints of this index
+     * @return the positions of the matched endpoints, or null if the tag group can't be evaluated by the index.
+     */
+    public BitSet select(TagGroup group, List<? extends Endpoint> endpoints) {
+        List<TagCondition> conditions = group.getConditions();
+        BitSet result = new BitSet(origins.length);
+        if (conditions == null || conditions.isEmpty()) {
+            result.set(0, origins.length);
+            return result;
+        }
+        boolean or = group.getRelationType() == RelationType.OR;
+        boolean first = true;
+        for (TagCondition condition : conditions) {
+            if (condition.getKey() == null) {
+                return null;
+            }
+            Buckets buckets = tags.computeIfAbsent(condition.getKey(), k -> new Buckets(endpoints, e -> e.getLabel(k)));
+            BitSet bits = buckets.select(endpoints, e -> e.match(condition));
+            if (or) {
+                result.or(bits);
+            } else if (first) {
+                result = bits;
+            } else {
+                result.and(bits);
+            }
+            first = false;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the endpoints, which is rebuilt when the underlying instances change.
+     *
+     * @param endpoints the endpoints
+     * @return the index, or null if the endpoints are not wrappers of stable instances.
+     */
+    public static EndpointIndex of(List<? extends Endpoint> endpoints) {
+        if (endpoints == null || endpoints.isEmpty()) {
+            return null;
+        }
+        Endpoint endpoint = endpoints.get(0);
+        Object origin = endpoint.getOrigin();
+        if (origin == endpoint) {
+            // the endpoints have no stable identity, so the index can't be reused.
+            return null;
+        }
+        EndpointIndex[] indexes = INDEXES.get(origin);
+        if (indexes != null) {
+            for (EndpointIndex index : indexes) {
+                if (index.match(endpoints)) {
+                    return index;
+                }
+            }
+        }
+        EndpointIndex index = new EndpointIndex(endpoints);
+        // keep the latest versions, the races only lose some cached versions.
+        int count = indexes == null ? 0 : Math.min(indexes.length, MAX_VERSIONS - 1);
+        EndpointIndex[] versions = new EndpointIndex[count + 1];
+        versions[0] = index;
+        if (count > 0) {
+            System.arraycopy(indexes, 0, versions, 1, count);
+        }
+        INDEXES.put(origin, versions);
+        return index;
+    }
+
+    /**
+     * Collects the endpoints at the positions.
+     *
+     * @param endpoints the endpoints
+     * @param bits      the positions
+     * @return a new mutable list of the endpoints
+     */
+    public static List<Endpoint> collect(List<? extends Endpoint> endpoints, BitSet bits) {
+        List<Endpoint> result = new ArrayList<>(bits.cardinality());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            result.add(endpoints.get(i));
+        }
+        return result;
+    }
+
+    private Buckets getBuckets(Dimension dimension) {
+        switch (dimension) {
+            case UNIT:
+                return units;
+            case CELL:
+                return cells;
+            case LANE:
+                return lanes;
+            case GROUP:
+            default:
+                return groups;
+        }
+    }
+
+    /**
+     * The dimensions of the labels indexed eagerly.
+     */
+    public enum Dimension {
+
+        /**
+         * The live space and the unit.
+         */
+        UNIT,
+
+        /**
+         * The live space, the unit and the cell.
+         */
+        CELL,
+
+        /**
+         * The lane space and the lane, without default values.
+         */
+        LANE,
+
+        /**
+         * The service group.
+         */
+        GROUP
+    }
+
+    /**
+     * The positions of the endpoints grouped by the distinct values of a dimension.
+     */
+    private static class Buckets {
+
+        private final int size;
+
+        private final Map<Object, BitSet> values = new HashMap<>();
+
+        Buckets(int size) {
+            this.size = size;
+        }
+
+        Buckets(List<? extends Endpoint> endpoints, Function<Endpoint, String> func) {
+            this(endpoints.size());
+            for (int i = 0; i < size; i++) {
+                String value = func.apply(endpoints.get(i));
+                add(value == null ? null : Label.parseValue(value), i);
+            }
+        }
+
+        void add(Object value, int position) {
+            values.computeIfAbsent(value, v -> new BitSet(size)).set(position);
+        }
+
+        /**
+         * Evaluates the predicate on one endpoint of each bucket, and unions the matched buckets.
+         */
+        BitSet select(List<? extends Endpoint> endpoints, Predicate<Endpoint> predicate) {
+            BitSet result = new BitSet(size);
+            for (BitSet bits : values.values()) {
+                if (predicate.test(endpoints.get(bits.nextSetBit(0)))) {
+                    result.or(bits);
+                }
+            }
+            return result;
+        }
+    }
+}
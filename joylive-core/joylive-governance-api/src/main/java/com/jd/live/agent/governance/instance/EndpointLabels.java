@@ -0,0 +1,127 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.instance;
+
+import com.jd.live.agent.core.Constants;
+import com.jd.live.agent.core.util.cache.WeakIdentityCache;
+import com.jd.live.agent.core.util.option.Converts;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable view of the labels of an endpoint used by routing, which is parsed once per underlying instance.
+ * <p>
+ * Endpoints are usually created per request by wrapping the instances of the framework, so the view is cached by
+ * the identity of {@link Endpoint#getOrigin()} and released once the instance is garbage collected. The string
+ * values are interned, so the comparisons of the routing filters mostly end with a reference check.
+ */
+@Getter
+public class EndpointLabels {
+
+    /**
+     * The maximum number of the interned values.
+     */
+    private static final int MAX_INTERNS = 4096;
+
+    private static final Map<String, String> INTERNS = new ConcurrentHashMap<>(256);
+
+    private static final WeakIdentityCache<Object, EndpointLabels> CACHE = new WeakIdentityCache<>();
+
+    private final String liveSpaceId;
+
+    private final String unit;
+
+    private final String cell;
+
+    private final String laneSpaceId;
+
+    private final String lane;
+
+    private final String cloud;
+
+    private final String cluster;
+
+    private final String group;
+
+    private final Long timestamp;
+
+    private final Integer warmup;
+
+    private final Integer weight;
+
+    private EndpointLabels(Endpoint endpoint) {
+        this.liveSpaceId = intern(endpoint.getLabel(Constants.LABEL_LIVE_SPACE_ID));
+        this.unit = intern(endpoint.getLabel(Constants.LABEL_UNIT));
+        this.cell = intern(endpoint.getLabel(Constants.LABEL_CELL));
+        this.laneSpaceId = intern(endpoint.getLabel(Constants.LABEL_LANE_SPACE_ID));
+        this.lane = intern(endpoint.getLabel(Constants.LABEL_LANE));
+        this.cloud = intern(endpoint.getLabel(Constants.LABEL_CLOUD));
+        this.cluster = intern(endpoint.getLabel(Constants.LABEL_CLUSTER));
+        this.group = intern(endpoint.getLabel(Constants.LABEL_SERVICE_GROUP));
+        this.timestamp = Converts.getLong(endpoint.getLabel(Constants.LABEL_TIMESTAMP), null);
+        this.warmup = Converts.getInteger(endpoint.getLabel(Constants.LABEL_WARMUP), Endpoint.DEFAULT_WARMUP);
+        this.weight = Converts.getInteger(endpoint.getLabel(Constants.LABEL_WEIGHT), Endpoint.DEFAULT_WEIGHT);
+    }
+
+    /**
+     * Returns the label value, or the default value if it's not specified.
+     *
+     * @param value        the label value
+     * @param defaultValue the default value
+     * @return the label value, or the default value if it's not specified.
+     */
+    public static String getOrDefault(String value, String defaultValue) {
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Returns the labels of the endpoint, which are shared by all the endpoints wrapping the same instance.
+     *
+     * @param endpoint the endpoint
+     * @return the labels of the endpoint
+     */
+    public static EndpointLabels of(Endpoint endpoint) {
+        Object origin = endpoint.getOrigin();
+        if (origin == endpoint) {
+            // the endpoint is not a wrapper, the caller keeps the labels.
+            return new EndpointLabels(endpoint);
+        }
+        return CACHE.computeIfAbsent(origin, o -> new EndpointLabels(endpoint));
+    }
+
+    /**
+     * Interns the label value, the values over the capacity of the pool are returned as they are.
+     *
+     * @param value the label value
+     * @return the interned value, or null if the value is null or empty.
+     */
+    private static String intern(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        String result = INTERNS.get(value);
+        if (result == null) {
+            if (INTERNS.size() >= MAX_INTERNS) {
+                return value;
+            }
+            result = INTERNS.putIfAbsent(value, value);
+            result = result == null ? value : result;
+        }
+        return result;
+    }
+}
@@ -26,7 +26,6 @@ import com.jd.live.agent.governance.policy.PolicySupplier;
 import com.jd.live.agent.governance.policy.lane.Lane;
 import com.jd.live.agent.governance.policy.lane.LaneSpace;
 import com.jd.live.agent.governance.policy.live.*;
-import com.jd.live.agent.governance.policy.variable.UnitFunction;
 import com.jd.live.agent.governance.request.Message;
 
 /**
@@ -199,8 +198,7 @@ public abstract class AbstractMessageInterceptor extends InterceptorAdaptor {
             } else if (rule == null) {
                 return MessageAction.CONSUME;
             } else {
-                UnitFunction func = context.getUnitFunction(rule.getVariableFunction());
-                UnitRoute targetRoute = rule.getUnitRoute(message.getVariable(), func);
+                UnitRoute targetRoute = context.getUnitRoute(rule, message.getVariable());
                 Unit targetUnit = targetRoute == null ? null : targetRoute.getUnit();
                 if (targetUnit == null) {
                     return MessageAction.CONSUME;
@@ -229,8 +227,7 @@ public abstract class AbstractMessageInterceptor extends InterceptorAdaptor {
             if (rule == null) {
                 return null;
             } else {
-                UnitFunction func = context.getUnitFunction(rule.getVariableFunction());
-                UnitRoute route = rule.getUnitRoute(message.getVariable(), func);
+                UnitRoute route = context.getUnitRoute(rule, message.getVariable());
                 Unit unit = route == null ? null : route.getUnit();
                 return unit == null ? null : unit.getCode();
             }
@@ -45,6 +45,7 @@ import com.jd.live.agent.governance.request.ServiceRequest;
 import com.jd.live.agent.governance.rule.tag.TagCondition;
 import lombok.Getter;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -220,6 +221,21 @@ public abstract class Invocation<T extends ServiceRequest> implements Matcher<Ta
         return matcher != null && matcher.match(condition, request);
     }
 
+    /**
+     * Returns the values of the tag of the request selected by the type and key of the condition.
+     *
+     * @param condition The tag condition.
+     * @return the values of the tag, or null if it's absent.
+     */
+    public List<String> getValues(TagCondition condition) {
+        if (condition == null || request == null || condition.getType() == null) {
+            return null;
+        }
+        Map<String, TagMatcher> matchers = context.getTagMatchers();
+        TagMatcher matcher = matchers == null ? null : matchers.get(condition.getType().toLowerCase());
+        return matcher == null ? null : matcher.getValues(condition, request);
+    }
+
     /**
      * Rejects the request with a specified fault type and reason.
      *
@@ -147,6 +147,17 @@ public interface InvocationContext {
      */
     UnitFunction getUnitFunction(String name);
 
+    /**
+     * Retrieves the unit route of the variable decided by the unit rule.
+     *
+     * @param rule     The unit rule.
+     * @param variable The live variable.
+     * @return The unit route, or null if no route matches the variable.
+     */
+    default UnitRoute getUnitRoute(UnitRule rule, String variable) {
+        return rule == null ? null : rule.getUnitRoute(variable, getUnitFunction(rule.getVariableFunction()));
+    }
+
     /**
      * Retrieves a variable function by its name.
      *
@@ -642,6 +653,11 @@ public interface InvocationContext {
             return delegate.getOrDefaultClusterInvoker(name);
         }
 
+        @Override
+        public UnitRoute getUnitRoute(UnitRule rule, String variable) {
+            return delegate.getUnitRoute(rule, variable);
+        }
+
         @Override
         public InboundFilter[] getInboundFilters() {
             return delegate.getInboundFilters();
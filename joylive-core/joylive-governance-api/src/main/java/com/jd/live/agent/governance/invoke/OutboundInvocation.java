@@ -20,6 +20,7 @@ import com.jd.live.agent.governance.event.TrafficEvent.ComponentType;
 import com.jd.live.agent.governance.event.TrafficEvent.Direction;
 import com.jd.live.agent.governance.event.TrafficEvent.TrafficEventBuilder;
 import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.instance.EndpointIndex;
 import com.jd.live.agent.governance.invoke.metadata.parser.LiveMetadataParser.OutboundLiveMetadataParser;
 import com.jd.live.agent.governance.invoke.metadata.parser.LiveMetadataParser.RpcOutboundLiveMetadataParser;
 import com.jd.live.agent.governance.invoke.metadata.parser.MetadataParser.LiveParser;
@@ -46,7 +47,7 @@ import java.util.List;
  */
 @Setter
 @Getter
-public abstract class OutboundInvocation<T extends OutboundRequest> extends Invocation<T> {
+public abstract class OutboundInvocation<T extends OutboundRequest> extends Invocation<T> implements Cloneable {
 
     /**
      * A list of endpoints that this outbound invocation targets.
@@ -98,12 +99,33 @@ public abstract class OutboundInvocation<T extends OutboundRequest> extends Invo
                 context.getApplication(), governancePolicy);
     }
 
+    /**
+     * Resets the state of the last attempt. The listeners are replaced by a new list rather than cleared,
+     * so an attempt still in flight, such as a hedged request, keeps notifying its own listeners.
+     */
     @Override
     public void reset() {
         listeners = null;
         routeTarget = null;
     }
 
+    /**
+     * Creates a copy of this invocation for an attempt running at the same time as the others, such as a hedged
+     * request. The copy shares the request and the parsed metadata, and has its own route target and listeners.
+     *
+     * @return the copy of this invocation.
+     */
+    @SuppressWarnings("unchecked")
+    public OutboundInvocation<T> fork() {
+        try {
+            OutboundInvocation<T> result = (OutboundInvocation<T>) clone();
+            result.reset();
+            return result;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Adds a {@link OutboundListener} to the list of listeners.
      *
@@ -160,6 +182,17 @@ public abstract class OutboundInvocation<T extends OutboundRequest> extends Invo
      * @param response the response received from the service.
      */
     public void onSuccess(Endpoint endpoint, ServiceResponse response) {
+        onSuccess(listeners, endpoint, response);
+    }
+
+    /**
+     * Handles the successful completion of an attempt, notifying the listeners of the attempt with the response.
+     *
+     * @param listeners the listeners of the attempt, may be null.
+     * @param endpoint  the endpoint to which the invocation was sent.
+     * @param response  the response received from the service.
+     */
+    public void onSuccess(List<OutboundListener> listeners, Endpoint endpoint, ServiceResponse response) {
         if (listeners != null) {
             listeners.forEach(listener -> listener.onSuccess(endpoint, this, response));
         }
@@ -173,6 +206,17 @@ public abstract class OutboundInvocation<T extends OutboundRequest> extends Invo
      * @param throwable the exception that caused the failure.
      */
     public void onFailure(Endpoint endpoint, Throwable throwable) {
+        onFailure(listeners, endpoint, throwable);
+    }
+
+    /**
+     * Handles the failure of an attempt, notifying the listeners of the attempt.
+     *
+     * @param listeners the listeners of the attempt, may be null.
+     * @param endpoint  the endpoint to which the invocation was sent.
+     * @param throwable the exception that caused the failure.
+     */
+    public void onFailure(List<OutboundListener> listeners, Endpoint endpoint, Throwable throwable) {
         if (listeners != null) {
             listeners.forEach(listener -> listener.onFailure(endpoint, this, throwable));
         }
@@ -196,11 +240,10 @@ public abstract class OutboundInvocation<T extends OutboundRequest> extends Invo
         if (null == routeTarget) {
             if (instances == null) {
                 routeTarget = RouteTarget.forward(new ArrayList<>());
-            } else if (instances instanceof ArrayList) {
-                routeTarget = RouteTarget.forward(instances);
             } else {
                 // use array list to improve performance.
-                routeTarget = RouteTarget.forward(new ArrayList<>(instances));
+                List<? extends Endpoint> endpoints = instances instanceof ArrayList ? instances : new ArrayList<>(instances);
+                routeTarget = RouteTarget.forward(endpoints, EndpointIndex.of(endpoints));
             }
         }
         return routeTarget;
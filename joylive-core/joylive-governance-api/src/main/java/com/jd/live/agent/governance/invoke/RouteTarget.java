@@ -17,15 +17,19 @@ package com.jd.live.agent.governance.invoke;
 
 import com.jd.live.agent.governance.instance.Endpoint;
 import com.jd.live.agent.governance.instance.EndpointGroup;
+import com.jd.live.agent.governance.instance.EndpointIndex;
+import com.jd.live.agent.governance.instance.EndpointIndex.Dimension;
 import com.jd.live.agent.governance.instance.UnitGroup;
 import com.jd.live.agent.governance.policy.live.Cell;
 import com.jd.live.agent.governance.policy.live.CellRoute;
 import com.jd.live.agent.governance.policy.live.Unit;
 import com.jd.live.agent.governance.policy.live.UnitRoute;
+import com.jd.live.agent.governance.rule.tag.TagGroup;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -45,8 +49,7 @@ public class RouteTarget {
     /**
      * The group of endpoints that this route target is associated with.
      */
-    @Getter
-    private final EndpointGroup instanceGroup;
+    private EndpointGroup instanceGroup;
 
     /**
      * The unit group associated with the unit in this route target.
@@ -81,10 +84,19 @@ public class RouteTarget {
     /**
      * A list of endpoints that this route target is currently operating on.
      */
-    @Getter
-    @Setter
     private List<? extends Endpoint> endpoints;
 
+    /**
+     * The index of the instances, or null if the instances are not indexed.
+     */
+    private EndpointIndex index;
+
+    /**
+     * The positions of the current endpoints in the instances while they are tracked by the index,
+     * otherwise null. The endpoints are collected lazily from the positions.
+     */
+    private BitSet selection;
+
     /**
      * Constructs a new RouteTarget with the given parameters.
      *
@@ -97,19 +109,68 @@ public class RouteTarget {
      */
     public RouteTarget(List<? extends Endpoint> instances, EndpointGroup instanceGroup,
                        Unit unit, UnitAction unitAction, UnitRoute unitRoute, CellRoute cellRoute) {
-        this.instances = instances == null && instanceGroup != null ? instanceGroup.getEndpoints() : instances;
         this.unit = unit == null && unitRoute != null ? unitRoute.getUnit() : unit;
-        this.instanceGroup = instanceGroup == null && instances != null ? new EndpointGroup(instances) : instanceGroup;
-        this.unitGroup = this.instanceGroup == null || this.unit == null ? null : this.instanceGroup.getUnitGroup(this.unit.getCode());
         this.unitAction = unitAction;
         this.unitRoute = unitRoute;
         this.cellRoute = cellRoute;
-        this.endpoints = unitGroup != null ? unitGroup.getEndpoints() : this.instances;
+        if (instances == null && instanceGroup != null && instanceGroup.getIndex() != null) {
+            // keep tracking the endpoints of the unit by the index
+            this.instances = instanceGroup.getInstances();
+            this.instanceGroup = instanceGroup;
+            this.index = instanceGroup.getIndex();
+            BitSet bits = this.unit == null ? null : instanceGroup.getSelection(this.unit.getCode());
+            this.selection = bits != null && !bits.isEmpty() ? bits : instanceGroup.getSelection();
+        } else {
+            this.instances = instances == null && instanceGroup != null ? instanceGroup.getEndpoints() : instances;
+            this.instanceGroup = instanceGroup == null && instances != null && this.unit != null ? new EndpointGroup(instances) : instanceGroup;
+            this.unitGroup = this.instanceGroup == null || this.unit == null ? null : this.instanceGroup.getUnitGroup(this.unit.getCode());
+            this.endpoints = unitGroup != null ? unitGroup.getEndpoints() : this.instances;
+        }
+    }
+
+    /**
+     * Constructs a new RouteTarget tracking the endpoints of the instances by the index.
+     *
+     * @param instances The list of endpoints matching the index.
+     * @param index     The index of the instances.
+     * @param selection The positions of the endpoints.
+     * @param unitRoute The route associated with the unit.
+     */
+    private RouteTarget(List<? extends Endpoint> instances, EndpointIndex index, BitSet selection, UnitRoute unitRoute) {
+        this.instances = instances;
+        this.index = index;
+        this.unitAction = UnitAction.forward();
+        this.unitRoute = unitRoute;
+        this.unit = unitRoute == null ? null : unitRoute.getUnit();
+        if (unit == null) {
+            this.selection = selection;
+        } else {
+            this.instanceGroup = new EndpointGroup(instances, index, selection);
+            BitSet bits = instanceGroup.getSelection(unit.getCode());
+            this.selection = bits.isEmpty() ? selection : bits;
+        }
+    }
+
+    /**
+     * Gets the group of the instances.
+     *
+     * @return The group of the instances.
+     */
+    public EndpointGroup getInstanceGroup() {
+        if (instanceGroup == null && instances != null) {
+            instanceGroup = index != null ? new EndpointGroup(instances, index, allOf(instances)) : new EndpointGroup(instances);
+        }
+        return instanceGroup;
     }
 
     public UnitGroup getUnitGroup() {
         // previous filters may filtrate the endpoints
-        if (unitGroup != null && unitGroup.size() == size()) {
+        if (selection != null) {
+            if (unitGroup == null || unitGroup.size() != size()) {
+                unitGroup = new UnitGroup(unit.getCode(), EndpointIndex.collect(instances, selection));
+            }
+            return unitGroup;
+        } else if (unitGroup != null && unitGroup.size() == size()) {
             return unitGroup;
         } else {
             unitGroup = new UnitGroup(unit.getCode(), endpoints);
@@ -126,12 +187,48 @@ public class RouteTarget {
         return cellRoute == null ? null : cellRoute.getCell();
     }
 
+    /**
+     * Gets the endpoints that this route target is currently operating on. The endpoints are no longer
+     * tracked by the index, because the caller may modify the list.
+     *
+     * @return The list of endpoints.
+     */
+    public List<? extends Endpoint> getEndpoints() {
+        if (selection != null) {
+            endpoints = EndpointIndex.collect(instances, selection);
+            selection = null;
+        }
+        return endpoints;
+    }
+
+    /**
+     * Sets the endpoints that this route target is currently operating on.
+     *
+     * @param endpoints The list of endpoints.
+     */
+    public void setEndpoints(List<? extends Endpoint> endpoints) {
+        this.endpoints = endpoints;
+        this.selection = null;
+    }
+
+    /**
+     * Checks if the endpoints are still tracked by the index.
+     *
+     * @return true if the endpoints are tracked by the index.
+     */
+    public boolean isIndexed() {
+        return selection != null;
+    }
+
     /**
      * Checks if the list of endpoints is empty.
      *
      * @return true if the list is null or empty, false otherwise.
      */
     public boolean isEmpty() {
+        if (selection != null) {
+            return selection.isEmpty();
+        }
         return endpoints == null || endpoints.isEmpty();
     }
 
@@ -141,6 +238,9 @@ public class RouteTarget {
      * @return The size of the list.
      */
     public int size() {
+        if (selection != null) {
+            return selection.cardinality();
+        }
         return endpoints == null ? 0 : endpoints.size();
     }
 
@@ -151,7 +251,7 @@ public class RouteTarget {
      */
     public void choose(Function<List<? extends Endpoint>, List<? extends Endpoint>> func) {
         if (func != null) {
-            List<? extends Endpoint> values = func.apply(endpoints);
+            List<? extends Endpoint> values = func.apply(getEndpoints());
             endpoints = values != null ? values : new ArrayList<>();
         }
     }
@@ -163,8 +263,8 @@ public class RouteTarget {
      * @return The filtered list of endpoints.
      */
     public List<? extends Endpoint> filtrate(Predicate<Endpoint> predicate) {
-        filter(endpoints, predicate, -1, true);
-        return endpoints;
+        filter(predicate, -1, true);
+        return getEndpoints();
     }
 
     /**
@@ -175,8 +275,8 @@ public class RouteTarget {
      * @return The filtered list of endpoints.
      */
     public List<? extends Endpoint> filtrate(Predicate<Endpoint> predicate, int maxSize) {
-        filter(endpoints, predicate, maxSize, true);
-        return endpoints;
+        filter(predicate, maxSize, true);
+        return getEndpoints();
     }
 
     /**
@@ -188,8 +288,8 @@ public class RouteTarget {
      * @return The filtered list of endpoints.
      */
     public List<? extends Endpoint> filtrate(Predicate<Endpoint> predicate, int maxSize, boolean nullable) {
-        filter(endpoints, predicate, maxSize, nullable);
-        return endpoints;
+        filter(predicate, maxSize, nullable);
+        return getEndpoints();
     }
 
     /**
@@ -199,7 +299,7 @@ public class RouteTarget {
      * @return The count of endpoints that matched the predicate.
      */
     public int filter(Predicate<Endpoint> predicate) {
-        return filter(endpoints, predicate, -1, true);
+        return filter(predicate, -1, true);
     }
 
     /**
@@ -210,7 +310,7 @@ public class RouteTarget {
      * @return The count of endpoints that matched the predicate.
      */
     public int filter(Predicate<Endpoint> predicate, int maxSize) {
-        return filter(endpoints, predicate, maxSize, true);
+        return filter(predicate, maxSize, true);
     }
 
     /**
@@ -222,7 +322,104 @@ public class RouteTarget {
      * @return The count of endpoints that matched the predicate.
      */
     public int filter(Predicate<Endpoint> predicate, int maxSize, boolean nullable) {
-        return filter(endpoints, predicate, maxSize, nullable);
+        if (selection == null) {
+            return filter(endpoints, predicate, maxSize, nullable);
+        } else if (predicate == null && maxSize <= 0) {
+            return selection.cardinality();
+        }
+        BitSet bits = new BitSet(instances.size());
+        int count = 0;
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            if (predicate == null || predicate.test(instances.get(i))) {
+                bits.set(i);
+                if (maxSize > 0 && ++count >= maxSize) {
+                    break;
+                }
+            }
+        }
+        return select(bits, nullable);
+    }
+
+    /**
+     * Filters the endpoints based on the provided predicate, which only depends on the labels of the dimension.
+     * The predicate is evaluated once per distinct value of the dimension while the endpoints are tracked by the index.
+     *
+     * @param dimension The dimension of the labels the predicate depends on.
+     * @param predicate The predicate to use for filtering.
+     * @param nullable  Whether a null list is acceptable.
+     * @return The count of endpoints that matched the predicate.
+     */
+    public int filter(Dimension dimension, Predicate<Endpoint> predicate, boolean nullable) {
+        if (selection == null) {
+            return filter(endpoints, predicate, -1, nullable);
+        }
+        return select(index.select(dimension, instances, predicate), nullable);
+    }
+
+    /**
+     * Filters the endpoints based on the provided predicate, which only depends on the labels of the dimension.
+     *
+     * @param dimension The dimension of the labels the predicate depends on.
+     * @param predicate The predicate to use for filtering.
+     * @return The count of endpoints that matched the predicate.
+     */
+    public int filter(Dimension dimension, Predicate<Endpoint> predicate) {
+        return filter(dimension, predicate, true);
+    }
+
+    /**
+     * Filters the endpoints matching the tag group.
+     *
+     * @param group The tag group.
+     * @return The count of endpoints that matched the tag group.
+     */
+    public int filter(TagGroup group) {
+        BitSet bits = selection == null ? null : index.select(group, instances);
+        return bits == null ? filter(group::match, -1, true) : select(bits, true);
+    }
+
+    /**
+     * Creates a route target of the unit route, which keeps tracking the endpoints by the index.
+     *
+     * @param route The unit route.
+     * @return A new RouteTarget of the current endpoints.
+     */
+    public RouteTarget forward(UnitRoute route) {
+        if (selection == null) {
+            return route == null ? forward(getEndpoints()) : forward(getEndpoints(), route);
+        }
+        return new RouteTarget(instances, index, selection, route);
+    }
+
+    /**
+     * Creates a group of the current endpoints.
+     *
+     * @return A group of the current endpoints.
+     */
+    public EndpointGroup toGroup() {
+        return selection == null ? new EndpointGroup(endpoints) : new EndpointGroup(instances, index, selection);
+    }
+
+    /**
+     * Narrows the selection to the positions.
+     *
+     * @param bits     The positions to keep.
+     * @param nullable Whether a null list is acceptable.
+     * @return The count of endpoints that matched.
+     */
+    private int select(BitSet bits, boolean nullable) {
+        bits.and(selection);
+        int count = bits.cardinality();
+        if (count > 0 || nullable) {
+            selection = bits;
+        }
+        return count;
+    }
+
+    private static BitSet allOf(List<? extends Endpoint> instances) {
+        BitSet result = new BitSet(instances.size());
+        result.set(0, instances.size());
+        return result;
     }
 
     /**
@@ -232,7 +429,7 @@ public class RouteTarget {
      * @return A new list containing the filtered endpoints. If the input list or predicate is null, returns the original list.
      */
     public List<? extends Endpoint> tryCopy(Predicate<Endpoint> predicate) {
-        return tryCopy(endpoints, predicate, 0);
+        return tryCopy(getEndpoints(), predicate, 0);
     }
 
     /**
@@ -349,6 +546,21 @@ public class RouteTarget {
         return new RouteTarget(instances, null, null, UnitAction.forward(), null, null);
     }
 
+    /**
+     * Static method to create a RouteTarget instance that represents a forward action, whose endpoints are
+     * tracked by the index of the instances.
+     *
+     * @param instances The list of endpoints to forward to.
+     * @param index     The index matching the instances, or null.
+     * @return A new RouteTarget instance representing the forward action.
+     */
+    public static RouteTarget forward(List<? extends Endpoint> instances, EndpointIndex index) {
+        if (index == null || instances == null || instances.isEmpty()) {
+            return forward(instances);
+        }
+        return new RouteTarget(instances, index, allOf(instances), null);
+    }
+
     /**
      * Static method to create a RouteTarget instance that represents a forward action with a unit route.
      *
@@ -19,6 +19,7 @@ import com.jd.live.agent.core.inject.annotation.Inject;
 import com.jd.live.agent.core.util.URI;
 import com.jd.live.agent.core.util.time.Timer;
 import com.jd.live.agent.governance.config.GovernanceConfig;
+import com.jd.live.agent.governance.invoke.counter.GovernanceMeter;
 import com.jd.live.agent.governance.policy.service.circuitbreak.CircuitBreakPolicy;
 
 import java.util.Map;
@@ -48,6 +49,9 @@ public abstract class AbstractCircuitBreakerFactory implements CircuitBreakerFac
     @Inject(GovernanceConfig.COMPONENT_GOVERNANCE_CONFIG)
     private GovernanceConfig governanceConfig;
 
+    @Inject(nullable = true)
+    private GovernanceMeter meter;
+
     private final AtomicBoolean recycled = new AtomicBoolean(false);
 
     @Override
@@ -61,6 +65,9 @@ public abstract class AbstractCircuitBreakerFactory implements CircuitBreakerFac
             return circuitBreaker;
         }
         CircuitBreaker breaker = create(policy, uri);
+        if (meter != null) {
+            breaker.addListener(e -> meter.recordStateChange(uri, e.getFrom(), e.getTo()));
+        }
         while (true) {
             circuitBreaker = reference.get();
             if (circuitBreaker == null || circuitBreaker.getPolicy().getVersion() < policy.getVersion()) {
@@ -22,6 +22,7 @@ import com.jd.live.agent.governance.exception.ServiceError;
 import com.jd.live.agent.governance.instance.Endpoint;
 import com.jd.live.agent.governance.invoke.InvocationContext;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
+import com.jd.live.agent.governance.invoke.OutboundListener;
 import com.jd.live.agent.governance.policy.service.cluster.ClusterPolicy;
 import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
 import com.jd.live.agent.governance.response.ServiceResponse.OutboundResponse;
@@ -29,6 +30,7 @@ import com.jd.live.agent.governance.response.ServiceResponse.OutboundResponse;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
 
 /**
  * Abstract implementation of {@link ClusterInvoker} that manages the invocation of services
@@ -84,28 +86,39 @@ public abstract class AbstractClusterInvoker implements ClusterInvoker {
                 try {
                     endpoint = context.route(invocation, v);
                     E instance = endpoint;
+                    // the listeners of this attempt, which are kept when the invocation is reset by a hedged attempt.
+                    List<OutboundListener> listeners = invocation.getListeners();
                     onStartRequest(cluster, request, endpoint);
-                    CompletionStage<O> stage = context.outbound(invocation, endpoint, () -> cluster.invoke(request, instance));
+                    CompletionStage<O> stage = context.outbound(invocation, endpoint, () -> dispatch(cluster, invocation, instance));
+                    result.whenComplete((o, r) -> {
+                        if (result.isCancelled() && stage instanceof Future) {
+                            // propagate the cancellation to the framework where it allows.
+                            ((Future<?>) stage).cancel(false);
+                        }
+                    });
                     stage.whenComplete((o, r) -> {
-                        if (r != null) {
+                        if (result.isCancelled()) {
+                            // the attempt is abandoned by the caller, such as the loser of hedged requests.
+                            cluster.onDiscard(request);
+                        } else if (r != null) {
                             logger.error("Exception occurred when invoke, caused by " + r.getMessage(), r);
-                            onException(cluster, invocation, o, new ServiceError(r, false), instance, result);
+                            onException(cluster, invocation, listeners, o, new ServiceError(r, false), instance, result);
                         } else {
                             ServiceError error = o.getError();
                             if (error != null && error.hasException()) {
-                                onException(cluster, invocation, o, error, instance, result);
+                                onException(cluster, invocation, listeners, o, error, instance, result);
                             } else {
-                                onSuccess(cluster, invocation, o, request, instance, result);
+                                onSuccess(cluster, invocation, listeners, o, request, instance, result);
                             }
                         }
                     });
                 } catch (Throwable e) {
                     logger.error("Exception occurred when routing, caused by " + e.getMessage(), e);
-                    onException(cluster, invocation, null, new ServiceError(e, false), endpoint, result);
+                    onException(cluster, invocation, invocation.getListeners(), null, new ServiceError(e, false), endpoint, result);
                 }
             } else {
                 logger.error("Exception occurred when service discovery, caused by " + t.getMessage(), t);
-                onException(cluster, invocation, null, new ServiceError(t, false), null, result);
+                onException(cluster, invocation, invocation.getListeners(), null, new ServiceError(t, false), null, result);
             }
         });
         return result;
@@ -128,6 +141,24 @@ public abstract class AbstractClusterInvoker implements ClusterInvoker {
         cluster.onStartRequest(request, instance);
     }
 
+    /**
+     * Sends the request to the endpoint at the end of the outbound filter chain, when the request leaves the agent.
+     * Subclasses can override this method to observe the dispatch.
+     *
+     * @param <R>        The type of the outbound request that extends {@link OutboundRequest}.
+     * @param <O>        The type of the outbound response that extends {@link OutboundResponse}.
+     * @param <E>        The type of the endpoint that extends {@link Endpoint}.
+     * @param cluster    The live cluster context in which the invocation is taking place.
+     * @param invocation The {@link OutboundInvocation} of the attempt.
+     * @param endpoint   The endpoint to which the request is sent.
+     * @return A {@link CompletionStage} that completes with the response of the endpoint.
+     */
+    protected <R extends OutboundRequest,
+            O extends OutboundResponse,
+            E extends Endpoint> CompletionStage<O> dispatch(LiveCluster<R, O, E> cluster, OutboundInvocation<R> invocation, E endpoint) {
+        return cluster.invoke(invocation.getRequest(), endpoint);
+    }
+
     /**
      * Handles a successful request response.
      *
@@ -136,6 +167,7 @@ public abstract class AbstractClusterInvoker implements ClusterInvoker {
      * @param <E>        the type of the endpoint
      * @param cluster    the live cluster instance representing the current active cluster
      * @param invocation the outbound invocation instance representing the outbound call
+     * @param listeners  the listeners of the attempt, may be null
      * @param response   the instance representing the outbound response
      * @param request    the instance representing the outbound request
      * @param endpoint   the endpoint instance representing the endpoint
@@ -145,12 +177,13 @@ public abstract class AbstractClusterInvoker implements ClusterInvoker {
             O extends OutboundResponse,
             E extends Endpoint> void onSuccess(LiveCluster<R, O, E> cluster,
                                                OutboundInvocation<R> invocation,
+                                               List<OutboundListener> listeners,
                                                O response,
                                                R request,
                                                E endpoint,
                                                CompletableFuture<O> result) {
         try {
-            invocation.onSuccess(endpoint, response);
+            invocation.onSuccess(listeners, endpoint, response);
             cluster.onSuccess(response, request, endpoint);
         } catch (Throwable e) {
             logger.warn("Exception occurred when onSuccess, caused by " + e.getMessage(), e);
@@ -172,6 +205,7 @@ public abstract class AbstractClusterInvoker implements ClusterInvoker {
      *                   occurred before an endpoint was selected.
      * @param cluster    The live cluster context in which the invocation was taking place.
      * @param invocation The {@link OutboundInvocation} representing the specific request and its routing information.
+     * @param listeners  The listeners of the attempt, may be null.
      * @param result     The {@link CompletableFuture} that should be completed to signal the outcome of the
      *                   invocation. Implementers can complete this future exceptionally or with a default
      *                   response.
@@ -180,6 +214,7 @@ public abstract class AbstractClusterInvoker implements ClusterInvoker {
             O extends OutboundResponse,
             E extends Endpoint> void onException(LiveCluster<R, O, E> cluster,
                                                  OutboundInvocation<R> invocation,
+                                                 List<OutboundListener> listeners,
                                                  O response,
                                                  ServiceError error,
                                                  E endpoint,
@@ -191,7 +226,7 @@ public abstract class AbstractClusterInvoker implements ClusterInvoker {
         response = response != null && serverError ? response : cluster.createResponse(cause, request, endpoint);
         error = response.getError();
         try {
-            invocation.onFailure(endpoint, cause);
+            invocation.onFailure(listeners, endpoint, cause);
             if (error == null) {
                 // Request was handled successfully by degrade
                 cluster.onSuccess(response, request, endpoint);
@@ -39,12 +39,16 @@ public interface ClusterInvoker {
 
     String TYPE_FAILSAFE = "failsafe";
 
+    String TYPE_HEDGING = "hedging";
+
     int ORDER_FAILFAST = 0;
 
     int ORDER_FAILOVER = ORDER_FAILFAST + 1;
 
     int ORDER_FAILSAFE = ORDER_FAILOVER + 1;
 
+    int ORDER_HEDGING = ORDER_FAILSAFE + 1;
+
     /**
      * Executes a service request against a live cluster of endpoints. The method handles
      * the entire invocation process, including selecting endpoints based on the provided
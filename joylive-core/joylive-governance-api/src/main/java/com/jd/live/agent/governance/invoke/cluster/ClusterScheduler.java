@@ -0,0 +1,68 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.cluster;
+
+import com.jd.live.agent.core.thread.NamedThreadFactory;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A precise scheduler of the delayed attempts of the cluster invokers, such as the retry backoff and the hedged
+ * requests, whose delays are too short for the ticks of the agent timer.
+ * <p>
+ * The attempts are sent on the scheduler threads, and the idle threads exit after a minute.
+ *
+ * @since 1.6.0
+ */
+public class ClusterScheduler {
+
+    private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final long KEEP_ALIVE_TIME = 60L;
+
+    private ClusterScheduler() {
+    }
+
+    /**
+     * Schedules the task after the delay.
+     *
+     * @param delay the delay in milliseconds.
+     * @param task  the task.
+     * @return the future to cancel the task.
+     */
+    public static ScheduledFuture<?> schedule(long delay, Runnable task) {
+        return Holder.EXECUTOR.schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The lazily created executor.
+     */
+    private static class Holder {
+
+        private static final ScheduledThreadPoolExecutor EXECUTOR = create();
+
+        private static ScheduledThreadPoolExecutor create() {
+            ScheduledThreadPoolExecutor result = new ScheduledThreadPoolExecutor(THREADS,
+                    new NamedThreadFactory("LiveClusterScheduler", true));
+            result.setRemoveOnCancelPolicy(true);
+            result.setKeepAliveTime(KEEP_ALIVE_TIME, TimeUnit.SECONDS);
+            result.allowCoreThreadTimeOut(true);
+            return result;
+        }
+    }
+}
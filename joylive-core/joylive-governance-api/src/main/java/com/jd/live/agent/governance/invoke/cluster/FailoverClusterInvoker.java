@@ -22,6 +22,7 @@ import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.core.extension.annotation.Extension;
 import com.jd.live.agent.core.inject.annotation.Inject;
 import com.jd.live.agent.core.inject.annotation.Injectable;
+import com.jd.live.agent.core.util.URI;
 import com.jd.live.agent.governance.exception.ErrorCause;
 import com.jd.live.agent.governance.exception.ErrorPolicy;
 import com.jd.live.agent.governance.exception.RetryException.RetryExhaustedException;
@@ -29,6 +30,8 @@ import com.jd.live.agent.governance.exception.RetryException.RetryTimeoutExcepti
 import com.jd.live.agent.governance.exception.ServiceError;
 import com.jd.live.agent.governance.instance.Endpoint;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
+import com.jd.live.agent.governance.invoke.counter.GovernanceMeter;
+import com.jd.live.agent.governance.invoke.metadata.ServiceMetadata;
 import com.jd.live.agent.governance.invoke.filter.route.CircuitBreakerFilter;
 import com.jd.live.agent.governance.policy.service.ServicePolicy;
 import com.jd.live.agent.governance.policy.service.cluster.ClusterPolicy;
@@ -53,6 +56,9 @@ import static com.jd.live.agent.governance.util.Predicates.isError;
  * This invoker is designed to automatically retry a failed request based on a defined {@link RetryPolicy}.
  * The failover mechanism is essential for enhancing the reliability and availability of service invocations
  * by rerouting failed requests to alternative instances within the cluster.
+ * <p>
+ * The retries wait for the backoff of the retry policy, which is scheduled on the {@link ClusterScheduler}
+ * instead of blocking the calling thread, and are limited by a retry budget per service to avoid a retry storm.
  */
 @Injectable
 @Extension(value = ClusterInvoker.TYPE_FAILOVER, order = ClusterInvoker.ORDER_FAILOVER)
@@ -63,6 +69,11 @@ public class FailoverClusterInvoker extends AbstractClusterInvoker {
     @Inject
     private Map<String, CodeParser> codeParsers;
 
+    @Inject(nullable = true)
+    private GovernanceMeter meter;
+
+    private final RetryBudgets budgets = new RetryBudgets();
+
     @Override
     public <R extends OutboundRequest,
             O extends OutboundResponse,
@@ -77,7 +88,15 @@ public class FailoverClusterInvoker extends AbstractClusterInvoker {
         if (retryPolicy != null && request.isDependentOnResponseBody(retryPolicy)) {
             request.getAttributeIfAbsent(Request.KEY_ERROR_POLICY, k -> new HashSet<ErrorPolicy>()).add(retryPolicy);
         }
-        RetryContext<R, O, E> retryContext = new RetryContext<>(codeParsers, retryPolicy, cluster);
+        ServiceMetadata metadata = invocation.getServiceMetadata();
+        RetryBudget budget = null;
+        if (retryPolicy != null && retryPolicy.isEnabled() && retryPolicy.isBudgetEnabled()) {
+            Integer minRetries = retryPolicy.getBudgetMinRetries();
+            budget = budgets.get(metadata.getServiceName() + "@" + metadata.getServiceGroup(), minRetries == null ? 0 : minRetries);
+            budget.deposit(retryPolicy.getBudgetRatio());
+        }
+        RetryContext<R, O, E> retryContext = new RetryContext<>(codeParsers, retryPolicy, cluster,
+                meter, budget, metadata.getUri());
         Supplier<CompletionStage<O>> supplier = () -> invoke(cluster, invocation, retryContext.getCount());
         cluster.onStart(request);
         return retryContext.execute(request, supplier).exceptionally(e ->
@@ -117,6 +136,21 @@ public class FailoverClusterInvoker extends AbstractClusterInvoker {
          */
         private final LiveCluster<R, O, E> cluster;
 
+        /**
+         * The meter recording the retry attempts, or null if they are not recorded.
+         */
+        private final GovernanceMeter meter;
+
+        /**
+         * The retry budget of the service, or null if the retries are not limited by a budget.
+         */
+        private final RetryBudget budget;
+
+        /**
+         * The service uri of the invocation.
+         */
+        private final URI uri;
+
         /**
          * A counter tracking the number of retry attempts made.
          */
@@ -132,11 +166,22 @@ public class FailoverClusterInvoker extends AbstractClusterInvoker {
          *
          * @param retryPolicy The {@link RetryPolicy} to govern retry behavior.
          * @param cluster     The {@link LiveCluster} managing the distribution and processing of the request
+         * @param meter       The meter recording the retry attempts, or null if they are not recorded.
+         * @param budget      The retry budget of the service, or null if the retries are not limited by a budget.
+         * @param uri         The service uri of the invocation.
          */
-        RetryContext(Map<String, CodeParser> errorParsers, RetryPolicy retryPolicy, LiveCluster<R, O, E> cluster) {
+        RetryContext(Map<String, CodeParser> errorParsers,
+                     RetryPolicy retryPolicy,
+                     LiveCluster<R, O, E> cluster,
+                     GovernanceMeter meter,
+                     RetryBudget budget,
+                     URI uri) {
             this.errorParsers = errorParsers;
             this.retryPolicy = retryPolicy;
             this.cluster = cluster;
+            this.meter = meter;
+            this.budget = budget;
+            this.uri = uri;
             this.counter = new AtomicInteger(0);
             this.deadline = retryPolicy == null ? 0 : retryPolicy.getDeadline(System.currentTimeMillis());
         }
@@ -177,6 +222,9 @@ public class FailoverClusterInvoker extends AbstractClusterInvoker {
         private void doExecute(R request, Supplier<CompletionStage<O>> supplier, CompletableFuture<O> future) {
             int count = counter.getAndIncrement();
             cluster.onRetry(count);
+            if (count > 0 && meter != null) {
+                meter.recordRetry(uri);
+            }
             CompletionStage<O> stage = supplier.get();
             stage.whenComplete((v, e) -> {
                 ServiceError se = v.getError();
@@ -186,8 +234,14 @@ public class FailoverClusterInvoker extends AbstractClusterInvoker {
                         Throwable unreadyException = cluster.isDestroyed() ? cluster.createException(new RejectUnreadyException(), request) : null;
                         if (unreadyException != null) {
                             future.completeExceptionally(unreadyException);
+                        } else if (budget != null && !budget.withdraw(getMinRetries())) {
+                            // the retry budget of the service is used up, return the last result.
+                            if (meter != null) {
+                                meter.recordRetryThrottled(uri);
+                            }
+                            complete(future, v, e);
                         } else {
-                            doExecute(request, supplier, future);
+                            retry(request, supplier, future, count + 1, throwable);
                         }
                         break;
                     case EXHAUSTED:
@@ -197,15 +251,52 @@ public class FailoverClusterInvoker extends AbstractClusterInvoker {
                         future.completeExceptionally(new RetryTimeoutException("retry is timeout.", throwable, retryPolicy.getTimeout()));
                         break;
                     default:
-                        if (e != null) {
-                            future.completeExceptionally(e);
-                        } else {
-                            future.complete(v);
-                        }
+                        complete(future, v, e);
                 }
             });
         }
 
+        /**
+         * Executes the next retry after the backoff of the retry policy. The delayed retry is scheduled
+         * on the cluster scheduler, so the calling thread is never blocked.
+         *
+         * @param request   The request that was being processed.
+         * @param supplier  A supplier providing the operation to be executed.
+         * @param future    The {@link CompletableFuture} to be completed with the operation's result.
+         * @param retries   The number of the retry, starting from 1.
+         * @param throwable The error of the last attempt.
+         */
+        private void retry(R request, Supplier<CompletionStage<O>> supplier, CompletableFuture<O> future,
+                           int retries, Throwable throwable) {
+            long backoff = retryPolicy.getBackoff(retries);
+            if (backoff <= 0) {
+                doExecute(request, supplier, future);
+            } else if (deadline > 0 && System.currentTimeMillis() + backoff > deadline) {
+                future.completeExceptionally(new RetryTimeoutException("retry is timeout.", throwable, retryPolicy.getTimeout()));
+            } else {
+                ClusterScheduler.schedule(backoff, () -> {
+                    try {
+                        doExecute(request, supplier, future);
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+            }
+        }
+
+        private void complete(CompletableFuture<O> future, O response, Throwable e) {
+            if (e != null) {
+                future.completeExceptionally(e);
+            } else {
+                future.complete(response);
+            }
+        }
+
+        private int getMinRetries() {
+            Integer minRetries = retryPolicy.getBudgetMinRetries();
+            return minRetries == null ? 0 : minRetries;
+        }
+
         private int getCount() {
             return counter.get();
         }
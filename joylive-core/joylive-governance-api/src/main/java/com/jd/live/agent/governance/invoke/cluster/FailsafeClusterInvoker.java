@@ -20,11 +20,13 @@ import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.core.extension.annotation.Extension;
 import com.jd.live.agent.governance.instance.Endpoint;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
+import com.jd.live.agent.governance.invoke.OutboundListener;
 import com.jd.live.agent.governance.policy.service.cluster.ClusterPolicy;
 import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
 import com.jd.live.agent.governance.exception.ServiceError;
 import com.jd.live.agent.governance.response.ServiceResponse.OutboundResponse;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
@@ -58,13 +60,14 @@ public class FailsafeClusterInvoker extends AbstractClusterInvoker {
             O extends OutboundResponse,
             E extends Endpoint> void onException(LiveCluster<R, O, E> cluster,
                                                   OutboundInvocation<R> invocation,
+                                                  List<OutboundListener> listeners,
                                                   O response,
                                                   ServiceError error,
                                                   E endpoint,
                                                   CompletableFuture<O> result) {
         logger.error("Failsafe ignore exception: " + error.getError());
         R request = invocation.getRequest();
-        invocation.onFailure(endpoint, error.getThrowable());
+        invocation.onFailure(listeners, endpoint, error.getThrowable());
         response = cluster.createResponse(null, request, null);
         cluster.onSuccess(response, request, endpoint);
         result.complete(response);
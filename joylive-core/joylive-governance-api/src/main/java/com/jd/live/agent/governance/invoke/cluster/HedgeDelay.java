@@ -0,0 +1,106 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.cluster;
+
+import com.jd.live.agent.governance.invoke.counter.LatencyHistogram;
+import com.jd.live.agent.governance.invoke.counter.LatencyWindow;
+
+/**
+ * The hedge delay of a method, which is the percentile of the latency of its recent requests.
+ * <p>
+ * The latency is recorded by the hedging invoker itself, because the counters of the endpoints are only
+ * created by the load balancers which need them. The delay is refreshed once per bucket of the sliding window,
+ * because computing the percentile for every request is too expensive, and it's 0 until enough requests
+ * have been recorded in the window.
+ *
+ * @since 1.6.0
+ */
+public class HedgeDelay {
+
+    /**
+     * The time span in milliseconds of a bucket of the sliding window.
+     */
+    private static final long BUCKET_TIME = 1000L;
+
+    /**
+     * The number of the buckets of the sliding window.
+     */
+    private static final int BUCKETS = 10;
+
+    /**
+     * The minimum number of the requests in the window to compute the delay.
+     */
+    private static final long MIN_SAMPLES = 20;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    private final LatencyWindow window = new LatencyWindow(histogram, BUCKETS);
+
+    private long rotateTime;
+
+    private volatile long refreshTime;
+
+    private volatile double percentile;
+
+    private volatile long delay;
+
+    public HedgeDelay(long now) {
+        this.rotateTime = now;
+        this.refreshTime = now;
+    }
+
+    /**
+     * Records the latency of a succeeded request.
+     *
+     * @param elapsed the latency in milliseconds.
+     */
+    public void record(long elapsed) {
+        histogram.record(elapsed);
+    }
+
+    /**
+     * Returns the delay before a hedged request is sent.
+     *
+     * @param percentile the percentile of the latency in (0, 100).
+     * @param now        the current time in milliseconds.
+     * @return the delay in milliseconds, or 0 if there are not enough requests in the window.
+     */
+    public long get(double percentile, long now) {
+        if (now - refreshTime >= BUCKET_TIME || percentile != this.percentile) {
+            refresh(percentile, now);
+        }
+        return delay;
+    }
+
+    private synchronized void refresh(double percentile, long now) {
+        long elapsed = now - rotateTime;
+        if (elapsed >= BUCKET_TIME) {
+            long buckets = Math.min(elapsed / BUCKET_TIME, BUCKETS);
+            for (int i = 0; i < buckets; i++) {
+                window.rotate();
+            }
+            rotateTime = now - elapsed % BUCKET_TIME;
+        }
+        long[] counts = window.getCounts();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        delay = total < MIN_SAMPLES ? 0 : LatencyHistogram.getPercentile(counts, null, percentile);
+        this.percentile = percentile;
+        refreshTime = now;
+    }
+}
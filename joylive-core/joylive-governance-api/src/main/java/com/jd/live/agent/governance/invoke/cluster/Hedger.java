@@ -0,0 +1,250 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.cluster;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Sends the attempts of a hedged request.
+ * <p>
+ * The first attempt is sent at once, and if the request has not completed within the delay, a hedged attempt
+ * is sent, up to the given number of hedges. The first succeeded attempt completes the request and cancels the
+ * others, and the request fails only when all the sent attempts have failed. The hedged attempts are scheduled
+ * on the {@link ClusterScheduler}, and each of them withdraws a token from the retry budget.
+ * <p>
+ * Each attempt has its own invocation, but they share the request of the framework, whose attributes are used
+ * to hand over the state of an attempt between the load balancer and the outbound filters. A hedged attempt is
+ * therefore not sent until the previous one has left the agent, see {@link #onDispatch()}, or has completed.
+ * If the delay elapses before that, the hedge is deferred until then rather than dropped.
+ *
+ * @param <O> the type of the response.
+ * @since 1.6.0
+ */
+public class Hedger<O> {
+
+    private final IntFunction<CompletionStage<O>> sender;
+
+    private final int hedges;
+
+    private final long delay;
+
+    private final RetryBudget budget;
+
+    private final int minRetries;
+
+    private final HedgeListener listener;
+
+    private final CompletableFuture<O> result = new CompletableFuture<>();
+
+    /**
+     * The futures of the sent attempts.
+     */
+    private final List<CompletableFuture<O>> attempts = new CopyOnWriteArrayList<>();
+
+    /**
+     * The number of the attempts which are in flight.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * The number of the attempts which have released the shared request, by leaving the agent or completing.
+     */
+    private final AtomicInteger released = new AtomicInteger();
+
+    /**
+     * The index of the hedged attempt waiting for the previous one to release the shared request, or 0 if none.
+     */
+    private final AtomicInteger deferred = new AtomicInteger();
+
+    /**
+     * The index of the last sent attempt.
+     */
+    private volatile int current;
+
+    private volatile ScheduledFuture<?> timeout;
+
+    /**
+     * Constructs a new hedger.
+     *
+     * @param sender     the function sending the attempt of the given index, starting from 0.
+     * @param hedges     the maximum number of the hedged attempts.
+     * @param delay      the delay in milliseconds before a hedged attempt is sent.
+     * @param budget     the retry budget of the service.
+     * @param minRetries the number of retries per second allowed by the budget regardless of the ratio.
+     * @param listener   the listener of the hedged attempts, may be null.
+     */
+    public Hedger(IntFunction<CompletionStage<O>> sender,
+                  int hedges,
+                  long delay,
+                  RetryBudget budget,
+                  int minRetries,
+                  HedgeListener listener) {
+        this.sender = sender;
+        this.hedges = hedges;
+        this.delay = delay;
+        this.budget = budget;
+        this.minRetries = minRetries;
+        this.listener = listener;
+    }
+
+    /**
+     * Sends the first attempt, and schedules the hedged attempts.
+     *
+     * @return a {@link CompletionStage} completed with the first succeeded response.
+     */
+    public CompletionStage<O> execute() {
+        send(0);
+        return result;
+    }
+
+    /**
+     * Notifies that the last sent attempt has left the agent at the end of its outbound filter chain.
+     */
+    public void onDispatch() {
+        release(current);
+    }
+
+    /**
+     * Returns the number of the sent attempts.
+     *
+     * @return the number of the sent attempts.
+     */
+    public int getAttempts() {
+        return attempts.size();
+    }
+
+    /**
+     * Sends an attempt, and schedules the next hedged attempt.
+     *
+     * @param index the index of the attempt, starting from 0.
+     */
+    private void send(int index) {
+        pending.incrementAndGet();
+        current = index;
+        if (index > 0 && listener != null) {
+            listener.onHedge(index);
+        }
+        CompletableFuture<O> future;
+        try {
+            future = sender.apply(index).toCompletableFuture();
+        } catch (Throwable e) {
+            release(index);
+            onComplete(null, e);
+            return;
+        }
+        attempts.add(future);
+        future.whenComplete((o, e) -> {
+            release(index);
+            onComplete(o, e);
+        });
+        if (index < hedges && !result.isDone()) {
+            timeout = ClusterScheduler.schedule(delay, () -> hedge(index + 1));
+        }
+    }
+
+    /**
+     * Sends a hedged attempt if the request has not completed yet.
+     *
+     * @param index the index of the attempt.
+     */
+    private void hedge(int index) {
+        if (result.isDone()) {
+            return;
+        } else if (released.get() < index) {
+            // the previous attempt is still in the agent, the hedge is sent once it releases the shared request.
+            deferred.set(index);
+            if (released.get() < index || !deferred.compareAndSet(index, 0)) {
+                return;
+            }
+        }
+        if (!budget.withdraw(minRetries)) {
+            if (listener != null) {
+                listener.onThrottle();
+            }
+            return;
+        }
+        send(index);
+    }
+
+    /**
+     * Marks the attempt as having released the shared request, and sends the deferred hedge if any.
+     *
+     * @param index the index of the attempt.
+     */
+    private void release(int index) {
+        if (released.compareAndSet(index, index + 1)) {
+            int next = index + 1;
+            if (deferred.get() == next && deferred.compareAndSet(next, 0)) {
+                // not in the thread of the released attempt, which is about to call the framework.
+                ClusterScheduler.schedule(0, () -> hedge(next));
+            }
+        }
+    }
+
+    /**
+     * Handles the completion of an attempt. The first succeeded attempt completes the request and cancels
+     * the others, and the request fails if all the sent attempts have failed.
+     *
+     * @param response the response of the attempt.
+     * @param e        the exception of the attempt.
+     */
+    private void onComplete(O response, Throwable e) {
+        int remaining = pending.decrementAndGet();
+        if (e == null) {
+            if (result.complete(response)) {
+                cancel();
+            }
+        } else if (remaining <= 0 && result.completeExceptionally(e)) {
+            cancel();
+        }
+    }
+
+    private void cancel() {
+        ScheduledFuture<?> t = timeout;
+        if (t != null) {
+            t.cancel(false);
+        }
+        for (CompletableFuture<O> attempt : attempts) {
+            if (!attempt.isDone()) {
+                attempt.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * A listener of the hedged attempts.
+     */
+    public interface HedgeListener {
+
+        /**
+         * Called before a hedged attempt is sent.
+         *
+         * @param index the index of the attempt, starting from 1.
+         */
+        void onHedge(int index);
+
+        /**
+         * Called when a hedged attempt is not sent because the retry budget is used up.
+         */
+        void onThrottle();
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.cluster;
+
+import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.core.inject.annotation.Inject;
+import com.jd.live.agent.core.inject.annotation.Injectable;
+import com.jd.live.agent.core.util.URI;
+import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.invoke.OutboundInvocation;
+import com.jd.live.agent.governance.invoke.counter.GovernanceMeter;
+import com.jd.live.agent.governance.invoke.metadata.ServiceMetadata;
+import com.jd.live.agent.governance.policy.PolicyId;
+import com.jd.live.agent.governance.policy.service.ServicePolicy;
+import com.jd.live.agent.governance.policy.service.cluster.ClusterPolicy;
+import com.jd.live.agent.governance.policy.service.cluster.RetryPolicy;
+import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
+import com.jd.live.agent.governance.response.ServiceResponse.OutboundResponse;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@code ClusterInvoker} that implements the hedging invocation strategy to cut the tail latency.
+ * <p>
+ * The request is sent to an endpoint, and if it has not completed within the hedge delay, a hedged request
+ * is sent to a different endpoint, up to the retry count of the {@link RetryPolicy}. The first succeeded
+ * response is returned, and the other attempts are cancelled where the framework allows. The request fails
+ * only when all the attempts have failed.
+ * </p>
+ * <p>
+ * The hedge delay is the fixed delay of the retry policy, or the percentile of the latency of the method
+ * in a sliding window, see {@link HedgeDelay}. The latency is recorded by this invoker regardless of the load
+ * balancer, and the requests are not hedged until enough of them have been recorded. Only the methods accepted by {@link RetryPolicy#containsMethod(String)}
+ * are hedged, so they should be idempotent, and the hedged requests are limited by the retry budget of the
+ * service. The attempts are sent by a {@link Hedger}, and each hedged attempt is routed with its own
+ * {@link OutboundInvocation#fork() copy} of the invocation. The attempts still share the request of the framework,
+ * so a hedge is only sent once the previous attempt has left the agent, and the framework has to accept the same
+ * request being sent to several endpoints at once, as Dubbo's forking cluster does.
+ * </p>
+ *
+ * @since 1.6.0
+ */
+@Injectable
+@Extension(value = ClusterInvoker.TYPE_HEDGING, order = ClusterInvoker.ORDER_HEDGING)
+public class HedgingClusterInvoker extends AbstractClusterInvoker {
+
+    private static final String KEY_HEDGER = "hedger";
+
+    /**
+     * The default percentile of the latency used as the hedge delay.
+     */
+    private static final double DEFAULT_PERCENTILE = 95;
+
+    /**
+     * The default ratio of the hedged requests to the requests, if the budget is not configured.
+     */
+    private static final double DEFAULT_BUDGET_RATIO = 0.1;
+
+    @Inject(nullable = true)
+    private GovernanceMeter meter;
+
+    private final RetryBudgets budgets = new RetryBudgets();
+
+    private final Map<String, HedgeDelay> delays = new ConcurrentHashMap<>();
+
+    @Override
+    public <R extends OutboundRequest,
+            O extends OutboundResponse,
+            E extends Endpoint> CompletionStage<O> execute(LiveCluster<R, O, E> cluster,
+                                                            OutboundInvocation<R> invocation,
+                                                            ClusterPolicy defaultPolicy) {
+        ServiceMetadata metadata = invocation.getServiceMetadata();
+        ServicePolicy servicePolicy = metadata.getServicePolicy();
+        ClusterPolicy clusterPolicy = servicePolicy == null ? null : servicePolicy.getClusterPolicy();
+        RetryPolicy retryPolicy = clusterPolicy == null ? null : clusterPolicy.getRetryPolicy();
+        retryPolicy = retryPolicy == null && defaultPolicy != null ? defaultPolicy.getRetryPolicy() : retryPolicy;
+        R request = invocation.getRequest();
+        cluster.onStart(request);
+        if (retryPolicy == null
+                || retryPolicy.getRetry() == null
+                || retryPolicy.getRetry() <= 0
+                || !retryPolicy.containsMethod(request.getMethod())) {
+            return invoke(cluster, invocation, 0);
+        }
+        String service = metadata.getServiceName() + "@" + metadata.getServiceGroup();
+        Double ratio = retryPolicy.getBudgetRatio();
+        Integer minRetries = retryPolicy.getBudgetMinRetries();
+        RetryBudget budget = budgets.get(service, minRetries == null ? 0 : minRetries);
+        budget.deposit(ratio == null ? DEFAULT_BUDGET_RATIO : ratio);
+        HedgeDelay hedgeDelay = getHedgeDelay(invocation, retryPolicy, service);
+        long delay = getDelay(hedgeDelay, retryPolicy);
+        if (delay <= 0) {
+            return record(hedgeDelay, invoke(cluster, invocation, 0));
+        }
+        Hedger<O> hedger = new Hedger<>(index -> record(hedgeDelay,
+                invoke(cluster, index == 0 ? invocation : invocation.fork(), index)), retryPolicy.getRetry(), delay,
+                budget, minRetries == null ? 0 : minRetries, new HedgeRecorder(cluster, metadata.getUri()));
+        request.setAttribute(KEY_HEDGER, hedger);
+        return hedger.execute().exceptionally(e ->
+                cluster.createResponse(
+                        cluster.createException(e, invocation),
+                        request,
+                        null));
+    }
+
+    @Override
+    protected <R extends OutboundRequest,
+            O extends OutboundResponse,
+            E extends Endpoint> CompletionStage<O> dispatch(LiveCluster<R, O, E> cluster, OutboundInvocation<R> invocation, E endpoint) {
+        Hedger<?> hedger = invocation.getRequest().getAttribute(KEY_HEDGER);
+        if (hedger != null) {
+            hedger.onDispatch();
+        }
+        return super.dispatch(cluster, invocation, endpoint);
+    }
+
+    /**
+     * Returns the latency tracker of the method, if the delay is not fixed by the retry policy.
+     *
+     * @param invocation  the outbound invocation.
+     * @param retryPolicy the retry policy.
+     * @param service     the key of the service.
+     * @return the latency tracker, or null if the delay is fixed.
+     */
+    private HedgeDelay getHedgeDelay(OutboundInvocation<?> invocation, RetryPolicy retryPolicy, String service) {
+        Long delay = retryPolicy.getHedgeDelay();
+        if (delay != null && delay > 0) {
+            return null;
+        }
+        URI uri = invocation.getServiceMetadata().getUri();
+        return delays.computeIfAbsent(service + uri.getPath() + "#" + uri.getParameter(PolicyId.KEY_SERVICE_METHOD),
+                k -> new HedgeDelay(System.currentTimeMillis()));
+    }
+
+    /**
+     * Returns the delay before a hedged request is sent.
+     *
+     * @param hedgeDelay  the latency tracker of the method, or null if the delay is fixed.
+     * @param retryPolicy the retry policy.
+     * @return the delay in milliseconds, or 0 if the request should not be hedged.
+     */
+    private long getDelay(HedgeDelay hedgeDelay, RetryPolicy retryPolicy) {
+        if (hedgeDelay == null) {
+            return retryPolicy.getHedgeDelay();
+        }
+        Double percentile = retryPolicy.getHedgePercentile();
+        double value = percentile == null || percentile <= 0 || percentile >= 100 ? DEFAULT_PERCENTILE : percentile;
+        return hedgeDelay.get(value, System.currentTimeMillis());
+    }
+
+    /**
+     * Records the latency of an attempt if it succeeds.
+     *
+     * @param hedgeDelay the latency tracker of the method, or null if the delay is fixed.
+     * @param stage      the stage of the attempt.
+     * @return the stage.
+     */
+    private <O> CompletionStage<O> record(HedgeDelay hedgeDelay, CompletionStage<O> stage) {
+        if (hedgeDelay != null) {
+            long startTime = System.currentTimeMillis();
+            stage.whenComplete((o, e) -> {
+                if (e == null) {
+                    hedgeDelay.record(System.currentTimeMillis() - startTime);
+                }
+            });
+        }
+        return stage;
+    }
+
+    /**
+     * A listener recording the hedged attempts of a request.
+     */
+    private class HedgeRecorder implements Hedger.HedgeListener {
+
+        private final LiveCluster<?, ?, ?> cluster;
+
+        private final URI uri;
+
+        HedgeRecorder(LiveCluster<?, ?, ?> cluster, URI uri) {
+            this.cluster = cluster;
+            this.uri = uri;
+        }
+
+        @Override
+        public void onHedge(int index) {
+            cluster.onRetry(index);
+            if (meter != null) {
+                meter.recordHedge(uri);
+            }
+        }
+
+        @Override
+        public void onThrottle() {
+            if (meter != null) {
+                meter.recordRetryThrottled(uri);
+            }
+        }
+    }
+}
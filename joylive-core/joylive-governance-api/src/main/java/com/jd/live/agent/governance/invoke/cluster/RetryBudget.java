@@ -0,0 +1,152 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.cluster;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket limiting the ratio of the retries to the requests of a service.
+ * <p>
+ * Every request deposits {@code ratio} tokens, and every retry withdraws a whole token, so the retries can not
+ * exceed the given ratio of the requests over time. In addition, {@code minRetries} tokens are refilled per
+ * second, so that a service with little traffic can still retry. The balance is capped to avoid a burst of
+ * retries after a long quiet period, and a new budget is seeded with a few tokens, so that the first failures
+ * of a service which has just been called can be retried.
+ * <p>
+ * The tokens are kept in thousandths in a single atomic field, so that depositing never blocks.
+ *
+ * @since 1.6.0
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000L;
+
+    /**
+     * The maximum balance in tokens.
+     */
+    private static final long MAX_TOKENS = 100L;
+
+    /**
+     * The minimum tokens of a new budget.
+     */
+    private static final long MIN_TOKENS = 10L;
+
+    private final AtomicLong balance;
+
+    private final AtomicLong refillTime = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * The last time in milliseconds the budget was used, which is updated at most once per second.
+     */
+    private volatile long accessTime = refillTime.get();
+
+    public RetryBudget() {
+        this(0);
+    }
+
+    /**
+     * Constructs a new budget.
+     *
+     * @param minRetries the number of retries per second allowed regardless of the ratio, the budget is seeded
+     *                   with the same tokens, but at least {@value #MIN_TOKENS}.
+     */
+    public RetryBudget(int minRetries) {
+        this.balance = new AtomicLong(Math.min(MAX_TOKENS, Math.max(MIN_TOKENS, minRetries)) * SCALE);
+    }
+
+    /**
+     * Deposits the tokens of a request.
+     *
+     * @param ratio the maximum ratio of the retries to the requests.
+     */
+    public void deposit(double ratio) {
+        long now = System.currentTimeMillis();
+        if (now - accessTime >= 1000L) {
+            accessTime = now;
+        }
+        add((long) (ratio * SCALE));
+    }
+
+    /**
+     * Tries to withdraw a token for a retry.
+     *
+     * @param minRetries the number of retries per second allowed regardless of the ratio.
+     * @return true if the retry is allowed.
+     */
+    public boolean withdraw(int minRetries) {
+        if (minRetries > 0) {
+            refill(minRetries);
+        }
+        long current;
+        while (true) {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            } else if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the current balance in tokens.
+     *
+     * @return the balance.
+     */
+    public double getBalance() {
+        return (double) balance.get() / SCALE;
+    }
+
+    /**
+     * Returns the last time the budget was used.
+     *
+     * @return the time in milliseconds, which is accurate to a second.
+     */
+    public long getAccessTime() {
+        return accessTime;
+    }
+
+    /**
+     * Refills the tokens of the elapsed time.
+     *
+     * @param minRetries the number of the tokens refilled per second.
+     */
+    private void refill(int minRetries) {
+        long now = System.currentTimeMillis();
+        long last = refillTime.get();
+        long elapsed = now - last;
+        // refill in steps of at least one token to keep the contended field quiet.
+        if (elapsed * minRetries >= 1000L && refillTime.compareAndSet(last, now)) {
+            add(elapsed * minRetries * SCALE / 1000L);
+        }
+    }
+
+    private void add(long tokens) {
+        long max = MAX_TOKENS * SCALE;
+        long current;
+        long next;
+        while (true) {
+            current = balance.get();
+            if (current >= max) {
+                return;
+            }
+            next = Math.min(max, current + tokens);
+            if (balance.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.cluster;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The retry budgets of the services, the budget of a service which is not called for a while is removed.
+ *
+ * @since 1.6.0
+ */
+public class RetryBudgets {
+
+    /**
+     * The default time in milliseconds after which an unused budget is removed.
+     */
+    private static final long EXPIRE_TIME = 10 * 60 * 1000L;
+
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    private final long expireTime;
+
+    private final AtomicLong sweepTime;
+
+    public RetryBudgets() {
+        this(EXPIRE_TIME);
+    }
+
+    public RetryBudgets(long expireTime) {
+        this.expireTime = expireTime;
+        this.sweepTime = new AtomicLong(System.currentTimeMillis() + expireTime);
+    }
+
+    /**
+     * Returns the budget of the service, which is created if absent.
+     *
+     * @param service    the key of the service.
+     * @param minRetries the number of retries per second allowed regardless of the ratio.
+     * @return the budget of the service.
+     */
+    public RetryBudget get(String service, int minRetries) {
+        RetryBudget budget = budgets.computeIfAbsent(service, k -> new RetryBudget(minRetries));
+        long now = System.currentTimeMillis();
+        long time = sweepTime.get();
+        if (now >= time && sweepTime.compareAndSet(time, now + expireTime)) {
+            // the budget removed while it's being used only loses a few tokens.
+            budgets.entrySet().removeIf(e -> e.getValue() != budget && now - e.getValue().getAccessTime() >= expireTime);
+        }
+        return budget;
+    }
+
+    /**
+     * Returns the number of the budgets.
+     *
+     * @return the number of the budgets.
+     */
+    public int size() {
+        return budgets.size();
+    }
+}
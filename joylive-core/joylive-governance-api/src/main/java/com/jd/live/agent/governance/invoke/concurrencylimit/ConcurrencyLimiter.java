@@ -31,6 +31,16 @@ public interface ConcurrencyLimiter {
      */
     boolean acquire();
 
+    /**
+     * Releases the permit obtained by {@link #acquire()} when the request is completed.
+     *
+     * @param elapsed   the elapsed time of the request in milliseconds.
+     * @param succeeded whether the request succeeded.
+     */
+    default void release(long elapsed, boolean succeeded) {
+
+    }
+
     /**
      * Retrieves the timestamp of the last successful acquisition.
      *
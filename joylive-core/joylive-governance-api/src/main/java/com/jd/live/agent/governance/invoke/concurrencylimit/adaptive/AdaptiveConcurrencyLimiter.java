@@ -0,0 +1,238 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.concurrencylimit.adaptive;
+
+import com.jd.live.agent.governance.config.AdaptiveLimiterConfig;
+import com.jd.live.agent.governance.invoke.concurrencylimit.AbstractConcurrencyLimiter;
+import com.jd.live.agent.governance.policy.service.limit.ConcurrencyLimitPolicy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A concurrency limiter which adjusts its limit from the observed response time against the minimum
+ * response time, in the style of the gradient and Vegas algorithms.
+ * <p>
+ * The response times of the successful requests are sampled in windows. At the end of a window the limit is
+ * moved towards {@code limit * gradient + sqrt(limit)}, where the gradient is
+ * {@code tolerance * minRtt / rtt} clamped to [0.5, 1]. So the limit grows by the square root of itself while
+ * the response time stays within the tolerance, and shrinks as soon as requests start queueing. The limit does
+ * not grow if the window did not use half of it, and it's bounded by the max concurrency of the policy.
+ * <p>
+ * The minimum response time is probed again periodically, so that a service which became permanently slower
+ * does not drive the limit down to the lower bound. A probe halves the limit for one window. If that barely
+ * reduces the response time, the response time does not come from queueing, and it's taken as the new
+ * minimum. Otherwise the service is overloaded, and the minimum is kept. Then the limit is restored.
+ *
+ * @since 1.6.0
+ */
+public class AdaptiveConcurrencyLimiter extends AbstractConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private static final double MIN_RTT = 1.0;
+
+    /**
+     * The ratio of the response time of a probe to the one before it, above which the response time is
+     * considered not to come from queueing.
+     */
+    private static final double PROBE_RATIO = 0.75;
+
+    private final AdaptiveLimiterConfig config;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final LongSupplier clock;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    /**
+     * The peak of the inflight requests in the current window.
+     */
+    private final AtomicInteger peakInflight = new AtomicInteger();
+
+    private final LongAdder windowElapsed = new LongAdder();
+
+    private final LongAdder windowSamples = new LongAdder();
+
+    private final AtomicLong windowEnd;
+
+    private volatile double limit;
+
+    /**
+     * The state of the response time, which is replaced as a whole by the thread closing a window, so the
+     * next thread closing a window sees all of its fields.
+     */
+    private final AtomicReference<RttState> state = new AtomicReference<>(new RttState(0, 0, 0, 0));
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitPolicy policy, AdaptiveLimiterConfig config) {
+        this(policy, config, System::currentTimeMillis);
+    }
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitPolicy policy, AdaptiveLimiterConfig config, LongSupplier clock) {
+        super(policy);
+        this.config = config;
+        this.clock = clock;
+        Integer maxConcurrency = policy.getMaxConcurrency();
+        this.maxLimit = maxConcurrency == null || maxConcurrency <= 0 ? Integer.MAX_VALUE : maxConcurrency;
+        this.minLimit = Math.max(1, Math.min(config.getMinLimit(), maxLimit));
+        this.limit = Math.max(minLimit, Math.min(config.getInitialLimit(), maxLimit));
+        this.windowEnd = new AtomicLong(clock.getAsLong() + config.getWindowTime());
+    }
+
+    @Override
+    protected boolean doAcquire() {
+        int max = (int) limit;
+        int current;
+        while (true) {
+            current = inflight.get();
+            if (current >= max) {
+                return false;
+            } else if (inflight.compareAndSet(current, current + 1)) {
+                updatePeak(current + 1);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void release(long elapsed, boolean succeeded) {
+        inflight.decrementAndGet();
+        if (succeeded) {
+            // the response time of a failure, such as a timeout, says nothing about the queueing.
+            windowElapsed.add(elapsed);
+            windowSamples.increment();
+        }
+        long now = clock.getAsLong();
+        long end = windowEnd.get();
+        if (now >= end && windowSamples.sum() >= config.getWindowSamples()
+                && windowEnd.compareAndSet(end, now + config.getWindowTime())) {
+            update(now);
+        }
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the current limit.
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Returns the number of the inflight requests.
+     *
+     * @return the number of the inflight requests.
+     */
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    /**
+     * Closes the current window and adjusts the limit from its response time.
+     *
+     * @param now the current time in milliseconds.
+     */
+    private void update(long now) {
+        long samples = windowSamples.sumThenReset();
+        long elapsed = windowElapsed.sumThenReset();
+        int peak = peakInflight.getAndSet(inflight.get());
+        if (samples <= 0) {
+            return;
+        }
+        double rtt = Math.max(MIN_RTT, (double) elapsed / samples);
+        RttState old = state.get();
+        double minRtt = old.minRtt;
+        if (old.probeLimit > 0) {
+            // halving the concurrency did not help if the response time barely drops, so the service became slower.
+            minRtt = rtt > old.probeRtt * PROBE_RATIO ? rtt : minRtt;
+            if (state.compareAndSet(old, new RttState(minRtt, now + config.getProbeInterval(), 0, 0))) {
+                limit = old.probeLimit;
+            }
+            return;
+        } else if (minRtt <= 0 || rtt < minRtt) {
+            minRtt = rtt;
+            if (!state.compareAndSet(old, new RttState(minRtt, now + config.getProbeInterval(), 0, 0))) {
+                return;
+            }
+        } else if (now >= old.probeTime) {
+            double current = limit;
+            if (state.compareAndSet(old, new RttState(minRtt, old.probeTime, current, rtt))) {
+                limit = Math.max(minLimit, current / 2);
+            }
+            return;
+        }
+        double current = limit;
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, config.getTolerance() * minRtt / rtt));
+        double target = current * gradient + Math.sqrt(current);
+        if (target > current && peak < current / 2) {
+            // the traffic did not use the limit, so its response time does not justify a larger one.
+            return;
+        }
+        double smoothing = config.getSmoothing();
+        double next = current * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    private void updatePeak(int value) {
+        int current = peakInflight.get();
+        while (value > current) {
+            if (peakInflight.compareAndSet(current, value)) {
+                return;
+            }
+            current = peakInflight.get();
+        }
+    }
+
+    /**
+     * The immutable state of the response time.
+     */
+    private static class RttState {
+
+        /**
+         * The minimum response time.
+         */
+        private final double minRtt;
+
+        /**
+         * The time of the next probe.
+         */
+        private final long probeTime;
+
+        /**
+         * The limit before the probe, or 0 if it's not probing.
+         */
+        private final double probeLimit;
+
+        /**
+         * The response time of the window before the probe.
+         */
+        private final double probeRtt;
+
+        RttState(double minRtt, long probeTime, double probeLimit, double probeRtt) {
+            this.minRtt = minRtt;
+            this.probeTime = probeTime;
+            this.probeLimit = probeLimit;
+            this.probeRtt = probeRtt;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.counter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An accumulator of a cumulative statistic.
+ */
+interface Accumulator {
+
+    /**
+     * Adds the given value.
+     *
+     * @param value the value to add.
+     */
+    void add(long value);
+
+    /**
+     * Returns the current sum.
+     *
+     * @return the current sum.
+     */
+    long get();
+
+    /**
+     * Resets the sum to zero.
+     */
+    void reset();
+
+    /**
+     * Creates an accumulator.
+     *
+     * @param striped true to create an accumulator backed by striped cells.
+     * @return the accumulator.
+     */
+    static Accumulator of(boolean striped) {
+        return striped ? new StripedAccumulator() : new AtomicAccumulator();
+    }
+
+    /**
+     * An accumulator backed by a single atomic field.
+     */
+    class AtomicAccumulator implements Accumulator {
+
+        private final AtomicLong value = new AtomicLong();
+
+        @Override
+        public void add(long value) {
+            this.value.addAndGet(value);
+        }
+
+        @Override
+        public long get() {
+            return value.get();
+        }
+
+        @Override
+        public void reset() {
+            value.set(0);
+        }
+    }
+
+    /**
+     * An accumulator backed by striped cells.
+     */
+    class StripedAccumulator implements Accumulator {
+
+        private final LongAdder value = new LongAdder();
+
+        @Override
+        public void add(long value) {
+            this.value.add(value);
+        }
+
+        @Override
+        public long get() {
+            return value.sum();
+        }
+
+        @Override
+        public void reset() {
+            value.reset();
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.jd.live.agent.governance.invoke.counter;
 
+import com.jd.live.agent.governance.config.CounterConfig;
 import lombok.Getter;
 
 import java.util.concurrent.atomic.AtomicInteger;
@@ -26,6 +27,10 @@ import java.util.concurrent.atomic.AtomicReference;
  * elapsed time for each request. It also provides methods to calculate average elapsed time, maximum elapsed time,
  * and average transactions per second (TPS).
  * <p>
+ * In striped mode, the cumulative statistics are accumulated in {@link java.util.concurrent.atomic.LongAdder} cells, so the concurrent callers
+ * do not bounce a shared cache line on every {@link #end(long, boolean)}. The maximum statistics are only written
+ * when they actually grow.
+ * <p>
  * It's from org.apache.dubbo.rpc.RpcStatus
  */
 public class Counter {
@@ -37,19 +42,19 @@ public class Counter {
     /**
      * The total number of requests.
      */
-    private final AtomicLong total = new AtomicLong();
+    private final Accumulator total;
     /**
      * The number of failed requests.
      */
-    private final AtomicInteger failed = new AtomicInteger();
+    private final Accumulator failed;
     /**
      * The total elapsed time for all requests.
      */
-    private final AtomicLong totalElapsed = new AtomicLong();
+    private final Accumulator totalElapsed;
     /**
      * The total elapsed time for failed requests.
      */
-    private final AtomicLong failedElapsed = new AtomicLong();
+    private final Accumulator failedElapsed;
     /**
      * The maximum elapsed time for any request.
      */
@@ -62,23 +67,56 @@ public class Counter {
      * The maximum elapsed time for any successful request.
      */
     private final AtomicLong succeededMaxElapsed = new AtomicLong();
+    /**
+     * The latency distribution of successful requests, or null if it's disabled.
+     */
+    @Getter
+    private final LatencyHistogram histogram;
+    /**
+     * The statistics of the recent requests.
+     */
+    @Getter
+    private final RollingWindow window;
+    /**
+     * The peak-sensitive moving average of the response time, which is created on demand.
+     */
+    private volatile PeakEwma peakEwma;
     /**
      * The current snapshot of the counter's state.
      */
-    private final AtomicReference<CounterSnapshot> snapshot = new AtomicReference<>(new CounterSnapshot(this));
+    private final AtomicReference<CounterSnapshot> snapshot;
+
+    /**
+     * The exported latency meter of the requests, or null if it's not exported.
+     */
+    private final GovernanceMeter.LatencyMeter meter;
 
     @Getter
     private final ServiceCounter service;
 
     protected Counter(ServiceCounter service) {
+        this(service, service == null ? null : service.getConfig());
+    }
+
+    protected Counter(ServiceCounter service, CounterConfig config) {
+        this(service, config, null);
+    }
+
+    protected Counter(ServiceCounter service, CounterConfig config, GovernanceMeter.LatencyMeter meter) {
+        boolean striped = config == null || config.isStriped();
         this.service = service;
+        this.total = Accumulator.of(striped);
+        this.failed = Accumulator.of(striped);
+        this.totalElapsed = Accumulator.of(striped);
+        this.failedElapsed = Accumulator.of(striped);
+        this.histogram = config == null || config.isHistogram() ? new LatencyHistogram() : null;
+        this.window = new RollingWindow(config == null ? 10 : config.getWindowBuckets(), striped);
+        this.snapshot = new AtomicReference<>(new CounterSnapshot(this));
+        this.meter = meter;
     }
 
     public boolean begin(int max) {
         max = (max <= 0) ? Integer.MAX_VALUE : max;
-        if (active.get() == Integer.MAX_VALUE) {
-            return false;
-        }
         for (int i; ; ) {
             i = active.get();
 
@@ -87,13 +125,9 @@ public class Counter {
             }
 
             if (active.compareAndSet(i, i + 1)) {
-                break;
+                return true;
             }
         }
-
-        active.incrementAndGet();
-
-        return true;
     }
 
     public void success(long elapsed) {
@@ -106,24 +140,27 @@ public class Counter {
 
     public void end(long elapsed, boolean succeeded) {
         active.decrementAndGet();
-        total.incrementAndGet();
-        totalElapsed.addAndGet(elapsed);
-
-        if (maxElapsed.get() < elapsed) {
-            maxElapsed.set(elapsed);
+        total.add(1);
+        totalElapsed.add(elapsed);
+        updateMax(maxElapsed, elapsed);
+        window.record(elapsed, succeeded);
+        PeakEwma ewma = peakEwma;
+        if (ewma != null) {
+            ewma.update(elapsed);
         }
 
         if (succeeded) {
-            if (succeededMaxElapsed.get() < elapsed) {
-                succeededMaxElapsed.set(elapsed);
+            updateMax(succeededMaxElapsed, elapsed);
+            if (histogram != null) {
+                histogram.record(elapsed);
             }
-
         } else {
-            failed.incrementAndGet();
-            failedElapsed.addAndGet(elapsed);
-            if (failedMaxElapsed.get() < elapsed) {
-                failedMaxElapsed.set(elapsed);
-            }
+            failed.add(1);
+            failedElapsed.add(elapsed);
+            updateMax(failedMaxElapsed, elapsed);
+        }
+        if (meter != null) {
+            meter.record(elapsed, succeeded);
         }
     }
 
@@ -132,7 +169,7 @@ public class Counter {
     }
 
     public long getTotal() {
-        return total.longValue();
+        return total.get();
     }
 
     public long getTotalElapsed() {
@@ -151,7 +188,7 @@ public class Counter {
         return maxElapsed.get();
     }
 
-    public int getFailed() {
+    public long getFailed() {
         return failed.get();
     }
 
@@ -191,6 +228,16 @@ public class Counter {
         return succeededMaxElapsed.get();
     }
 
+    /**
+     * Returns the elapsed time of successful requests at the given percentile since the counter was created.
+     *
+     * @param percentile the percentile in the range [0, 100], such as 50, 99 or 99.9.
+     * @return the elapsed time, or 0 if the histogram is disabled or empty.
+     */
+    public long getPercentileElapsed(double percentile) {
+        return histogram == null ? 0 : histogram.getPercentile(percentile);
+    }
+
     public long getAverageTps() {
         if (getTotalElapsed() >= 1000L) {
             return getTotal() / (getTotalElapsed() / 1000L);
@@ -198,6 +245,26 @@ public class Counter {
         return getTotal();
     }
 
+    /**
+     * Returns the peak-sensitive moving average of the response time, creating it on first call.
+     * The average only tracks the requests ending after it's created.
+     *
+     * @return the peak-sensitive moving average.
+     */
+    public PeakEwma getOrCreatePeakEwma() {
+        PeakEwma result = peakEwma;
+        if (result == null) {
+            synchronized (this) {
+                result = peakEwma;
+                if (result == null) {
+                    result = new PeakEwma();
+                    peakEwma = result;
+                }
+            }
+        }
+        return result;
+    }
+
     public CounterSnapshot getSnapshot() {
         return snapshot.get();
     }
@@ -205,4 +272,27 @@ public class Counter {
     public void snapshot() {
         snapshot.set(new CounterSnapshot(this));
     }
+
+    /**
+     * Advances the sliding window of the recent requests.
+     */
+    public void rotate() {
+        window.rotate();
+    }
+
+    /**
+     * Updates the maximum value, only writing the shared field when the value actually grows.
+     *
+     * @param max   the maximum value.
+     * @param value the new value.
+     */
+    private static void updateMax(AtomicLong max, long value) {
+        long current = max.get();
+        while (value > current) {
+            if (max.compareAndSet(current, value)) {
+                return;
+            }
+            current = max.get();
+        }
+    }
 }
@@ -17,6 +17,7 @@ package com.jd.live.agent.governance.invoke.counter;
 
 import com.jd.live.agent.core.util.URI;
 import com.jd.live.agent.core.util.time.Timer;
+import com.jd.live.agent.governance.config.CounterConfig;
 import com.jd.live.agent.governance.policy.PolicyId;
 
 import java.util.Map;
@@ -29,15 +30,29 @@ public class CounterManager {
 
     private final Timer timer;
 
+    private final CounterConfig config;
+
+    private final GovernanceMeter meter;
+
     // service&group/endpoint/path&method
     private final Map<String, ServiceCounter> counter = new ConcurrentHashMap<>();
 
     public CounterManager(Timer timer) {
+        this(timer, null);
+    }
+
+    public CounterManager(Timer timer, CounterConfig config) {
+        this(timer, config, null);
+    }
+
+    public CounterManager(Timer timer, CounterConfig config, GovernanceMeter meter) {
         this.timer = timer;
+        this.config = config;
+        this.meter = meter;
     }
 
     public ServiceCounter getOrCreate(URI uri) {
-        return counter.computeIfAbsent(getServiceKey(uri), n -> new ServiceCounter(n, timer));
+        return counter.computeIfAbsent(getServiceKey(uri), n -> new ServiceCounter(n, timer, config, meter));
     }
 
     public ServiceCounter get(URI uri) {
@@ -18,7 +18,7 @@ package com.jd.live.agent.governance.invoke.counter;
 /**
  * A class that represents a snapshot of the Counter class's state at a specific point in time. It allows you to
  * calculate the estimated response time for the system based on the current number of active requests and the
- * average elapsed time for successful requests.
+ * average elapsed time for successful requests in the recent sliding window.
  */
 public class CounterSnapshot {
 
@@ -27,30 +27,29 @@ public class CounterSnapshot {
      */
     private final Counter counter;
     /**
-     * The offset of the number of successful requests at the time this snapshot was taken.
+     * The bucket counts of the latency histogram at the time this snapshot was taken, or null if it's disabled.
      */
-    private final long succeededOffset;
-    /**
-     * The offset of the total elapsed time for successful requests at the time this snapshot was taken.
-     */
-    private final long succeededElapsedOffset;
+    private final long[] histogramOffset;
 
     public CounterSnapshot(Counter counter) {
         this.counter = counter;
-        this.succeededOffset = counter.getSucceeded();
-        this.succeededElapsedOffset = counter.getSucceededElapsed();
+        LatencyHistogram histogram = counter.getHistogram();
+        this.histogramOffset = histogram == null ? null : histogram.getCounts();
     }
 
-    private long getSucceededAverageElapsed() {
-        long succeed = this.counter.getSucceeded() - this.succeededOffset;
-        if (succeed == 0) {
-            return 0;
-        }
-        return (this.counter.getSucceededElapsed() - this.succeededElapsedOffset) / succeed;
+    /**
+     * Returns the elapsed time of successful requests at the given percentile since this snapshot was taken.
+     *
+     * @param percentile the percentile in the range [0, 100], such as 50, 99 or 99.9.
+     * @return the elapsed time, or 0 if the histogram is disabled or no request has succeeded since the snapshot.
+     */
+    public long getPercentileElapsed(double percentile) {
+        LatencyHistogram histogram = counter.getHistogram();
+        return histogram == null ? 0 : histogram.getPercentile(percentile, histogramOffset);
     }
 
     public long getEstimateResponse() {
         int active = this.counter.getActive() + 1;
-        return getSucceededAverageElapsed() * active;
+        return this.counter.getWindow().getSucceededAverageElapsed() * active;
     }
 }
@@ -53,11 +53,21 @@ public class EndpointCounter {
      * @return The Counter instance.
      */
     public Counter getOrCreate(URI uri) {
-        return counters.computeIfAbsent(getMethodKey(uri), n -> new Counter(service));
+        return counters.computeIfAbsent(getMethodKey(uri), n -> new Counter(service, service.getConfig(), service.getLatencyMeter(uri)));
     }
 
     /**
-     * Takes a snapshot of all counters for this service.
+     * Returns the Counter instance associated with the specified URI.
+     *
+     * @param uri The URI for which to retrieve the Counter.
+     * @return The Counter instance, or null if it doesn't exist.
+     */
+    public Counter get(URI uri) {
+        return counters.get(getMethodKey(uri));
+    }
+
+    /**
+     * Takes a snapshot of all counters for this endpoint.
      */
     protected void snapshot() {
         for (Counter counter : counters.values()) {
@@ -65,6 +75,15 @@ public class EndpointCounter {
         }
     }
 
+    /**
+     * Advances the sliding windows of all counters for this endpoint.
+     */
+    protected void rotate() {
+        for (Counter counter : counters.values()) {
+            counter.rotate();
+        }
+    }
+
     private String getMethodKey(URI uri) {
         String method = uri.getParameter(PolicyId.KEY_SERVICE_METHOD);
         return method == null || method.isEmpty() ? uri.getPath() : uri.getPath() + "?method=" + method;
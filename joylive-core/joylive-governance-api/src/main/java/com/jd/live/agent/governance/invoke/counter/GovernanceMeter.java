@@ -0,0 +1,117 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.counter;
+
+import com.jd.live.agent.core.extension.annotation.Extensible;
+import com.jd.live.agent.core.util.URI;
+import com.jd.live.agent.governance.invoke.circuitbreak.CircuitBreakerState;
+import com.jd.live.agent.governance.policy.service.limit.ConcurrencyLimitPolicy;
+
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * A meter exporting the cost and the effect of the governance layer, such as the latency distribution,
+ * the retry attempts and the circuit breaker state transitions.
+ * <p>
+ * The uri is the service uri of the invocation, whose host is the service name, and whose parameters
+ * carry the group and the method. Implementations are responsible for bounding the cardinality of the
+ * exported series.
+ *
+ * @since 1.6.0
+ */
+@Extensible("GovernanceMeter")
+public interface GovernanceMeter {
+
+    /**
+     * Returns the latency meter of the service uri. The result is cached by the caller, so this method
+     * is not on the hot path.
+     *
+     * @param uri the service uri.
+     * @return the latency meter, or null if the latency is not recorded.
+     */
+    LatencyMeter getLatencyMeter(URI uri);
+
+    /**
+     * Records a retry attempt of the service uri.
+     *
+     * @param uri the service uri.
+     */
+    void recordRetry(URI uri);
+
+    /**
+     * Records a hedged request of the service uri.
+     *
+     * @param uri the service uri.
+     */
+    default void recordHedge(URI uri) {
+
+    }
+
+    /**
+     * Records a retry of the service uri rejected by the retry budget.
+     *
+     * @param uri the service uri.
+     */
+    default void recordRetryThrottled(URI uri) {
+
+    }
+
+    /**
+     * Records a state transition of the circuit breaker of the resource uri.
+     *
+     * @param uri  the resource uri of the circuit breaker.
+     * @param from the previous state.
+     * @param to   the current state.
+     */
+    void recordStateChange(URI uri, CircuitBreakerState from, CircuitBreakerState to);
+
+    /**
+     * Registers a gauge of the current limit of an adaptive concurrency limiter. The gauge of a policy
+     * replaces the previous one of the same policy.
+     *
+     * @param policy the concurrency limit policy.
+     * @param limit  the supplier of the current limit.
+     */
+    default void registerConcurrencyLimit(ConcurrencyLimitPolicy policy, IntSupplier limit) {
+
+    }
+
+    /**
+     * Registers the counters of the cache of the unit route decisions.
+     *
+     * @param hits   the supplier of the number of the lookups served by the cache.
+     * @param misses the supplier of the number of the lookups decided by the rules.
+     */
+    default void registerUnitRouteCache(LongSupplier hits, LongSupplier misses) {
+
+    }
+
+    /**
+     * A latency recorder bound to a series of attributes.
+     */
+    @FunctionalInterface
+    interface LatencyMeter {
+
+        /**
+         * Records the elapsed time of a request.
+         *
+         * @param elapsed   the elapsed time in milliseconds.
+         * @param succeeded whether the request succeeded.
+         */
+        void record(long elapsed, boolean succeeded);
+    }
+}
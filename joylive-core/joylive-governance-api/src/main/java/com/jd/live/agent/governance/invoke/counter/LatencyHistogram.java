@@ -0,0 +1,185 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.counter;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A log-linear latency histogram in the style of HdrHistogram.
+ * <p>
+ * Every power of two is split into {@link #SUB_BUCKETS} linear sub buckets, so the relative error of a
+ * recorded value is bounded by {@code 1 / SUB_BUCKETS}. Values below {@link #SUB_BUCKETS} are recorded exactly,
+ * and values above {@link #MAX_VALUE} are clamped into the last bucket.
+ * <p>
+ * Buckets are striped adders which are created lazily on first hit, so an endpoint only pays memory for the
+ * latency ranges it actually observes, and concurrent recorders do not contend on a shared cache line.
+ */
+public class LatencyHistogram {
+
+    /**
+     * The number of bits used to address the linear sub buckets of a power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * The number of linear sub buckets of a power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The exponent of the exclusive upper bound of trackable values.
+     */
+    private static final int MAX_EXPONENT = 26;
+
+    /**
+     * The maximum trackable value, about 18 hours in milliseconds.
+     */
+    public static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+
+    /**
+     * The total number of buckets.
+     */
+    public static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(BUCKETS);
+
+    /**
+     * Records a value.
+     *
+     * @param value the value to record, negative values are treated as zero.
+     */
+    public void record(long value) {
+        int index = indexOf(value);
+        LongAdder adder = buckets.get(index);
+        if (adder == null) {
+            adder = new LongAdder();
+            if (!buckets.compareAndSet(index, null, adder)) {
+                adder = buckets.get(index);
+            }
+        }
+        adder.increment();
+    }
+
+    /**
+     * Returns a copy of the counts of all buckets.
+     *
+     * @return the counts indexed by bucket.
+     */
+    public long[] getCounts() {
+        long[] result = new long[BUCKETS];
+        LongAdder adder;
+        for (int i = 0; i < BUCKETS; i++) {
+            adder = buckets.get(i);
+            result[i] = adder == null ? 0 : adder.sum();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the value at the given percentile of all recorded values.
+     *
+     * @param percentile the percentile in the range [0, 100], such as 50, 99 or 99.9.
+     * @return the highest value equivalent to the percentile, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        return getPercentile(percentile, null);
+    }
+
+    /**
+     * Returns the value at the given percentile of the values recorded after the given counts were taken.
+     *
+     * @param percentile the percentile in the range [0, 100], such as 50, 99 or 99.9.
+     * @param offsets    the counts taken by {@link #getCounts()}, or null to use all recorded values.
+     * @return the highest value equivalent to the percentile, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile, long[] offsets) {
+        return getPercentile(getCounts(), offsets, percentile);
+    }
+
+    /**
+     * Returns the value at the given percentile of the delta between two bucket counts.
+     *
+     * @param counts     the current counts.
+     * @param offsets    the previous counts, or null.
+     * @param percentile the percentile in the range [0, 100].
+     * @return the highest value equivalent to the percentile, or 0 if the delta is empty.
+     */
+    public static long getPercentile(long[] counts, long[] offsets, double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += offsets == null ? counts[i] : counts[i] - offsets[i];
+        }
+        if (total <= 0) {
+            return 0;
+        }
+        double ratio = Math.min(Math.max(percentile, 0), 100) / 100;
+        long rank = Math.max(1, (long) Math.ceil(ratio * total));
+        long accumulated = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            accumulated += offsets == null ? counts[i] : counts[i] - offsets[i];
+            if (accumulated >= rank) {
+                return highestOf(i);
+            }
+        }
+        return highestOf(BUCKETS - 1);
+    }
+
+    /**
+     * Returns the bucket index of the given value.
+     *
+     * @param value the value.
+     * @return the bucket index.
+     */
+    public static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return value <= 0 ? 0 : (int) value;
+        }
+        value = Math.min(value, MAX_VALUE);
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the lowest value of the given bucket.
+     *
+     * @param index the bucket index.
+     * @return the lowest value.
+     */
+    public static long lowestOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        return (1L << exponent) + ((long) sub << (exponent - SUB_BUCKET_BITS));
+    }
+
+    /**
+     * Returns the highest value of the given bucket.
+     *
+     * @param index the bucket index.
+     * @return the highest value.
+     */
+    public static long highestOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return lowestOf(index) + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
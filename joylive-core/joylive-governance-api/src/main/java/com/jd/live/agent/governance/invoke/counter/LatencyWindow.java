@@ -0,0 +1,84 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.counter;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The latency distribution of the recent requests, which is the delta of a {@link LatencyHistogram} over
+ * the buckets of the sliding window.
+ * <p>
+ * The counts of the histogram are copied at the start of each bucket, and a read subtracts the copy of the
+ * oldest bucket from the current counts, so the recording of the requests is not changed at all. The window
+ * is advanced by its owner once per bucket.
+ *
+ * @since 1.6.0
+ */
+public class LatencyWindow {
+
+    private final LatencyHistogram histogram;
+
+    /**
+     * The counts of the histogram at the start of each bucket.
+     */
+    private final AtomicReferenceArray<long[]> offsets;
+
+    private volatile int index;
+
+    public LatencyWindow(LatencyHistogram histogram, int size) {
+        this.histogram = histogram;
+        this.offsets = new AtomicReferenceArray<>(Math.max(size, 1));
+        long[] counts = histogram.getCounts();
+        for (int i = 0; i < offsets.length(); i++) {
+            offsets.set(i, counts);
+        }
+    }
+
+    /**
+     * Advances the window by one bucket, dropping the oldest one.
+     */
+    public void rotate() {
+        int next = index + 1;
+        next = next == offsets.length() ? 0 : next;
+        offsets.set(next, histogram.getCounts());
+        index = next;
+    }
+
+    /**
+     * Returns the counts of the values recorded in the window.
+     *
+     * @return the counts indexed by bucket.
+     */
+    public long[] getCounts() {
+        int next = index + 1;
+        long[] oldest = offsets.get(next == offsets.length() ? 0 : next);
+        long[] result = histogram.getCounts();
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Math.max(0, result[i] - oldest[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the value at the given percentile of the values recorded in the window.
+     *
+     * @param percentile the percentile in the range [0, 100].
+     * @return the highest value equivalent to the percentile, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        return LatencyHistogram.getPercentile(getCounts(), null, percentile);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.counter;
+
+/**
+ * A peak-sensitive exponentially weighted moving average of the response time.
+ * <p>
+ * A response slower than the current average replaces it immediately, while faster responses are blended in with
+ * a weight that decays with the time since the last observation. Without new observations, the average decays
+ * towards zero, so an endpoint that was slow in the past will be probed again.
+ * <p>
+ * The updates are intentionally racy, a lost update only affects the precision of the estimate.
+ * <p>
+ * It's from com.twitter.finagle.loadbalancer.aperture.PeakEwma
+ */
+public class PeakEwma {
+
+    /**
+     * The default decay time in milliseconds.
+     */
+    public static final long DEFAULT_DECAY_TIME = 10000L;
+
+    private final double decayTime;
+
+    private volatile double cost;
+
+    private volatile long timestamp;
+
+    public PeakEwma() {
+        this(DEFAULT_DECAY_TIME);
+    }
+
+    public PeakEwma(long decayTime) {
+        this.decayTime = decayTime <= 0 ? DEFAULT_DECAY_TIME : decayTime;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Observes a response time.
+     *
+     * @param elapsed the response time in milliseconds.
+     */
+    public void update(long elapsed) {
+        long now = System.currentTimeMillis();
+        double current = cost;
+        if (elapsed > current) {
+            cost = elapsed;
+        } else {
+            double weight = Math.exp(-Math.max(now - timestamp, 0) / decayTime);
+            cost = current * weight + elapsed * (1 - weight);
+        }
+        timestamp = now;
+    }
+
+    /**
+     * Returns the average response time decayed to the given time.
+     *
+     * @param now the current time in milliseconds.
+     * @return the average response time in milliseconds.
+     */
+    public double get(long now) {
+        double current = cost;
+        if (current == 0) {
+            return 0;
+        }
+        return current * Math.exp(-Math.max(now - timestamp, 0) / decayTime);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.counter;
+
+/**
+ * A sliding window of request statistics, which is a ring of fixed buckets.
+ * <p>
+ * Recording only touches the accumulators of the current bucket and never allocates. The window is advanced
+ * by {@link #rotate()}, which is called periodically by the timer of the {@link ServiceCounter}. On rotation,
+ * the statistics of the closed buckets are summed once, so a read only has to add the current bucket.
+ */
+public class RollingWindow {
+
+    private final Bucket[] buckets;
+
+    private volatile int index;
+
+    private volatile long closedSucceeded;
+
+    private volatile long closedSucceededElapsed;
+
+    private volatile long closedFailed;
+
+    public RollingWindow(int size, boolean striped) {
+        size = Math.max(size, 1);
+        this.buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket(striped);
+        }
+    }
+
+    /**
+     * Records a request into the current bucket.
+     *
+     * @param elapsed   the elapsed time of the request.
+     * @param succeeded true if the request succeeded.
+     */
+    public void record(long elapsed, boolean succeeded) {
+        Bucket bucket = buckets[index];
+        if (succeeded) {
+            bucket.succeeded.add(1);
+            bucket.succeededElapsed.add(elapsed);
+        } else {
+            bucket.failed.add(1);
+        }
+    }
+
+    /**
+     * Advances the window by one bucket, dropping the oldest one.
+     */
+    public void rotate() {
+        int next = index + 1;
+        next = next == buckets.length ? 0 : next;
+        buckets[next].reset();
+        long succeeded = 0;
+        long succeededElapsed = 0;
+        long failed = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            if (i != next) {
+                Bucket bucket = buckets[i];
+                succeeded += bucket.succeeded.get();
+                succeededElapsed += bucket.succeededElapsed.get();
+                failed += bucket.failed.get();
+            }
+        }
+        closedSucceeded = succeeded;
+        closedSucceededElapsed = succeededElapsed;
+        closedFailed = failed;
+        index = next;
+    }
+
+    public long getSucceeded() {
+        return closedSucceeded + buckets[index].succeeded.get();
+    }
+
+    public long getSucceededElapsed() {
+        return closedSucceededElapsed + buckets[index].succeededElapsed.get();
+    }
+
+    public long getFailed() {
+        return closedFailed + buckets[index].failed.get();
+    }
+
+    public long getTotal() {
+        return getSucceeded() + getFailed();
+    }
+
+    public long getSucceededAverageElapsed() {
+        Bucket bucket = buckets[index];
+        long succeeded = closedSucceeded + bucket.succeeded.get();
+        if (succeeded == 0) {
+            return 0;
+        }
+        return (closedSucceededElapsed + bucket.succeededElapsed.get()) / succeeded;
+    }
+
+    /**
+     * The statistics of a bucket.
+     */
+    private static class Bucket {
+
+        private final Accumulator succeeded;
+
+        private final Accumulator succeededElapsed;
+
+        private final Accumulator failed;
+
+        Bucket(boolean striped) {
+            this.succeeded = Accumulator.of(striped);
+            this.succeededElapsed = Accumulator.of(striped);
+            this.failed = Accumulator.of(striped);
+        }
+
+        void reset() {
+            succeeded.reset();
+            succeededElapsed.reset();
+            failed.reset();
+        }
+    }
+}
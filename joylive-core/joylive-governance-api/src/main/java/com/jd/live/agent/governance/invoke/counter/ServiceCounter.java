@@ -15,7 +15,9 @@
  */
 package com.jd.live.agent.governance.invoke.counter;
 
+import com.jd.live.agent.core.util.URI;
 import com.jd.live.agent.core.util.time.Timer;
+import com.jd.live.agent.governance.config.CounterConfig;
 import com.jd.live.agent.governance.instance.Endpoint;
 import lombok.Getter;
 
@@ -30,8 +32,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
 /**
  * A class that represents a counter for a specific service, tracking the number of active, total, failed, and
  * successful requests, as well as the elapsed time for each request, for each endpoint and URI combination within
- * that service. It also provides methods to schedule and take snapshots of these counters, and to clean up counters
- * for endpoints that are no longer in use.
+ * that service. It also provides methods to schedule and take snapshots of these counters, to rotate their sliding
+ * windows, and to clean up counters for endpoints that are no longer in use.
  */
 public class ServiceCounter {
 
@@ -45,11 +47,18 @@ public class ServiceCounter {
 
     private static final int SNAPSHOT_SPAN = 5000;
 
+    private static final long ROTATE_INTERVAL = 1000L;
+
     @Getter
     private final String name;
 
     private final Timer timer;
 
+    @Getter
+    private final CounterConfig config;
+
+    private final GovernanceMeter meter;
+
     private long cleanTime;
 
     private final Map<String, EndpointCounter> counters = new ConcurrentHashMap<>();
@@ -57,10 +66,21 @@ public class ServiceCounter {
     private final AtomicBoolean clean = new AtomicBoolean(false);
 
     public ServiceCounter(String name, Timer timer) {
+        this(name, timer, null);
+    }
+
+    public ServiceCounter(String name, Timer timer, CounterConfig config) {
+        this(name, timer, config, null);
+    }
+
+    public ServiceCounter(String name, Timer timer, CounterConfig config, GovernanceMeter meter) {
         this.name = name;
         this.timer = timer;
+        this.config = config;
+        this.meter = meter;
         this.cleanTime = System.currentTimeMillis();
         scheduleSnapshot();
+        scheduleRotate();
     }
 
     /**
@@ -74,6 +94,16 @@ public class ServiceCounter {
         return counters.computeIfAbsent(endpoint, e -> new EndpointCounter(e, this));
     }
 
+    /**
+     * Returns the exported latency meter of the specified service uri.
+     *
+     * @param uri The service uri.
+     * @return The latency meter, or null if the latency is not exported.
+     */
+    protected GovernanceMeter.LatencyMeter getLatencyMeter(URI uri) {
+        return meter == null ? null : meter.getLatencyMeter(uri);
+    }
+
     /**
      * Schedules a task to clean up counters for endpoints that are no longer in use, using the provided list of
      * current endpoints. The task will not be scheduled if one is already running.
@@ -133,4 +163,24 @@ public class ServiceCounter {
             counter.snapshot();
         }
     }
+
+    /**
+     * Schedules a task to advance the sliding windows of all counters for this service at the bucket interval.
+     */
+    private void scheduleRotate() {
+        long interval = config == null || config.getWindowBucketTime() <= 0 ? ROTATE_INTERVAL : config.getWindowBucketTime();
+        timer.delay("counter-rotate-" + name, interval, () -> {
+            rotate();
+            scheduleRotate();
+        });
+    }
+
+    /**
+     * Advances the sliding windows of all counters for this service.
+     */
+    private void rotate() {
+        for (EndpointCounter counter : counters.values()) {
+            counter.rotate();
+        }
+    }
 }
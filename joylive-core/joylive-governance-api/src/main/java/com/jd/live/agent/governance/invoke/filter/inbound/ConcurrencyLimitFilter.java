@@ -31,6 +31,7 @@ import com.jd.live.agent.governance.policy.service.ServicePolicy;
 import com.jd.live.agent.governance.policy.service.limit.ConcurrencyLimitPolicy;
 import com.jd.live.agent.governance.request.ServiceRequest.InboundRequest;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletionStage;
@@ -65,20 +66,54 @@ public class ConcurrencyLimitFilter implements InboundFilter, ExtensionInitializ
     public <T extends InboundRequest> CompletionStage<Object> filter(InboundInvocation<T> invocation, InboundFilterChain chain) {
         ServicePolicy servicePolicy = invocation.getServiceMetadata().getServicePolicy();
         List<ConcurrencyLimitPolicy> concurrencyLimitPolicies = servicePolicy == null ? null : servicePolicy.getConcurrencyLimitPolicies();
+        List<ConcurrencyLimiter> acquired = null;
         if (null != concurrencyLimitPolicies && !concurrencyLimitPolicies.isEmpty()) {
             for (ConcurrencyLimitPolicy policy : concurrencyLimitPolicies) {
                 // match logic
                 if (policy.getMaxConcurrency() != null && policy.getMaxConcurrency() > 0 && policy.match(invocation)) {
                     ConcurrencyLimiter limiter = getConcurrencyLimiter(policy);
-                    if (null != limiter && !limiter.acquire()) {
-                        invocation.reject(FaultType.LIMIT,
-                                "The request is rejected by concurrency limiter. maxConcurrency=" +
-                                        policy.getMaxConcurrency());
+                    if (null != limiter) {
+                        if (!limiter.acquire()) {
+                            release(acquired, 0, false);
+                            String reason = "The request is rejected by concurrency limiter. maxConcurrency="
+                                    + policy.getMaxConcurrency();
+                            invocation.reject(FaultType.LIMIT, reason);
+                            // the rejection is thrown by the invocation, so the failed limiter is never added.
+                            throw FaultType.LIMIT.reject(reason);
+                        }
+                        acquired = acquired == null ? new ArrayList<>(2) : acquired;
+                        acquired.add(limiter);
                     }
                 }
             }
         }
-        return chain.filter(invocation);
+        if (acquired == null) {
+            return chain.filter(invocation);
+        }
+        List<ConcurrencyLimiter> limiters = acquired;
+        long startTime = System.currentTimeMillis();
+        try {
+            return chain.filter(invocation).whenComplete((v, e) ->
+                    release(limiters, System.currentTimeMillis() - startTime, e == null));
+        } catch (Throwable e) {
+            release(limiters, System.currentTimeMillis() - startTime, false);
+            throw e;
+        }
+    }
+
+    /**
+     * Releases the permits of the acquired limiters.
+     *
+     * @param limiters  the acquired limiters, may be null.
+     * @param elapsed   the elapsed time of the request in milliseconds.
+     * @param succeeded whether the request succeeded.
+     */
+    private void release(List<ConcurrencyLimiter> limiters, long elapsed, boolean succeeded) {
+        if (limiters != null) {
+            for (ConcurrencyLimiter limiter : limiters) {
+                limiter.release(elapsed, succeeded);
+            }
+        }
     }
 
     /**
@@ -24,12 +24,14 @@ import com.jd.live.agent.governance.config.GovernanceConfig;
 import com.jd.live.agent.governance.invoke.InboundInvocation;
 import com.jd.live.agent.governance.invoke.filter.InboundFilter;
 import com.jd.live.agent.governance.invoke.filter.InboundFilterChain;
+import com.jd.live.agent.governance.invoke.ratelimit.KeyRateLimiter;
 import com.jd.live.agent.governance.invoke.ratelimit.RateLimiter;
 import com.jd.live.agent.governance.invoke.ratelimit.RateLimiterFactory;
 import com.jd.live.agent.governance.policy.live.FaultType;
 import com.jd.live.agent.governance.policy.service.ServicePolicy;
 import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
 import com.jd.live.agent.governance.request.ServiceRequest.InboundRequest;
+import com.jd.live.agent.governance.rule.tag.TagCondition;
 
 import java.util.List;
 import java.util.Map;
@@ -68,7 +70,7 @@ public class RateLimitFilter implements InboundFilter, ExtensionInitializer {
                 // match logic
                 if (policy.match(invocation)) {
                     RateLimiter rateLimiter = getRateLimiter(policy);
-                    if (null != rateLimiter && !rateLimiter.acquire()) {
+                    if (null != rateLimiter && !acquire(rateLimiter, policy, invocation)) {
                         invocation.reject(FaultType.LIMIT, "The request is rejected by rate limiter. ");
                     }
                 }
@@ -77,6 +79,33 @@ public class RateLimitFilter implements InboundFilter, ExtensionInitializer {
         return chain.filter(invocation);
     }
 
+    /**
+     * Acquires a permit from the rate limiter. If the policy has a key condition and the limiter supports keys,
+     * the permit is acquired for the key taken from the request, and the requests without the key or whose key
+     * does not match the condition are not limited.
+     *
+     * @param rateLimiter the rate limiter.
+     * @param policy      the rate limit policy.
+     * @param invocation  the inbound invocation.
+     * @return true if the permit is acquired, false otherwise.
+     */
+    private boolean acquire(RateLimiter rateLimiter, RateLimitPolicy policy, InboundInvocation<?> invocation) {
+        TagCondition condition = policy.getKeyCondition();
+        if (condition == null || !(rateLimiter instanceof KeyRateLimiter)) {
+            return rateLimiter.acquire();
+        }
+        List<String> values = invocation.getValues(condition);
+        String key = values == null || values.isEmpty() ? null : values.get(0);
+        if (key == null || key.isEmpty()) {
+            return true;
+        }
+        List<String> targets = condition.getValues();
+        if (targets != null && !targets.isEmpty() && !condition.match(values)) {
+            return true;
+        }
+        return ((KeyRateLimiter) rateLimiter).acquire(key, 1);
+    }
+
     /**
      * Retrieves a rate limiter based on the given policy.
      * If the policy's realize type is not specified, it falls back to the default type
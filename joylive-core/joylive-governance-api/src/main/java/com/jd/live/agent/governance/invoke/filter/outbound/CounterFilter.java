@@ -43,7 +43,8 @@ public class CounterFilter implements OutboundFilter {
     public <R extends OutboundRequest,
             O extends OutboundResponse,
             E extends Endpoint> CompletionStage<O> filter(OutboundInvocation<R> invocation, E endpoint, OutboundFilterChain chain) {
-        Counter counter = endpoint == null ? null : endpoint.getAttribute(Endpoint.ATTRIBUTE_COUNTER);
+        // the counter is handed over by the load balancer, and consumed by the attempt of the elected endpoint.
+        Counter counter = endpoint == null ? null : invocation.getRequest().removeAttribute(Endpoint.ATTRIBUTE_COUNTER);
         if (counter != null) {
             counter.getService().tryClean(invocation.getInstances());
             if (!counter.begin(0)) {
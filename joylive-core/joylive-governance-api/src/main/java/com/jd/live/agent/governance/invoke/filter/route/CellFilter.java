@@ -22,6 +22,7 @@ import com.jd.live.agent.governance.config.LocalFirstMode;
 import com.jd.live.agent.governance.config.ServiceConfig;
 import com.jd.live.agent.governance.instance.CellGroup;
 import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.instance.EndpointIndex.Dimension;
 import com.jd.live.agent.governance.instance.UnitGroup;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.invoke.RouteTarget;
@@ -204,7 +205,7 @@ public class CellFilter implements RouteFilter {
 
         Set<String> unavailableCells = getUnavailableCells(invocation);
         if (!unavailableCells.isEmpty()) {
-            target.filter(endpoint -> !unavailableCells.contains(endpoint.getCell()));
+            target.filter(Dimension.CELL, endpoint -> !unavailableCells.contains(endpoint.getCell()));
         }
         // prefer local cluster>local cell>local cloud>local unit>center unit>other unit
         List<Endpoint> preferClusterEndpoints = new ArrayList<>();
@@ -19,6 +19,7 @@ import com.jd.live.agent.core.extension.annotation.Extension;
 import com.jd.live.agent.core.inject.annotation.Injectable;
 import com.jd.live.agent.governance.annotation.ConditionalOnFlowControlEnabled;
 import com.jd.live.agent.governance.config.ServiceConfig;
+import com.jd.live.agent.governance.instance.EndpointIndex.Dimension;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.invoke.RouteTarget;
 import com.jd.live.agent.governance.invoke.filter.RouteFilter;
@@ -45,10 +46,10 @@ public class GroupFilter implements RouteFilter {
             RouteTarget target = invocation.getRouteTarget();
             if (group != null && !group.isEmpty()) {
                 // target group
-                target.filter(endpoint -> endpoint.isGroup(group));
+                target.filter(Dimension.GROUP, endpoint -> endpoint.isGroup(group));
             } else if (serviceConfig != null && !serviceConfig.isServiceGroupOpen()) {
                 // default group
-                target.filter(endpoint -> endpoint.isGroup(null));
+                target.filter(Dimension.GROUP, endpoint -> endpoint.isGroup(null));
             }
         }
         chain.filter(invocation);
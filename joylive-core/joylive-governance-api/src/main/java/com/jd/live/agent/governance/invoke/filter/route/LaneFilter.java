@@ -18,6 +18,7 @@ package com.jd.live.agent.governance.invoke.filter.route;
 import com.jd.live.agent.core.extension.annotation.Extension;
 import com.jd.live.agent.core.inject.annotation.Injectable;
 import com.jd.live.agent.governance.annotation.ConditionalOnLaneEnabled;
+import com.jd.live.agent.governance.instance.EndpointIndex.Dimension;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.invoke.RouteTarget;
 import com.jd.live.agent.governance.invoke.filter.RouteFilter;
@@ -67,18 +68,18 @@ public class LaneFilter implements RouteFilter {
                 boolean redirectDefaultLane = defaultLane != null && targetLane != defaultLane;
 
                 // Filter the route target based on the lane space ID and route lane code
-                int count = target.filter(e -> e.isLane(targetSpaceId, targetLane.getCode(), defaultSpaceId, defaultLaneId), -1, !redirectDefaultLane);
+                int count = target.filter(Dimension.LANE, e -> e.isLane(targetSpaceId, targetLane.getCode(), defaultSpaceId, defaultLaneId), !redirectDefaultLane);
                 // If no matches and a default lane exists, use the default lane
                 if (count <= 0 && redirectDefaultLane) {
-                    target.filter(e -> e.isLane(targetSpaceId, defaultLane.getCode(), defaultSpaceId, defaultLaneId), -1, true);
+                    target.filter(Dimension.LANE, e -> e.isLane(targetSpaceId, defaultLane.getCode(), defaultSpaceId, defaultLaneId), true);
                 }
             } else {
                 String code = redirect == null || redirect.isEmpty() ? targetLaneId : redirect;
-                target.filter(e -> e.isLane(targetSpaceId, code, defaultSpaceId, defaultLaneId), -1, true);
+                target.filter(Dimension.LANE, e -> e.isLane(targetSpaceId, code, defaultSpaceId, defaultLaneId), true);
             }
         } else {
             // target space is not exists. or empty target space id and without default lane space.
-            target.filter(e -> e.isLane(targetSpaceId, targetLaneId, defaultSpaceId, defaultLaneId), -1, true);
+            target.filter(Dimension.LANE, e -> e.isLane(targetSpaceId, targetLaneId, defaultSpaceId, defaultLaneId), true);
         }
         // Proceed with the next filter in the chain
         chain.filter(invocation);
@@ -77,7 +77,7 @@ public class TagRouteFilter implements RouteFilter {
             if (rule.match(invocation)) {
                 TagDestination destination = RandomWeight.choose(rule.getDestinations(), TagDestination::getWeight);
                 if (destination != null) {
-                    target.filter(destination::match);
+                    target.filter(destination);
                 }
                 return true;
             }
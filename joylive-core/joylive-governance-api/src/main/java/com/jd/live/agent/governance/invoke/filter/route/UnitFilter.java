@@ -20,7 +20,7 @@ import com.jd.live.agent.core.inject.annotation.Injectable;
 import com.jd.live.agent.governance.annotation.ConditionalOnLiveEnabled;
 import com.jd.live.agent.governance.config.ServiceConfig;
 import com.jd.live.agent.governance.instance.EndpointGroup;
-import com.jd.live.agent.governance.instance.UnitGroup;
+import com.jd.live.agent.governance.instance.EndpointIndex.Dimension;
 import com.jd.live.agent.governance.invoke.OutboundInvocation;
 import com.jd.live.agent.governance.invoke.RouteTarget;
 import com.jd.live.agent.governance.invoke.UnitAction;
@@ -32,7 +32,6 @@ import com.jd.live.agent.governance.invoke.metadata.ServiceMetadata;
 import com.jd.live.agent.governance.policy.live.*;
 import com.jd.live.agent.governance.policy.service.live.ServiceLivePolicy;
 import com.jd.live.agent.governance.policy.service.live.UnitPolicy;
-import com.jd.live.agent.governance.policy.variable.UnitFunction;
 import com.jd.live.agent.governance.request.ServiceRequest.OutboundRequest;
 import lombok.Getter;
 
@@ -108,7 +107,9 @@ public class UnitFilter implements RouteFilter {
         UnitRule rule = metadata.getRule();
         List<UnitRoute> routes = rule == null ? null : rule.getUnitRoutes();
         Set<String> units = getAvailableUnits(invocation, routes);
-        return RouteTarget.forward(invocation.getRouteTarget().filtrate(e -> e.isUnit(targetSpaceId, units) || e.isLiveless()));
+        RouteTarget target = invocation.getRouteTarget();
+        target.filter(Dimension.UNIT, e -> e.isUnit(targetSpaceId, units) || e.isLiveless());
+        return target;
 
     }
 
@@ -152,7 +153,8 @@ public class UnitFilter implements RouteFilter {
         }
         String targetSpaceId = metadata.getTargetSpaceId();
         RouteTarget target = invocation.getRouteTarget();
-        return RouteTarget.forward(target.filtrate(e -> e.isLiveSpace(targetSpaceId)), route);
+        target.filter(Dimension.UNIT, e -> e.isLiveSpace(targetSpaceId));
+        return target.forward(route);
     }
 
     /**
@@ -173,7 +175,8 @@ public class UnitFilter implements RouteFilter {
         }
         String targetSpaceId = invocation.getLiveMetadata().getTargetSpaceId();
         RouteTarget target = invocation.getRouteTarget();
-        return RouteTarget.forward(target.filtrate(e -> e.isLiveSpace(targetSpaceId)), route);
+        target.filter(Dimension.UNIT, e -> e.isLiveSpace(targetSpaceId));
+        return target.forward(route);
     }
 
     /**
@@ -184,7 +187,9 @@ public class UnitFilter implements RouteFilter {
      */
     private RouteTarget routeLocal(OutboundInvocation<?> invocation) {
         String targetSpaceId = invocation.getLiveMetadata().getTargetSpaceId();
-        EndpointGroup group = new EndpointGroup(invocation.getRouteTarget().filtrate(e -> e.isLiveSpace(targetSpaceId)));
+        RouteTarget routeTarget = invocation.getRouteTarget();
+        routeTarget.filter(Dimension.UNIT, e -> e.isLiveSpace(targetSpaceId));
+        EndpointGroup group = routeTarget.toGroup();
         Election election = getPreferUnits(invocation, group);
         List<Candidate> candidates = election.getCandidates();
         if (election.isEmpty()) {
@@ -238,13 +243,7 @@ public class UnitFilter implements RouteFilter {
      */
     private UnitRoute getUnitRoute(OutboundInvocation<?> invocation) {
         LiveMetadata liveMetadata = invocation.getLiveMetadata();
-        UnitRule rule = liveMetadata.getRule();
-        if (rule == null) {
-            return null;
-        }
-        String variable = liveMetadata.getVariable();
-        UnitFunction func = invocation.getContext().getUnitFunction(rule.getVariableFunction());
-        return rule.getUnitRoute(variable, func);
+        return invocation.getContext().getUnitRoute(liveMetadata.getRule(), liveMetadata.getVariable());
     }
 
     /**
@@ -416,8 +415,7 @@ public class UnitFilter implements RouteFilter {
             boolean accessible = invocation.isAccessible(unit);
             UnitRule unitRule = invocation.getLiveMetadata().getRule();
             UnitRoute unitRoute = unitRule == null ? null : unitRule.getUnitRoute(unit.getCode());
-            UnitGroup group = instanceGroup.getUnitGroup(unit.getCode());
-            int instances = group == null ? 0 : group.size();
+            int instances = instanceGroup.getSize(unit.getCode());
             return new Candidate(unit, unitRoute, instances, accessible);
         }
 
@@ -433,8 +431,7 @@ public class UnitFilter implements RouteFilter {
             }
             Unit unit = unitRoute.getUnit();
             boolean accessible = invocation.isAccessible(unit);
-            UnitGroup group = instanceGroup.getUnitGroup(unit.getCode());
-            int instances = group == null ? 0 : group.size();
+            int instances = instanceGroup.getSize(unit.getCode());
             return new Candidate(unit, unitRoute, instances, accessible);
         }
     }
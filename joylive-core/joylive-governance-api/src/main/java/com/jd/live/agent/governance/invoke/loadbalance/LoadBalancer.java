@@ -45,6 +45,16 @@ public interface LoadBalancer {
      */
     int ORDER_SHORTEST_RESPONSE = ORDER_ROUND_ROBIN + 1;
 
+    /**
+     * Order value for least-request strategy.
+     */
+    int ORDER_LEAST_REQUEST = ORDER_SHORTEST_RESPONSE + 1;
+
+    /**
+     * Order value for peak-ewma strategy.
+     */
+    int ORDER_PEAK_EWMA = ORDER_LEAST_REQUEST + 1;
+
     /**
      * Chooses an endpoint from the list based on the invocation.
      *
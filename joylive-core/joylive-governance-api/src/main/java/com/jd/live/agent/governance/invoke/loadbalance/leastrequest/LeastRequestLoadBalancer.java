@@ -0,0 +1,101 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.leastrequest;
+
+import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.core.util.URI;
+import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.invoke.Invocation;
+import com.jd.live.agent.governance.invoke.counter.Counter;
+import com.jd.live.agent.governance.invoke.counter.EndpointCounter;
+import com.jd.live.agent.governance.invoke.counter.ServiceCounter;
+import com.jd.live.agent.governance.invoke.loadbalance.AbstractLoadBalancer;
+import com.jd.live.agent.governance.invoke.loadbalance.Candidate;
+import com.jd.live.agent.governance.invoke.loadbalance.LoadBalancer;
+import com.jd.live.agent.governance.request.ServiceRequest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A load balancer based on the power of two choices. It picks two distinct endpoints at random and elects the one
+ * with fewer active requests relative to its weight, so the weight still takes the warmup into account.
+ * <p>
+ * Each election only looks at two endpoints, regardless of the size of the endpoint list.
+ *
+ * @since 1.6.0
+ */
+@Extension(value = LeastRequestLoadBalancer.LOAD_BALANCER_NAME, order = LoadBalancer.ORDER_LEAST_REQUEST)
+public class LeastRequestLoadBalancer extends AbstractLoadBalancer {
+
+    /**
+     * The name assigned to this load balancer.
+     */
+    public static final String LOAD_BALANCER_NAME = "LEAST_REQUEST";
+
+    @Override
+    protected <T extends Endpoint> Candidate<T> doElect(List<T> endpoints, Invocation<?> invocation) {
+        int size = endpoints.size();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        second = second >= first ? second + 1 : second;
+
+        T endpoint1 = endpoints.get(first);
+        T endpoint2 = endpoints.get(second);
+        URI uri = invocation.getServiceMetadata().getUri();
+        ServiceCounter serviceCounter = invocation.getContext().getCounterManager().getOrCreate(uri);
+        long now = System.currentTimeMillis();
+        Counter counter1 = getCounter(serviceCounter, endpoint1, uri, now);
+        Counter counter2 = getCounter(serviceCounter, endpoint2, uri, now);
+
+        ServiceRequest request = invocation.getRequest();
+        double load1 = getLoad(counter1, now) / endpoint1.getWeight(request);
+        double load2 = getLoad(counter2, now) / endpoint2.getWeight(request);
+        if (load2 < load1) {
+            request.setAttribute(Endpoint.ATTRIBUTE_COUNTER, counter2);
+            return new Candidate<>(endpoint2, second);
+        }
+        request.setAttribute(Endpoint.ATTRIBUTE_COUNTER, counter1);
+        return new Candidate<>(endpoint1, first);
+    }
+
+    /**
+     * Returns the load of the endpoint. A lower load is preferred.
+     *
+     * @param counter the counter of the endpoint.
+     * @param now     the current time in milliseconds.
+     * @return the load of the endpoint.
+     */
+    protected double getLoad(Counter counter, long now) {
+        return counter.getActive() + 1;
+    }
+
+    /**
+     * Returns the counter of the endpoint, and refreshes its access time.
+     *
+     * @param serviceCounter the counter of the service.
+     * @param endpoint       the endpoint.
+     * @param uri            the uri of the invocation.
+     * @param now            the current time in milliseconds.
+     * @return the counter of the endpoint.
+     */
+    private Counter getCounter(ServiceCounter serviceCounter, Endpoint endpoint, URI uri, long now) {
+        EndpointCounter endpointCounter = serviceCounter.getOrCreate(endpoint.getId());
+        endpointCounter.setAccessTime(now);
+        return endpointCounter.getOrCreate(uri);
+    }
+}
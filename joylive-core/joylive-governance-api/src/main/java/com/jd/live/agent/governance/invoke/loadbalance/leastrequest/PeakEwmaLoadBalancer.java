@@ -0,0 +1,52 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.leastrequest;
+
+import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.governance.invoke.counter.Counter;
+import com.jd.live.agent.governance.invoke.counter.PeakEwma;
+import com.jd.live.agent.governance.invoke.loadbalance.LoadBalancer;
+
+/**
+ * A power of two choices load balancer which weighs the active requests of an endpoint by the peak-sensitive
+ * moving average of its response time, so a degraded endpoint is avoided as soon as its first slow response ends.
+ *
+ * @see PeakEwma
+ * @since 1.6.0
+ */
+@Extension(value = PeakEwmaLoadBalancer.LOAD_BALANCER_NAME, order = LoadBalancer.ORDER_PEAK_EWMA)
+public class PeakEwmaLoadBalancer extends LeastRequestLoadBalancer {
+
+    /**
+     * The name assigned to this load balancer.
+     */
+    public static final String LOAD_BALANCER_NAME = "PEAK_EWMA";
+
+    /**
+     * The load of an endpoint which has active requests but no observed response time yet.
+     */
+    private static final double PENALTY = Long.MAX_VALUE >> 16;
+
+    @Override
+    protected double getLoad(Counter counter, long now) {
+        int active = counter.getActive();
+        double elapsed = counter.getOrCreatePeakEwma().get(now);
+        if (elapsed == 0 && active > 0) {
+            return PENALTY + active;
+        }
+        return elapsed * (active + 1);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.randomweight;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An immutable alias table built with Vose's method, which selects an index with a probability proportional to
+ * its weight in constant time.
+ */
+public class AliasTable {
+
+    private final double[] probabilities;
+
+    private final int[] aliases;
+
+    private AliasTable(double[] probabilities, int[] aliases) {
+        this.probabilities = probabilities;
+        this.aliases = aliases;
+    }
+
+    /**
+     * Randomly selects an index based on the weights.
+     *
+     * @param random the random generator.
+     * @return the selected index.
+     */
+    public int next(ThreadLocalRandom random) {
+        int index = random.nextInt(probabilities.length);
+        return random.nextDouble() < probabilities[index] ? index : aliases[index];
+    }
+
+    /**
+     * Builds an alias table from the given weights.
+     *
+     * @param weights the non-negative weights.
+     * @param total   the sum of the weights.
+     * @return the alias table, or null if the total weight is not positive.
+     */
+    public static AliasTable of(int[] weights, long total) {
+        int size = weights.length;
+        if (size == 0 || total <= 0) {
+            return null;
+        }
+        double[] probabilities = new double[size];
+        int[] aliases = new int[size];
+        // The stack of the small and large indexes share one array, the small ones grow from the head.
+        int[] work = new int[size];
+        int small = 0;
+        int large = size;
+        double[] scaled = probabilities;
+        for (int i = 0; i < size; i++) {
+            scaled[i] = (double) Math.max(weights[i], 0) * size / total;
+            if (scaled[i] < 1.0) {
+                work[small++] = i;
+            } else {
+                work[--large] = i;
+            }
+        }
+        while (small > 0 && large < size) {
+            int less = work[--small];
+            int more = work[large++];
+            // probabilities[less] keeps the scaled value as its probability
+            aliases[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                work[small++] = more;
+            } else {
+                work[--large] = more;
+            }
+        }
+        while (large < size) {
+            probabilities[work[large++]] = 1.0;
+        }
+        while (small > 0) {
+            // numerical instability
+            probabilities[work[--small]] = 1.0;
+        }
+        return new AliasTable(probabilities, aliases);
+    }
+}
@@ -24,12 +24,16 @@ import com.jd.live.agent.governance.invoke.loadbalance.LoadBalancer;
 import com.jd.live.agent.governance.request.ServiceRequest;
 
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * RandomWeightLoadBalancer is an implementation of the {@link LoadBalancer} interface that
  * provides a random selection strategy for choosing an endpoint from a list of available
  * endpoints. Each endpoint is associated with a weight, and the selection is influenced
  * by these weights to ensure that endpoints with higher weights are more likely to be chosen.
+ * <p>
+ * The weights are parsed once into an alias table per version of the underlying instances, which selects an endpoint
+ * in constant time. See {@link WeightTable} for how the tables are reused across the requests.
  *
  * @since 1.0.0
  */
@@ -44,8 +48,12 @@ public class RandomWeightLoadBalancer extends AbstractLoadBalancer {
     @Override
     protected <T extends Endpoint> Candidate<T> doElect(List<T> endpoints, Invocation<?> invocation) {
         ServiceRequest request = invocation.getRequest();
-        // Use the RandomWeight utility to select an endpoint based on the weights.
-        return RandomWeight.elect(endpoints, e -> e.getWeight(request));
+        WeightTable table = WeightTable.of(endpoints, request, System.currentTimeMillis());
+        if (table == null) {
+            // Use the RandomWeight utility to select an endpoint based on the weights.
+            return RandomWeight.elect(endpoints, e -> e.getWeight(request));
+        }
+        int index = table.next(ThreadLocalRandom.current());
+        return new Candidate<>(endpoints.get(index), index);
     }
 }
-
@@ -0,0 +1,250 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.loadbalance.randomweight;
+
+import com.jd.live.agent.core.util.cache.WeakIdentityCache;
+import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.request.ServiceRequest;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An immutable weight table of an endpoint list, which selects the endpoints by an alias table in constant time.
+ * <p>
+ * The route filters build a new list for every request, so the tables are cached by the identity of the first
+ * underlying instance like the {@link com.jd.live.agent.governance.instance.EndpointIndex}, and a few versions are
+ * kept for the lists starting with the same instance. A table is reused as long as the endpoints wrap the same
+ * underlying instances in the same order, which only costs a comparison of references per endpoint instead of
+ * parsing their labels. The instances are weakly referenced, so an entry is removed once its first instance is
+ * garbage collected.
+ * <p>
+ * The weights of the endpoints in their warmup period change over time, so they are recomputed at most once per
+ * {@link #REFRESH_INTERVAL}. The other weights are kept as they are.
+ */
+public class WeightTable {
+
+    /**
+     * The minimum interval in milliseconds to recompute the weights of the warming endpoints.
+     */
+    private static final long REFRESH_INTERVAL = 1000L;
+
+    /**
+     * The maximum number of the tables of the endpoint lists starting with the same instance.
+     */
+    private static final int MAX_VERSIONS = 4;
+
+    private static final int[] EMPTY_INDEXES = new int[0];
+
+    private static final WeakIdentityCache<Object, WeightTable[]> TABLES = new WeakIdentityCache<>();
+
+    private final String method;
+
+    private final Reference<?>[] origins;
+
+    private final int[] weights;
+
+    private final int[] warmups;
+
+    /**
+     * The alias table of the weights, or null if the weights are uniform or all zero.
+     */
+    private final AliasTable aliasTable;
+
+    private final long refreshTime;
+
+    private WeightTable(String method, Reference<?>[] origins, int[] weights, int[] warmups, long now) {
+        this.method = method;
+        this.origins = origins;
+        this.weights = weights;
+        this.warmups = warmups;
+        this.aliasTable = createAliasTable(weights);
+        this.refreshTime = warmups.length == 0 ? Long.MAX_VALUE : now + REFRESH_INTERVAL;
+    }
+
+    /**
+     * Checks whether the endpoints wrap the same underlying instances in the same order as this table,
+     * and the request calls the same method.
+     *
+     * @param endpoints the endpoints.
+     * @param request   the service request.
+     * @return true if the table can be used for the endpoints.
+     */
+    public boolean match(List<? extends Endpoint> endpoints, ServiceRequest request) {
+        int size = endpoints.size();
+        if (size != origins.length || !Objects.equals(method, request.getMethod())) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (origins[i].get() != endpoints.get(i).getOrigin()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the weights of the warming endpoints should be recomputed.
+     *
+     * @param now the current time in milliseconds.
+     * @return true if the weights are expired.
+     */
+    public boolean isExpired(long now) {
+        return now >= refreshTime;
+    }
+
+    /**
+     * Randomly selects an index based on the weights.
+     *
+     * @param random the random generator.
+     * @return the selected index.
+     */
+    public int next(ThreadLocalRandom random) {
+        return aliasTable == null ? random.nextInt(weights.length) : aliasTable.next(random);
+    }
+
+    /**
+     * Creates a new table by recomputing the weights of the warming endpoints.
+     *
+     * @param endpoints the endpoints, which should match this table.
+     * @param request   the service request.
+     * @param now       the current time in milliseconds.
+     * @return the new table.
+     */
+    public WeightTable refresh(List<? extends Endpoint> endpoints, ServiceRequest request, long now) {
+        int[] newWeights = Arrays.copyOf(weights, weights.length);
+        int[] newWarmups = new int[warmups.length];
+        int count = 0;
+        for (int index : warmups) {
+            Endpoint endpoint = endpoints.get(index);
+            newWeights[index] = endpoint.getWeight(request);
+            if (isWarmup(endpoint, now)) {
+                newWarmups[count++] = index;
+            }
+        }
+        return new WeightTable(method, origins, newWeights,
+                count == 0 ? EMPTY_INDEXES : Arrays.copyOf(newWarmups, count), now);
+    }
+
+    /**
+     * Returns the table of the endpoints, which is rebuilt when the underlying instances change.
+     *
+     * @param endpoints the endpoints, which should not be empty.
+     * @param request   the service request.
+     * @param now       the current time in milliseconds.
+     * @return the table, or null if the endpoints are not wrappers of stable instances.
+     */
+    public static WeightTable of(List<? extends Endpoint> endpoints, ServiceRequest request, long now) {
+        Endpoint endpoint = endpoints.get(0);
+        Object origin = endpoint.getOrigin();
+        if (origin == endpoint) {
+            // the endpoints have no stable identity, so the table can't be reused.
+            return null;
+        }
+        WeightTable[] tables = TABLES.get(origin);
+        int count = 0;
+        if (tables != null) {
+            for (int i = 0; i < tables.length; i++) {
+                WeightTable table = tables[i];
+                if (table.match(endpoints, request)) {
+                    if (!table.isExpired(now)) {
+                        return table;
+                    }
+                    // replace the expired version, the races only lose some refreshed versions.
+                    WeightTable[] versions = tables.clone();
+                    versions[i] = table.refresh(endpoints, request, now);
+                    TABLES.put(origin, versions);
+                    return versions[i];
+                }
+            }
+            count = Math.min(tables.length, MAX_VERSIONS - 1);
+        }
+        WeightTable table = build(endpoints, request, now);
+        // keep the latest versions, the races only lose some cached versions.
+        WeightTable[] versions = new WeightTable[count + 1];
+        versions[0] = table;
+        if (count > 0) {
+            System.arraycopy(tables, 0, versions, 1, count);
+        }
+        TABLES.put(origin, versions);
+        return table;
+    }
+
+    /**
+     * Builds a table of the endpoints.
+     *
+     * @param endpoints the endpoints, which should not be empty.
+     * @param request   the service request.
+     * @param now       the current time in milliseconds.
+     * @return the table.
+     */
+    public static WeightTable build(List<? extends Endpoint> endpoints, ServiceRequest request, long now) {
+        int size = endpoints.size();
+        Reference<?>[] origins = new Reference<?>[size];
+        int[] weights = new int[size];
+        int[] warmups = null;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            Endpoint endpoint = endpoints.get(i);
+            origins[i] = new WeakReference<>(endpoint.getOrigin());
+            weights[i] = endpoint.getWeight(request);
+            if (isWarmup(endpoint, now)) {
+                if (warmups == null) {
+                    warmups = new int[size - i];
+                }
+                warmups[count++] = i;
+            }
+        }
+        return new WeightTable(request.getMethod(), origins, weights,
+                count == 0 ? EMPTY_INDEXES : Arrays.copyOf(warmups, count), now);
+    }
+
+    /**
+     * Checks whether the weight of the endpoint is still changing with its warmup.
+     *
+     * @param endpoint the endpoint.
+     * @param now      the current time in milliseconds.
+     * @return true if the endpoint is in its warmup period.
+     */
+    private static boolean isWarmup(Endpoint endpoint, long now) {
+        Long timestamp = endpoint.getTimestamp();
+        if (timestamp == null || timestamp <= 0L) {
+            return false;
+        }
+        Integer warmup = endpoint.getWarmup();
+        return warmup != null && now - timestamp < warmup;
+    }
+
+    /**
+     * Creates the alias table of the weights.
+     *
+     * @param weights the weights.
+     * @return the alias table, or null if the weights are uniform or all zero.
+     */
+    private static AliasTable createAliasTable(int[] weights) {
+        long total = 0;
+        boolean uniform = true;
+        for (int weight : weights) {
+            total += Math.max(weight, 0);
+            uniform = uniform && weight == weights[0];
+        }
+        return uniform ? null : AliasTable.of(weights, total);
+    }
+}
@@ -55,6 +55,8 @@ public class ShortestResponseLoadBalancer extends AbstractLoadBalancer {
         int[] shortestIndexes = new int[length];
         // the weight of every invoker
         int[] weights = new int[length];
+        // the counter of every invoker
+        Counter[] counters = new Counter[length];
         // The sum of the warmup weights of all the shortest response  invokers
         int totalWeight = 0;
         // The weight of the first shortest response invokers
@@ -74,7 +76,7 @@ public class ShortestResponseLoadBalancer extends AbstractLoadBalancer {
             EndpointCounter endpointCounter = serviceCounter.getOrCreate(endpoint.getId());
             endpointCounter.setAccessTime(accessTime);
             Counter counter = endpointCounter.getOrCreate(uri);
-            endpoint.setAttribute(Endpoint.ATTRIBUTE_COUNTER, counter);
+            counters[i] = counter;
 
             // Calculate the estimated response time from the product of active connections and succeeded average
             // elapsed time.
@@ -99,7 +101,7 @@ public class ShortestResponseLoadBalancer extends AbstractLoadBalancer {
         }
 
         if (shortestCount == 1) {
-            return new Candidate<>(endpoints.get(shortestIndexes[0]), shortestIndexes[0]);
+            return elect(endpoints, counters, shortestIndexes[0], request);
         }
         if (!sameWeight && totalWeight > 0) {
             int offsetWeight = ThreadLocalRandom.current().nextInt(totalWeight);
@@ -107,12 +109,26 @@ public class ShortestResponseLoadBalancer extends AbstractLoadBalancer {
                 int shortestIndex = shortestIndexes[i];
                 offsetWeight -= weights[shortestIndex];
                 if (offsetWeight < 0) {
-                    return new Candidate<>(endpoints.get(shortestIndex), shortestIndex);
+                    return elect(endpoints, counters, shortestIndex, request);
                 }
             }
         }
         int index = ThreadLocalRandom.current().nextInt(shortestCount);
-        return new Candidate<>(endpoints.get(shortestIndexes[index]), shortestIndexes[index]);
+        return elect(endpoints, counters, shortestIndexes[index], request);
+    }
+
+    /**
+     * Creates the candidate of the elected endpoint, and hands its counter to the request.
+     *
+     * @param endpoints the endpoints.
+     * @param counters  the counters of the endpoints.
+     * @param index     the index of the elected endpoint.
+     * @param request   the service request.
+     * @return the candidate.
+     */
+    private <T extends Endpoint> Candidate<T> elect(List<T> endpoints, Counter[] counters, int index, ServiceRequest request) {
+        request.setAttribute(Endpoint.ATTRIBUTE_COUNTER, counters[index]);
+        return new Candidate<>(endpoints.get(index), index);
     }
 
 }
@@ -44,5 +44,6 @@ public abstract class AbstractTagMatcher implements TagMatcher {
      * @param request   The request.
      * @return The value list to be matched.
      */
-    protected abstract List<String> getValues(TagCondition condition, ServiceRequest request);
+    @Override
+    public abstract List<String> getValues(TagCondition condition, ServiceRequest request);
 }
\ No newline at end of file
@@ -19,6 +19,8 @@ import com.jd.live.agent.core.extension.annotation.Extensible;
 import com.jd.live.agent.governance.request.ServiceRequest;
 import com.jd.live.agent.governance.rule.tag.TagCondition;
 
+import java.util.List;
+
 /**
  * The {@code TagMatcher} interface defines a contract for matching tags against specific conditions within a request.
  * Classes implementing this interface are responsible for determining if a request satisfies the criteria defined by a
@@ -38,5 +40,16 @@ public interface TagMatcher {
      * @return {@code true} if the request meets the tag condition; {@code false} otherwise.
      */
     boolean match(TagCondition condition, ServiceRequest request);
+
+    /**
+     * Returns the values of the tag of the request.
+     *
+     * @param condition the tag condition, whose key is the name of the tag.
+     * @param request   the request.
+     * @return the values of the tag, or null if it's absent or not supported.
+     */
+    default List<String> getValues(TagCondition condition, ServiceRequest request) {
+        return null;
+    }
 }
 
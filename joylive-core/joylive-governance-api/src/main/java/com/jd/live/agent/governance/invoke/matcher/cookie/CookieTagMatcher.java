@@ -32,7 +32,7 @@ import java.util.List;
 public class CookieTagMatcher extends AbstractTagMatcher {
 
     @Override
-    protected List<String> getValues(TagCondition condition, ServiceRequest request) {
+    public List<String> getValues(TagCondition condition, ServiceRequest request) {
         return request.getCookies(condition.getKey());
     }
 }
@@ -33,7 +33,7 @@ import java.util.List;
 public class QueryTagMatcher extends AbstractTagMatcher {
 
     @Override
-    protected List<String> getValues(TagCondition condition, ServiceRequest request) {
+    public List<String> getValues(TagCondition condition, ServiceRequest request) {
         return request.getQueries(condition.getKey());
     }
 }
@@ -36,7 +36,7 @@ public class SystemTagMatcher extends AbstractTagMatcher {
     private Map<String, SystemTagProvider> providers;
 
     @Override
-    protected List<String> getValues(TagCondition condition, ServiceRequest request) {
+    public List<String> getValues(TagCondition condition, ServiceRequest request) {
         SystemTagProvider provider = providers.get(condition.getKey());
         return provider == null ? null : provider.getValues(request);
     }
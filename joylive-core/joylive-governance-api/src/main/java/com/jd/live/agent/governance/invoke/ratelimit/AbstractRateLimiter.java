@@ -33,6 +33,12 @@ import java.util.concurrent.TimeUnit;
  */
 public abstract class AbstractRateLimiter implements RateLimiter {
 
+    /**
+     * The resolution in milliseconds of the last acquire time, which is only used to recycle idle limiters,
+     * so the shared field is not written by every acquisition.
+     */
+    private static final long ACQUIRE_TIME_RESOLUTION = 1000L;
+
     /**
      * The rate limit policy that defines the limits for the rate limiter.
      */
@@ -65,22 +71,32 @@ public abstract class AbstractRateLimiter implements RateLimiter {
 
     @Override
     public boolean acquire() {
-        this.lastAcquireTime = System.currentTimeMillis();
+        touch();
         return acquire(1, timeout.toNanos(), TimeUnit.NANOSECONDS);
     }
 
     @Override
     public boolean acquire(int permits) {
-        this.lastAcquireTime = System.currentTimeMillis();
+        touch();
         return doAcquire(permits, timeout.toNanos(), TimeUnit.NANOSECONDS);
     }
 
     @Override
     public boolean acquire(int permits, long timeout, TimeUnit timeUnit) {
-        this.lastAcquireTime = System.currentTimeMillis();
+        touch();
         return doAcquire(permits, timeout, timeUnit);
     }
 
+    /**
+     * Updates the last acquire time if it is older than the resolution.
+     */
+    protected void touch() {
+        long now = System.currentTimeMillis();
+        if (now - lastAcquireTime >= ACQUIRE_TIME_RESOLUTION) {
+            lastAcquireTime = now;
+        }
+    }
+
     /**
      * Try to get some permits within a duration and return the result
      *
@@ -0,0 +1,33 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.ratelimit;
+
+/**
+ * A rate limiter which limits the permits of each key separately, such as the user id or the tenant of the request.
+ *
+ * @since 1.6.0
+ */
+public interface KeyRateLimiter extends RateLimiter {
+
+    /**
+     * Try to get some permits of the key and return the result
+     *
+     * @param key     Key
+     * @param permits Permits
+     * @return result
+     */
+    boolean acquire(String key, int permits);
+}
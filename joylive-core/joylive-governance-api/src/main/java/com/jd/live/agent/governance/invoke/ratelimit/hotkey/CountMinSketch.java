@@ -0,0 +1,107 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.ratelimit.hotkey;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A thread-safe Count-Min sketch, which estimates the counts of any number of keys in a fixed memory of
+ * {@code depth * width} counters. The estimate is never less than the real count, and the conservative update
+ * only raises the counters to the new minimum, which reduces the over-estimation caused by hash collisions.
+ *
+ * @since 1.6.0
+ */
+public class CountMinSketch {
+
+    private final int depth;
+
+    private final int mask;
+
+    private final AtomicIntegerArray counters;
+
+    /**
+     * Constructs a new sketch.
+     *
+     * @param depth the number of the hash functions.
+     * @param width the number of the counters of each hash function, which is rounded up to a power of two.
+     */
+    public CountMinSketch(int depth, int width) {
+        this.depth = Math.max(depth, 1);
+        int size = Integer.highestOneBit(Math.max(width, 2) - 1) << 1;
+        this.mask = size - 1;
+        this.counters = new AtomicIntegerArray(this.depth * size);
+    }
+
+    /**
+     * Returns the estimated count of the key.
+     *
+     * @param key the key.
+     * @return the estimated count.
+     */
+    public int estimate(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int result = Integer.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            result = Math.min(result, counters.get(index(i, h1, h2)));
+        }
+        return result;
+    }
+
+    /**
+     * Adds the count to the key with the conservative update.
+     *
+     * @param key   the key.
+     * @param count the count to add.
+     * @return the estimated count after adding.
+     */
+    public int add(String key, int count) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            min = Math.min(min, counters.get(index(i, h1, h2)));
+        }
+        int target = min + count;
+        for (int i = 0; i < depth; i++) {
+            int index = index(i, h1, h2);
+            int value = counters.get(index);
+            while (value < target && !counters.compareAndSet(index, value, target)) {
+                value = counters.get(index);
+            }
+        }
+        return target;
+    }
+
+    private int index(int row, int h1, int h2) {
+        return row * (mask + 1) + ((h1 + row * h2) & mask);
+    }
+
+    /**
+     * Spreads the hash code of the key to 64 bits with the finalizer of MurmurHash3.
+     */
+    private static long hash(String key) {
+        long h = key.hashCode() * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53b2b4fL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
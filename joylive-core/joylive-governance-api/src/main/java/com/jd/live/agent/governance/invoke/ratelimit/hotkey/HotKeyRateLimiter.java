@@ -0,0 +1,301 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.ratelimit.hotkey;
+
+import com.jd.live.agent.governance.invoke.ratelimit.AbstractRateLimiter;
+import com.jd.live.agent.governance.invoke.ratelimit.KeyRateLimiter;
+import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
+import com.jd.live.agent.governance.policy.service.limit.SlidingWindow;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * HotKeyRateLimiter
+ * <p>
+ * Limits the requests of each key within the sliding window, whose count is weighted from the previous window
+ * and the current window. The memory is bounded no matter how many distinct keys appear:
+ * </p>
+ * <ul>
+ *     <li>the keys are counted in a {@link CountMinSketch} of each window, which may over-estimate but never
+ *     under-estimate the count;</li>
+ *     <li>the keys whose count reaches the {@code hotRatio} of the threshold are promoted to a small top-K table
+ *     with exact counters. A heavy hitter stops adding to the sketch once promoted, so it adds at most about
+ *     {@code hotRatio * threshold} permits to the counters shared with the light keys in a window, instead of the
+ *     whole threshold. Those permits stay in the sketch until the window slides out;</li>
+ *     <li>when the table is full, the coldest key is demoted and the permits it acquired since its promotion are
+ *     written back to the sketch.</li>
+ * </ul>
+ * The check and the update are not atomic across the counters, so the concurrent requests may slightly exceed
+ * the threshold. The requests are never waited.
+ *
+ * @since 1.6.0
+ */
+public class HotKeyRateLimiter extends AbstractRateLimiter implements KeyRateLimiter {
+
+    private static final String KEY_SKETCH_WIDTH = "sketchWidth";
+
+    private static final String KEY_SKETCH_DEPTH = "sketchDepth";
+
+    private static final String KEY_TOP_K = "topK";
+
+    private static final String KEY_HOT_RATIO = "hotRatio";
+
+    private static final int DEFAULT_SKETCH_WIDTH = 1024;
+
+    private static final int DEFAULT_SKETCH_DEPTH = 4;
+
+    private static final int DEFAULT_TOP_K = 32;
+
+    private static final double DEFAULT_HOT_RATIO = 0.5;
+
+    private static final String EMPTY_KEY = "";
+
+    private final LongSupplier clock;
+
+    private final long threshold;
+
+    private final long windowMs;
+
+    private final int sketchWidth;
+
+    private final int sketchDepth;
+
+    private final int topK;
+
+    private final long hotThreshold;
+
+    private final AtomicReference<Window> window;
+
+    private final Map<String, HotKey> hotKeys = new ConcurrentHashMap<>();
+
+    public HotKeyRateLimiter(RateLimitPolicy policy, SlidingWindow slidingWindow) {
+        this(policy, slidingWindow, System::currentTimeMillis);
+    }
+
+    public HotKeyRateLimiter(RateLimitPolicy policy, SlidingWindow slidingWindow, LongSupplier clock) {
+        super(policy);
+        this.clock = clock;
+        this.threshold = slidingWindow.getThreshold();
+        this.windowMs = Math.max(slidingWindow.getTimeWindowInMs(), 1L);
+        this.sketchWidth = option.getPositive(KEY_SKETCH_WIDTH, DEFAULT_SKETCH_WIDTH);
+        this.sketchDepth = option.getPositive(KEY_SKETCH_DEPTH, DEFAULT_SKETCH_DEPTH);
+        this.topK = option.getPositive(KEY_TOP_K, DEFAULT_TOP_K);
+        double hotRatio = option.getDouble(KEY_HOT_RATIO, DEFAULT_HOT_RATIO);
+        hotRatio = hotRatio <= 0 || hotRatio > 1 ? DEFAULT_HOT_RATIO : hotRatio;
+        this.hotThreshold = Math.max((long) (threshold * hotRatio), 1L);
+        long now = clock.getAsLong();
+        this.window = new AtomicReference<>(new Window(now - now % windowMs, newSketch(), newSketch()));
+    }
+
+    @Override
+    public boolean acquire() {
+        return acquire(EMPTY_KEY, 1);
+    }
+
+    @Override
+    public boolean acquire(int permits) {
+        return acquire(EMPTY_KEY, permits);
+    }
+
+    @Override
+    public boolean doAcquire(int permits, long timeout, TimeUnit timeUnit) {
+        return doAcquire(EMPTY_KEY, permits);
+    }
+
+    @Override
+    public boolean acquire(String key, int permits) {
+        touch();
+        return doAcquire(key == null ? EMPTY_KEY : key, permits);
+    }
+
+    /**
+     * Returns the number of the keys in the top-K table.
+     *
+     * @return the number of the hot keys.
+     */
+    public int getHotKeyCount() {
+        return hotKeys.size();
+    }
+
+    private boolean doAcquire(String key, int permits) {
+        if (permits <= 0) {
+            return false;
+        }
+        long now = clock.getAsLong();
+        Window w = roll(now);
+        double weight = 1 - (double) (now - w.start) / windowMs;
+        HotKey hotKey = hotKeys.get(key);
+        if (hotKey != null) {
+            return hotKey.acquire(w.start, weight, permits);
+        }
+        long count = (long) (w.previous.estimate(key) * weight) + w.current.estimate(key);
+        if (count + permits > threshold) {
+            return false;
+        }
+        w.current.add(key, permits);
+        if (count + permits >= hotThreshold) {
+            promote(key, w, weight);
+        }
+        return true;
+    }
+
+    /**
+     * Moves to the window of the time, and keeps the current sketch as the previous one if they are adjacent.
+     */
+    private Window roll(long now) {
+        Window w = window.get();
+        while (now - w.start >= windowMs) {
+            long start = now - now % windowMs;
+            Window next = new Window(start, newSketch(), start - w.start == windowMs ? w.current : newSketch());
+            if (window.compareAndSet(w, next)) {
+                return next;
+            }
+            w = window.get();
+        }
+        return w;
+    }
+
+    /**
+     * Promotes the key to the top-K table, and demotes the coldest key if the table is full.
+     */
+    private void promote(String key, Window w, double weight) {
+        if (hotKeys.size() >= topK) {
+            Map.Entry<String, HotKey> coldest = null;
+            long min = Long.MAX_VALUE;
+            for (Map.Entry<String, HotKey> entry : hotKeys.entrySet()) {
+                long count = entry.getValue().count(w.start, weight);
+                if (count < min) {
+                    min = count;
+                    coldest = entry;
+                }
+            }
+            long count = (long) (w.previous.estimate(key) * weight) + w.current.estimate(key);
+            if (coldest == null || min >= count || !hotKeys.remove(coldest.getKey(), coldest.getValue())) {
+                return;
+            }
+            coldest.getValue().demote(coldest.getKey(), w);
+        }
+        hotKeys.putIfAbsent(key, new HotKey(w.start, w.previous.estimate(key), w.current.estimate(key)));
+    }
+
+    private CountMinSketch newSketch() {
+        return new CountMinSketch(sketchDepth, sketchWidth);
+    }
+
+    /**
+     * The sketches of the current window and the previous window.
+     */
+    private static class Window {
+
+        private final long start;
+
+        private final CountMinSketch current;
+
+        private final CountMinSketch previous;
+
+        Window(long start, CountMinSketch current, CountMinSketch previous) {
+            this.start = start;
+            this.current = current;
+            this.previous = previous;
+        }
+    }
+
+    /**
+     * The exact counters of a hot key.
+     */
+    private class HotKey {
+
+        private final AtomicReference<Counter> counter;
+
+        HotKey(long start, long previous, long current) {
+            this.counter = new AtomicReference<>(new Counter(start, previous, current, previous, current));
+        }
+
+        boolean acquire(long start, double weight, int permits) {
+            Counter c = roll(start);
+            long base = (long) (c.previous * weight);
+            long current;
+            do {
+                current = c.current.get();
+                if (base + current + permits > threshold) {
+                    return false;
+                }
+            } while (!c.current.compareAndSet(current, current + permits));
+            return true;
+        }
+
+        long count(long start, double weight) {
+            Counter c = roll(start);
+            return (long) (c.previous * weight) + c.current.get();
+        }
+
+        void demote(String key, Window w) {
+            Counter c = roll(w.start);
+            // the counts seeded from the sketches are still there, only the delta is written back.
+            long previous = c.previous - c.previousSeed;
+            long current = c.current.get() - c.currentSeed;
+            if (previous > 0) {
+                w.previous.add(key, (int) Math.min(previous, Integer.MAX_VALUE));
+            }
+            if (current > 0) {
+                w.current.add(key, (int) Math.min(current, Integer.MAX_VALUE));
+            }
+        }
+
+        private Counter roll(long start) {
+            Counter c = counter.get();
+            while (c.start < start) {
+                boolean adjacent = start - c.start == windowMs;
+                Counter next = new Counter(start, adjacent ? c.current.get() : 0, 0, adjacent ? c.currentSeed : 0, 0);
+                if (counter.compareAndSet(c, next)) {
+                    return next;
+                }
+                c = counter.get();
+            }
+            return c;
+        }
+    }
+
+    /**
+     * The counts of a hot key in the current window and the previous window, and the parts of them which were
+     * seeded from the sketches on promotion.
+     */
+    private static class Counter {
+
+        private final long start;
+
+        private final long previous;
+
+        private final AtomicLong current;
+
+        private final long previousSeed;
+
+        private final long currentSeed;
+
+        Counter(long start, long previous, long current, long previousSeed, long currentSeed) {
+            this.start = start;
+            this.previous = previous;
+            this.current = new AtomicLong(current);
+            this.previousSeed = previousSeed;
+            this.currentSeed = currentSeed;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.ratelimit.tokenbucket;
+
+import com.jd.live.agent.governance.invoke.ratelimit.AbstractRateLimiter;
+import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
+import com.jd.live.agent.governance.policy.service.limit.SlidingWindow;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AtomicBurstyLimiter
+ * <p>
+ * A lock-free variant of {@link SmoothBurstyLimiter} with the same semantics. The stored permits and the next
+ * free ticket are packed into a single virtual time {@code v} in nanoseconds, which is updated by CAS:
+ * </p>
+ * <ul>
+ *     <li>the next free ticket is {@code max(now, v)};</li>
+ *     <li>the stored permits are {@code (now - v) / interval}, capped by the max burst by never letting
+ *     {@code v} fall behind {@code now - maxBurst};</li>
+ *     <li>acquiring {@code n} permits advances {@code v} by {@code n * interval}, so the permits beyond the
+ *     stored ones are paid in advance by the next caller.</li>
+ * </ul>
+ *
+ * @since 1.6.0
+ */
+public class AtomicBurstyLimiter extends AbstractRateLimiter {
+
+    private static final String KEY_MAX_BURST_SECONDS = "maxBurstSeconds";
+
+    private static final long DEFAULT_MAX_BURST_SECONDS = 1L;
+
+    private static final int DEFAULT_SECOND_PERMITS = 1000;
+
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * The interval in nanoseconds between two permits at the stable rate.
+     */
+    private final double intervalNanos;
+
+    /**
+     * The time in nanoseconds to fill the bucket, which is the max stored permits times the interval.
+     */
+    private final long burstNanos;
+
+    /**
+     * The virtual time in nanoseconds since the start.
+     */
+    private final AtomicLong state;
+
+    public AtomicBurstyLimiter(RateLimitPolicy limitPolicy, SlidingWindow slidingWindow) {
+        super(limitPolicy);
+        double secondPermits = slidingWindow.getSecondPermits();
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1L) / (secondPermits <= 0 ? DEFAULT_SECOND_PERMITS : secondPermits);
+        this.burstNanos = TimeUnit.SECONDS.toNanos(option.getPositive(KEY_MAX_BURST_SECONDS, DEFAULT_MAX_BURST_SECONDS));
+        // start without stored permits
+        this.state = new AtomicLong(readNanos());
+    }
+
+    @Override
+    public boolean acquire() {
+        return acquire(1, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public boolean acquire(int permits) {
+        return acquire(permits, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public boolean doAcquire(int permits, long timeout, TimeUnit timeUnit) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("Permits must be greater than 0");
+        }
+        long timeoutNanos = timeUnit.toNanos(timeout < 0 ? 0 : timeout);
+        long cost = (long) (permits * intervalNanos);
+        long current;
+        long now;
+        long ticket;
+        while (true) {
+            current = state.get();
+            now = readNanos();
+            // refill the stored permits up to the max burst
+            ticket = Math.max(current, now - burstNanos);
+            if (ticket - now > timeoutNanos) {
+                return false;
+            } else if (state.compareAndSet(current, ticket + cost)) {
+                break;
+            }
+        }
+        if (ticket > now) {
+            SleepingStopwatch.sleepUninterruptibly(ticket - now, TimeUnit.NANOSECONDS);
+        }
+        return true;
+    }
+
+    private long readNanos() {
+        return System.nanoTime() - startNanos;
+    }
+}
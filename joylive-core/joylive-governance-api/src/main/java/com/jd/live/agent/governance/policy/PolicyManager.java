@@ -38,11 +38,13 @@ import com.jd.live.agent.governance.config.GovernanceConfig;
 import com.jd.live.agent.governance.config.MonitorConfig;
 import com.jd.live.agent.governance.config.RegistryConfig;
 import com.jd.live.agent.governance.config.ServiceConfig;
+import com.jd.live.agent.governance.event.TrafficAggregator;
 import com.jd.live.agent.governance.event.TrafficEvent;
 import com.jd.live.agent.governance.event.TrafficEvent.ActionType;
 import com.jd.live.agent.governance.invoke.InvocationContext;
 import com.jd.live.agent.governance.invoke.cluster.ClusterInvoker;
 import com.jd.live.agent.governance.invoke.counter.CounterManager;
+import com.jd.live.agent.governance.invoke.counter.GovernanceMeter;
 import com.jd.live.agent.governance.invoke.filter.InboundFilter;
 import com.jd.live.agent.governance.invoke.filter.OutboundFilter;
 import com.jd.live.agent.governance.invoke.filter.RouteFilter;
@@ -51,6 +53,9 @@ import com.jd.live.agent.governance.invoke.matcher.TagMatcher;
 import com.jd.live.agent.governance.policy.listener.LaneSpaceListener;
 import com.jd.live.agent.governance.policy.listener.LiveSpaceListener;
 import com.jd.live.agent.governance.policy.listener.ServiceListener;
+import com.jd.live.agent.governance.policy.live.UnitRoute;
+import com.jd.live.agent.governance.policy.live.UnitRouteCache;
+import com.jd.live.agent.governance.policy.live.UnitRule;
 import com.jd.live.agent.governance.policy.variable.UnitFunction;
 import com.jd.live.agent.governance.policy.variable.VariableFunction;
 import com.jd.live.agent.governance.policy.variable.VariableParser;
@@ -89,6 +94,8 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
     @Inject(Publisher.TRAFFIC)
     private Publisher<TrafficEvent> trafficPublisher;
 
+    private TrafficAggregator trafficAggregator;
+
     @Getter
     @Inject(Application.COMPONENT_APPLICATION)
     private Application application;
@@ -163,9 +170,14 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
     @Inject
     private Timer timer;
 
+    @Inject(nullable = true)
+    private GovernanceMeter governanceMeter;
+
     @Getter
     private CounterManager counterManager;
 
+    private UnitRouteCache unitRouteCache;
+
     private List<String> serviceSyncers;
 
     private final AtomicBoolean warmup = new AtomicBoolean(false);
@@ -185,6 +197,15 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
         return name == null || unitFunctions == null ? null : unitFunctions.get(name);
     }
 
+    @Override
+    public UnitRoute getUnitRoute(UnitRule rule, String variable) {
+        if (rule == null) {
+            return null;
+        }
+        UnitFunction function = getUnitFunction(rule.getVariableFunction());
+        return unitRouteCache == null ? rule.getUnitRoute(variable, function) : unitRouteCache.getUnitRoute(rule, variable, function);
+    }
+
     @Override
     public VariableFunction getVariableFunction(String name) {
         return name == null || variableFunctions == null ? null : variableFunctions.get(name);
@@ -213,7 +234,13 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
             update.locate(application.getLocation());
         }
         // live policy is updated by a few services.
-        return policy.compareAndSet(expect, update);
+        if (policy.compareAndSet(expect, update)) {
+            if (unitRouteCache != null) {
+                unitRouteCache.clear();
+            }
+            return true;
+        }
+        return false;
     }
 
     @Override
@@ -276,7 +303,11 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
             MonitorConfig monitorConfig = governanceConfig.getServiceConfig().getMonitor();
             if (event.getActionType() == ActionType.FORWARD && monitorConfig.isForward()
                     || event.getActionType() == ActionType.REJECT && monitorConfig.isReject()) {
-                trafficPublisher.offer(event);
+                if (trafficAggregator != null) {
+                    trafficAggregator.add(event);
+                } else {
+                    trafficPublisher.offer(event);
+                }
             }
         }
     }
@@ -285,13 +316,25 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
     public void initialize() {
         governanceConfig = governanceConfig == null ? new GovernanceConfig() : governanceConfig;
         governanceConfig.initialize(application);
-        counterManager = new CounterManager(timer);
+        counterManager = new CounterManager(timer, governanceConfig.getServiceConfig().getCounter(), governanceMeter);
+        unitRouteCache = new UnitRouteCache(governanceConfig.getLiveConfig().getRouteCacheSize());
+        if (governanceMeter != null && unitRouteCache.isEnabled()) {
+            governanceMeter.registerUnitRouteCache(unitRouteCache::getHits, unitRouteCache::getMisses);
+        }
+        MonitorConfig monitorConfig = governanceConfig.getServiceConfig().getMonitor();
+        if (monitorConfig.getAggregateInterval() > 0) {
+            trafficAggregator = new TrafficAggregator(trafficPublisher, monitorConfig.getAggregateCapacity());
+            addTrafficFlusher(monitorConfig.getAggregateInterval());
+        }
         systemPublisher.addHandler(events -> {
             for (Event<AgentEvent> event : events) {
                 if (event.getData().getType() == EventType.AGENT_SERVICE_READY) {
                     // subscribe after all services are started.
                     serviceSyncers = getServiceSyncers();
                     warmup();
+                } else if (event.getData().getType() == EventType.APPLICATION_STOP && trafficAggregator != null) {
+                    // publish the traffic aggregated since the last flush before the application exits.
+                    trafficAggregator.flush();
                 }
             }
         });
@@ -300,6 +343,18 @@ public class PolicyManager implements PolicySupervisor, InjectSourceSupplier, Ex
         configSupervisor.addListener(TYPE_SERVICE_SPACE, new ServiceListener(this, objectParser, policyPublisher));
     }
 
+    /**
+     * Schedules a recurring task to publish the aggregated traffic.
+     *
+     * @param interval the flush interval in milliseconds
+     */
+    private void addTrafficFlusher(long interval) {
+        timer.delay("flush-traffic", interval, () -> {
+            trafficAggregator.flush();
+            addTrafficFlusher(interval);
+        });
+    }
+
     /**
      * Computes a list of policy service names by inspecting the available services from the service supervisor.
      * Only services of type {@link ConfigService} with a policy type of {@link ConfigWatcher#TYPE_SERVICE_SPACE} are included.
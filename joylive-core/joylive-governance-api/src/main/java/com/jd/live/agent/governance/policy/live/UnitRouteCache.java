@@ -0,0 +1,139 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.policy.live;
+
+import com.jd.live.agent.governance.policy.variable.UnitFunction;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded and lock-free cache of the unit routes decided by the variables, which suits the skewed traffic of
+ * the hot variables such as the user id.
+ * <p>
+ * The cache is a direct mapped table, a slot keeps the last decision hashed into it and a collision simply replaces
+ * it. A decision is keyed by the unit rule and the variable. The rule instance stands for its id and its version,
+ * because a new instance is created each time the live space is published, and the table is cleared when a new
+ * policy is published to release the old rules.
+ */
+public class UnitRouteCache {
+
+    private final int mask;
+
+    private volatile AtomicReferenceArray<Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a new cache.
+     *
+     * @param capacity the maximum number of the decisions, which is rounded up to a power of two,
+     *                 zero or negative disables the cache.
+     */
+    public UnitRouteCache(int capacity) {
+        int size = capacity <= 0 ? 0 : Integer.highestOneBit(Math.min(capacity, 1 << 30));
+        size = size < capacity ? size << 1 : size;
+        this.mask = size - 1;
+        this.entries = size == 0 ? null : new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * Returns the unit route of the variable, which is decided by the rule at the first time.
+     *
+     * @param rule     the unit rule
+     * @param variable the variable
+     * @param function the unit function of the rule
+     * @return the unit route, or null if no route matches the variable
+     */
+    public UnitRoute getUnitRoute(UnitRule rule, String variable, UnitFunction function) {
+        AtomicReferenceArray<Entry> table = entries;
+        if (table == null || rule.size() <= 1 || variable == null || variable.isEmpty()) {
+            // no decision to cache
+            return rule.getUnitRoute(variable, function);
+        }
+        int index = index(rule, variable);
+        Entry entry = table.get(index);
+        if (entry != null && entry.rule == rule && entry.variable.equals(variable)) {
+            hits.increment();
+            return entry.route;
+        }
+        misses.increment();
+        UnitRoute route = rule.getUnitRoute(variable, function);
+        table.set(index, new Entry(rule, variable, route));
+        return route;
+    }
+
+    /**
+     * Checks whether the cache is enabled.
+     *
+     * @return true if the capacity is positive.
+     */
+    public boolean isEnabled() {
+        return entries != null;
+    }
+
+    /**
+     * Removes all the decisions.
+     */
+    public void clear() {
+        if (entries != null) {
+            entries = new AtomicReferenceArray<>(mask + 1);
+        }
+    }
+
+    /**
+     * Returns the number of the lookups served by the cache.
+     *
+     * @return the number of the hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of the lookups decided by the rules.
+     *
+     * @return the number of the misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private int index(UnitRule rule, String variable) {
+        int hash = System.identityHashCode(rule) * 31 + variable.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * A decision of the unit route.
+     */
+    private static class Entry {
+
+        private final UnitRule rule;
+
+        private final String variable;
+
+        private final UnitRoute route;
+
+        Entry(UnitRule rule, String variable, UnitRoute route) {
+            this.rule = rule;
+            this.variable = variable;
+            this.route = route;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.policy.live;
+
+import java.util.*;
+
+/**
+ * An immutable route table compiled from the unit routes of a {@link UnitRule}, which replaces the scan of all the
+ * unit routes on every lookup.
+ * <p>
+ * It keeps the priority of the scan: the first route allowing the variable, then the last route having a prefix of
+ * the variable, and then the first route whose range contains the computed value.
+ */
+public class UnitRouteTable {
+
+    private final List<UnitRoute> routes;
+
+    private final Map<String, UnitRoute> allows;
+
+    private final PrefixNode prefixes;
+
+    /**
+     * The sorted and disjoint range starts, each one maps to the route at the same position.
+     */
+    private final int[] froms;
+
+    private final int[] tos;
+
+    private final UnitRoute[] rangeRoutes;
+
+    public UnitRouteTable(List<UnitRoute> routes) {
+        this.routes = routes == null ? Collections.emptyList() : routes;
+        this.allows = new HashMap<>();
+        this.prefixes = new PrefixNode();
+        List<int[]> ranges = new ArrayList<>();
+        int order = 0;
+        for (UnitRoute route : this.routes) {
+            if (route.getAllows() != null) {
+                for (String allow : route.getAllows()) {
+                    allows.putIfAbsent(allow, route);
+                }
+            }
+            if (route.getPrefixes() != null) {
+                for (String prefix : route.getPrefixes()) {
+                    prefixes.add(prefix, order);
+                }
+            }
+            if (route.getRanges() != null) {
+                for (UnitRange range : route.getRanges()) {
+                    if (range.getFrom() < range.getTo()) {
+                        ranges.add(new int[]{range.getFrom(), range.getTo(), order});
+                    }
+                }
+            }
+            order++;
+        }
+        List<int[]> intervals = compile(ranges);
+        int size = intervals.size();
+        this.froms = new int[size];
+        this.tos = new int[size];
+        this.rangeRoutes = new UnitRoute[size];
+        for (int i = 0; i < size; i++) {
+            int[] interval = intervals.get(i);
+            froms[i] = interval[0];
+            tos[i] = interval[1];
+            rangeRoutes[i] = this.routes.get(interval[2]);
+        }
+    }
+
+    /**
+     * Returns the route allowing the variable.
+     *
+     * @param variable the variable
+     * @return the route, or null if no route allows the variable
+     */
+    public UnitRoute getAllow(String variable) {
+        return allows.get(variable);
+    }
+
+    /**
+     * Returns the last route having a prefix of the variable.
+     *
+     * @param variable the variable
+     * @return the route, or null if no route has a prefix of the variable
+     */
+    public UnitRoute getPrefix(String variable) {
+        int order = prefixes.match(variable);
+        return order < 0 ? null : routes.get(order);
+    }
+
+    /**
+     * Returns the first route whose range contains the value.
+     *
+     * @param value the value computed from the variable
+     * @return the route, or null if no range contains the value
+     */
+    public UnitRoute getRange(int value) {
+        int low = 0;
+        int high = froms.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (froms[mid] > value) {
+                high = mid - 1;
+            } else if (tos[mid] <= value) {
+                low = mid + 1;
+            } else {
+                return rangeRoutes[mid];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Splits the overlapped ranges into sorted and disjoint intervals, the overlapped part belongs to the range of the
+     * first route.
+     *
+     * @param ranges the ranges as from, to and the order of the route
+     * @return the intervals as from, to and the order of the route
+     */
+    private static List<int[]> compile(List<int[]> ranges) {
+        if (ranges.isEmpty()) {
+            return ranges;
+        }
+        TreeSet<Integer> points = new TreeSet<>();
+        for (int[] range : ranges) {
+            points.add(range[0]);
+            points.add(range[1]);
+        }
+        List<int[]> result = new ArrayList<>();
+        Integer from = null;
+        for (Integer to : points) {
+            if (from != null) {
+                int order = -1;
+                for (int[] range : ranges) {
+                    if (range[0] <= from && to <= range[1] && (order < 0 || range[2] < order)) {
+                        order = range[2];
+                    }
+                }
+                if (order >= 0) {
+                    int[] last = result.isEmpty() ? null : result.get(result.size() - 1);
+                    if (last != null && last[1] == from && last[2] == order) {
+                        last[1] = to;
+                    } else {
+                        result.add(new int[]{from, to, order});
+                    }
+                }
+            }
+            from = to;
+        }
+        return result;
+    }
+
+    /**
+     * A node of the prefix trie, which keeps the order of the last route having the prefix ending at this node.
+     */
+    private static class PrefixNode {
+
+        private Map<Character, PrefixNode> children;
+
+        private int order = -1;
+
+        void add(String prefix, int order) {
+            PrefixNode node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                if (node.children == null) {
+                    node.children = new HashMap<>();
+                }
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new PrefixNode());
+            }
+            node.order = Math.max(node.order, order);
+        }
+
+        /**
+         * Walks the variable, and returns the maximum order of the prefixes along the path.
+         */
+        int match(String variable) {
+            PrefixNode node = this;
+            int result = order;
+            for (int i = 0; i < variable.length() && node.children != null; i++) {
+                node = node.children.get(variable.charAt(i));
+                if (node == null) {
+                    break;
+                }
+                result = Math.max(result, node.order);
+            }
+            return result;
+        }
+    }
+}
@@ -79,6 +79,8 @@ public class UnitRule {
 
     private final transient Cache<String, UnitRoute> unitRouteCache = new MapCache<>(new ListBuilder<>(() -> unitRoutes, UnitRoute::getCode));
 
+    private transient volatile UnitRouteTable routeTable;
+
     /**
      * Gets the unit route for the given code.
      *
@@ -112,17 +114,14 @@ public class UnitRule {
             }
             return null;
         } else {
-            int value = function == null ? -1 : function.compute(variable, modulo);
-            UnitRoute result = null;
-            for (UnitRoute unitRoute : unitRoutes) {
-                // Prioritize whitelists, then prefix whitelists, followed by ranges.
-                if (unitRoute.isAllow(variable)) {
-                    return unitRoute;
-                } else if (unitRoute.isPrefix(variable)) {
-                    result = unitRoute;
-                } else if (result == null && unitRoute.contains(value)) {
-                    result = unitRoute;
-                }
+            // Prioritize whitelists, then prefix whitelists, followed by ranges.
+            UnitRouteTable table = getRouteTable();
+            UnitRoute result = table.getAllow(variable);
+            if (result == null) {
+                result = table.getPrefix(variable);
+            }
+            if (result == null) {
+                result = table.getRange(function == null ? -1 : function.compute(variable, modulo));
             }
             return result;
         }
@@ -153,10 +152,24 @@ public class UnitRule {
 
     public void cache() {
         getUnitRoute("");
+        getRouteTable();
         if (unitRoutes != null) {
             unitRoutes.forEach(UnitRoute::cache);
         }
     }
-}
 
+    /**
+     * Returns the route table compiled from the unit routes, which is built when the policy is cached.
+     *
+     * @return the route table
+     */
+    private UnitRouteTable getRouteTable() {
+        UnitRouteTable result = routeTable;
+        if (result == null) {
+            result = new UnitRouteTable(unitRoutes);
+            routeTable = result;
+        }
+        return result;
+    }
+}
 
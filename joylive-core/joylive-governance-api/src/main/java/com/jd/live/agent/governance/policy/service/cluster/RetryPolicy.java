@@ -24,6 +24,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Defines a failover policy that specifies the behavior of a system or component in the event of a failure.
@@ -53,6 +54,47 @@ public class RetryPolicy extends PolicyId implements PolicyInheritWithId<RetryPo
      */
     private Long interval;
 
+    /**
+     * The upper bound of the retry waiting interval, in milliseconds.
+     */
+    private Long maxInterval;
+
+    /**
+     * The multiplier of the retry waiting interval for each further retry. A value not greater than 1 keeps
+     * the interval fixed.
+     */
+    private Double multiplier;
+
+    /**
+     * The ratio in [0, 1] of the retry waiting interval that is randomized, so that the retries of
+     * concurrent requests are spread out.
+     */
+    private Double jitter;
+
+    /**
+     * The maximum ratio of the retries to the requests of the service, such as 0.2. A value not greater than 0
+     * disables the retry budget.
+     */
+    private Double budgetRatio;
+
+    /**
+     * The number of retries per second allowed by the retry budget regardless of the ratio, so that a service
+     * with little traffic can still retry.
+     */
+    private Integer budgetMinRetries;
+
+    /**
+     * The fixed delay in milliseconds before a hedged request is sent, which takes precedence over
+     * the hedge percentile.
+     */
+    private Long hedgeDelay;
+
+    /**
+     * The percentile in (0, 100) of the latency of the service, which is used as the delay before
+     * a hedged request is sent, such as 95.
+     */
+    private Double hedgePercentile;
+
     /**
      * Retry execution timeout, in milliseconds.
      */
@@ -94,6 +136,27 @@ public class RetryPolicy extends PolicyId implements PolicyInheritWithId<RetryPo
         if (interval == null) {
             interval = source.interval;
         }
+        if (maxInterval == null) {
+            maxInterval = source.maxInterval;
+        }
+        if (multiplier == null) {
+            multiplier = source.multiplier;
+        }
+        if (jitter == null) {
+            jitter = source.jitter;
+        }
+        if (budgetRatio == null) {
+            budgetRatio = source.budgetRatio;
+        }
+        if (budgetMinRetries == null) {
+            budgetMinRetries = source.budgetMinRetries;
+        }
+        if (hedgeDelay == null) {
+            hedgeDelay = source.hedgeDelay;
+        }
+        if (hedgePercentile == null) {
+            hedgePercentile = source.hedgePercentile;
+        }
         if (timeout == null) {
             timeout = source.timeout;
         }
@@ -114,6 +177,39 @@ public class RetryPolicy extends PolicyId implements PolicyInheritWithId<RetryPo
         }
     }
 
+    /**
+     * Returns the waiting interval before the given retry, which grows exponentially from the interval
+     * by the multiplier up to the max interval, and is randomized by the jitter.
+     *
+     * @param retries the number of the retry, starting from 1.
+     * @return the waiting interval in milliseconds, or 0 if the retry should be executed immediately.
+     */
+    public long getBackoff(int retries) {
+        if (interval == null || interval <= 0) {
+            return 0;
+        }
+        double backoff = interval;
+        if (multiplier != null && multiplier > 1 && retries > 1) {
+            backoff = interval * Math.pow(multiplier, retries - 1);
+        }
+        if (maxInterval != null && maxInterval > 0 && backoff > maxInterval) {
+            backoff = maxInterval;
+        }
+        if (jitter != null && jitter > 0) {
+            backoff -= backoff * Math.min(jitter, 1.0) * ThreadLocalRandom.current().nextDouble();
+        }
+        return (long) backoff;
+    }
+
+    /**
+     * Checks if the retries are limited by a retry budget.
+     *
+     * @return true if the retry budget is enabled.
+     */
+    public boolean isBudgetEnabled() {
+        return budgetRatio != null && budgetRatio > 0;
+    }
+
     public long getDeadline(long startTime) {
         return timeout != null && timeout > 0 ? startTime + timeout : 0;
     }
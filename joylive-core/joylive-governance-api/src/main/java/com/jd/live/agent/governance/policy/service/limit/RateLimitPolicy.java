@@ -72,6 +72,12 @@ public class RateLimitPolicy extends AbstractLimitPolicy implements PolicyInheri
      */
     private String realizeType;
 
+    /**
+     * The tag of the request whose value is the key limited separately, such as the header of the user id.
+     * If its values are configured, only the matching keys are limited.
+     */
+    private TagCondition keyCondition;
+
     /**
      * Default constructor for creating an instance without initializing fields.
      */
@@ -129,6 +135,9 @@ public class RateLimitPolicy extends AbstractLimitPolicy implements PolicyInheri
         if (realizeType == null) {
             realizeType = source.realizeType;
         }
+        if (keyCondition == null) {
+            keyCondition = source.keyCondition;
+        }
     }
 }
 
@@ -20,6 +20,7 @@ import com.jd.live.agent.core.inject.annotation.Inject;
 import com.jd.live.agent.core.parser.ObjectParser;
 import com.jd.live.agent.core.parser.TypeReference;
 import com.jd.live.agent.core.util.http.HttpResponse;
+import com.jd.live.agent.core.util.cache.WeakIdentityCache;
 import com.jd.live.agent.core.util.http.HttpUtils;
 import com.jd.live.agent.core.util.time.Timer;
 import com.jd.live.agent.governance.policy.service.Service;
@@ -55,6 +56,12 @@ public abstract class AbstractServiceHttpSyncer<K extends ServiceKey> extends Ab
     @Inject(ObjectParser.JSON)
     protected ObjectParser jsonParser;
 
+    /**
+     * The validators of the subscriptions, which are released with their subscriptions, so a new subscription
+     * of the same subscriber never sends the validators of a previous one.
+     */
+    protected final WeakIdentityCache<Subscription<K, Service>, HttpValidator> validators = new WeakIdentityCache<>();
+
     @Override
     protected Syncer<K, Service> createSyncer() {
         return subscription -> {
@@ -67,11 +74,22 @@ public abstract class AbstractServiceHttpSyncer<K extends ServiceKey> extends Ab
                 subscription.onUpdate(new SyncResponse<>(e));
             } finally {
                 long delay = config.getInterval() + ThreadLocalRandom.current().nextLong(2000);
-                timer.delay(getName() + "-" + key.getName(), delay, () -> addTask(key.getSubscriber()));
+                timer.delay(getName() + "-" + key.getName(), delay, () -> {
+                    // stop polling once the subscription is removed
+                    if (subscriptions.get(key.getSubscriber().getUniqueName()) == subscription) {
+                        addTask(key.getSubscriber());
+                    }
+                });
             }
         };
     }
 
+    @Override
+    protected void stopSync() {
+        super.stopSync();
+        validators.clear();
+    }
+
     /**
      * Retrieves a service based on the provided service version and sync configuration.
      *
@@ -88,20 +106,23 @@ public abstract class AbstractServiceHttpSyncer<K extends ServiceKey> extends Ab
         context.put(SERVICE_NAME, key.getName());
         context.put(SERVICE_VERSION, String.valueOf(subscription.getVersion()));
         String uri = template.evaluate(context);
-        return getResponse(config, uri);
+        HttpValidator validator = validators.computeIfAbsent(subscription, s -> new HttpValidator());
+        return getResponse(config, uri, validator);
     }
 
     /**
      * Gets an SyncResponse object from a SyncConfig and a URI.
      *
-     * @param config The SyncConfig object used to configure the connection.
-     * @param uri    The URI to send the GET request to.
+     * @param config    The SyncConfig object used to configure the connection.
+     * @param uri       The URI to send the GET request to.
+     * @param validator The validator of the conditional request.
      * @return The SyncResponse object containing the response.
      * @throws IOException If an I/O error occurs while sending the request or parsing the response.
      */
-    protected SyncResponse<Service> getResponse(SyncConfig config, String uri) throws IOException {
+    protected SyncResponse<Service> getResponse(SyncConfig config, String uri, HttpValidator validator) throws IOException {
         HttpResponse<ApiResponse<Service>> response = HttpUtils.get(uri,
-                conn -> configure(config, conn),
+                conn -> configure(config, uri, validator, conn),
+                (status, conn) -> validator.update(uri, status, conn),
                 reader -> jsonParser.read(reader, new TypeReference<ApiResponse<Service>>() {
                 }));
         return ApiResponse.from(response).asSyncResponse();
@@ -119,4 +140,17 @@ public abstract class AbstractServiceHttpSyncer<K extends ServiceKey> extends Ab
         conn.setRequestProperty("Accept", "application/json");
         conn.setConnectTimeout((int) config.getTimeout());
     }
+
+    /**
+     * Configures the HTTP connection with the specified synchronization configuration and the conditional headers.
+     *
+     * @param config    the synchronization configuration.
+     * @param uri       the uri of the request.
+     * @param validator the validator of the conditional request.
+     * @param conn      the HTTP connection to be configured.
+     */
+    protected void configure(SyncConfig config, String uri, HttpValidator validator, HttpURLConnection conn) {
+        configure(config, conn);
+        validator.configure(uri, conn);
+    }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.service.sync.http;
+
+import com.jd.live.agent.core.util.http.HttpHeader;
+import com.jd.live.agent.core.util.http.HttpStatus;
+
+import java.net.HttpURLConnection;
+
+/**
+ * Keeps the validators of the last response of a polled resource, which are the {@code ETag} and the
+ * {@code Last-Modified} headers, and sends them back in a conditional request, so an unchanged resource is answered
+ * with {@code 304 Not Modified} instead of being downloaded and parsed again.
+ */
+public class HttpValidator {
+
+    private volatile Validators validators;
+
+    /**
+     * Adds the conditional headers to the request of the uri.
+     *
+     * @param uri  the uri of the request
+     * @param conn the connection of the request
+     */
+    public void configure(String uri, HttpURLConnection conn) {
+        Validators last = validators;
+        // the validators belong to the uri, the version in the uri may be changed.
+        if (last != null && last.uri.equals(uri)) {
+            if (last.etag != null) {
+                conn.setRequestProperty(HttpHeader.IF_NONE_MATCH, last.etag);
+            }
+            if (last.lastModified != null) {
+                conn.setRequestProperty(HttpHeader.IF_MODIFIED_SINCE, last.lastModified);
+            }
+        }
+    }
+
+    /**
+     * Updates the validators with the response of the uri.
+     *
+     * @param uri    the uri of the request
+     * @param status the status of the response
+     * @param conn   the connection of the response
+     */
+    public void update(String uri, HttpStatus status, HttpURLConnection conn) {
+        if (status == HttpStatus.OK) {
+            String etag = conn.getHeaderField(HttpHeader.ETAG);
+            String lastModified = conn.getHeaderField(HttpHeader.LAST_MODIFIED);
+            validators = etag == null && lastModified == null ? null : new Validators(uri, etag, lastModified);
+        } else if (status != HttpStatus.NOT_MODIFIED) {
+            validators = null;
+        }
+    }
+
+    /**
+     * Discards the validators, so the next request downloads the resource.
+     */
+    public void reset() {
+        validators = null;
+    }
+
+    /**
+     * The immutable validators of a response.
+     */
+    private static class Validators {
+
+        private final String uri;
+
+        private final String etag;
+
+        private final String lastModified;
+
+        Validators(String uri, String etag, String lastModified) {
+            this.uri = uri;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.jd.live.agent.governance.service.sync.http;
 import com.jd.live.agent.core.config.SyncConfig;
 import com.jd.live.agent.core.instance.Application;
 import com.jd.live.agent.core.parser.ObjectReader.StringReader;
+import com.jd.live.agent.core.thread.NamedThreadFactory;
 import com.jd.live.agent.core.util.Close;
 import com.jd.live.agent.core.util.Daemon;
 import com.jd.live.agent.core.util.Waiter;
@@ -31,18 +32,24 @@ import com.jd.live.agent.governance.service.sync.http.HttpWatchEvent.EventType;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 /**
  * A class that watches for changes to HTTP resources and notifies listeners of those changes.
+ * <p>
+ * The resources are polled with conditional requests, and are fetched in parallel by at most
+ * {@link SyncConfig#getConcurrency()} threads.
  */
 public class HttpWatcher implements AutoCloseable {
 
+    protected static final int CONCURRENCY = 5;
+
     protected final String name;
 
     protected final SyncConfig config;
@@ -51,6 +58,8 @@ public class HttpWatcher implements AutoCloseable {
 
     protected final Map<HttpResource, HttpListener> subscriptions = new ConcurrentHashMap<>();
 
+    protected final Map<HttpResource, HttpValidator> validators = new ConcurrentHashMap<>();
+
     protected final Waiter.MutexWaiter waiter = new Waiter.MutexWaiter();
 
     protected final AtomicBoolean started = new AtomicBoolean(true);
@@ -59,10 +68,18 @@ public class HttpWatcher implements AutoCloseable {
 
     protected final Daemon daemon;
 
+    protected final ThreadPoolExecutor executor;
+
     public HttpWatcher(String name, SyncConfig config, Application application) {
         this.name = name;
         this.config = config;
         this.application = application;
+        int concurrency = config.getConcurrency() <= 0 ? CONCURRENCY : config.getConcurrency();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory(name + "-fetcher", true));
+        // the idle threads, including the core ones, exit after 60 seconds, such as when the polling interval is
+        // longer than that, or when at most one resource is watched and requested by the daemon thread.
+        this.executor.allowCoreThreadTimeOut(true);
         this.daemon = Daemon.builder()
                 .name(name)
                 .delay(config.getDelay())
@@ -80,6 +97,7 @@ public class HttpWatcher implements AutoCloseable {
         if (started.compareAndSet(true, false)) {
             waiter.wakeup();
             Close.instance().close(daemon);
+            executor.shutdownNow();
         }
     }
 
@@ -105,6 +123,7 @@ public class HttpWatcher implements AutoCloseable {
     public void unsubscribe(HttpResource resource) {
         if (resource != null) {
             subscriptions.remove(resource);
+            validators.remove(resource);
         }
     }
 
@@ -125,7 +144,12 @@ public class HttpWatcher implements AutoCloseable {
      * @throws IOException If an I/O error occurs during the request.
      */
     protected HttpResponse<String> request(HttpResource resource) throws IOException {
-        return HttpUtils.get(resource.getUrl(), this::configure, new StringReader<>());
+        String url = resource.getUrl();
+        HttpValidator validator = validators.computeIfAbsent(resource, r -> new HttpValidator());
+        return HttpUtils.get(url, conn -> {
+            configure(conn);
+            validator.configure(url, conn);
+        }, (status, conn) -> validator.update(url, status, conn), new StringReader<>());
     }
 
     /**
@@ -162,10 +186,11 @@ public class HttpWatcher implements AutoCloseable {
         while (isStarted()) {
             counter.incrementAndGet();
             try {
-                for (Map.Entry<HttpResource, HttpListener> entry : subscriptions.entrySet()) {
-                    HttpResource resource = entry.getKey();
-                    HttpListener listener = entry.getValue();
-                    request(resource, listener);
+                List<Map.Entry<HttpResource, HttpListener>> entries = new ArrayList<>(subscriptions.entrySet());
+                if (entries.size() <= 1) {
+                    entries.forEach(entry -> request(entry.getKey(), entry.getValue()));
+                } else {
+                    request(entries);
                 }
                 waiter.await(config.getInterval(), TimeUnit.MILLISECONDS, null);
             } catch (InterruptedException ignored) {
@@ -173,6 +198,31 @@ public class HttpWatcher implements AutoCloseable {
         }
     }
 
+    /**
+     * Requests the resources in parallel and waits for all of them.
+     *
+     * @param entries the resources and their listeners.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    protected void request(List<Map.Entry<HttpResource, HttpListener>> entries) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(entries.size());
+        for (Map.Entry<HttpResource, HttpListener> entry : entries) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        request(entry.getKey(), entry.getValue());
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // the watcher is closed.
+                latch.countDown();
+            }
+        }
+        latch.await();
+    }
+
     /**
      * Configures the HTTP connection with the necessary headers and timeout settings.
      *
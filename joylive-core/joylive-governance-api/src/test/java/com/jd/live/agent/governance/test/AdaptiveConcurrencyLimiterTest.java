@@ -0,0 +1,148 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.test;
+
+import com.jd.live.agent.governance.config.AdaptiveLimiterConfig;
+import com.jd.live.agent.governance.invoke.concurrencylimit.adaptive.AdaptiveConcurrencyLimiter;
+import com.jd.live.agent.governance.policy.service.limit.ConcurrencyLimitPolicy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * Simulates a server with a fixed number of workers in virtual time, and checks that the adaptive limiter
+ * settles near the capacity of the server instead of the static max concurrency.
+ *
+ * @since 1.6.0
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final int SERVICE_TIME = 10;
+
+    @Test
+    void testConvergeToCapacity() {
+        Simulation simulation = new Simulation(1000, 20);
+        simulation.run(60000, 10);
+        int limit = simulation.limiter.getLimit();
+        Assertions.assertTrue(limit >= 20 && limit <= 50, "limit=" + limit);
+        // the queueing is bounded by the tolerance, far below the static limit of 1000.
+        Assertions.assertTrue(simulation.averageLatency() < SERVICE_TIME * 3, "latency=" + simulation.averageLatency());
+    }
+
+    @Test
+    void testShrinkWhenCapacityDrops() {
+        Simulation simulation = new Simulation(1000, 40);
+        simulation.run(60000, 10);
+        int before = simulation.limiter.getLimit();
+        simulation.workers = 10;
+        simulation.run(60000, 10);
+        int after = simulation.limiter.getLimit();
+        Assertions.assertTrue(after < before, "before=" + before + ", after=" + after);
+        Assertions.assertTrue(after <= 30, "after=" + after);
+    }
+
+    @Test
+    void testFollowSlowdown() {
+        Simulation simulation = new Simulation(1000, 20);
+        simulation.run(60000, 10);
+        // the service becomes three times slower without losing workers.
+        simulation.serviceTime = SERVICE_TIME * 3;
+        simulation.run(120000, 10);
+        int limit = simulation.limiter.getLimit();
+        Assertions.assertTrue(limit >= 20, "limit=" + limit);
+    }
+
+    @Test
+    void testNotGrowWhenUnderused() {
+        Simulation simulation = new Simulation(1000, 100);
+        // about 10 inflight requests, far below the initial limit of 20.
+        simulation.run(60000, 1);
+        Assertions.assertEquals(20, simulation.limiter.getLimit());
+    }
+
+    @Test
+    void testBoundedByMaxConcurrency() {
+        Simulation simulation = new Simulation(25, 100);
+        simulation.run(60000, 10);
+        Assertions.assertEquals(25, simulation.limiter.getLimit());
+    }
+
+    /**
+     * A server with a number of workers and a FIFO queue, driven by a virtual clock in milliseconds.
+     */
+    private static class Simulation {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+
+        private final Queue<Long> waiting = new ArrayDeque<>();
+
+        private final PriorityQueue<long[]> running = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+
+        private int workers;
+
+        private int serviceTime = SERVICE_TIME;
+
+        private long now;
+
+        private long completed;
+
+        private long latency;
+
+        Simulation(int maxConcurrency, int workers) {
+            ConcurrencyLimitPolicy policy = new ConcurrencyLimitPolicy("test");
+            policy.setMaxConcurrency(maxConcurrency);
+            this.limiter = new AdaptiveConcurrencyLimiter(policy, new AdaptiveLimiterConfig(), () -> now);
+            this.workers = workers;
+        }
+
+        /**
+         * Runs the simulation.
+         *
+         * @param duration the duration in milliseconds.
+         * @param arrivals the number of arrivals per millisecond.
+         */
+        void run(long duration, int arrivals) {
+            long end = now + duration;
+            completed = 0;
+            latency = 0;
+            while (now < end) {
+                while (!running.isEmpty() && running.peek()[0] <= now) {
+                    long[] request = running.poll();
+                    long elapsed = now - request[1];
+                    completed++;
+                    latency += elapsed;
+                    limiter.release(elapsed, true);
+                }
+                for (int i = 0; i < arrivals; i++) {
+                    if (limiter.acquire()) {
+                        waiting.add(now);
+                    }
+                }
+                while (running.size() < workers && !waiting.isEmpty()) {
+                    running.add(new long[]{now + serviceTime, waiting.poll()});
+                }
+                now++;
+            }
+        }
+
+        double averageLatency() {
+            return completed == 0 ? 0 : (double) latency / completed;
+        }
+    }
+}
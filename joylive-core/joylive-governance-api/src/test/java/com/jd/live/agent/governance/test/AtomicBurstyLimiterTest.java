@@ -0,0 +1,73 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.test;
+
+import com.jd.live.agent.governance.invoke.ratelimit.tokenbucket.AtomicBurstyLimiter;
+import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
+import com.jd.live.agent.governance.policy.service.limit.SlidingWindow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that the lock-free token bucket keeps the semantics of the smooth bursty limiter.
+ *
+ * @since 1.6.0
+ */
+public class AtomicBurstyLimiterTest {
+
+    @Test
+    void testPayInAdvance() {
+        AtomicBurstyLimiter limiter = new AtomicBurstyLimiter(new RateLimitPolicy("test"), new SlidingWindow(10, 1000L));
+        Assertions.assertTrue(limiter.acquire(1, 0, TimeUnit.MILLISECONDS));
+        Assertions.assertFalse(limiter.acquire(1, 0, TimeUnit.MILLISECONDS));
+        Assertions.assertTrue(limiter.acquire(1, 150, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testAcquireWithPermitsAndTimeoutExceeded() {
+        AtomicBurstyLimiter limiter = new AtomicBurstyLimiter(new RateLimitPolicy("test"), new SlidingWindow(10, 1000L));
+        Assertions.assertTrue(limiter.acquire(1000, 10, TimeUnit.MILLISECONDS));
+        Assertions.assertFalse(limiter.acquire(1000, 1, TimeUnit.MILLISECONDS));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> limiter.acquire(0));
+    }
+
+    @Test
+    void testConcurrentRate() throws InterruptedException {
+        AtomicBurstyLimiter limiter = new AtomicBurstyLimiter(new RateLimitPolicy("test"), new SlidingWindow(1000, 1000L));
+        int threads = 4;
+        long duration = TimeUnit.MILLISECONDS.toNanos(500);
+        AtomicInteger acquired = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(threads);
+        long endTime = System.nanoTime() + duration;
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                while (System.nanoTime() < endTime) {
+                    if (limiter.acquire(1, 0, TimeUnit.MILLISECONDS)) {
+                        acquired.incrementAndGet();
+                    }
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        // 1000 permits per second for 500 milliseconds, without stored permits at the start.
+        Assertions.assertTrue(acquired.get() >= 450 && acquired.get() <= 520, "acquired " + acquired.get());
+    }
+}
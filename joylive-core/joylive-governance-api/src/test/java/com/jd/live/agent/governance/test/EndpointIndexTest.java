@@ -0,0 +1,113 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.test;
+
+import com.jd.live.agent.core.Constants;
+import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.instance.EndpointIndex;
+import com.jd.live.agent.governance.instance.EndpointIndex.Dimension;
+import com.jd.live.agent.governance.invoke.RouteTarget;
+import com.jd.live.agent.governance.rule.OpType;
+import com.jd.live.agent.governance.rule.tag.TagCondition;
+import com.jd.live.agent.governance.rule.tag.TagGroup;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Checks that the endpoint index is reused by the instances and filters the endpoints like the predicates.
+ *
+ * @since 1.6.0
+ */
+public class EndpointIndexTest {
+
+    @Test
+    void testCache() {
+        List<Object> instances = instances(4);
+        EndpointIndex index = EndpointIndex.of(wrap(instances));
+        Assertions.assertNotNull(index);
+        // new wrappers of the same instances
+        Assertions.assertSame(index, EndpointIndex.of(wrap(instances)));
+        // another list starting with the same instance does not overwrite the first one
+        EndpointIndex other = EndpointIndex.of(wrap(instances.subList(0, 2)));
+        Assertions.assertNotSame(index, other);
+        Assertions.assertSame(index, EndpointIndex.of(wrap(instances)));
+        Assertions.assertSame(other, EndpointIndex.of(wrap(instances.subList(0, 2))));
+        // the endpoints without stable instances are not indexed
+        Assertions.assertNull(EndpointIndex.of(Collections.singletonList(new TestEndpoint("a"))));
+    }
+
+    @Test
+    void testSelect() {
+        List<Endpoint> endpoints = wrap(instances(6));
+        EndpointIndex index = EndpointIndex.of(endpoints);
+        BitSet bits = index.select(Dimension.UNIT, endpoints, e -> "unit1".equals(e.getUnit()));
+        Assertions.assertEquals(hosts(endpoints, e -> "unit1".equals(e.getUnit())), hosts(EndpointIndex.collect(endpoints, bits)));
+
+        TagGroup group = new TagGroup(Collections.singletonList(
+                new TagCondition("zone", Collections.singletonList("z1"), OpType.EQUAL)));
+        bits = index.select(group, endpoints);
+        Assertions.assertEquals(hosts(endpoints, group::match), hosts(EndpointIndex.collect(endpoints, bits)));
+    }
+
+    @Test
+    void testRouteTarget() {
+        List<Endpoint> endpoints = wrap(instances(6));
+        RouteTarget target = RouteTarget.forward(endpoints, EndpointIndex.of(endpoints));
+        Assertions.assertTrue(target.isIndexed());
+        Assertions.assertEquals(3, target.filter(Dimension.UNIT, e -> "unit0".equals(e.getUnit())));
+        TagGroup group = new TagGroup(Collections.singletonList(
+                new TagCondition("zone", Collections.singletonList("z1"), OpType.EQUAL)));
+        target.filter(group);
+        List<String> expected = hosts(endpoints, e -> "unit0".equals(e.getUnit()) && group.match(e));
+        Assertions.assertEquals(expected, hosts(target.getEndpoints()));
+        // the endpoints are no longer tracked once collected, and the filters fall back to the predicates
+        Assertions.assertFalse(target.isIndexed());
+        target.filter(Dimension.UNIT, e -> false);
+        Assertions.assertTrue(target.isEmpty());
+    }
+
+    private static List<Object> instances(int size) {
+        List<Object> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new Object());
+        }
+        return result;
+    }
+
+    private static List<Endpoint> wrap(List<Object> instances) {
+        List<Endpoint> result = new ArrayList<>(instances.size());
+        for (int i = 0; i < instances.size(); i++) {
+            result.add(new TestEndpoint("host" + i, instances.get(i))
+                    .label(Constants.LABEL_UNIT, "unit" + (i % 2))
+                    .label("zone", "z" + (i % 3)));
+        }
+        return result;
+    }
+
+    private static List<String> hosts(List<? extends Endpoint> endpoints) {
+        return endpoints.stream().map(Endpoint::getHost).collect(Collectors.toList());
+    }
+
+    private static List<String> hosts(List<? extends Endpoint> endpoints, java.util.function.Predicate<Endpoint> predicate) {
+        return endpoints.stream().filter(predicate).map(Endpoint::getHost).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.test;
+
+import com.jd.live.agent.governance.invoke.cluster.HedgeDelay;
+import com.jd.live.agent.governance.invoke.cluster.Hedger;
+import com.jd.live.agent.governance.invoke.cluster.Hedger.HedgeListener;
+import com.jd.live.agent.governance.invoke.cluster.RetryBudget;
+import com.jd.live.agent.governance.invoke.counter.LatencyHistogram;
+import com.jd.live.agent.governance.invoke.counter.LatencyWindow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks the attempts sent by the hedger and the latency window used as the hedge delay.
+ *
+ * @since 1.6.0
+ */
+public class HedgerTest {
+
+    private static final long DELAY = 20;
+
+    @Test
+    void testHedgeAndCancel() throws Exception {
+        Attempts attempts = new Attempts(true);
+        Hedger<String> hedger = attempts.create(2, new RetryBudget());
+        CompletableFuture<String> result = hedger.execute().toCompletableFuture();
+        attempts.await(2);
+        Assertions.assertFalse(result.isDone());
+        Assertions.assertEquals(1, attempts.hedges.get());
+        // the hedged attempt wins and the first one is cancelled
+        attempts.futures.get(1).complete("hedge");
+        Assertions.assertEquals("hedge", result.get(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(attempts.futures.get(0).isCancelled());
+        Thread.sleep(DELAY * 3);
+        Assertions.assertEquals(2, hedger.getAttempts());
+    }
+
+    @Test
+    void testFirstSuccessWins() throws Exception {
+        Attempts attempts = new Attempts(true);
+        Hedger<String> hedger = attempts.create(2, new RetryBudget());
+        CompletableFuture<String> result = hedger.execute().toCompletableFuture();
+        attempts.futures.get(0).complete("first");
+        Assertions.assertEquals("first", result.get(1, TimeUnit.SECONDS));
+        // no hedge is sent after the request completes
+        Thread.sleep(DELAY * 3);
+        Assertions.assertEquals(1, hedger.getAttempts());
+        Assertions.assertEquals(0, attempts.hedges.get());
+    }
+
+    @Test
+    void testAllFailed() throws Exception {
+        Attempts attempts = new Attempts(true);
+        Hedger<String> hedger = attempts.create(1, new RetryBudget());
+        CompletableFuture<String> result = hedger.execute().toCompletableFuture();
+        attempts.await(2);
+        attempts.futures.get(0).completeExceptionally(new IllegalStateException("first"));
+        // the request is pending while the hedged attempt is in flight
+        Assertions.assertFalse(result.isDone());
+        attempts.futures.get(1).completeExceptionally(new IllegalStateException("hedge"));
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals("hedge", e.getCause().getMessage());
+    }
+
+    @Test
+    void testBudgetExhausted() throws Exception {
+        RetryBudget budget = new RetryBudget();
+        while (budget.withdraw(0)) {
+            // drain the seed of the budget
+        }
+        Attempts attempts = new Attempts(true);
+        Hedger<String> hedger = attempts.create(2, budget);
+        CompletableFuture<String> result = hedger.execute().toCompletableFuture();
+        Thread.sleep(DELAY * 3);
+        Assertions.assertEquals(1, hedger.getAttempts());
+        Assertions.assertEquals(1, attempts.throttles.get());
+        attempts.futures.get(0).complete("first");
+        Assertions.assertEquals("first", result.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testDeferred() throws Exception {
+        Attempts attempts = new Attempts(false);
+        Hedger<String> hedger = attempts.create(2, new RetryBudget());
+        hedger.execute();
+        // the first attempt is still in the agent, so the hedge waits for it to release the shared request
+        Thread.sleep(DELAY * 3);
+        Assertions.assertEquals(1, hedger.getAttempts());
+        // the deferred hedge is sent once the first attempt is dispatched
+        hedger.onDispatch();
+        attempts.await(2);
+        Assertions.assertEquals(1, attempts.hedges.get());
+    }
+
+    @Test
+    void testHedgeDelay() {
+        // the delay is tracked without any counter, which is only created by some load balancers
+        long now = System.currentTimeMillis();
+        HedgeDelay delay = new HedgeDelay(now);
+        for (int i = 0; i < 10; i++) {
+            delay.record(10);
+        }
+        // not enough requests yet
+        Assertions.assertEquals(0, delay.get(95, now));
+        for (int i = 0; i < 100; i++) {
+            delay.record(10);
+        }
+        // the delay is refreshed once per bucket
+        Assertions.assertEquals(0, delay.get(95, now + 10));
+        Assertions.assertEquals(10, delay.get(95, now + 1000));
+        // the requests leave the window
+        Assertions.assertEquals(0, delay.get(95, now + 20000));
+    }
+
+    @Test
+    void testLatencyWindow() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 100; i++) {
+            histogram.record(1000);
+        }
+        LatencyWindow window = new LatencyWindow(histogram, 2);
+        Assertions.assertEquals(0, window.getPercentile(95));
+        for (int i = 0; i < 100; i++) {
+            histogram.record(10);
+        }
+        Assertions.assertEquals(10, window.getPercentile(95));
+        window.rotate();
+        for (int i = 0; i < 100; i++) {
+            histogram.record(100);
+        }
+        Assertions.assertTrue(window.getPercentile(95) >= 100);
+        // the requests of the oldest bucket leave the window
+        window.rotate();
+        Assertions.assertTrue(window.getPercentile(10) >= 100);
+        window.rotate();
+        Assertions.assertEquals(0, window.getPercentile(95));
+    }
+
+    /**
+     * The attempts sent by a hedger, which are completed by the tests.
+     */
+    private static class Attempts implements HedgeListener {
+
+        private final List<CompletableFuture<String>> futures = new CopyOnWriteArrayList<>();
+
+        private final AtomicInteger hedges = new AtomicInteger();
+
+        private final AtomicInteger throttles = new AtomicInteger();
+
+        private final boolean dispatch;
+
+        private Hedger<String> hedger;
+
+        Attempts(boolean dispatch) {
+            this.dispatch = dispatch;
+        }
+
+        Hedger<String> create(int maxHedges, RetryBudget budget) {
+            hedger = new Hedger<>(index -> {
+                CompletableFuture<String> future = new CompletableFuture<>();
+                futures.add(future);
+                if (dispatch) {
+                    hedger.onDispatch();
+                }
+                return future;
+            }, maxHedges, DELAY, budget, 0, this);
+            return hedger;
+        }
+
+        void await(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 1000;
+            while (futures.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            Assertions.assertEquals(count, futures.size());
+        }
+
+        @Override
+        public void onHedge(int index) {
+            hedges.incrementAndGet();
+        }
+
+        @Override
+        public void onThrottle() {
+            throttles.incrementAndGet();
+        }
+    }
+}
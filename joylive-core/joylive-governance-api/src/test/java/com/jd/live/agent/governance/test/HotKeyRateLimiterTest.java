@@ -0,0 +1,120 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.test;
+
+import com.jd.live.agent.governance.invoke.ratelimit.hotkey.HotKeyRateLimiter;
+import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
+import com.jd.live.agent.governance.policy.service.limit.SlidingWindow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks that the hot key rate limiter limits the heavy keys separately in a bounded memory.
+ *
+ * @since 1.6.0
+ */
+public class HotKeyRateLimiterTest {
+
+    @Test
+    void testHotKeyLimited() {
+        AtomicLong clock = new AtomicLong(10000);
+        HotKeyRateLimiter limiter = new HotKeyRateLimiter(new RateLimitPolicy("test"), new SlidingWindow(10, 1000L), clock::get);
+        int acquired = 0;
+        for (int i = 0; i < 100; i++) {
+            if (limiter.acquire("user-1", 1)) {
+                acquired++;
+            }
+            Assertions.assertTrue(limiter.acquire("user-" + (i + 2), 1));
+        }
+        Assertions.assertEquals(10, acquired);
+        Assertions.assertEquals(1, limiter.getHotKeyCount());
+    }
+
+    @Test
+    void testSlidingWindow() {
+        AtomicLong clock = new AtomicLong(10000);
+        HotKeyRateLimiter limiter = new HotKeyRateLimiter(new RateLimitPolicy("test"), new SlidingWindow(10, 1000L), clock::get);
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(limiter.acquire("user-1", 1));
+        }
+        Assertions.assertFalse(limiter.acquire("user-1", 1));
+        // half of the previous window is still counted
+        clock.addAndGet(1500);
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertTrue(limiter.acquire("user-1", 1));
+        }
+        Assertions.assertFalse(limiter.acquire("user-1", 1));
+        // the windows are not adjacent
+        clock.addAndGet(3000);
+        Assertions.assertTrue(limiter.acquire("user-1", 10));
+    }
+
+    @Test
+    void testDemoted() {
+        Map<String, String> parameters = new HashMap<>();
+        parameters.put("topK", "1");
+        parameters.put("hotRatio", "0.5");
+        RateLimitPolicy policy = new RateLimitPolicy("test");
+        policy.setParameters(parameters);
+        AtomicLong clock = new AtomicLong(10000);
+        HotKeyRateLimiter limiter = new HotKeyRateLimiter(policy, new SlidingWindow(10, 1000L), clock::get);
+        // promoted at 5 permits, and acquires one more as a hot key
+        for (int i = 0; i < 6; i++) {
+            Assertions.assertTrue(limiter.acquire("user-1", 1));
+        }
+        // a hotter key demotes it
+        for (int i = 0; i < 7; i++) {
+            Assertions.assertTrue(limiter.acquire("user-2", 1));
+        }
+        Assertions.assertEquals(1, limiter.getHotKeyCount());
+        // the permits before the promotion are not counted twice
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(limiter.acquire("user-1", 1));
+        }
+        Assertions.assertFalse(limiter.acquire("user-1", 1));
+    }
+
+    @Test
+    void testBoundedKeys() {
+        Map<String, String> parameters = new HashMap<>();
+        parameters.put("topK", "4");
+        RateLimitPolicy policy = new RateLimitPolicy("test");
+        policy.setParameters(parameters);
+        AtomicLong clock = new AtomicLong(10000);
+        HotKeyRateLimiter limiter = new HotKeyRateLimiter(policy, new SlidingWindow(10, 1000L), clock::get);
+        int[] acquired = new int[8];
+        int rejected = 0;
+        for (int i = 0; i < 1000; i++) {
+            for (int j = 0; j < acquired.length; j++) {
+                if (limiter.acquire("hot-" + j, 1)) {
+                    acquired[j]++;
+                }
+            }
+            if (!limiter.acquire("cold-" + i, 1)) {
+                rejected++;
+            }
+        }
+        for (int count : acquired) {
+            Assertions.assertEquals(10, count);
+        }
+        Assertions.assertEquals(0, rejected);
+        Assertions.assertTrue(limiter.getHotKeyCount() <= 4);
+    }
+}
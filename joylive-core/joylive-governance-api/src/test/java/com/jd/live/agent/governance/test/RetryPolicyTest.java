@@ -0,0 +1,111 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.test;
+
+import com.jd.live.agent.governance.invoke.cluster.RetryBudget;
+import com.jd.live.agent.governance.invoke.cluster.RetryBudgets;
+import com.jd.live.agent.governance.policy.service.cluster.RetryPolicy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the backoff of the retry policy and the ratio enforced by the retry budget.
+ *
+ * @since 1.6.0
+ */
+public class RetryPolicyTest {
+
+    @Test
+    void testExponentialBackoff() {
+        RetryPolicy policy = new RetryPolicy();
+        Assertions.assertEquals(0, policy.getBackoff(1));
+        policy.setInterval(100L);
+        policy.setMultiplier(2.0);
+        policy.setMaxInterval(1000L);
+        Assertions.assertEquals(100, policy.getBackoff(1));
+        Assertions.assertEquals(200, policy.getBackoff(2));
+        Assertions.assertEquals(400, policy.getBackoff(3));
+        Assertions.assertEquals(1000, policy.getBackoff(5));
+    }
+
+    @Test
+    void testJitteredBackoff() {
+        RetryPolicy policy = new RetryPolicy();
+        policy.setInterval(100L);
+        policy.setJitter(0.5);
+        for (int i = 0; i < 100; i++) {
+            long backoff = policy.getBackoff(1);
+            Assertions.assertTrue(backoff >= 50 && backoff <= 100, "backoff " + backoff);
+        }
+    }
+
+    @Test
+    void testBudgetRatio() {
+        RetryBudget budget = new RetryBudget();
+        drain(budget);
+        int retries = 0;
+        for (int i = 0; i < 1000; i++) {
+            budget.deposit(0.2);
+            // every request fails and tries to retry
+            if (budget.withdraw(0)) {
+                retries++;
+            }
+        }
+        Assertions.assertEquals(200, retries, 1);
+    }
+
+    @Test
+    void testBudgetExhausted() {
+        RetryBudget budget = new RetryBudget();
+        drain(budget);
+        budget.deposit(0.2);
+        Assertions.assertFalse(budget.withdraw(0));
+        for (int i = 0; i < 4; i++) {
+            budget.deposit(0.2);
+        }
+        Assertions.assertTrue(budget.withdraw(0));
+        Assertions.assertFalse(budget.withdraw(0));
+    }
+
+    @Test
+    void testBudgetSeed() {
+        // a new budget allows the first failures to be retried
+        Assertions.assertEquals(10, drain(new RetryBudget()));
+        Assertions.assertEquals(10, drain(new RetryBudget(1)));
+        Assertions.assertEquals(20, drain(new RetryBudget(20)));
+    }
+
+    @Test
+    void testBudgetExpired() throws InterruptedException {
+        RetryBudgets budgets = new RetryBudgets(50);
+        RetryBudget budget = budgets.get("service1", 0);
+        Assertions.assertSame(budget, budgets.get("service1", 0));
+        budgets.get("service2", 0);
+        Assertions.assertEquals(2, budgets.size());
+        Thread.sleep(100);
+        // the unused budgets are removed, and the requested one is kept
+        Assertions.assertSame(budget, budgets.get("service1", 0));
+        Assertions.assertEquals(1, budgets.size());
+    }
+
+    private static int drain(RetryBudget budget) {
+        int count = 0;
+        while (budget.withdraw(0)) {
+            count++;
+        }
+        return count;
+    }
+}
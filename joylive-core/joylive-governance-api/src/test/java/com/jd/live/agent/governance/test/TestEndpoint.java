@@ -0,0 +1,81 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.test;
+
+import com.jd.live.agent.bootstrap.util.AbstractAttributes;
+import com.jd.live.agent.governance.instance.Endpoint;
+import com.jd.live.agent.governance.instance.EndpointState;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An endpoint whose labels can be changed by tests.
+ *
+ * @since 1.6.0
+ */
+public class TestEndpoint extends AbstractAttributes implements Endpoint {
+
+    private final String host;
+
+    private final Map<String, String> labels = new HashMap<>();
+
+    private final Object origin;
+
+    public TestEndpoint(String host) {
+        this(host, null);
+    }
+
+    public TestEndpoint(String host, Object origin) {
+        this.host = host;
+        this.origin = origin;
+    }
+
+    public TestEndpoint label(String key, String value) {
+        labels.put(key, value);
+        return this;
+    }
+
+    @Override
+    public Object getOrigin() {
+        return origin == null ? this : origin;
+    }
+
+    @Override
+    public String getHost() {
+        return host;
+    }
+
+    @Override
+    public int getPort() {
+        return 8080;
+    }
+
+    @Override
+    public String getLabel(String key) {
+        return labels.get(key);
+    }
+
+    @Override
+    public EndpointState getState() {
+        return EndpointState.HEALTHY;
+    }
+
+    @Override
+    public String toString() {
+        return host;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.test;
+
+import com.jd.live.agent.core.event.EventHandler;
+import com.jd.live.agent.core.event.Publisher;
+import com.jd.live.agent.governance.event.TrafficAggregator;
+import com.jd.live.agent.governance.event.TrafficEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks that the traffic aggregator publishes all the requests while they are recorded and flushed concurrently.
+ *
+ * @since 1.6.0
+ */
+public class TrafficAggregatorTest {
+
+    @Test
+    void testConcurrentFlush() throws InterruptedException {
+        CountingPublisher publisher = new CountingPublisher();
+        TrafficAggregator aggregator = new TrafficAggregator(publisher, 100);
+        int threads = 4;
+        int loops = 100000;
+        CountDownLatch latch = new CountDownLatch(threads);
+        AtomicBoolean running = new AtomicBoolean(true);
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            new Thread(() -> {
+                try {
+                    for (int j = 0; j < loops; j++) {
+                        aggregator.add(event("service" + ((index + j) % 3)));
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            }).start();
+        }
+        Thread flusher = new Thread(() -> {
+            while (running.get()) {
+                aggregator.flush();
+                Thread.yield();
+            }
+        });
+        flusher.start();
+        latch.await();
+        running.set(false);
+        flusher.join();
+        for (int i = 0; i < 3; i++) {
+            aggregator.flush();
+        }
+        Assertions.assertEquals((long) threads * loops, publisher.requests.get());
+    }
+
+    @Test
+    void testRetire() {
+        CountingPublisher publisher = new CountingPublisher();
+        TrafficAggregator aggregator = new TrafficAggregator(publisher, 100);
+        aggregator.add(event("service1"));
+        aggregator.add(event("service1"));
+        aggregator.add(event("service2"));
+        Assertions.assertEquals(2, aggregator.size());
+        aggregator.flush();
+        Assertions.assertEquals(2, publisher.events.get());
+        Assertions.assertEquals(3, publisher.requests.get());
+        // the idle tuples are removed and the active ones are kept
+        aggregator.add(event("service1"));
+        aggregator.flush();
+        Assertions.assertEquals(1, aggregator.size());
+        Assertions.assertEquals(3, publisher.events.get());
+        Assertions.assertEquals(4, publisher.requests.get());
+        aggregator.flush();
+        Assertions.assertEquals(0, aggregator.size());
+        Assertions.assertEquals(4, publisher.requests.get());
+    }
+
+    @Test
+    void testCapacity() {
+        CountingPublisher publisher = new CountingPublisher();
+        TrafficAggregator aggregator = new TrafficAggregator(publisher, 1);
+        aggregator.add(event("service1"));
+        // the new tuples are published for each request when the capacity is reached
+        aggregator.add(event("service2"));
+        aggregator.add(event("service2"));
+        Assertions.assertEquals(1, aggregator.size());
+        Assertions.assertEquals(2, publisher.events.get());
+        aggregator.flush();
+        Assertions.assertEquals(3, publisher.events.get());
+        Assertions.assertEquals(3, publisher.requests.get());
+    }
+
+    @Test
+    void testQueueFull() {
+        CountingPublisher publisher = new CountingPublisher();
+        TrafficAggregator aggregator = new TrafficAggregator(publisher, 100);
+        aggregator.add(event("service1"));
+        publisher.full = true;
+        aggregator.flush();
+        Assertions.assertEquals(0, publisher.requests.get());
+        // the delta is kept and published by the next flush
+        publisher.full = false;
+        aggregator.add(event("service1"));
+        aggregator.flush();
+        Assertions.assertEquals(1, publisher.events.get());
+        Assertions.assertEquals(2, publisher.requests.get());
+    }
+
+    private static TrafficEvent event(String service) {
+        return TrafficEvent.builder().service(service).method("sayHello").requests(1).build();
+    }
+
+    private static class CountingPublisher implements Publisher<TrafficEvent> {
+
+        private final AtomicLong events = new AtomicLong();
+
+        private final AtomicLong requests = new AtomicLong();
+
+        private volatile boolean full;
+
+        @Override
+        public String getTopic() {
+            return TRAFFIC;
+        }
+
+        @Override
+        public boolean addHandler(EventHandler<TrafficEvent> handler) {
+            return false;
+        }
+
+        @Override
+        public boolean removeHandler(EventHandler<TrafficEvent> handler) {
+            return false;
+        }
+
+        @Override
+        public boolean offer(TrafficEvent event) {
+            if (full) {
+                return false;
+            }
+            events.incrementAndGet();
+            requests.addAndGet(event.getRequests());
+            return true;
+        }
+
+        @Override
+        public boolean tryOffer(TrafficEvent event) {
+            return offer(event);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.test;
+
+import com.jd.live.agent.governance.policy.live.UnitRange;
+import com.jd.live.agent.governance.policy.live.UnitRoute;
+import com.jd.live.agent.governance.policy.live.UnitRouteCache;
+import com.jd.live.agent.governance.policy.live.UnitRule;
+import com.jd.live.agent.governance.policy.variable.UnitFunction;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that the unit route cache serves the repeated decisions and is invalidated with the rules.
+ *
+ * @since 1.6.0
+ */
+public class UnitRouteCacheTest {
+
+    @Test
+    void testHitAndMiss() {
+        AtomicInteger computes = new AtomicInteger();
+        UnitFunction function = counting(computes);
+        UnitRule rule = rule();
+        UnitRouteCache cache = new UnitRouteCache(16);
+        Assertions.assertTrue(cache.isEnabled());
+        Assertions.assertEquals("unit0", cache.getUnitRoute(rule, "10", function).getCode());
+        Assertions.assertEquals("unit0", cache.getUnitRoute(rule, "10", function).getCode());
+        Assertions.assertEquals("unit1", cache.getUnitRoute(rule, "60", function).getCode());
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(2, cache.getMisses());
+        Assertions.assertEquals(2, computes.get());
+        // the missing variable is decided by the rule without caching
+        Assertions.assertNull(cache.getUnitRoute(rule, "", function));
+        Assertions.assertEquals(1, cache.getHits());
+        Assertions.assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testInvalidate() {
+        AtomicInteger computes = new AtomicInteger();
+        UnitFunction function = counting(computes);
+        UnitRule rule = rule();
+        UnitRouteCache cache = new UnitRouteCache(16);
+        cache.getUnitRoute(rule, "10", function);
+        // a new rule instance of the same id is published
+        UnitRule update = rule();
+        update.getUnitRoutes().get(0).getRanges().get(0).setTo(5);
+        Assertions.assertNull(cache.getUnitRoute(update, "10", function));
+        Assertions.assertEquals(0, cache.getHits());
+        // clearing the cache drops the previous decisions, the rules may share a slot, so the lookup is repeated.
+        cache.getUnitRoute(rule, "10", function);
+        cache.getUnitRoute(rule, "10", function);
+        long hits = cache.getHits();
+        Assertions.assertTrue(hits >= 1);
+        cache.clear();
+        long misses = cache.getMisses();
+        cache.getUnitRoute(rule, "10", function);
+        Assertions.assertEquals(hits, cache.getHits());
+        Assertions.assertEquals(misses + 1, cache.getMisses());
+    }
+
+    @Test
+    void testDisabled() {
+        AtomicInteger computes = new AtomicInteger();
+        UnitRouteCache cache = new UnitRouteCache(0);
+        Assertions.assertFalse(cache.isEnabled());
+        UnitRule rule = rule();
+        cache.getUnitRoute(rule, "10", counting(computes));
+        cache.getUnitRoute(rule, "10", counting(computes));
+        Assertions.assertEquals(2, computes.get());
+        Assertions.assertEquals(0, cache.getHits() + cache.getMisses());
+    }
+
+    private static UnitFunction counting(AtomicInteger computes) {
+        return (variable, modulo) -> {
+            computes.incrementAndGet();
+            return Integer.parseInt(variable) % modulo;
+        };
+    }
+
+    private static UnitRule rule() {
+        UnitRule rule = new UnitRule();
+        rule.setId("rule");
+        rule.setModulo(100);
+        rule.setUnitRoutes(Arrays.asList(route("unit0", 0, 50), route("unit1", 50, 100)));
+        return rule;
+    }
+
+    private static UnitRoute route(String code, int from, int to) {
+        UnitRange range = new UnitRange();
+        range.setFrom(from);
+        range.setTo(to);
+        UnitRoute route = new UnitRoute();
+        route.setCode(code);
+        route.setRanges(Arrays.asList(range));
+        return route;
+    }
+}
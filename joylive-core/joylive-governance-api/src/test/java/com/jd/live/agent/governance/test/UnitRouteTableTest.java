@@ -0,0 +1,164 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.test;
+
+import com.jd.live.agent.governance.policy.live.UnitRange;
+import com.jd.live.agent.governance.policy.live.UnitRoute;
+import com.jd.live.agent.governance.policy.live.UnitRouteTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.*;
+
+/**
+ * Checks that the compiled route table keeps the priority of the scan over the unit routes.
+ *
+ * @since 1.6.0
+ */
+public class UnitRouteTableTest {
+
+    /**
+     * unit0: allows "vip", prefixes "a", ranges [0, 30) and [90, 95)
+     * unit1: prefixes "ab", ranges [20, 50) overlapping unit0 and an empty range [60, 60)
+     * unit2: allows "vip" and "ab1", prefixes "a" again, ranges [50, 100) overlapping unit0
+     */
+    private static final List<UnitRoute> ROUTES = Arrays.asList(
+            route("unit0", set("vip"), set("a"), range(0, 30), range(90, 95)),
+            route("unit1", null, set("ab"), range(20, 50), range(60, 60)),
+            route("unit2", set("vip", "ab1"), set("a"), range(50, 100)));
+
+    private static final UnitRouteTable TABLE = new UnitRouteTable(ROUTES);
+
+    @ParameterizedTest
+    @CsvSource({
+            // the first allowing route wins over the prefixes and ranges
+            "vip, 40, unit0",
+            "ab1, 0, unit2",
+            // the last route having a prefix wins over the ranges
+            "a, 40, unit2",
+            "ab, 0, unit2",
+            "abc, 40, unit2",
+            // the ranges include the start and exclude the end
+            "x, -1, ",
+            "x, 0, unit0",
+            "x, 19, unit0",
+            "x, 29, unit0",
+            // the overlapped part belongs to the first route
+            "x, 30, unit1",
+            "x, 49, unit1",
+            "x, 50, unit2",
+            "x, 60, unit2",
+            "x, 89, unit2",
+            "x, 90, unit0",
+            "x, 94, unit0",
+            "x, 95, unit2",
+            "x, 99, unit2",
+            "x, 100, ",
+    })
+    void testLookup(String variable, int value, String expected) {
+        Assertions.assertEquals(expected, code(lookup(TABLE, variable, value)));
+        Assertions.assertEquals(expected, code(scan(ROUTES, variable, value)));
+    }
+
+    @Test
+    void testSameAsScan() {
+        Random random = new Random(7);
+        String[] alphabet = {"a", "b", "1"};
+        for (int round = 0; round < 200; round++) {
+            List<UnitRoute> routes = new ArrayList<>();
+            int size = 2 + random.nextInt(4);
+            for (int i = 0; i < size; i++) {
+                Set<String> allows = random.nextBoolean() ? set(word(random, alphabet, 3)) : null;
+                Set<String> prefixes = random.nextBoolean() ? set(word(random, alphabet, 2), word(random, alphabet, 2)) : null;
+                int from = random.nextInt(100);
+                routes.add(route("unit" + i, allows, prefixes, range(from, from + random.nextInt(40) - 5)));
+            }
+            UnitRouteTable table = new UnitRouteTable(routes);
+            for (int i = 0; i < 50; i++) {
+                String variable = word(random, alphabet, 4);
+                int value = random.nextInt(150) - 10;
+                Assertions.assertSame(scan(routes, variable, value), lookup(table, variable, value),
+                        "variable=" + variable + ", value=" + value + ", routes=" + routes);
+            }
+        }
+    }
+
+    @Test
+    void testEmpty() {
+        UnitRouteTable table = new UnitRouteTable(null);
+        Assertions.assertNull(lookup(table, "x", 0));
+    }
+
+    private static UnitRoute lookup(UnitRouteTable table, String variable, int value) {
+        UnitRoute result = table.getAllow(variable);
+        if (result == null) {
+            result = table.getPrefix(variable);
+        }
+        return result != null ? result : table.getRange(value);
+    }
+
+    /**
+     * The scan over the unit routes, which is replaced by the table.
+     */
+    private static UnitRoute scan(List<UnitRoute> routes, String variable, int value) {
+        UnitRoute result = null;
+        for (UnitRoute route : routes) {
+            if (route.isAllow(variable)) {
+                return route;
+            } else if (route.isPrefix(variable)) {
+                result = route;
+            } else if (result == null && route.contains(value)) {
+                result = route;
+            }
+        }
+        return result;
+    }
+
+    private static String code(UnitRoute route) {
+        return route == null ? null : route.getCode();
+    }
+
+    private static String word(Random random, String[] alphabet, int maxLength) {
+        int length = 1 + random.nextInt(maxLength);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet[random.nextInt(alphabet.length)]);
+        }
+        return builder.toString();
+    }
+
+    private static Set<String> set(String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+
+    private static UnitRange range(int from, int to) {
+        UnitRange range = new UnitRange();
+        range.setFrom(from);
+        range.setTo(to);
+        return range;
+    }
+
+    private static UnitRoute route(String code, Set<String> allows, Set<String> prefixes, UnitRange... ranges) {
+        UnitRoute route = new UnitRoute();
+        route.setCode(code);
+        route.setAllows(allows);
+        route.setPrefixes(prefixes);
+        route.setRanges(Arrays.asList(ranges));
+        return route;
+    }
+}
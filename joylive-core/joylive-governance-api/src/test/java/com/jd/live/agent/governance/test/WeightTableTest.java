@@ -0,0 +1,118 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.test;
+
+import com.jd.live.agent.core.Constants;
+import com.jd.live.agent.governance.invoke.loadbalance.randomweight.WeightTable;
+import com.jd.live.agent.governance.request.ServiceRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Checks that the weight table selects the endpoints in proportion to their weights, and is reused across requests.
+ *
+ * @since 1.6.0
+ */
+public class WeightTableTest {
+
+    private static final int PICKS = 100000;
+
+    private static final ServiceRequest REQUEST = (ServiceRequest) Proxy.newProxyInstance(
+            WeightTableTest.class.getClassLoader(), new Class[]{ServiceRequest.class},
+            (proxy, method, args) -> "getMethod".equals(method.getName()) ? "sayHello" : null);
+
+    @Test
+    void testDistribution() {
+        List<TestEndpoint> endpoints = Arrays.asList(
+                endpoint("a", 100), endpoint("b", 300), endpoint("c", 0), endpoint("d", 600));
+        WeightTable table = WeightTable.build(endpoints, REQUEST, System.currentTimeMillis());
+        int[] counts = pick(table, endpoints.size());
+        Assertions.assertEquals(0.1, counts[0] / (double) PICKS, 0.01);
+        Assertions.assertEquals(0.3, counts[1] / (double) PICKS, 0.01);
+        Assertions.assertEquals(0, counts[2]);
+        Assertions.assertEquals(0.6, counts[3] / (double) PICKS, 0.01);
+    }
+
+    @Test
+    void testWarmup() {
+        long now = System.currentTimeMillis();
+        TestEndpoint warming = endpoint("a", 100)
+                .label(Constants.LABEL_TIMESTAMP, String.valueOf(now - 500))
+                .label(Constants.LABEL_WARMUP, "10000");
+        List<TestEndpoint> endpoints = Arrays.asList(warming, endpoint("b", 100));
+        WeightTable table = WeightTable.build(endpoints, REQUEST, now);
+        // 5% of its weight after 5% of the warmup
+        Assertions.assertEquals(5.0 / 105, pick(table, 2)[0] / (double) PICKS, 0.01);
+        Assertions.assertFalse(table.isExpired(now));
+        Assertions.assertTrue(table.isExpired(now + 1000));
+
+        warming.label(Constants.LABEL_TIMESTAMP, String.valueOf(now - 20000));
+        table = table.refresh(endpoints, REQUEST, now + 1000);
+        Assertions.assertEquals(0.5, pick(table, 2)[0] / (double) PICKS, 0.01);
+        // the weights are not refreshed any more once the warmup is over
+        Assertions.assertFalse(table.isExpired(Long.MAX_VALUE - 1));
+    }
+
+    @Test
+    void testMatch() {
+        List<TestEndpoint> endpoints = new ArrayList<>(Arrays.asList(endpoint("a", 100), endpoint("b", 200)));
+        WeightTable table = WeightTable.build(endpoints, REQUEST, System.currentTimeMillis());
+        Assertions.assertTrue(table.match(endpoints, REQUEST));
+        endpoints.remove(1);
+        Assertions.assertFalse(table.match(endpoints, REQUEST));
+    }
+
+    @Test
+    void testReuse() {
+        long now = System.currentTimeMillis();
+        List<TestEndpoint> endpoints = Arrays.asList(
+                endpoint("a", 100, new Object()), endpoint("b", 200, new Object()), endpoint("c", 300, new Object()));
+        WeightTable table = WeightTable.of(new ArrayList<>(endpoints), REQUEST, now);
+        Assertions.assertNotNull(table);
+        // a new list wrapping the same instances reuses the table
+        Assertions.assertSame(table, WeightTable.of(new ArrayList<>(endpoints), REQUEST, now));
+        // a filtered list starting with the same instance is another version
+        WeightTable filtered = WeightTable.of(new ArrayList<>(endpoints.subList(0, 2)), REQUEST, now);
+        Assertions.assertNotSame(table, filtered);
+        Assertions.assertSame(table, WeightTable.of(new ArrayList<>(endpoints), REQUEST, now));
+        Assertions.assertSame(filtered, WeightTable.of(new ArrayList<>(endpoints.subList(0, 2)), REQUEST, now));
+        // the endpoints without stable instances are not cached
+        Assertions.assertNull(WeightTable.of(Arrays.asList(endpoint("d", 100), endpoint("e", 100)), REQUEST, now));
+    }
+
+    private static TestEndpoint endpoint(String host, int weight, Object origin) {
+        return new TestEndpoint(host, origin).label(Constants.LABEL_WEIGHT, String.valueOf(weight));
+    }
+
+    private static TestEndpoint endpoint(String host, int weight) {
+        return new TestEndpoint(host).label(Constants.LABEL_WEIGHT, String.valueOf(weight));
+    }
+
+    private static int[] pick(WeightTable table, int size) {
+        int[] counts = new int[size];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < PICKS; i++) {
+            counts[table.next(random)]++;
+        }
+        return counts;
+    }
+}
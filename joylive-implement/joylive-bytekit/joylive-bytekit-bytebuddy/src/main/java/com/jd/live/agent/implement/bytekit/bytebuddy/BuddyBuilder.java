@@ -16,10 +16,12 @@
 package com.jd.live.agent.implement.bytekit.bytebuddy;
 
 import com.jd.live.agent.core.bytekit.ByteBuilder;
+import com.jd.live.agent.core.bytekit.transformer.MatchMetric;
 import com.jd.live.agent.core.bytekit.transformer.Resetter;
 import com.jd.live.agent.core.extension.condition.ConditionMatcher;
 import com.jd.live.agent.core.plugin.definition.PluginDeclare;
 import com.jd.live.agent.implement.bytekit.bytebuddy.plugin.PluginTransformHandler;
+import com.jd.live.agent.implement.bytekit.bytebuddy.plugin.TransformCache;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.agent.builder.ResettableClassFileTransformer;
 
@@ -38,9 +40,27 @@ public class BuddyBuilder implements ByteBuilder {
 
     private final ConditionMatcher conditionMatcher;
 
+    private final MatchMetric metric;
+
+    private final TransformCache cache;
+
+    /**
+     * The plugins merged into one transformer.
+     */
+    private final List<PluginDeclare> plugins = new ArrayList<>();
+
     public BuddyBuilder(List<BuilderHandler> handlers, ConditionMatcher conditionMatcher) {
+        this(handlers, conditionMatcher, null, null);
+    }
+
+    public BuddyBuilder(List<BuilderHandler> handlers,
+                        ConditionMatcher conditionMatcher,
+                        MatchMetric metric,
+                        TransformCache cache) {
         this.handlers = handlers == null ? new ArrayList<>() : new ArrayList<>(handlers);
         this.conditionMatcher = conditionMatcher;
+        this.metric = metric;
+        this.cache = cache;
     }
 
     @Override
@@ -49,6 +69,9 @@ public class BuddyBuilder implements ByteBuilder {
         for (BuilderHandler handler : handlers) {
             agentBuilder = handler.configure(agentBuilder, instrumentation);
         }
+        if (!plugins.isEmpty()) {
+            agentBuilder = new PluginTransformHandler(plugins, conditionMatcher, metric, cache).configure(agentBuilder, instrumentation);
+        }
         ResettableClassFileTransformer transformer = agentBuilder.installOn(instrumentation);
         return new TransformerResetter(transformer, instrumentation);
     }
@@ -56,7 +79,7 @@ public class BuddyBuilder implements ByteBuilder {
     @Override
     public ByteBuilder append(PluginDeclare plugin) {
         if (plugin != null) {
-            handlers.add(new PluginTransformHandler(plugin, conditionMatcher));
+            plugins.add(plugin);
         }
         return this;
     }
@@ -17,13 +17,19 @@ package com.jd.live.agent.implement.bytekit.bytebuddy;
 
 import com.jd.live.agent.core.bytekit.ByteBuilder;
 import com.jd.live.agent.core.bytekit.ByteSupplier;
+import com.jd.live.agent.core.bytekit.transformer.MatchMetric;
+import com.jd.live.agent.core.config.AgentPath;
+import com.jd.live.agent.core.config.EnhanceConfig;
 import com.jd.live.agent.core.extension.annotation.Extension;
 import com.jd.live.agent.core.extension.condition.ConditionMatcher;
 import com.jd.live.agent.core.inject.annotation.Inject;
 import com.jd.live.agent.core.inject.annotation.Injectable;
+import com.jd.live.agent.implement.bytekit.bytebuddy.plugin.TransformCache;
 import com.jd.live.agent.implement.bytekit.bytebuddy.util.ModuleUtil;
 
+import java.io.File;
 import java.lang.instrument.Instrumentation;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -44,14 +50,47 @@ public class BuddySupplier implements ByteSupplier {
     @Inject(value = ConditionMatcher.COMPONENT_CONDITION_MATCHER)
     private ConditionMatcher conditionMatcher;
 
+    @Inject(EnhanceConfig.COMPONENT_ENHANCE_CONFIG)
+    private EnhanceConfig enhanceConfig;
+
+    @Inject(AgentPath.COMPONENT_AGENT_PATH)
+    private AgentPath agentPath;
+
+    private final MatchMetric metric = new MatchMetric();
+
+    private TransformCache cache;
+
+    private boolean cacheOpened;
+
     @Override
     public ByteBuilder create() {
-        return new BuddyBuilder(handlers, conditionMatcher);
+        return new BuddyBuilder(handlers, conditionMatcher, metric, getCache());
     }
 
     @Override
     public void export(Instrumentation instrumentation, Map<String, Set<String>> targets, ClassLoader... loaders) {
         ModuleUtil.export(instrumentation, targets, null, loaders);
     }
-}
 
+    @Override
+    public MatchMetric getMatchMetric() {
+        return metric;
+    }
+
+    /**
+     * Opens the cache of the transformed classes at the first time if it's enabled.
+     *
+     * @return the cache, or null if it's disabled
+     */
+    private synchronized TransformCache getCache() {
+        if (!cacheOpened) {
+            cacheOpened = true;
+            if (enhanceConfig != null && enhanceConfig.isCacheEnabled() && agentPath != null) {
+                String path = enhanceConfig.getCachePath();
+                File root = path == null || path.isEmpty() ? new File(agentPath.getOutputPath(), "cache") : new File(path);
+                cache = TransformCache.open(root, Arrays.asList(agentPath.getPluginPath(), agentPath.getLibPath(), agentPath.getConfigFile()));
+            }
+        }
+        return cache;
+    }
+}
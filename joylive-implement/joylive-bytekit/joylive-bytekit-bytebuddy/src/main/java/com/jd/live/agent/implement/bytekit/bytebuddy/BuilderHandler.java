@@ -48,6 +48,8 @@ public interface BuilderHandler {
 
     int ORDER_EXPORTER_HANDLER = ORDER_LOGGER_HANDLER + 1;
 
+    int ORDER_CONTEXT_POOL_HANDLER = ORDER_EXPORTER_HANDLER + 1;
+
     /**
      * Configures the provided {@link AgentBuilder} with custom settings for instrumentation.
      *
@@ -17,14 +17,13 @@ package com.jd.live.agent.implement.bytekit.bytebuddy.advice;
 
 import com.jd.live.agent.bootstrap.bytekit.advice.AdviceHandler;
 import com.jd.live.agent.bootstrap.bytekit.context.MethodContext;
+import com.jd.live.agent.bootstrap.bytekit.context.MethodContextPool;
 import com.jd.live.agent.bootstrap.bytekit.context.OriginStack;
 import net.bytebuddy.asm.Advice;
 import net.bytebuddy.implementation.bytecode.assign.Assigner;
 
 import java.lang.reflect.Method;
 
-import static com.jd.live.agent.bootstrap.bytekit.advice.AdviceKey.getMethodKey;
-
 /**
  * MemberMethodAdvice
  *
@@ -41,45 +40,58 @@ public class MemberMethodAdvice {
                                   @Advice.Origin Method method,
                                   @Advice.Origin("#t\\##m#s") String methodDesc,
                                   @Advice.AllArguments(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object[] arguments,
-                                  @Advice.Local(value = "_ADVICE_KEY_$JOYLIVE_LOCAL") String adviceKey,
+                                  @AdviceSlot int slot,
                                   @Advice.Local(value = "_EXECUTABLE_CONTEXT_$JOYLIVE_LOCAL") Object context
     ) throws Throwable {
         Class<?> localType = type;
         String localMethodDesc = methodDesc;
         // cache method to avoid reflection many times.
         Method localMethod = method;
-        boolean origin = OriginStack.tryPop(target, localMethod);
-        MethodContext mc = new MethodContext(localType, target, localMethod, arguments, localMethodDesc, origin);
-        adviceKey = origin ? null : getMethodKey(localMethodDesc, localType.getClassLoader());
+        if (OriginStack.tryPop(target, localMethod)) {
+            // invoke origin method
+            return false;
+        }
+        // the context is reused if the pool is enabled.
+        MethodContext mc = MethodContextPool.acquire(localType, target, localMethod, arguments, localMethodDesc);
         context = mc;
-        if (!origin) {
-            AdviceHandler.onEnter(mc, adviceKey);
+        try {
+            AdviceHandler.onEnter(mc, slot);
+        } catch (Throwable e) {
+            // the exit advice is not executed.
+            MethodContextPool.release(mc);
+            throw e;
+        }
+        if (mc.getArguments() != arguments) {
             arguments = mc.getArguments();
-            return mc.isSkip();
         }
-        return false;
+        return mc.isSkip();
     }
 
     @Advice.OnMethodExit(onThrowable = Throwable.class)
     public static void onExit(@Advice.Return(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object result,
                               @Advice.Thrown(readOnly = false) Throwable throwable,
-                              @Advice.Local(value = "_ADVICE_KEY_$JOYLIVE_LOCAL") String adviceKey,
+                              @AdviceSlot int slot,
                               @Advice.Local(value = "_EXECUTABLE_CONTEXT_$JOYLIVE_LOCAL") Object context
     ) throws Throwable {
         MethodContext mc = (MethodContext) context;
-        if (mc.isOrigin()) {
+        if (mc == null) {
+            // invoke origin method
             return;
         }
-        if (!mc.isSkip()) {
-            mc.setResult(result);
-            mc.setThrowable(throwable);
-        }
-        AdviceHandler.onExit(mc, adviceKey);
-        if (result != mc.getResult()) {
-            result = mc.getResult();
-        }
-        if (throwable != mc.getThrowable()) {
-            throwable = mc.getThrowable();
+        try {
+            if (!mc.isSkip()) {
+                mc.setResult(result);
+                mc.setThrowable(throwable);
+            }
+            AdviceHandler.onExit(mc, slot);
+            if (result != mc.getResult()) {
+                result = mc.getResult();
+            }
+            if (throwable != mc.getThrowable()) {
+                throwable = mc.getThrowable();
+            }
+        } finally {
+            MethodContextPool.release(mc);
         }
     }
 }
@@ -17,14 +17,13 @@ package com.jd.live.agent.implement.bytekit.bytebuddy.advice;
 
 import com.jd.live.agent.bootstrap.bytekit.advice.AdviceHandler;
 import com.jd.live.agent.bootstrap.bytekit.context.MethodContext;
+import com.jd.live.agent.bootstrap.bytekit.context.MethodContextPool;
 import com.jd.live.agent.bootstrap.bytekit.context.OriginStack;
 import net.bytebuddy.asm.Advice;
 import net.bytebuddy.implementation.bytecode.assign.Assigner;
 
 import java.lang.reflect.Method;
 
-import static com.jd.live.agent.bootstrap.bytekit.advice.AdviceKey.getMethodKey;
-
 /**
  * StaticMethodAdvice
  *
@@ -40,49 +39,58 @@ public class StaticMethodAdvice {
                                   @Advice.Origin Method method,
                                   @Advice.Origin("#t\\##m#s") String methodDesc,
                                   @Advice.AllArguments(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object[] arguments,
-                                  @Advice.Local(value = "_ADVICE_KEY_$JOYLIVE_LOCAL") String adviceKey,
+                                  @AdviceSlot int slot,
                                   @Advice.Local(value = "_EXECUTABLE_CONTEXT_$JOYLIVE_LOCAL") Object context
     ) throws Throwable {
         Class<?> localType = type;
         String localMehotdDesc = methodDesc;
         // cache method to avoid reflection many times.
         Method localMethod = method;
-        boolean origin = OriginStack.tryPop(null, localMethod);
-        MethodContext mc = new MethodContext(localType, null, localMethod, arguments, localMehotdDesc, origin);
-        adviceKey = origin ? null : getMethodKey(localMehotdDesc, localType.getClassLoader());
+        if (OriginStack.tryPop(null, localMethod)) {
+            // invoke origin method
+            return false;
+        }
+        // the context is reused if the pool is enabled.
+        MethodContext mc = MethodContextPool.acquire(localType, null, localMethod, arguments, localMehotdDesc);
         context = mc;
-        if (!origin) {
-            // invoke enhanced method
-            AdviceHandler.onEnter(mc, adviceKey);
+        try {
+            AdviceHandler.onEnter(mc, slot);
+        } catch (Throwable e) {
+            // the exit advice is not executed.
+            MethodContextPool.release(mc);
+            throw e;
+        }
+        if (mc.getArguments() != arguments) {
             arguments = mc.getArguments();
-            return mc.isSkip();
         }
-        // invoke origin method
-        return false;
+        return mc.isSkip();
     }
 
     @Advice.OnMethodExit(onThrowable = Throwable.class)
     public static void onExit(@Advice.Return(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object result,
                               @Advice.Thrown(readOnly = false) Throwable throwable,
-                              @Advice.Local(value = "_ADVICE_KEY_$JOYLIVE_LOCAL") String adviceKey,
+                              @AdviceSlot int slot,
                               @Advice.Local(value = "_EXECUTABLE_CONTEXT_$JOYLIVE_LOCAL") Object context
     ) throws Throwable {
         MethodContext mc = (MethodContext) context;
-        if (mc.isOrigin()) {
+        if (mc == null) {
             // invoke origin method
             return;
         }
-        // invoke enhanced method
-        if (!mc.isSkip()) {
-            mc.setResult(result);
-            mc.setThrowable(throwable);
-        }
-        AdviceHandler.onExit(mc, adviceKey);
-        if (result != mc.getResult()) {
-            result = mc.getResult();
-        }
-        if (throwable != mc.getThrowable()) {
-            throwable = mc.getThrowable();
+        try {
+            if (!mc.isSkip()) {
+                mc.setResult(result);
+                mc.setThrowable(throwable);
+            }
+            AdviceHandler.onExit(mc, slot);
+            if (result != mc.getResult()) {
+                result = mc.getResult();
+            }
+            if (throwable != mc.getThrowable()) {
+                throwable = mc.getThrowable();
+            }
+        } finally {
+            MethodContextPool.release(mc);
         }
     }
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.bytekit.bytebuddy.handler;
+
+import com.jd.live.agent.bootstrap.bytekit.context.MethodContextPool;
+import com.jd.live.agent.core.extension.annotation.ConditionalOnProperty;
+import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.implement.bytekit.bytebuddy.BuilderHandler;
+import net.bytebuddy.agent.builder.AgentBuilder;
+
+import java.lang.instrument.Instrumentation;
+
+/**
+ * Enables the pool of the method contexts, so the advices reuse the thread-local contexts instead of allocating
+ * them on every call.
+ *
+ * @see MethodContextPool
+ * @since 1.6.0
+ */
+@Extension(value = "ContextPoolHandler", order = BuilderHandler.ORDER_CONTEXT_POOL_HANDLER)
+@ConditionalOnProperty(value = "agent.enhance.contextPoolEnabled")
+public class ContextPoolHandler implements BuilderHandler {
+
+    @Override
+    public AgentBuilder configure(AgentBuilder builder, Instrumentation instrumentation) {
+        MethodContextPool.setEnabled(true);
+        return builder;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.bytekit.bytebuddy.plugin;
+
+import com.jd.live.agent.bootstrap.logger.Logger;
+import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.agent.builder.ResettableClassFileTransformer;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.pool.TypePool;
+import net.bytebuddy.utility.JavaModule;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.IllegalClassFormatException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.security.ProtectionDomain;
+import java.util.Arrays;
+
+/**
+ * A class file transformer which serves the classes transformed by a previous run from the {@link TransformCache}.
+ * <p>
+ * The slots of the advices are assigned at runtime and woven as constants, so a cached class is only used when the
+ * plugins match it and register the same slots in this run. Otherwise, the class is transformed by the delegated
+ * transformer and the result is cached with the slots recorded by the {@link PluginTransformer}. The redefinitions
+ * and the classes of the bootstrap class loader are always delegated.
+ * <p>
+ * The bytes of a class are only hashed if a plugin may match its name, and it's either found in the cache by its
+ * name or transformed, so the classes not enhanced by the plugins don't pay for the cache.
+ *
+ * @since 1.6.0
+ */
+public class CachedTransformer extends ResettableClassFileTransformer.WithDelegation {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachedTransformer.class);
+
+    private static final Method GET_UNNAMED_MODULE = getMethod(ClassLoader.class, "getUnnamedModule");
+
+    private static final Method TRANSFORM_MODULE = getMethod(ClassFileTransformer.class, "transform",
+            GET_UNNAMED_MODULE == null ? null : GET_UNNAMED_MODULE.getReturnType(), ClassLoader.class, String.class,
+            Class.class, ProtectionDomain.class, byte[].class);
+
+    private final TransformCache cache;
+
+    private final PluginTransformer transformer;
+
+    private final String scope;
+
+    public CachedTransformer(ResettableClassFileTransformer delegate,
+                             TransformCache cache,
+                             PluginTransformer transformer,
+                             String scope) {
+        super(delegate);
+        this.cache = cache;
+        this.transformer = transformer;
+        this.scope = scope;
+        transformer.recordWoven();
+    }
+
+    @Override
+    public byte[] transform(ClassLoader loader,
+                            String name,
+                            Class<?> classBeingRedefined,
+                            ProtectionDomain domain,
+                            byte[] bytes) throws IllegalClassFormatException {
+        if (classBeingRedefined != null || loader == null || name == null || bytes == null
+                || !transformer.isCandidate(name.replace('/', '.'))) {
+            return classFileTransformer.transform(loader, name, classBeingRedefined, domain, bytes);
+        }
+        String key = null;
+        if (cache.contains(name)) {
+            key = cache.getKey(scope, loader, name, bytes);
+            TransformCache.Entry entry = cache.get(name, key);
+            if (entry != null) {
+                byte[] result = load(entry, loader, name, bytes);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        // drop the slots left by a transformation which failed after weaving.
+        transformer.takeWoven();
+        byte[] result = transform(getModule(loader), loader, name, domain, bytes);
+        int[] slots = transformer.takeWoven();
+        if (result != null && slots != null && slots.length > 0) {
+            cache.put(name, key == null ? cache.getKey(scope, loader, name, bytes) : key, slots, result);
+        }
+        return result;
+    }
+
+    /**
+     * Transforms the class with the module, so the plugins can export the internal packages to it.
+     */
+    private byte[] transform(JavaModule module, ClassLoader loader, String name, ProtectionDomain domain, byte[] bytes)
+            throws IllegalClassFormatException {
+        if (TRANSFORM_MODULE == null || module == JavaModule.UNSUPPORTED) {
+            return classFileTransformer.transform(loader, name, null, domain, bytes);
+        }
+        try {
+            return (byte[]) TRANSFORM_MODULE.invoke(classFileTransformer, module.unwrap(), loader, name, null, domain, bytes);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IllegalClassFormatException) {
+                throw (IllegalClassFormatException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Registers the advices of the class, and returns the cached bytes if the slots are not changed.
+     */
+    private byte[] load(TransformCache.Entry entry, ClassLoader loader, String name, byte[] bytes) {
+        try {
+            int[] slots = transformer.prepare(describe(loader, name, bytes), loader, getModule(loader));
+            return Arrays.equals(slots, entry.getSlots()) ? entry.getBytes() : null;
+        } catch (Throwable e) {
+            logger.warn("failed to load transform cache of " + name + ", caused by " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Describes the cached class, which is not resolved by the delegated transformer on a hit.
+     */
+    private TypeDescription describe(ClassLoader loader, String name, byte[] bytes) {
+        String typeName = name.replace('/', '.');
+        ClassFileLocator locator = new ClassFileLocator.Compound(
+                ClassFileLocator.Simple.of(typeName, bytes),
+                ClassFileLocator.ForClassLoader.of(loader));
+        return TypePool.Default.of(locator).describe(typeName).resolve();
+    }
+
+    private static JavaModule getModule(ClassLoader loader) {
+        if (GET_UNNAMED_MODULE == null) {
+            return JavaModule.UNSUPPORTED;
+        }
+        try {
+            return JavaModule.of(GET_UNNAMED_MODULE.invoke(loader));
+        } catch (Throwable e) {
+            return JavaModule.UNSUPPORTED;
+        }
+    }
+
+    private static Method getMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        if (!JavaModule.isSupported()) {
+            return null;
+        }
+        for (Class<?> parameterType : parameterTypes) {
+            if (parameterType == null) {
+                return null;
+            }
+        }
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Decorates the transformer of the plugins with the cache.
+     */
+    public static class Decorator implements AgentBuilder.TransformerDecorator {
+
+        private final TransformCache cache;
+
+        private final PluginTransformer transformer;
+
+        private final String scope;
+
+        public Decorator(TransformCache cache, PluginTransformer transformer, String scope) {
+            this.cache = cache;
+            this.transformer = transformer;
+            this.scope = scope;
+        }
+
+        @Override
+        public ResettableClassFileTransformer decorate(ResettableClassFileTransformer classFileTransformer) {
+            return new CachedTransformer(classFileTransformer, cache, transformer, scope);
+        }
+    }
+}
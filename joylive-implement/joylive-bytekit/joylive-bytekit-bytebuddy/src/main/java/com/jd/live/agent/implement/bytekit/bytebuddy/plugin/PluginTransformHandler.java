@@ -15,12 +15,16 @@
  */
 package com.jd.live.agent.implement.bytekit.bytebuddy.plugin;
 
+import com.jd.live.agent.core.bytekit.transformer.MatchMetric;
 import com.jd.live.agent.core.extension.condition.ConditionMatcher;
 import com.jd.live.agent.core.plugin.definition.PluginDeclare;
 import com.jd.live.agent.implement.bytekit.bytebuddy.BuilderHandler;
 import net.bytebuddy.agent.builder.AgentBuilder;
 
 import java.lang.instrument.Instrumentation;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * TransformHandler
@@ -29,18 +33,36 @@ import java.lang.instrument.Instrumentation;
  */
 public class PluginTransformHandler implements BuilderHandler {
 
-    private final PluginDeclare declare;
+    private final List<PluginDeclare> declares;
 
     private final ConditionMatcher conditionMatcher;
 
+    private final MatchMetric metric;
+
+    private final TransformCache cache;
+
     public PluginTransformHandler(PluginDeclare declare, ConditionMatcher conditionMatcher) {
-        this.declare = declare;
+        this(Collections.singletonList(declare), conditionMatcher, null, null);
+    }
+
+    public PluginTransformHandler(List<PluginDeclare> declares,
+                                  ConditionMatcher conditionMatcher,
+                                  MatchMetric metric,
+                                  TransformCache cache) {
+        this.declares = declares;
         this.conditionMatcher = conditionMatcher;
+        this.metric = metric;
+        this.cache = cache;
     }
 
     @Override
     public AgentBuilder configure(AgentBuilder builder, Instrumentation instrumentation) {
-        PluginTransformer transformer = new PluginTransformer(instrumentation, declare, conditionMatcher);
-        return builder.type(transformer).transform(transformer);
+        PluginTransformer transformer = new PluginTransformer(instrumentation, declares, conditionMatcher, metric);
+        AgentBuilder result = builder.type(transformer).transform(transformer);
+        if (cache != null) {
+            String scope = declares.stream().map(PluginDeclare::getName).collect(Collectors.joining(","));
+            result = result.with(new CachedTransformer.Decorator(cache, transformer, scope));
+        }
+        return result;
     }
 }
@@ -21,11 +21,16 @@ import com.jd.live.agent.bootstrap.bytekit.advice.AdviceKey;
 import com.jd.live.agent.bootstrap.logger.Logger;
 import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.bootstrap.plugin.definition.Interceptor;
+import com.jd.live.agent.core.bytekit.matcher.ElementMatcher;
+import com.jd.live.agent.core.bytekit.matcher.NameIndexable;
+import com.jd.live.agent.core.bytekit.transformer.MatchMetric;
+import com.jd.live.agent.core.bytekit.type.TypeDesc;
 import com.jd.live.agent.core.extension.condition.ConditionMatcher;
 import com.jd.live.agent.core.plugin.definition.InterceptorDefinition;
 import com.jd.live.agent.core.plugin.definition.PluginDeclare;
 import com.jd.live.agent.core.plugin.definition.PluginDefinition;
 import com.jd.live.agent.core.plugin.definition.PluginImporter;
+import com.jd.live.agent.implement.bytekit.bytebuddy.advice.AdviceSlot;
 import com.jd.live.agent.implement.bytekit.bytebuddy.advice.ConstructorAdvice;
 import com.jd.live.agent.implement.bytekit.bytebuddy.advice.MemberMethodAdvice;
 import com.jd.live.agent.implement.bytekit.bytebuddy.advice.StaticMethodAdvice;
@@ -43,7 +48,6 @@ import net.bytebuddy.utility.nullability.MaybeNull;
 import net.bytebuddy.utility.nullability.NeverNull;
 
 import java.lang.instrument.Instrumentation;
-import java.lang.reflect.InvocationTargetException;
 import java.security.ProtectionDomain;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -55,6 +59,10 @@ import static com.jd.live.agent.core.extension.condition.ConditionMatcher.DEPEND
  * declare the need to import internal classes or modify method behavior. It implements both the
  * {@link AgentBuilder.RawMatcher} for matching classes to be transformed and {@link AgentBuilder.Transformer}
  * for applying the transformations.
+ * <p>
+ * The definitions of all the plugins are merged into one transformer. The definitions matching exact type names are
+ * indexed by the names, so a loaded class is only evaluated by the definitions indexed by its name and the
+ * definitions matching by the subtypes or the annotations.
  *
  * @since 1.0.0
  */
@@ -66,11 +74,26 @@ public class PluginTransformer implements AgentBuilder.RawMatcher, AgentBuilder.
 
     private final Instrumentation instrumentation;
 
-    private final PluginDeclare plugin;
-
     private final ConditionMatcher conditionMatcher;
 
-    private final Map<String, List<InterceptorDefinition>> types = new ConcurrentHashMap<>();
+    private final MatchMetric metric;
+
+    /**
+     * The definitions indexed by the exact type names they match.
+     */
+    private final Map<String, List<Candidate>> indexes = new HashMap<>();
+
+    /**
+     * The definitions which may match any type name.
+     */
+    private final List<Candidate> others = new ArrayList<>();
+
+    private final Map<String, List<Candidate>> types = new ConcurrentHashMap<>();
+
+    /**
+     * The slots woven into the last class transformed by each thread, or null if they are not recorded.
+     */
+    private volatile ThreadLocal<int[]> woven;
 
     /**
      * Constructs a new {@code PluginTransformer} with the specified instrumentation,
@@ -85,9 +108,40 @@ public class PluginTransformer implements AgentBuilder.RawMatcher, AgentBuilder.
     public PluginTransformer(Instrumentation instrumentation,
                              PluginDeclare plugin,
                              ConditionMatcher conditionMatcher) {
+        this(instrumentation, plugin == null ? null : Collections.singletonList(plugin), conditionMatcher, null);
+    }
+
+    /**
+     * Constructs a new {@code PluginTransformer} merging the definitions of the plugins.
+     *
+     * @param instrumentation  the {@link Instrumentation} object provided by the Java agent mechanism.
+     * @param plugins          the plugin declarations in the order of installation.
+     * @param conditionMatcher the condition matcher used to determine if a plugin definition should be
+     *                         applied based on the current execution context.
+     * @param metric           the metric of matching the loaded classes, may be null.
+     */
+    public PluginTransformer(Instrumentation instrumentation,
+                             List<PluginDeclare> plugins,
+                             ConditionMatcher conditionMatcher,
+                             MatchMetric metric) {
         this.instrumentation = instrumentation;
-        this.plugin = plugin;
         this.conditionMatcher = conditionMatcher;
+        this.metric = metric;
+        if (plugins != null) {
+            int order = 0;
+            for (PluginDeclare plugin : plugins) {
+                if (plugin != null && !plugin.isEmpty()) {
+                    for (PluginDefinition definition : plugin.getDefinitions()) {
+                        try {
+                            index(new Candidate(order++, plugin, definition));
+                        } catch (Throwable e) {
+                            logger.warn("failed to create matcher of " + definition.getClass().getName()
+                                    + ", caused by " + e.getMessage());
+                        }
+                    }
+                }
+            }
+        }
     }
 
     @Override
@@ -96,24 +150,40 @@ public class PluginTransformer implements AgentBuilder.RawMatcher, AgentBuilder.
                            @MaybeNull JavaModule module,
                            @MaybeNull Class<?> type,
                            @NeverNull ProtectionDomain domain) {
-        if (plugin == null || plugin.isEmpty()) {
-            return false;
+        long start = metric == null ? 0 : System.nanoTime();
+        List<Candidate> candidates = getCandidates(description.getActualName());
+        boolean result = !candidates.isEmpty() && matches(description, loader, module, candidates);
+        if (metric != null) {
+            metric.record(!candidates.isEmpty(), result, System.nanoTime() - start);
         }
+        return result;
+    }
 
+    /**
+     * Matches the type against the candidate definitions, and keeps the matched definitions for the transformation.
+     *
+     * @param description the type description of the class.
+     * @param loader      the class loader of the class.
+     * @param module      the module of the class.
+     * @param candidates  the candidate definitions in the order of installation.
+     * @return true if any definition is matched.
+     */
+    private boolean matches(TypeDescription description, ClassLoader loader, JavaModule module, List<Candidate> candidates) {
         String uniqueName = getUniqueName(description, loader);
         if (types.containsKey(uniqueName)) {
             return true;
         }
 
         BuddyTypeDesc typeDesc = new BuddyTypeDesc(description);
-        List<InterceptorDefinition> matched = new ArrayList<>();
-        for (PluginDefinition definition : plugin.getDefinitions()) {
+        List<Candidate> matched = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            PluginDefinition definition = candidate.definition;
             // match the type
-            if (definition.getMatcher().match(typeDesc)) {
+            if (candidate.matcher.match(typeDesc)) {
                 // determine whether the plugin is enabled in this classloader.
                 if (definitionEnabled.computeIfAbsent(getUniqueName(definition.getClass(), loader),
                         n -> conditionMatcher.match(definition.getClass(), loader, DEPEND_ON_LOADER))) {
-                    Collections.addAll(matched, definition.getInterceptors());
+                    matched.add(candidate);
                     // export internal java module packages to plugin
                     export(loader, module, definition);
                 }
@@ -122,6 +192,49 @@ public class PluginTransformer implements AgentBuilder.RawMatcher, AgentBuilder.
         return !matched.isEmpty() && types.putIfAbsent(uniqueName, matched) == null;
     }
 
+    /**
+     * Indexes the definition by the exact type names of its matcher.
+     *
+     * @param candidate the candidate definition
+     */
+    private void index(Candidate candidate) {
+        Set<String> names = NameIndexable.getNames(candidate.matcher);
+        if (names == null) {
+            others.add(candidate);
+        } else {
+            for (String name : names) {
+                indexes.computeIfAbsent(name, n -> new ArrayList<>()).add(candidate);
+            }
+        }
+    }
+
+    /**
+     * Returns the definitions which may match the type name, in the order of installation.
+     *
+     * @param name the type name
+     * @return the candidate definitions
+     */
+    private List<Candidate> getCandidates(String name) {
+        List<Candidate> indexed = indexes.get(name);
+        if (indexed == null) {
+            return others;
+        } else if (others.isEmpty()) {
+            return indexed;
+        }
+        // merge the sorted lists
+        List<Candidate> result = new ArrayList<>(indexed.size() + others.size());
+        int i = 0;
+        int j = 0;
+        while (i < indexed.size() || j < others.size()) {
+            if (j == others.size() || i < indexed.size() && indexed.get(i).order < others.get(j).order) {
+                result.add(indexed.get(i++));
+            } else {
+                result.add(others.get(j++));
+            }
+        }
+        return result;
+    }
+
     /**
      * Exports or opens packages dynamically from one module to another based on the plugin definitions.
      * This method allows classes defined by plugins to access internal packages of other modules that
@@ -185,93 +298,209 @@ public class PluginTransformer implements AgentBuilder.RawMatcher, AgentBuilder.
                                             @MaybeNull ClassLoader loader,
                                             @MaybeNull JavaModule module,
                                             @NeverNull ProtectionDomain domain) {
-        List<InterceptorDefinition> interceptorDefinitions = types.get(getUniqueName(description, loader));
-        if (interceptorDefinitions == null || interceptorDefinitions.isEmpty()) {
-            return builder;
+        DynamicType.Builder<?> newBuilder = builder;
+        List<AdviceMethod> advices = getAdvices(description, loader);
+        for (AdviceMethod advice : advices) {
+            newBuilder = enhanceMethod(newBuilder, advice);
         }
+        ThreadLocal<int[]> local = woven;
+        if (local != null) {
+            local.set(getSlots(advices));
+        }
+        return newBuilder;
+    }
 
-        DynamicType.Builder<?> newBuilder = builder;
-        List<Interceptor> interceptors;
+    /**
+     * Matches the type and registers the interceptors of its methods without transforming it, so a transformation
+     * cached by a previous run can be validated against the slots of the advices in this run.
+     *
+     * @param description The type description of the class.
+     * @param loader      The class loader of the class.
+     * @param module      The module of the class.
+     * @return The slots of the advices to be woven in the order of the declared methods, or an empty array if the
+     * type is not matched.
+     */
+    public int[] prepare(TypeDescription description, ClassLoader loader, JavaModule module) {
+        List<Candidate> candidates = getCandidates(description.getActualName());
+        if (candidates.isEmpty() || !matches(description, loader, module, candidates)) {
+            return new int[0];
+        }
+        return getSlots(getAdvices(description, loader));
+    }
+
+    /**
+     * Checks whether any definition may match the type name, without describing the type.
+     *
+     * @param name The type name.
+     * @return true if the type may be matched.
+     */
+    public boolean isCandidate(String name) {
+        return !others.isEmpty() || indexes.containsKey(name);
+    }
+
+    /**
+     * Starts recording the slots woven by {@link #transform}, so they can be taken by the caller of the
+     * transformation without describing the type again.
+     */
+    public void recordWoven() {
+        if (woven == null) {
+            woven = new ThreadLocal<>();
+        }
+    }
+
+    /**
+     * Takes the slots woven into the last class transformed by the current thread.
+     *
+     * @return The slots in the order of the declared methods, or null if no class has been transformed since the
+     * last call or the slots are not recorded.
+     */
+    public int[] takeWoven() {
+        ThreadLocal<int[]> local = woven;
+        if (local == null) {
+            return null;
+        }
+        int[] result = local.get();
+        if (result != null) {
+            local.remove();
+        }
+        return result;
+    }
+
+    private static int[] getSlots(List<AdviceMethod> advices) {
+        int[] result = new int[advices.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = advices.get(i).slot;
+        }
+        return result;
+    }
+
+    /**
+     * Registers the interceptors of the matched definitions to the advices of the declared methods.
+     *
+     * @param description The type description of the class.
+     * @param loader      The class loader of the class.
+     * @return The methods to be enhanced with their advices.
+     */
+    private List<AdviceMethod> getAdvices(TypeDescription description, ClassLoader loader) {
+        List<Candidate> candidates = types.get(getUniqueName(description, loader));
+        if (candidates == null || candidates.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<AdviceMethod> result = new ArrayList<>();
         for (MethodDescription.InDefinedShape methodDesc : description.getDeclaredMethods()) {
             if (methodDesc.isNative() || methodDesc.isAbstract()) {
                 continue;
             }
-            interceptors = getInterceptors(methodDesc, interceptorDefinitions);
+            BuddyMethodDesc desc = new BuddyMethodDesc(methodDesc);
+            Map<PluginDeclare, List<Interceptor>> interceptors = getInterceptors(desc, candidates);
             if (!interceptors.isEmpty()) {
-                String adviceKey;
-                BuddyMethodDesc desc = new BuddyMethodDesc(methodDesc);
-                String key = desc.getDescription();
-                try {
-                    if (methodDesc.isStatic()) {
-                        adviceKey = AdviceKey.getMethodKey(key, loader);
-                        newBuilder = enhanceMethod(newBuilder, methodDesc, loader, interceptors, StaticMethodAdvice.class, adviceKey);
-                    } else if (methodDesc.isConstructor()) {
-                        adviceKey = AdviceKey.getMethodKey(key, loader);
-                        newBuilder = enhanceMethod(newBuilder, methodDesc, loader, interceptors, ConstructorAdvice.class, adviceKey);
-                    } else {
-                        adviceKey = AdviceKey.getMethodKey(key, loader);
-                        newBuilder = enhanceMethod(newBuilder, methodDesc, loader, interceptors, MemberMethodAdvice.class, adviceKey);
-                    }
-                } catch (NoSuchFieldException | NoSuchMethodException | IllegalAccessException |
-                         InvocationTargetException e) {
-                    logger.warn("failed to enhance " + key + " , caused by " + e.getMessage());
+                AdviceDesc adviceDesc = register(AdviceKey.getMethodKey(desc.getDescription(), loader), interceptors);
+                if (adviceDesc != null) {
+                    Class<?> templateCls = methodDesc.isStatic()
+                            ? StaticMethodAdvice.class
+                            : (methodDesc.isConstructor() ? ConstructorAdvice.class : MemberMethodAdvice.class);
+                    result.add(new AdviceMethod(methodDesc, templateCls, adviceDesc.getSlot()));
                 }
             }
         }
-        return newBuilder;
+        return result;
     }
 
     /**
-     * Retrieves a list of interceptor instances applicable to a given method, based on a set of interceptor definitions.
+     * Retrieves the interceptor instances applicable to a given method, based on the matched definitions.
      * Each interceptor definition includes a matcher that determines whether the interceptor should be applied to the method.
      *
-     * @param methodDesc   The description of the method for which interceptors are being retrieved.
-     * @param interceptors A list of interceptor definitions to evaluate against the method.
-     * @return A list of {@link Interceptor} instances that match the method according to their respective definitions.
+     * @param desc       The description of the method for which interceptors are being retrieved.
+     * @param candidates The matched definitions in the order of installation.
+     * @return The {@link Interceptor} instances grouped by their plugins in the order of installation.
      */
-    private List<Interceptor> getInterceptors(MethodDescription.InDefinedShape methodDesc, List<InterceptorDefinition> interceptors) {
-        List<Interceptor> result = new ArrayList<>(interceptors.size());
-        BuddyMethodDesc desc = new BuddyMethodDesc(methodDesc);
-        for (InterceptorDefinition interceptor : interceptors) {
-            if (!interceptor.getMatcher().match(desc)) {
-                continue;
+    private Map<PluginDeclare, List<Interceptor>> getInterceptors(BuddyMethodDesc desc, List<Candidate> candidates) {
+        Map<PluginDeclare, List<Interceptor>> result = new LinkedHashMap<>(2);
+        for (Candidate candidate : candidates) {
+            InterceptorDefinition[] interceptors = candidate.definition.getInterceptors();
+            if (interceptors != null) {
+                for (InterceptorDefinition interceptor : interceptors) {
+                    if (interceptor.getMatcher().match(desc)) {
+                        result.computeIfAbsent(candidate.plugin, p -> new ArrayList<>()).add(interceptor.getInterceptor());
+                    }
+                }
             }
-            result.add(interceptor.getInterceptor());
         }
         return result;
     }
 
     /**
-     * Enhances a method by applying a list of interceptors to it. This is achieved by using bytecode manipulation
-     * to insert advice around the method execution. The advice is defined in a specified class and is selected
-     * based on a unique key.
+     * Registers the interceptors of the plugins to the advice with the unique key. The advice is woven once by the
+     * first plugin owning it.
      *
-     * @param builder      The builder used to create or modify the class that contains the method.
-     * @param methodDesc   The description of the method to be enhanced.
-     * @param classLoader  The class loader of the class being modified.
-     * @param interceptors A list of interceptors to apply to the method.
-     * @param templateCls  The class that contains the advice to be applied to the method.
      * @param adviceKey    A unique key identifying the specific advice to use.
-     * @return A {@link DynamicType.Builder} instance representing the modified class.
-     * @throws InvocationTargetException if an exception occurs while invoking the advice method.
-     * @throws IllegalAccessException    if the advice method or field is not accessible.
-     * @throws NoSuchMethodException     if the advice method does not exist.
-     * @throws NoSuchFieldException      if a required field by the advice does not exist.
+     * @param interceptors The interceptors grouped by their plugins to apply to the method.
+     * @return The advice, or null if it's owned by another plugin and has been woven.
      */
-    protected DynamicType.Builder<?> enhanceMethod(DynamicType.Builder<?> builder,
-                                                   MethodDescription.InDefinedShape methodDesc,
-                                                   ClassLoader classLoader,
-                                                   List<Interceptor> interceptors,
-                                                   Class<?> templateCls,
-                                                   String adviceKey)
-            throws InvocationTargetException, IllegalAccessException, NoSuchMethodException, NoSuchFieldException {
+    private AdviceDesc register(String adviceKey, Map<PluginDeclare, List<Interceptor>> interceptors) {
         AdviceDesc adviceDesc = AdviceHandler.getOrCreate(adviceKey);
-        for (Interceptor interceptor : interceptors) {
-            adviceDesc.add(interceptor);
+        boolean locked = false;
+        for (Map.Entry<PluginDeclare, List<Interceptor>> entry : interceptors.entrySet()) {
+            for (Interceptor interceptor : entry.getValue()) {
+                adviceDesc.add(interceptor);
+            }
+            locked = locked || adviceDesc.lock(entry.getKey());
         }
-        if (adviceDesc.lock(plugin)) {
-            return builder.visit(Advice.to(templateCls).on(ElementMatchers.is(methodDesc)));
+        return locked ? adviceDesc : null;
+    }
+
+    /**
+     * Enhances a method by applying its advice. This is achieved by using bytecode manipulation to insert advice
+     * around the method execution. The advice is defined in a template class and is dispatched by its slot.
+     *
+     * @param builder The builder used to create or modify the class that contains the method.
+     * @param advice  The method with its advice.
+     * @return A {@link DynamicType.Builder} instance representing the modified class.
+     */
+    protected DynamicType.Builder<?> enhanceMethod(DynamicType.Builder<?> builder, AdviceMethod advice) {
+        // the slot is woven as a constant, so the advice is dispatched without any lookup.
+        return builder.visit(Advice.withCustomMapping()
+                .bind(AdviceSlot.class, advice.slot)
+                .to(advice.templateCls)
+                .on(ElementMatchers.is(advice.method)));
+    }
+
+    /**
+     * A method to be enhanced with the template and the slot of its advice.
+     */
+    protected static class AdviceMethod {
+
+        private final MethodDescription.InDefinedShape method;
+
+        private final Class<?> templateCls;
+
+        private final int slot;
+
+        AdviceMethod(MethodDescription.InDefinedShape method, Class<?> templateCls, int slot) {
+            this.method = method;
+            this.templateCls = templateCls;
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * A definition of a plugin with its order of installation and its type matcher, which is created once.
+     */
+    private static class Candidate {
+
+        private final int order;
+
+        private final PluginDeclare plugin;
+
+        private final PluginDefinition definition;
+
+        private final ElementMatcher<TypeDesc> matcher;
+
+        Candidate(int order, PluginDeclare plugin, PluginDefinition definition) {
+            this.order = order;
+            this.plugin = plugin;
+            this.definition = definition;
+            this.matcher = definition.getMatcher();
         }
-        return builder;
     }
 }
@@ -0,0 +1,349 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.bytekit.bytebuddy.plugin;
+
+import com.jd.live.agent.bootstrap.logger.Logger;
+import com.jd.live.agent.bootstrap.logger.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An on-disk cache of the transformed classes, which lets the next start of the application reuse the bytes instead
+ * of transforming the same classes again.
+ * <p>
+ * The entries are kept in a directory named by the fingerprint of the agent, which covers the jars of the plugins and
+ * the libraries, the configuration and the java version. A changed jar leads to a new directory, and the directories of
+ * the other fingerprints are removed when the cache is opened. An entry is keyed by the hash of the original bytes,
+ * the class name, the kind of the class loader and the plugins of the transformer.
+ * <p>
+ * The entries are stored in the files named by the class name and the key, so the names of the cached classes are
+ * known when the cache is opened, and the bytes of the other classes are never hashed.
+ *
+ * @since 1.6.0
+ */
+public class TransformCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransformCache.class);
+
+    private static final int MAGIC = 0x4A4C5443;
+
+    private static final String SUFFIX = ".class";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * The separator of the class name and the key in the file names, which is not a valid character of class names.
+     */
+    private static final char SEPARATOR = '-';
+
+    /**
+     * The maximum length of the file names, the classes with longer names are not cached.
+     */
+    private static final int MAX_FILE_NAME = 240;
+
+    private final File directory;
+
+    /**
+     * The file names of the entries without the suffix.
+     */
+    private final Set<String> keys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The internal names of the cached classes.
+     */
+    private final Set<String> names = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private TransformCache(File directory) {
+        this.directory = directory;
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                String fileName = file.getName().substring(0, file.getName().length() - SUFFIX.length());
+                int pos = fileName.lastIndexOf(SEPARATOR);
+                if (pos > 0) {
+                    keys.add(fileName);
+                    names.add(fileName.substring(0, pos).replace('.', '/'));
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens the cache under the root directory for the fingerprint of the sources.
+     *
+     * @param root    the root directory of the cache
+     * @param sources the files or directories making up the fingerprint
+     * @return the cache, or null if the directory can't be created
+     */
+    public static TransformCache open(File root, List<File> sources) {
+        return open(root, sources, System.getProperty("java.version"));
+    }
+
+    /**
+     * Opens the cache under the root directory for the fingerprint of the sources and the java version.
+     *
+     * @param root        the root directory of the cache
+     * @param sources     the files or directories making up the fingerprint
+     * @param javaVersion the java version
+     * @return the cache, or null if the directory can't be created
+     */
+    static TransformCache open(File root, List<File> sources, String javaVersion) {
+        String fingerprint = getFingerprint(sources, javaVersion);
+        File directory = new File(root, fingerprint);
+        if (!directory.mkdirs() && !directory.isDirectory()) {
+            logger.warn("failed to create transform cache directory " + directory.getPath());
+            return null;
+        }
+        // the entries of the changed jars are useless
+        File[] olds = root.listFiles(file -> file.isDirectory() && !file.getName().equals(fingerprint));
+        if (olds != null) {
+            for (File old : olds) {
+                delete(old);
+            }
+        }
+        TransformCache result = new TransformCache(directory);
+        logger.info("Open transform cache " + directory.getPath() + " with " + result.keys.size() + " entries.");
+        return result;
+    }
+
+    /**
+     * Checks whether any transformation of the class is cached, which is known without hashing its bytes.
+     *
+     * @param name the internal name of the class
+     * @return true if the class may be found in the cache
+     */
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+
+    /**
+     * Returns the number of the cached entries.
+     *
+     * @return the number of the entries
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Returns the key of the class.
+     *
+     * @param scope  the plugins of the transformer
+     * @param loader the class loader
+     * @param name   the internal name of the class
+     * @param bytes  the original bytes of the class
+     * @return the key
+     */
+    public String getKey(String scope, ClassLoader loader, String name, byte[] bytes) {
+        MessageDigest digest = newDigest();
+        update(digest, scope);
+        update(digest, loader == null ? "bootstrap" : loader.getClass().getName());
+        update(digest, name);
+        digest.update(bytes);
+        return hex(digest.digest());
+    }
+
+    /**
+     * Returns the cached entry.
+     *
+     * @param name the internal name of the class
+     * @param key  the key of the class
+     * @return the entry, or null if it's not cached
+     */
+    public Entry get(String name, String key) {
+        String fileName = getFileName(name, key);
+        if (!keys.contains(fileName)) {
+            misses.increment();
+            return null;
+        }
+        File file = new File(directory, fileName + SUFFIX);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("bad magic");
+            }
+            int[] slots = new int[in.readInt()];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = in.readInt();
+            }
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            hits.increment();
+            return new Entry(slots, bytes);
+        } catch (IOException e) {
+            logger.warn("failed to read transform cache " + file.getPath() + ", caused by " + e.getMessage());
+            keys.remove(fileName);
+            misses.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Caches the transformed class.
+     *
+     * @param name  the internal name of the class
+     * @param key   the key of the class
+     * @param slots the slots of the advices woven into the class
+     * @param bytes the transformed bytes
+     */
+    public void put(String name, String key, int[] slots, byte[] bytes) {
+        String fileName = getFileName(name, key);
+        if (fileName.length() > MAX_FILE_NAME) {
+            return;
+        }
+        File file = new File(directory, fileName + SUFFIX);
+        File temp = new File(directory, fileName + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp.toPath())))) {
+                out.writeInt(MAGIC);
+                out.writeInt(slots.length);
+                for (int slot : slots) {
+                    out.writeInt(slot);
+                }
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            // readers never see a partial entry
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            keys.add(fileName);
+            names.add(name);
+        } catch (IOException e) {
+            logger.warn("failed to write transform cache " + file.getPath() + ", caused by " + e.getMessage());
+            temp.delete();
+        }
+    }
+
+    /**
+     * Returns the number of the classes found in the cache, a found entry is still dropped if its slots changed.
+     *
+     * @return the number of the hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of the classes not found in the cache.
+     *
+     * @return the number of the misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private static String getFileName(String name, String key) {
+        return name.replace('/', '.') + SEPARATOR + key;
+    }
+
+    private static String getFingerprint(List<File> sources, String javaVersion) {
+        MessageDigest digest = newDigest();
+        update(digest, javaVersion);
+        if (sources != null) {
+            for (File source : sources) {
+                fingerprint(digest, source);
+            }
+        }
+        return hex(digest.digest()).substring(0, 16);
+    }
+
+    private static void fingerprint(MessageDigest digest, File file) {
+        if (file == null || !file.exists()) {
+            return;
+        }
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                Arrays.sort(children);
+                for (File child : children) {
+                    fingerprint(digest, child);
+                }
+            }
+        } else {
+            update(digest, file.getPath());
+            update(digest, String.valueOf(file.length()));
+            update(digest, String.valueOf(file.lastModified()));
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        if (!file.delete()) {
+            logger.warn("failed to delete transform cache " + file.getPath());
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is supported by every java platform
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] chars = new char[bytes.length << 1];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i << 1] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[(i << 1) + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * A cached transformation.
+     */
+    public static class Entry {
+
+        private final int[] slots;
+
+        private final byte[] bytes;
+
+        Entry(int[] slots, byte[] bytes) {
+            this.slots = slots;
+            this.bytes = bytes;
+        }
+
+        public int[] getSlots() {
+            return slots;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+    }
+}
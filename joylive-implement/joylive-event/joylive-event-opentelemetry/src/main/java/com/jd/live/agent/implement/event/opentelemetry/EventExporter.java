@@ -29,20 +29,15 @@ import com.jd.live.agent.core.instance.Application;
 import com.jd.live.agent.governance.config.GovernanceConfig;
 import com.jd.live.agent.governance.event.TrafficEvent;
 import com.jd.live.agent.implement.event.opentelemetry.config.CounterConfig;
-import com.jd.live.agent.implement.event.opentelemetry.config.ExporterConfig;
-import com.jd.live.agent.implement.event.opentelemetry.log.LoggingExporterFactory;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.api.metrics.LongCounter;
 import io.opentelemetry.api.metrics.Meter;
-import io.opentelemetry.sdk.OpenTelemetrySdk;
-import io.opentelemetry.sdk.metrics.SdkMeterProvider;
-import io.opentelemetry.sdk.metrics.export.MetricReader;
-import io.opentelemetry.sdk.resources.Resource;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.jd.live.agent.governance.event.TrafficEvent.*;
 
@@ -52,10 +47,15 @@ import static com.jd.live.agent.governance.event.TrafficEvent.*;
 @ConditionalOnProperty(value = GovernanceConfig.CONFIG_COUNTER_ENABLED, matchIfMissing = true)
 public class EventExporter implements Subscription<TrafficEvent>, ExtensionInitializer {
 
-    private static final String LIVE_SCOPE = "com.jd.live";
-
     private static final String REQUESTS = "requests";
 
+    private static final int MAX_ATTRIBUTES = 10000;
+
+    /**
+     * The interval in milliseconds to expire the cached attributes which are not used.
+     */
+    private static final long ATTRIBUTE_EXPIRE_INTERVAL = 60000L;
+
     private static final AttributeKey<String> ATTRIBUTE_APPLICATION = AttributeKey.stringKey(KEY_APPLICATION);
 
     private static final AttributeKey<String> ATTRIBUTE_LIVE_SPACE_ID = AttributeKey.stringKey(KEY_LIVE_SPACE_ID);
@@ -127,11 +127,24 @@ public class EventExporter implements Subscription<TrafficEvent>, ExtensionIniti
     @Inject
     private Map<String, ExporterFactory> factoryMap;
 
-    private OpenTelemetrySdk sdk;
+    /**
+     * The attributes keyed by the attribute tuple of the events, which are aggregated by the tuple and
+     * published repeatedly.
+     */
+    private volatile Map<TrafficEvent, Attributes> attributes = new ConcurrentHashMap<>();
+
+    /**
+     * The attributes cached in the last interval, the used ones are moved back to the current attributes and
+     * the others are dropped in the next interval.
+     */
+    private volatile Map<TrafficEvent, Attributes> expiring = new ConcurrentHashMap<>();
+
+    private volatile long expireTime = System.currentTimeMillis() + ATTRIBUTE_EXPIRE_INTERVAL;
 
     @Override
     public void handle(List<Event<TrafficEvent>> events) {
         if (events != null) {
+            expire();
             TrafficEvent trafficEvent;
             LongCounter counter;
             for (Event<TrafficEvent> event : events) {
@@ -159,6 +172,31 @@ public class EventExporter implements Subscription<TrafficEvent>, ExtensionIniti
     }
 
     private Attributes attributes(Event<TrafficEvent> event) {
+        Map<TrafficEvent, Attributes> current = attributes;
+        Attributes result = current.get(event.getData());
+        if (result == null) {
+            result = expiring.get(event.getData());
+            result = result == null ? build(event) : result;
+            if (current.size() < MAX_ATTRIBUTES) {
+                current.putIfAbsent(event.getData(), result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops the attributes which are not used in the last interval.
+     */
+    private synchronized void expire() {
+        long now = System.currentTimeMillis();
+        if (now >= expireTime) {
+            expireTime = now + ATTRIBUTE_EXPIRE_INTERVAL;
+            expiring = attributes;
+            attributes = new ConcurrentHashMap<>();
+        }
+    }
+
+    private Attributes build(Event<TrafficEvent> event) {
         TrafficEvent trafficEvent = event.getData();
         AttributesBuilder builder = Attributes.builder();
         builder.put(ATTRIBUTE_APPLICATION, application.getName()).
@@ -193,15 +231,7 @@ public class EventExporter implements Subscription<TrafficEvent>, ExtensionIniti
 
     @Override
     public void initialize() {
-        Resource resource = Resource.getDefault().toBuilder().put("service.name", application.getName()).build();
-        ExporterConfig exporterConfig = config.getExporter();
-        ExporterFactory factory = exporterConfig.getType() == null ? null : factoryMap.get(exporterConfig.getType());
-        factory = factory == null ? new LoggingExporterFactory() : factory;
-        MetricReader reader = factory.create(config);
-
-        SdkMeterProvider provider = SdkMeterProvider.builder().setResource(resource).registerMetricReader(reader).build();
-        sdk = OpenTelemetrySdk.builder().setMeterProvider(provider).buildAndRegisterGlobal();
-        Meter meter = sdk.getMeter(LIVE_SCOPE);
+        Meter meter = Telemetry.getOrCreate(config, application, factoryMap).getMeter(Telemetry.LIVE_SCOPE);
         this.gatewayInbounds = meter.counterBuilder(COUNTER_GATEWAY_INBOUND_REQUESTS_TOTAL).setUnit(REQUESTS).build();
         this.gatewayInboundForwards = meter.counterBuilder(COUNTER_GATEWAY_INBOUND_FORWARD_REQUESTS_TOTAL).setUnit(REQUESTS).build();
         this.gatewayInboundRejects = meter.counterBuilder(COUNTER_GATEWAY_INBOUND_REJECT_REQUESTS_TOTAL).setUnit(REQUESTS).build();
@@ -218,8 +248,6 @@ public class EventExporter implements Subscription<TrafficEvent>, ExtensionIniti
 
     @Override
     public void close() {
-        if (sdk != null) {
-            sdk.close();
-        }
+        Telemetry.close();
     }
 }
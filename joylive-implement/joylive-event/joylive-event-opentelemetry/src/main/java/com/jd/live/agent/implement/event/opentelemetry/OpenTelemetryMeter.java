@@ -0,0 +1,266 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.event.opentelemetry;
+
+import com.jd.live.agent.core.extension.ExtensionInitializer;
+import com.jd.live.agent.core.extension.annotation.ConditionalOnProperty;
+import com.jd.live.agent.core.extension.annotation.Extension;
+import com.jd.live.agent.core.inject.annotation.Config;
+import com.jd.live.agent.core.inject.annotation.Configurable;
+import com.jd.live.agent.core.inject.annotation.Inject;
+import com.jd.live.agent.core.inject.annotation.Injectable;
+import com.jd.live.agent.core.instance.Application;
+import com.jd.live.agent.core.util.URI;
+import com.jd.live.agent.governance.config.GovernanceConfig;
+import com.jd.live.agent.governance.invoke.circuitbreak.CircuitBreakerState;
+import com.jd.live.agent.governance.invoke.counter.GovernanceMeter;
+import com.jd.live.agent.governance.policy.PolicyId;
+import com.jd.live.agent.governance.policy.service.limit.ConcurrencyLimitPolicy;
+import com.jd.live.agent.implement.event.opentelemetry.config.CounterConfig;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+import static com.jd.live.agent.governance.event.TrafficEvent.*;
+
+/**
+ * Exports the latency distribution, the retry attempts and the circuit breaker state transitions of the
+ * services with OpenTelemetry instruments.
+ * <p>
+ * The latency is recorded in an exponential histogram. The series are identified by the service, group,
+ * path and method, the instance is deliberately left out, and the number of distinct series is bounded by
+ * {@link CounterConfig#getMaxSeries()}, the exceeded series are recorded as an overflow series.
+ *
+ * @since 1.6.0
+ */
+@Configurable
+@Injectable
+@Extension("OpenTelemetryMeter")
+@ConditionalOnProperty(name = GovernanceConfig.CONFIG_COUNTER_ENABLED, matchIfMissing = true)
+@ConditionalOnProperty(name = CounterConfig.CONFIG_METER_ENABLED, matchIfMissing = true)
+public class OpenTelemetryMeter implements GovernanceMeter, ExtensionInitializer {
+
+    public static final String HISTOGRAM_SERVICE_OUTBOUND_LATENCY = "joylive_service_outbound_latency";
+
+    public static final String COUNTER_SERVICE_OUTBOUND_RETRIES_TOTAL = "joylive_service_outbound_retries_total";
+
+    public static final String COUNTER_SERVICE_OUTBOUND_HEDGES_TOTAL = "joylive_service_outbound_hedges_total";
+
+    public static final String COUNTER_SERVICE_OUTBOUND_RETRY_THROTTLED_TOTAL = "joylive_service_outbound_retry_throttled_total";
+
+    public static final String COUNTER_CIRCUIT_BREAKER_TRANSITIONS_TOTAL = "joylive_circuit_breaker_transitions_total";
+
+    public static final String GAUGE_CONCURRENCY_LIMIT = "joylive_concurrency_limit";
+
+    public static final String COUNTER_UNIT_ROUTE_CACHE_HITS_TOTAL = "joylive_unit_route_cache_hits_total";
+
+    public static final String COUNTER_UNIT_ROUTE_CACHE_MISSES_TOTAL = "joylive_unit_route_cache_misses_total";
+
+    private static final String RESULT_SUCCESS = "success";
+
+    private static final String RESULT_FAILURE = "failure";
+
+    private static final AttributeKey<String> ATTRIBUTE_APPLICATION = AttributeKey.stringKey(KEY_APPLICATION);
+
+    private static final AttributeKey<String> ATTRIBUTE_SERVICE_NAME = AttributeKey.stringKey(KEY_SERVICE_NAME);
+
+    private static final AttributeKey<String> ATTRIBUTE_SERVICE_GROUP = AttributeKey.stringKey(KEY_SERVICE_GROUP);
+
+    private static final AttributeKey<String> ATTRIBUTE_SERVICE_PATH = AttributeKey.stringKey(KEY_SERVICE_PATH);
+
+    private static final AttributeKey<String> ATTRIBUTE_SERVICE_METHOD = AttributeKey.stringKey(KEY_SERVICE_METHOD);
+
+    private static final AttributeKey<Long> ATTRIBUTE_POLICY_ID = AttributeKey.longKey("policy_id");
+
+    private static final AttributeKey<String> ATTRIBUTE_POLICY_NAME = AttributeKey.stringKey("policy_name");
+
+    private static final AttributeKey<String> ATTRIBUTE_RESULT = AttributeKey.stringKey("result");
+
+    private static final AttributeKey<String> ATTRIBUTE_FROM_STATE = AttributeKey.stringKey("from_state");
+
+    private static final AttributeKey<String> ATTRIBUTE_TO_STATE = AttributeKey.stringKey("to_state");
+
+    private static final AttributeKey<Boolean> ATTRIBUTE_OVERFLOW = AttributeKey.booleanKey("otel.metric.overflow");
+
+    @Config(CounterConfig.CONFIG_COUNTER)
+    private CounterConfig config;
+
+    @Inject(Application.COMPONENT_APPLICATION)
+    private Application application;
+
+    @Inject
+    private Map<String, ExporterFactory> factoryMap;
+
+    private LongHistogram latencies;
+
+    private LongCounter retries;
+
+    private LongCounter hedges;
+
+    private LongCounter throttledRetries;
+
+    private LongCounter transitions;
+
+    private Attributes overflow;
+
+    private Meter meter;
+
+    /**
+     * The distinct series of the service attributes.
+     */
+    private final Set<Attributes> series = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The gauges of the concurrency limits keyed by the policy id.
+     */
+    private final Map<Long, LimitGauge> limits = new ConcurrentHashMap<>();
+
+    @Override
+    public void initialize() {
+        meter = Telemetry.getOrCreate(config, application, factoryMap).getMeter(Telemetry.LIVE_SCOPE);
+        overflow = Attributes.of(ATTRIBUTE_APPLICATION, application.getName(), ATTRIBUTE_OVERFLOW, true);
+        latencies = meter.histogramBuilder(HISTOGRAM_SERVICE_OUTBOUND_LATENCY).setUnit("ms").ofLongs().build();
+        retries = meter.counterBuilder(COUNTER_SERVICE_OUTBOUND_RETRIES_TOTAL).setUnit("retries").build();
+        hedges = meter.counterBuilder(COUNTER_SERVICE_OUTBOUND_HEDGES_TOTAL).setUnit("requests").build();
+        throttledRetries = meter.counterBuilder(COUNTER_SERVICE_OUTBOUND_RETRY_THROTTLED_TOTAL).setUnit("retries").build();
+        transitions = meter.counterBuilder(COUNTER_CIRCUIT_BREAKER_TRANSITIONS_TOTAL).setUnit("transitions").build();
+        meter.gaugeBuilder(GAUGE_CONCURRENCY_LIMIT).ofLongs().setUnit("requests").buildWithCallback(measurement -> {
+            for (LimitGauge gauge : limits.values()) {
+                measurement.record(gauge.limit.getAsInt(), gauge.attributes);
+            }
+        });
+    }
+
+    @Override
+    public LatencyMeter getLatencyMeter(URI uri) {
+        Attributes attributes = getAttributes(uri);
+        if (attributes == null) {
+            return null;
+        }
+        Attributes success = attributes.toBuilder().put(ATTRIBUTE_RESULT, RESULT_SUCCESS).build();
+        Attributes failure = attributes.toBuilder().put(ATTRIBUTE_RESULT, RESULT_FAILURE).build();
+        return (elapsed, succeeded) -> latencies.record(elapsed, succeeded ? success : failure);
+    }
+
+    @Override
+    public void recordRetry(URI uri) {
+        Attributes attributes = getAttributes(uri);
+        if (attributes != null) {
+            retries.add(1, attributes);
+        }
+    }
+
+    @Override
+    public void recordHedge(URI uri) {
+        Attributes attributes = getAttributes(uri);
+        if (attributes != null) {
+            hedges.add(1, attributes);
+        }
+    }
+
+    @Override
+    public void recordRetryThrottled(URI uri) {
+        Attributes attributes = getAttributes(uri);
+        if (attributes != null) {
+            throttledRetries.add(1, attributes);
+        }
+    }
+
+    @Override
+    public void recordStateChange(URI uri, CircuitBreakerState from, CircuitBreakerState to) {
+        Attributes attributes = getAttributes(uri);
+        if (attributes != null) {
+            transitions.add(1, attributes.toBuilder()
+                    .put(ATTRIBUTE_FROM_STATE, from == null ? null : from.name())
+                    .put(ATTRIBUTE_TO_STATE, to == null ? null : to.name())
+                    .build());
+        }
+    }
+
+    @Override
+    public void registerConcurrencyLimit(ConcurrencyLimitPolicy policy, IntSupplier limit) {
+        if (policy == null || policy.getId() == null || limit == null) {
+            return;
+        }
+        Attributes attributes = Attributes.builder()
+                .put(ATTRIBUTE_APPLICATION, application.getName())
+                .put(ATTRIBUTE_POLICY_ID, policy.getId())
+                .put(ATTRIBUTE_POLICY_NAME, policy.getName())
+                .build();
+        limits.put(policy.getId(), new LimitGauge(attributes, limit));
+    }
+
+    @Override
+    public void registerUnitRouteCache(LongSupplier hits, LongSupplier misses) {
+        if (meter == null || hits == null || misses == null) {
+            return;
+        }
+        Attributes attributes = Attributes.of(ATTRIBUTE_APPLICATION, application.getName());
+        meter.counterBuilder(COUNTER_UNIT_ROUTE_CACHE_HITS_TOTAL).setUnit("lookups")
+                .buildWithCallback(measurement -> measurement.record(hits.getAsLong(), attributes));
+        meter.counterBuilder(COUNTER_UNIT_ROUTE_CACHE_MISSES_TOTAL).setUnit("lookups")
+                .buildWithCallback(measurement -> measurement.record(misses.getAsLong(), attributes));
+    }
+
+    /**
+     * Returns the service attributes of the uri, or the overflow attributes if the number of series exceeds the limit.
+     *
+     * @param uri the service uri.
+     * @return the attributes, or null if the meter is not initialized.
+     */
+    private Attributes getAttributes(URI uri) {
+        if (uri == null || overflow == null) {
+            return null;
+        }
+        Attributes attributes = Attributes.builder()
+                .put(ATTRIBUTE_APPLICATION, application.getName())
+                .put(ATTRIBUTE_SERVICE_NAME, uri.getHost())
+                .put(ATTRIBUTE_SERVICE_GROUP, uri.getParameter(PolicyId.KEY_SERVICE_GROUP))
+                .put(ATTRIBUTE_SERVICE_PATH, uri.getPath())
+                .put(ATTRIBUTE_SERVICE_METHOD, uri.getParameter(PolicyId.KEY_SERVICE_METHOD))
+                .build();
+        if (series.contains(attributes)) {
+            return attributes;
+        } else if (series.size() >= config.getMaxSeries()) {
+            return overflow;
+        }
+        series.add(attributes);
+        return attributes;
+    }
+
+    /**
+     * The current limit of a concurrency limiter.
+     */
+    private static class LimitGauge {
+
+        private final Attributes attributes;
+
+        private final IntSupplier limit;
+
+        LimitGauge(Attributes attributes, IntSupplier limit) {
+            this.attributes = attributes;
+            this.limit = limit;
+        }
+    }
+}
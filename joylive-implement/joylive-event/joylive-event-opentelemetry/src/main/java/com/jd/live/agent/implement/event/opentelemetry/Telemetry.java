@@ -0,0 +1,90 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.event.opentelemetry;
+
+import com.jd.live.agent.core.instance.Application;
+import com.jd.live.agent.implement.event.opentelemetry.config.CounterConfig;
+import com.jd.live.agent.implement.event.opentelemetry.config.ExporterConfig;
+import com.jd.live.agent.implement.event.opentelemetry.log.LoggingExporterFactory;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentSelector;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.View;
+import io.opentelemetry.sdk.metrics.export.MetricReader;
+import io.opentelemetry.sdk.resources.Resource;
+
+import java.util.Map;
+
+/**
+ * Holds the OpenTelemetry sdk shared by the traffic exporter and the governance meter, so that all
+ * instruments are exported by the same reader and the sdk is registered globally only once.
+ *
+ * @since 1.6.0
+ */
+public final class Telemetry {
+
+    /**
+     * The instrumentation scope of the agent.
+     */
+    public static final String LIVE_SCOPE = "com.jd.live";
+
+    private static OpenTelemetrySdk sdk;
+
+    private Telemetry() {
+    }
+
+    /**
+     * Returns the shared sdk, building and registering it on first call.
+     *
+     * @param config      the counter config.
+     * @param application the application.
+     * @param factories   the exporter factories keyed by type.
+     * @return the shared sdk.
+     */
+    public static synchronized OpenTelemetrySdk getOrCreate(CounterConfig config,
+                                                            Application application,
+                                                            Map<String, ExporterFactory> factories) {
+        if (sdk == null) {
+            Resource resource = Resource.getDefault().toBuilder().put("service.name", application.getName()).build();
+            ExporterConfig exporterConfig = config.getExporter();
+            ExporterFactory factory = exporterConfig.getType() == null || factories == null ? null : factories.get(exporterConfig.getType());
+            factory = factory == null ? new LoggingExporterFactory() : factory;
+            MetricReader reader = factory.create(config);
+            SdkMeterProvider provider = SdkMeterProvider.builder()
+                    .setResource(resource)
+                    .registerMetricReader(reader)
+                    .registerView(
+                            InstrumentSelector.builder().setType(InstrumentType.HISTOGRAM).setMeterName(LIVE_SCOPE).build(),
+                            View.builder().setAggregation(Aggregation.base2ExponentialBucketHistogram(
+                                    config.getHistogramMaxBuckets(), config.getHistogramMaxScale())).build())
+                    .build();
+            sdk = OpenTelemetrySdk.builder().setMeterProvider(provider).buildAndRegisterGlobal();
+        }
+        return sdk;
+    }
+
+    /**
+     * Closes the shared sdk, which flushes the pending metrics.
+     */
+    public static synchronized void close() {
+        if (sdk != null) {
+            sdk.close();
+            sdk = null;
+        }
+    }
+}
@@ -24,6 +24,8 @@ public class CounterConfig {
 
     public static final String CONFIG_COUNTER = "agent.counter";
 
+    public static final String CONFIG_METER_ENABLED = CONFIG_COUNTER + ".meterEnabled";
+
     private boolean gatewayEnabled = true;
 
     private boolean serviceEnabled = true;
@@ -32,4 +34,25 @@ public class CounterConfig {
 
     private ExporterConfig exporter = new ExporterConfig();
 
+    /**
+     * Whether to export the latency, the retries and the circuit breaker transitions of the services.
+     */
+    private boolean meterEnabled = true;
+
+    /**
+     * The maximum number of attribute series of each governance instrument, the exceeded series are
+     * recorded as an overflow series.
+     */
+    private int maxSeries = 2000;
+
+    /**
+     * The maximum number of buckets of the exponential latency histogram.
+     */
+    private int histogramMaxBuckets = 160;
+
+    /**
+     * The maximum scale of the exponential latency histogram.
+     */
+    private int histogramMaxScale = 20;
+
 }
@@ -20,6 +20,7 @@ import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.core.event.Event;
 import com.jd.live.agent.core.event.EventHandler;
 import com.jd.live.agent.core.event.Publisher;
+import com.jd.live.agent.core.event.config.OverflowPolicy;
 import com.jd.live.agent.core.event.config.PublisherConfig;
 import com.jd.live.agent.core.instance.Application;
 import com.jd.live.agent.core.util.network.Ipv4;
@@ -27,16 +28,19 @@ import com.jd.live.agent.core.util.network.Ipv4;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 public class JPublisher<E> implements Publisher<E> {
 
     private static final Logger logger = LoggerFactory.getLogger(JPublisher.class);
 
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(3000);
+
+    private static final long BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
     private final String topic;
 
     private final Application application;
@@ -45,12 +49,19 @@ public class JPublisher<E> implements Publisher<E> {
 
     private final Set<EventHandler<E>> handlers = new CopyOnWriteArraySet<>();
 
-    private final BlockingQueue<Event<E>> queue;
+    private final MpscRingBuffer<Event<E>> queue;
+
+    private final OverflowPolicy overflowPolicy;
 
     private final Thread thread;
 
     private final AtomicBoolean started;
 
+    /**
+     * Whether the consumer thread is parked on an empty queue.
+     */
+    private volatile boolean parked;
+
     public JPublisher(String topic, Application application, PublisherConfig config) {
         this(topic, application, config, true);
     }
@@ -60,7 +71,8 @@ public class JPublisher<E> implements Publisher<E> {
         this.application = application;
         this.config = config;
         this.started = new AtomicBoolean(autoStart);
-        this.queue = new LinkedBlockingQueue<>(config.getCapacity() > 0 ? config.getCapacity() : PublisherConfig.DEFAULT_CAPACITY);
+        this.queue = new MpscRingBuffer<>(config.getCapacity() > 0 ? config.getCapacity() : PublisherConfig.DEFAULT_CAPACITY);
+        this.overflowPolicy = config.getOverflowPolicy() == null ? OverflowPolicy.DROP : config.getOverflowPolicy();
         this.thread = new Thread(this::run, "bus-" + topic);
         if (autoStart) {
             thread.start();
@@ -69,25 +81,12 @@ public class JPublisher<E> implements Publisher<E> {
 
     protected void run() {
         int batchSize = config.getBatchSize() <= 0 ? PublisherConfig.BATCH_SIZE : config.getBatchSize();
-        List<Event<E>> events = new ArrayList<>(batchSize + 2);
-        Event<E> event;
+        List<Event<E>> events = new ArrayList<>(batchSize);
         while (isStarted() && !Thread.currentThread().isInterrupted()) {
             events.clear();
-            if (queue.isEmpty()) {
-                try {
-                    event = queue.poll(3000, TimeUnit.MILLISECONDS);
-                    if (event != null) {
-                        events.add(event);
-                        if (!queue.isEmpty() && batchSize > 1) {
-                            queue.drainTo(events, batchSize - 1);
-                        }
-                    }
-                } catch (InterruptedException ignore) {
-                }
-            } else {
-                queue.drainTo(events, batchSize);
-            }
-            if (isStarted() && !events.isEmpty()) {
+            if (queue.drainTo(events, batchSize) == 0) {
+                await();
+            } else if (isStarted()) {
                 for (EventHandler<E> handler : handlers) {
                     try {
                         handler.handle(events);
@@ -99,6 +98,33 @@ public class JPublisher<E> implements Publisher<E> {
         }
     }
 
+    /**
+     * Waits for the producers. The consumer parks only if no slot is claimed, a claimed slot is about to be
+     * published, so it yields instead.
+     */
+    private void await() {
+        if (!queue.isEmpty()) {
+            Thread.yield();
+            return;
+        }
+        parked = true;
+        // check again after announcing the park, so that a concurrent offer either sees the flag or is seen here.
+        if (queue.isEmpty()) {
+            LockSupport.parkNanos(this, IDLE_NANOS);
+        }
+        parked = false;
+    }
+
+    /**
+     * Wakes up the consumer thread if it's parked.
+     */
+    private void signal() {
+        if (parked) {
+            parked = false;
+            LockSupport.unpark(thread);
+        }
+    }
+
     @Override
     public String getTopic() {
         return topic;
@@ -135,11 +161,26 @@ public class JPublisher<E> implements Publisher<E> {
         newEvent.setTime(System.currentTimeMillis());
         newEvent.setInstanceId(application.getInstance());
         newEvent.setIp(Ipv4.getLocalIp());
-        try {
-            return timeout <= 0 ? queue.offer(newEvent) : queue.offer(newEvent, timeout, TimeUnit.MILLISECONDS);
-        } catch (InterruptedException e) {
-            return false;
+        if (queue.offer(newEvent)) {
+            signal();
+            return true;
+        } else if (overflowPolicy == OverflowPolicy.OVERWRITE) {
+            queue.overwrite(newEvent);
+            signal();
+            return true;
+        } else if (timeout > 0) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            do {
+                LockSupport.parkNanos(BACKOFF_NANOS);
+                if (Thread.currentThread().isInterrupted()) {
+                    return false;
+                } else if (queue.offer(newEvent)) {
+                    signal();
+                    return true;
+                }
+            } while (System.nanoTime() < deadline);
         }
+        return false;
     }
 
     public void stop() {
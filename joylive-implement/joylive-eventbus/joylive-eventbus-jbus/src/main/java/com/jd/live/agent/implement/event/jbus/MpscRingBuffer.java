@@ -0,0 +1,203 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.event.jbus;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, array-backed multi-producer/single-consumer ring buffer.
+ * <p>
+ * Every slot carries a sequence number in the style of Vyukov's bounded queue. A producer claims a slot
+ * by advancing the tail with a CAS and publishes it by writing the sequence of the slot, so an offer
+ * neither locks nor allocates. The head is advanced by a CAS as well, which lets a producer evict the
+ * oldest element in {@link #overwrite(Object)} while the consumer keeps draining.
+ *
+ * @param <E> the type of the elements.
+ * @since 1.6.0
+ */
+public class MpscRingBuffer<E> {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> buffer;
+
+    private final AtomicLongArray sequences;
+
+    private final Sequence tail = new Sequence();
+
+    private final Sequence head = new Sequence();
+
+    /**
+     * Creates a ring buffer whose capacity is the given capacity rounded up to a power of two.
+     *
+     * @param capacity the minimum capacity.
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive.");
+        }
+        this.capacity = capacity >= MAX_CAPACITY ? MAX_CAPACITY : ceiling(capacity);
+        this.mask = this.capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Inserts the element if the buffer is not full.
+     *
+     * @param e the element.
+     * @return true if the element is inserted, false if the buffer is full.
+     */
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        long t;
+        int index;
+        long diff;
+        while (true) {
+            t = tail.get();
+            index = (int) t & mask;
+            diff = sequences.get(index) - t;
+            if (diff == 0) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    buffer.lazySet(index, e);
+                    sequences.lazySet(index, t + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                // the slot is not released by the consumer yet.
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Inserts the element, evicting the oldest elements while the buffer is full.
+     *
+     * @param e the element.
+     * @return the number of the evicted elements.
+     */
+    public int overwrite(E e) {
+        int evicted = 0;
+        while (!offer(e)) {
+            if (poll() != null) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Removes the oldest published element.
+     *
+     * @return the element, or null if the buffer is empty or the oldest slot is not published yet.
+     */
+    public E poll() {
+        long h;
+        int index;
+        long diff;
+        while (true) {
+            h = head.get();
+            index = (int) h & mask;
+            diff = sequences.get(index) - (h + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(h, h + 1)) {
+                    E e = buffer.get(index);
+                    buffer.lazySet(index, null);
+                    sequences.lazySet(index, h + capacity);
+                    return e;
+                }
+            } else if (diff < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Removes at most the given number of published elements in order and adds them to the collection.
+     *
+     * @param c   the collection.
+     * @param max the maximum number of elements to drain.
+     * @return the number of the drained elements.
+     */
+    public int drainTo(Collection<? super E> c, int max) {
+        int count = 0;
+        E e;
+        while (count < max && (e = poll()) != null) {
+            c.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether no slot is claimed. A claimed slot may still be waiting to be published.
+     *
+     * @return true if the buffer is empty.
+     */
+    public boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+
+    /**
+     * Returns the approximate number of the claimed slots.
+     *
+     * @return the size.
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return size <= 0 ? 0 : (int) Math.min(size, capacity);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Discards all published elements.
+     */
+    public void clear() {
+        while (poll() != null) {
+            // discard
+        }
+    }
+
+    private static int ceiling(int capacity) {
+        int highest = Integer.highestOneBit(capacity);
+        return highest == capacity ? capacity : highest << 1;
+    }
+
+    /**
+     * A sequence padded to its own cache line, so that the producers and the consumer do not contend on it.
+     */
+    @SuppressWarnings("unused")
+    private static class Sequence extends AtomicLong {
+
+        private long p1, p2, p3, p4, p5, p6, p7;
+
+    }
+}
@@ -47,4 +47,9 @@ public class Resilience4jConcurrencyLimiter extends AbstractConcurrencyLimiter {
     public boolean doAcquire() {
         return bulkhead.tryAcquirePermission();
     }
+
+    @Override
+    public void release(long elapsed, boolean succeeded) {
+        bulkhead.onComplete();
+    }
 }
@@ -33,6 +33,7 @@ import com.jd.live.agent.governance.service.sync.SyncResponse;
 import com.jd.live.agent.governance.service.sync.api.ApiResponse;
 import com.jd.live.agent.governance.service.sync.api.ApiResult;
 import com.jd.live.agent.governance.service.sync.http.AbstractServiceHttpSyncer;
+import com.jd.live.agent.governance.service.sync.http.HttpValidator;
 import com.jd.live.agent.implement.service.policy.multilive.config.LiveSyncConfig;
 
 import java.io.IOException;
@@ -70,9 +71,10 @@ public class LiveServiceHttpSyncer extends AbstractServiceHttpSyncer<ServiceKey>
     }
 
     @Override
-    protected SyncResponse<Service> getResponse(SyncConfig config, String uri) throws IOException {
+    protected SyncResponse<Service> getResponse(SyncConfig config, String uri, HttpValidator validator) throws IOException {
         HttpResponse<ApiResponse<ApiResult<Service>>> response = HttpUtils.get(uri,
-                conn -> configure(config, conn),
+                conn -> configure(config, uri, validator, conn),
+                (status, conn) -> validator.update(uri, status, conn),
                 reader -> jsonParser.read(reader, new TypeReference<ApiResponse<ApiResult<Service>>>() {
                 }));
         return ApiResponse.from(response).asSyncResponse(ApiResult::asSyncResponse);
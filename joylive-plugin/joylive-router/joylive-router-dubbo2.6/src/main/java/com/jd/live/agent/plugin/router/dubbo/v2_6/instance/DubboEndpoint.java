@@ -51,6 +51,11 @@ public class DubboEndpoint<T> extends AbstractEndpoint {
         return invoker;
     }
 
+    @Override
+    public Object getOrigin() {
+        return invoker;
+    }
+
     @Override
     public String getHost() {
         return url.getHost();
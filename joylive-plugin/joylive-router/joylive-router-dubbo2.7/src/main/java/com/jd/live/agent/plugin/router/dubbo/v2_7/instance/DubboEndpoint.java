@@ -50,6 +50,11 @@ public class DubboEndpoint<T> extends AbstractEndpoint {
         return invoker;
     }
 
+    @Override
+    public Object getOrigin() {
+        return invoker;
+    }
+
     @Override
     public String getHost() {
         return url.getHost();
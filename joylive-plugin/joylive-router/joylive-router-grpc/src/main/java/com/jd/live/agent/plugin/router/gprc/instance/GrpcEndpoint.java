@@ -25,6 +25,11 @@ public class GrpcEndpoint extends AbstractEndpoint {
         this.address = subchannel.getAddress();
     }
 
+    @Override
+    public Object getOrigin() {
+        return subchannel;
+    }
+
     @Override
     public String getHost() {
         if (address != null) {
@@ -53,6 +53,11 @@ public class SofaRpcEndpoint extends AbstractEndpoint {
         return provider;
     }
 
+    @Override
+    public Object getOrigin() {
+        return provider;
+    }
+
     @Override
     public String getHost() {
         return provider.getHost();
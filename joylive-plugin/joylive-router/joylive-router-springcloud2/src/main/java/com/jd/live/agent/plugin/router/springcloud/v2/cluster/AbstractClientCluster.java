@@ -104,13 +104,7 @@ public abstract class AbstractClientCluster<
         } else {
             Mono<List<ServiceInstance>> mono = supplier.get().next();
             mono.subscribe(
-                    v -> {
-                        List<SpringEndpoint> endpoints = new ArrayList<>();
-                        if (v != null) {
-                            v.forEach(i -> endpoints.add(new SpringEndpoint(i)));
-                        }
-                        future.complete(endpoints);
-                    },
+                    v -> future.complete(SpringEndpoint.of(supplier, v)),
                     future::completeExceptionally
             );
         }
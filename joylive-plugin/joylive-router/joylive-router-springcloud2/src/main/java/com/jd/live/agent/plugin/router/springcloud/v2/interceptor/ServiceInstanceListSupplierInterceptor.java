@@ -21,7 +21,6 @@ import com.jd.live.agent.bootstrap.bytekit.context.MethodContext;
 import com.jd.live.agent.bootstrap.logger.Logger;
 import com.jd.live.agent.bootstrap.logger.LoggerFactory;
 import com.jd.live.agent.core.plugin.definition.InterceptorAdaptor;
-import com.jd.live.agent.core.util.CollectionUtils;
 import com.jd.live.agent.governance.context.RequestContext;
 import com.jd.live.agent.governance.context.bag.Carrier;
 import com.jd.live.agent.governance.invoke.InvocationContext;
@@ -107,7 +106,7 @@ public class ServiceInstanceListSupplierInterceptor extends InterceptorAdaptor {
             Flux<List<ServiceInstance>> flux = (Flux<List<ServiceInstance>>) result;
             OutboundInvocation<HttpOutboundRequest> invocation = buildInvocation();
             if (invocation != null) {
-                mc.setResult(flux.map(instances -> route(invocation, instances)));
+                mc.setResult(flux.map(instances -> route(invocation, ctx.getTarget(), instances)));
             }
         }
     }
@@ -116,12 +115,13 @@ public class ServiceInstanceListSupplierInterceptor extends InterceptorAdaptor {
      * Routes the given outbound invocation to a service instance.
      *
      * @param invocation The outbound invocation to route.
+     * @param supplier   The supplier of the service instances.
      * @param instances  The list of service instances to choose from.
      * @return A list containing the selected service instance.
      */
-    private List<ServiceInstance> route(OutboundInvocation<HttpOutboundRequest> invocation, List<ServiceInstance> instances) {
+    private List<ServiceInstance> route(OutboundInvocation<HttpOutboundRequest> invocation, Object supplier, List<ServiceInstance> instances) {
         try {
-            invocation.setInstances(CollectionUtils.convert(instances, SpringEndpoint::new));
+            invocation.setInstances(SpringEndpoint.of(supplier, instances));
             SpringEndpoint endpoint = context.route(invocation);
             return Collections.singletonList(endpoint.getInstance());
         } catch (Throwable e) {
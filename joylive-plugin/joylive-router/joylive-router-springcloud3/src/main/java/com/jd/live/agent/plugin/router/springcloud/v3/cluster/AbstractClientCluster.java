@@ -97,13 +97,7 @@ public abstract class AbstractClientCluster<
         } else {
             Mono<List<ServiceInstance>> mono = supplier.get(request.getLbRequest()).next();
             mono.subscribe(
-                    v -> {
-                        List<SpringEndpoint> endpoints = new ArrayList<>();
-                        if (v != null) {
-                            v.forEach(i -> endpoints.add(new SpringEndpoint(i)));
-                        }
-                        future.complete(endpoints);
-                    },
+                    v -> future.complete(SpringEndpoint.of(supplier, v)),
                     future::completeExceptionally
             );
         }
@@ -16,17 +16,22 @@
 package com.jd.live.agent.plugin.router.springcloud.v4.instance;
 
 import com.jd.live.agent.governance.instance.AbstractEndpoint;
+import com.jd.live.agent.governance.instance.EndpointCache;
 import com.jd.live.agent.governance.instance.EndpointState;
 import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.loadbalancer.DefaultResponse;
 import org.springframework.cloud.client.loadbalancer.Response;
 
+import java.util.List;
+
 public class SpringEndpoint extends AbstractEndpoint {
 
     private static final String STATE_HANGUP = "hangup";
     private static final String STATE_SUSPEND = "suspend";
     private static final String LABEL_STATE = "state";
 
+    private static final EndpointCache<ServiceInstance, SpringEndpoint> ENDPOINTS = new EndpointCache<>(SpringEndpoint::new);
+
     private final ServiceInstance instance;
 
     private final Response<ServiceInstance> response;
@@ -42,6 +47,11 @@ public class SpringEndpoint extends AbstractEndpoint {
         return result != null ? result : getAddress();
     }
 
+    @Override
+    public Object getOrigin() {
+        return instance;
+    }
+
     @Override
     public String getHost() {
         return instance.getHost();
@@ -75,4 +85,15 @@ public class SpringEndpoint extends AbstractEndpoint {
     public Response<ServiceInstance> getResponse() {
         return response;
     }
+
+    /**
+     * Returns the endpoints of the instances, which are reused as long as the supplier returns the same instances.
+     *
+     * @param supplier  the supplier of the instances
+     * @param instances the instances
+     * @return a new mutable list of the endpoints
+     */
+    public static List<SpringEndpoint> of(Object supplier, List<ServiceInstance> instances) {
+        return ENDPOINTS.getEndpoints(supplier, instances);
+    }
 }
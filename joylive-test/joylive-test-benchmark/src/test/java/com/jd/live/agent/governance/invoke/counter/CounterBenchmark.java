@@ -0,0 +1,74 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.counter;
+
+import com.jd.live.agent.governance.config.CounterConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the atomic counter with the striped counter under contention.
+ * <p>
+ * Run {@link #main(String[])} to measure 1 to 64 threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CounterBenchmark {
+
+    @Param({"atomic", "striped", "striped-histogram"})
+    private String mode;
+
+    private Counter counter;
+
+    @Setup
+    public void setup() {
+        CounterConfig config = new CounterConfig();
+        config.setStriped(!"atomic".equals(mode));
+        config.setHistogram("striped-histogram".equals(mode));
+        counter = new Counter(null, config);
+    }
+
+    @Benchmark
+    public void end() {
+        counter.begin(0);
+        counter.end(ThreadLocalRandom.current().nextInt(200), true);
+    }
+
+    @Benchmark
+    public long estimate() {
+        return counter.getSnapshot().getEstimateResponse();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 4, 16, 64}) {
+            Options options = new OptionsBuilder()
+                    .include(CounterBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
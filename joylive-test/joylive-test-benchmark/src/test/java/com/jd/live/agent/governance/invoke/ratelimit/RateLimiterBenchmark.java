@@ -0,0 +1,70 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.governance.invoke.ratelimit;
+
+import com.jd.live.agent.governance.invoke.ratelimit.tokenbucket.AtomicBurstyLimiter;
+import com.jd.live.agent.governance.invoke.ratelimit.tokenbucket.SmoothBurstyLimiter;
+import com.jd.live.agent.governance.policy.service.limit.RateLimitPolicy;
+import com.jd.live.agent.governance.policy.service.limit.SlidingWindow;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the synchronized token bucket with the lock-free one under contention.
+ * <p>
+ * The rate is high enough that most acquisitions succeed, so the cost of the state update is measured
+ * instead of the rejection path. Run {@link #main(String[])} to measure 1 to 64 threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    @Param({"synchronized", "atomic"})
+    private String mode;
+
+    private RateLimiter limiter;
+
+    @Setup
+    public void setup() {
+        RateLimitPolicy policy = new RateLimitPolicy("benchmark");
+        SlidingWindow window = new SlidingWindow(100_000_000, 1000L);
+        limiter = "atomic".equals(mode) ? new AtomicBurstyLimiter(policy, window) : new SmoothBurstyLimiter(policy, window);
+    }
+
+    @Benchmark
+    public boolean acquire() {
+        return limiter.acquire();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 4, 16, 64}) {
+            Options options = new OptionsBuilder()
+                    .include(RateLimiterBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
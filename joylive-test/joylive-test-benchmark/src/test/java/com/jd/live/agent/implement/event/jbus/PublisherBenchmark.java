@@ -0,0 +1,154 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.event.jbus;
+
+import com.jd.live.agent.core.event.Publisher;
+import com.jd.live.agent.core.event.config.PublisherConfig;
+import com.jd.live.agent.core.instance.Application;
+import com.jd.live.agent.implement.event.disruptor.DisruptorPublisher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the sustained offer throughput of the ring buffer with the linked blocking queue and the disruptor,
+ * while a consumer thread keeps draining in batches.
+ * <p>
+ * {@code ring} and {@code linked} measure the bare queues, {@code jbus} and {@code disruptor} measure the
+ * publishers including the event wrapping. Run {@link #main(String[])} to measure 1 to 16 producers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class PublisherBenchmark {
+
+    private static final int CAPACITY = 1 << 16;
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"ring", "linked", "jbus", "disruptor"})
+    private String mode;
+
+    private MpscRingBuffer<Object> ring;
+
+    private BlockingQueue<Object> linked;
+
+    private Publisher<Object> publisher;
+
+    private Thread consumer;
+
+    private volatile boolean running;
+
+    private final Object payload = new Object();
+
+    @Setup
+    public void setup() {
+        running = true;
+        switch (mode) {
+            case "ring":
+                ring = new MpscRingBuffer<>(CAPACITY);
+                consumer = new Thread(() -> {
+                    List<Object> events = new ArrayList<>(BATCH_SIZE);
+                    while (running) {
+                        events.clear();
+                        if (ring.drainTo(events, BATCH_SIZE) == 0) {
+                            Thread.yield();
+                        }
+                    }
+                }, "ring-consumer");
+                consumer.start();
+                break;
+            case "linked":
+                linked = new LinkedBlockingQueue<>(CAPACITY);
+                consumer = new Thread(() -> {
+                    List<Object> events = new ArrayList<>(BATCH_SIZE);
+                    while (running) {
+                        events.clear();
+                        if (linked.drainTo(events, BATCH_SIZE) == 0) {
+                            Thread.yield();
+                        }
+                    }
+                }, "linked-consumer");
+                consumer.start();
+                break;
+            case "disruptor":
+                publisher = new DisruptorPublisher<>("benchmark", new Application(), new PublisherConfig(CAPACITY, 0));
+                publisher.addHandler(events -> {
+                });
+                break;
+            default:
+                publisher = new JPublisher<>("benchmark", new Application(), new PublisherConfig(CAPACITY, 0));
+                publisher.addHandler(events -> {
+                });
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        running = false;
+        if (consumer != null) {
+            consumer.join();
+        }
+        if (publisher instanceof JPublisher) {
+            ((JPublisher<Object>) publisher).stop();
+        } else if (publisher instanceof DisruptorPublisher) {
+            ((DisruptorPublisher<Object>) publisher).stop();
+        }
+    }
+
+    /**
+     * Offers an event, yielding while the queue is full, so the score is the sustained throughput
+     * rather than the rate of the rejected offers.
+     */
+    @Benchmark
+    public void offer() {
+        while (!tryOffer()) {
+            Thread.yield();
+        }
+    }
+
+    private boolean tryOffer() {
+        switch (mode) {
+            case "ring":
+                return ring.offer(payload);
+            case "linked":
+                return linked.offer(payload);
+            default:
+                return publisher.tryOffer(payload);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 4, 16}) {
+            Options options = new OptionsBuilder()
+                    .include(PublisherBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.bytekit.bytebuddy.advice;
+
+import com.jd.live.agent.bootstrap.bytekit.advice.AdviceDesc;
+import com.jd.live.agent.bootstrap.bytekit.advice.AdviceHandler;
+import com.jd.live.agent.bootstrap.bytekit.advice.AdviceKey;
+import com.jd.live.agent.bootstrap.bytekit.context.ExecutableContext;
+import com.jd.live.agent.bootstrap.bytekit.context.MethodContext;
+import com.jd.live.agent.bootstrap.bytekit.context.MethodContextPool;
+import com.jd.live.agent.bootstrap.bytekit.context.OriginStack;
+import com.jd.live.agent.bootstrap.plugin.definition.Interceptor;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.asm.AsmVisitorWrapper;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+
+/**
+ * Measures the overhead of an advised method with one interceptor, comparing the dispatch by the advice key
+ * computed on every call with the dispatch by the slot woven as a constant, and the dispatch by the slot with the
+ * pooled contexts.
+ * <p>
+ * Run {@link #main(String[])} to measure, add {@code -prof gc} to the options to see the allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AdviceDispatchBenchmark {
+
+    @Param({"plain", "key", "slot", "pooled"})
+    private String mode;
+
+    private Greeter greeter;
+
+    @Setup
+    public void setup() throws Exception {
+        String name = Greeting.class.getName() + "$" + mode;
+        AsmVisitorWrapper advice;
+        switch (mode) {
+            case "key":
+                advice = Advice.to(KeyedMethodAdvice.class).on(named("greet"));
+                break;
+            case "pooled":
+            case "slot":
+                MethodContextPool.setEnabled("pooled".equals(mode));
+                AdviceDesc desc = AdviceHandler.getOrCreate(name);
+                desc.add(new NoopInterceptor());
+                advice = Advice.withCustomMapping().bind(AdviceSlot.class, desc.getSlot())
+                        .to(MemberMethodAdvice.class).on(named("greet"));
+                break;
+            default:
+                advice = null;
+        }
+        Class<?> type = advice == null ? Greeting.class : new ByteBuddy()
+                .redefine(Greeting.class)
+                .name(name)
+                .visit(advice)
+                .make()
+                .load(Greeting.class.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+        if ("key".equals(mode)) {
+            String desc = name + "#greet(java.lang.String)";
+            AdviceHandler.getOrCreate(AdviceKey.getMethodKey(desc, type.getClassLoader())).add(new NoopInterceptor());
+        }
+        greeter = (Greeter) type.getConstructor().newInstance();
+        NoopInterceptor.counter = 0;
+        greeter.greet("joylive");
+        if (advice != null && NoopInterceptor.counter != 1) {
+            throw new IllegalStateException("The interceptor is not called in mode " + mode);
+        }
+    }
+
+    @Benchmark
+    public String greet() {
+        return greeter.greet("joylive");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AdviceDispatchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    public interface Greeter {
+
+        String greet(String name);
+    }
+
+    public static class Greeting implements Greeter {
+
+        @Override
+        public String greet(String name) {
+            return name;
+        }
+    }
+
+    public static class NoopInterceptor implements Interceptor {
+
+        private static volatile int counter;
+
+        /**
+         * Lets the context escape as it does with the real interceptors, which are not inlined.
+         */
+        private static volatile ExecutableContext last;
+
+        @Override
+        public void onEnter(ExecutableContext ctx) {
+            counter++;
+            last = ctx;
+        }
+
+        @Override
+        public void onSuccess(ExecutableContext ctx) {
+        }
+
+        @Override
+        public void onError(ExecutableContext ctx) {
+        }
+
+        @Override
+        public void onExit(ExecutableContext ctx) {
+        }
+    }
+
+    /**
+     * The previous advice, which computes the advice key on every call.
+     */
+    public static class KeyedMethodAdvice {
+
+        @Advice.OnMethodEnter(skipOn = Advice.OnNonDefaultValue.class)
+        public static boolean onEnter(@Advice.Origin Class<?> type,
+                                      @Advice.This(typing = Assigner.Typing.DYNAMIC) Object target,
+                                      @Advice.Origin Method method,
+                                      @Advice.Origin("#t\\##m#s") String methodDesc,
+                                      @Advice.AllArguments(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object[] arguments,
+                                      @Advice.Local(value = "_ADVICE_KEY_$JOYLIVE_LOCAL") String adviceKey,
+                                      @Advice.Local(value = "_EXECUTABLE_CONTEXT_$JOYLIVE_LOCAL") Object context
+        ) throws Throwable {
+            boolean origin = OriginStack.tryPop(target, method);
+            MethodContext mc = new MethodContext(type, target, method, arguments, methodDesc, origin);
+            adviceKey = origin ? null : AdviceKey.getMethodKey(methodDesc, type.getClassLoader());
+            context = mc;
+            if (!origin) {
+                AdviceHandler.onEnter(mc, adviceKey);
+                arguments = mc.getArguments();
+                return mc.isSkip();
+            }
+            return false;
+        }
+
+        @Advice.OnMethodExit(onThrowable = Throwable.class)
+        public static void onExit(@Advice.Return(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object result,
+                                  @Advice.Thrown(readOnly = false) Throwable throwable,
+                                  @Advice.Local(value = "_ADVICE_KEY_$JOYLIVE_LOCAL") String adviceKey,
+                                  @Advice.Local(value = "_EXECUTABLE_CONTEXT_$JOYLIVE_LOCAL") Object context
+        ) throws Throwable {
+            MethodContext mc = (MethodContext) context;
+            if (mc.isOrigin()) {
+                return;
+            }
+            if (!mc.isSkip()) {
+                mc.setResult(result);
+                mc.setThrowable(throwable);
+            }
+            AdviceHandler.onExit(mc, adviceKey);
+            if (result != mc.getResult()) {
+                result = mc.getResult();
+            }
+            if (throwable != mc.getThrowable()) {
+                throwable = mc.getThrowable();
+            }
+        }
+    }
+}
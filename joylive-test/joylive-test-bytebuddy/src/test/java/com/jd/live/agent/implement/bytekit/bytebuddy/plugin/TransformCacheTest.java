@@ -0,0 +1,122 @@
+/*
+ * Copyright © ${year} ${owner} (${email})
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jd.live.agent.implement.bytekit.bytebuddy.plugin;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+public class TransformCacheTest {
+
+    private static final String NAME = "com/jd/live/agent/demo/Foo";
+
+    private static final String JAVA_VERSION = "1.8.0_402";
+
+    @TempDir
+    File root;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        List<File> sources = Collections.singletonList(jar("plugin.jar", 10));
+        TransformCache cache = TransformCache.open(root, sources, JAVA_VERSION);
+        Assertions.assertNotNull(cache);
+        Assertions.assertFalse(cache.contains(NAME));
+        byte[] bytes = new byte[]{1, 2, 3};
+        String key = cache.getKey("scope", getClass().getClassLoader(), NAME, bytes);
+        Assertions.assertNull(cache.get(NAME, key));
+        cache.put(NAME, key, new int[]{3, 5}, new byte[]{4, 5, 6, 7});
+
+        TransformCache reopened = TransformCache.open(root, sources, JAVA_VERSION);
+        Assertions.assertNotNull(reopened);
+        Assertions.assertEquals(1, reopened.size());
+        Assertions.assertTrue(reopened.contains(NAME));
+        Assertions.assertFalse(reopened.contains("com/jd/live/agent/demo/Bar"));
+        TransformCache.Entry entry = reopened.get(NAME, key);
+        Assertions.assertNotNull(entry);
+        Assertions.assertArrayEquals(new int[]{3, 5}, entry.getSlots());
+        Assertions.assertArrayEquals(new byte[]{4, 5, 6, 7}, entry.getBytes());
+        Assertions.assertEquals(1, reopened.getHits());
+        // the same class with other bytes
+        String other = reopened.getKey("scope", getClass().getClassLoader(), NAME, new byte[]{1, 2});
+        Assertions.assertNull(reopened.get(NAME, other));
+        Assertions.assertEquals(1, reopened.getMisses());
+    }
+
+    @Test
+    void testInvalidation() throws IOException {
+        File jar = jar("plugin.jar", 10);
+        List<File> sources = Collections.singletonList(jar);
+        put(TransformCache.open(root, sources, JAVA_VERSION));
+        Assertions.assertEquals(1, TransformCache.open(root, sources, JAVA_VERSION).size());
+
+        // size of the jar
+        Files.write(jar.toPath(), new byte[20]);
+        Assertions.assertTrue(jar.setLastModified(1000000L));
+        TransformCache cache = TransformCache.open(root, sources, JAVA_VERSION);
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertFalse(cache.contains(NAME));
+        put(cache);
+
+        // modified time of the jar
+        Assertions.assertTrue(jar.setLastModified(2000000L));
+        cache = TransformCache.open(root, sources, JAVA_VERSION);
+        Assertions.assertEquals(0, cache.size());
+        put(cache);
+
+        // java version
+        cache = TransformCache.open(root, sources, "17.0.10");
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertFalse(cache.contains(NAME));
+    }
+
+    @Test
+    void testCleanup() throws IOException {
+        File jar = jar("plugin.jar", 10);
+        List<File> sources = Collections.singletonList(jar);
+        put(TransformCache.open(root, sources, JAVA_VERSION));
+        File[] olds = root.listFiles(File::isDirectory);
+        Assertions.assertNotNull(olds);
+        Assertions.assertEquals(1, olds.length);
+
+        Files.write(jar.toPath(), new byte[20]);
+        put(TransformCache.open(root, sources, JAVA_VERSION));
+        File[] news = root.listFiles(File::isDirectory);
+        Assertions.assertNotNull(news);
+        Assertions.assertEquals(1, news.length);
+        Assertions.assertNotEquals(olds[0].getName(), news[0].getName());
+        Assertions.assertFalse(olds[0].exists());
+    }
+
+    private File jar(String name, int size) throws IOException {
+        File result = new File(root.getParentFile(), root.getName() + "-" + name);
+        Files.write(result.toPath(), new byte[size]);
+        result.deleteOnExit();
+        return result;
+    }
+
+    private void put(TransformCache cache) {
+        Assertions.assertNotNull(cache);
+        byte[] bytes = new byte[]{1, 2, 3};
+        cache.put(NAME, cache.getKey("scope", null, NAME, bytes), new int[]{1}, bytes);
+    }
+
+}
@@ -15,13 +15,23 @@
  */
 package com.jd.live.agent.core.extension.test;
 
+import com.jd.live.agent.bootstrap.classloader.LiveClassLoader;
+import com.jd.live.agent.bootstrap.classloader.ResourcerType;
 import com.jd.live.agent.core.extension.ExtensibleDesc;
 import com.jd.live.agent.core.extension.ExtensionManager;
 import com.jd.live.agent.core.extension.api.Byter;
+import com.jd.live.agent.core.extension.byter.ByterOne;
 import com.jd.live.agent.core.extension.byter.ByterTwo;
+import com.jd.live.agent.core.extension.jplug.ExtensionCatalog;
 import com.jd.live.agent.core.extension.jplug.JExtensionManager;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.*;
 
 /**
  * ExtensionManagerTest
@@ -61,4 +71,34 @@ public class ExtensionManagerTest {
         Assertions.assertEquals(byteOne, byteOneByProvider);
         Assertions.assertEquals(byteOne, byteOneByType);
     }
+
+    @Test
+    public void testIndex() throws Exception {
+        URL root = Byter.class.getProtectionDomain().getCodeSource().getLocation();
+        String resource = "META-INF/services/" + Byter.class.getName();
+        try (LiveClassLoader loader = new LiveClassLoader(new URL[]{root}, null, ResourcerType.PLUGIN, null)) {
+            URL url = loader.getResource(resource);
+            Collection<String> providers = new ExtensionCatalog(true).getProviders(loader, url, resource, Byter.class);
+            Assertions.assertNotNull(providers);
+            Assertions.assertEquals(Arrays.asList(ByterOne.class.getName(), ByterTwo.class.getName()), new ArrayList<>(providers));
+        }
+    }
+
+    @Test
+    public void testUnindexed(@TempDir File dir) throws Exception {
+        String resource = "META-INF/services/" + Byter.class.getName();
+        File file = new File(dir, resource);
+        Assertions.assertTrue(file.getParentFile().mkdirs());
+        Files.write(file.toPath(), Collections.singletonList("com.jd.live.agent.core.extension.byter.ByterThree"));
+        URL root = Byter.class.getProtectionDomain().getCodeSource().getLocation();
+        URL other = dir.toURI().toURL();
+        try (LiveClassLoader loader = new LiveClassLoader(new URL[]{root, other}, null, ResourcerType.PLUGIN, null)) {
+            ExtensionCatalog catalog = new ExtensionCatalog(true);
+            List<URL> urls = Collections.list(loader.getResources(resource));
+            Assertions.assertEquals(2, urls.size());
+            Assertions.assertNotNull(catalog.getProviders(loader, urls.get(0), resource, Byter.class));
+            // the jar without the index is still read.
+            Assertions.assertNull(catalog.getProviders(loader, urls.get(1), resource, Byter.class));
+        }
+    }
 }